@@ -30,6 +30,42 @@ else
     log "✔ Existing database file found at $STORAGE_PATH."
 fi
 
+# Spring AOT evaluates @ConditionalOnProperty at build time, with the defaults in
+# application.properties, so its bean definitions leave every opt-in mode
+# (players.*.enabled, players.replication.role, ...) off. Use them only when no
+# runtime configuration could switch one of those modes on.
+has_runtime_overrides() {
+    if env | grep -q '^PLAYERS_'; then
+        return 0
+    fi
+    if [ -n "$SPRING_CONFIG_LOCATION" ] || [ -n "$SPRING_CONFIG_ADDITIONAL_LOCATION" ]; then
+        return 0
+    fi
+    case "$SPRING_APPLICATION_JSON" in
+        *players*) return 0 ;;
+    esac
+    case " $JDK_JAVA_OPTIONS $JAVA_TOOL_OPTIONS $* " in
+        *" -Dplayers."*|*" --players."*) return 0 ;;
+    esac
+    return 1
+}
+
+case " $JDK_JAVA_OPTIONS $* " in
+    *" -Dspring.aot.enabled="*)
+        log "✔ Spring AOT set explicitly."
+        ;;
+    *)
+        if [ "$SPRING_AOT" != "true" ]; then
+            log "✔ Spring AOT disabled."
+        elif has_runtime_overrides "$@"; then
+            log "⚠️ players.* configured at runtime, starting without Spring AOT so opt-in modes apply."
+        else
+            export JDK_JAVA_OPTIONS="${JDK_JAVA_OPTIONS:+$JDK_JAVA_OPTIONS }-Dspring.aot.enabled=true"
+            log "✔ Spring AOT enabled."
+        fi
+        ;;
+esac
+
 log "✔ Ready!"
 log "🚀 Launching app..."
 log "🔌 API endpoints   | http://localhost:9000"
@@ -0,0 +1,82 @@
+#!/bin/sh
+set -e
+
+# Startup benchmark: time from `docker run` to the first successful GET /players,
+# comparing the plain JVM start with Spring AOT and the JDK AOT cache.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#   IMAGE=<name>   image to benchmark (default: java-samples-spring-boot:startup-benchmark)
+#   SKIP_BUILD=1   reuse an existing image instead of building it
+#
+# Every run starts a fresh container with an empty database, so Flyway
+# migrations are part of the measured startup in all modes.
+
+RUNS="${1:-5}"
+IMAGE="${IMAGE:-java-samples-spring-boot:startup-benchmark}"
+PORT="${PORT:-19000}"
+TIMEOUT_SECONDS=120
+
+# Helper function for formatted logging
+log() {
+    echo "[BENCHMARK] $(date '+%Y/%m/%d - %H:%M:%S') | $1"
+    return 0
+}
+
+now_ms() {
+    # GNU date; falls back to python3 where %N is not supported (e.g.: macOS)
+    if date +%s%N | grep -qv N; then
+        echo $(($(date +%s%N) / 1000000))
+    else
+        python3 -c 'import time; print(int(time.time() * 1000))'
+    fi
+}
+
+# Starts a container with the given JDK_JAVA_OPTIONS and prints the
+# milliseconds until GET /players first answers 200. SPRING_AOT=false keeps the
+# entrypoint from enabling Spring AOT on its own, so each mode is exactly the
+# options given. Failures go to stderr, as stdout is captured by the caller.
+measure() {
+    start=$(now_ms)
+    container=$(docker run --detach --rm \
+        --publish "$PORT:9000" \
+        --env STORAGE_PATH=/storage/players-sqlite3.db \
+        --env JDK_JAVA_OPTIONS="$1" \
+        --env SPRING_AOT=false \
+        "$IMAGE")
+    deadline=$((start + TIMEOUT_SECONDS * 1000))
+    until curl --silent --fail --output /dev/null "http://localhost:$PORT/players"; do
+        if [ "$(now_ms)" -gt "$deadline" ]; then
+            docker stop "$container" > /dev/null
+            log "❌ No successful GET /players within ${TIMEOUT_SECONDS}s" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    end=$(now_ms)
+    docker stop "$container" > /dev/null
+    echo $((end - start))
+}
+
+# Runs one mode RUNS times and prints its individual and median times.
+benchmark() {
+    name="$1"
+    options="$2"
+    times=""
+    run=1
+    while [ "$run" -le "$RUNS" ]; do
+        times="$times $(measure "$options")"
+        run=$((run + 1))
+    done
+    median=$(echo "$times" | tr ' ' '\n' | grep -v '^$' | sort -n | awk '{ a[NR] = $1 } END { print a[int((NR + 1) / 2)] }')
+    printf '%-28s median %6s ms  (runs:%s)\n' "$name" "$median" "$times"
+}
+
+if [ -z "$SKIP_BUILD" ]; then
+    log "🔨 Building $IMAGE (Spring AOT + JDK AOT cache)..."
+    docker build --quiet --tag "$IMAGE" . > /dev/null
+fi
+
+log "⏱️ Measuring time to first successful GET /players ($RUNS runs per mode)..."
+benchmark "JIT (no AOT)" ""
+benchmark "Spring AOT" "-Dspring.aot.enabled=true"
+benchmark "Spring AOT + JDK AOT cache" "-XX:AOTCache=app.aot -Dspring.aot.enabled=true"
@@ -1,11 +1,16 @@
 package ar.com.nanotaboada.java.samples.spring.boot;
 
+import org.modelmapper.Converter;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 
+import ar.com.nanotaboada.java.samples.spring.boot.converters.StringDictionary;
+import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+
 /**
  * A configuration class that declares one or more Bean methods and also
  * triggers auto-configuration and component scanning.
@@ -14,9 +19,22 @@ import org.springframework.context.annotation.Bean;
 @EnableCaching
 public class Application {
 
+    /**
+     * Maps between {@link Player} and {@link PlayerDTO}. Position, team and league values read from the database
+     * come out as {@link StringDictionary} instances, so mapped and cached players share them. Request bodies are
+     * mapped as given: only stored values enter the dictionary, so clients cannot fill it.
+     */
     @Bean
     ModelMapper modelMapper() {
-        return new ModelMapper();
+        ModelMapper modelMapper = new ModelMapper();
+        Converter<String, String> canonical = context -> StringDictionary.canonical(context.getSource());
+        modelMapper.typeMap(Player.class, PlayerDTO.class).addMappings(mapper -> {
+            mapper.using(canonical).map(Player::getPosition, PlayerDTO::setPosition);
+            mapper.using(canonical).map(Player::getAbbrPosition, PlayerDTO::setAbbrPosition);
+            mapper.using(canonical).map(Player::getTeam, PlayerDTO::setTeam);
+            mapper.using(canonical).map(Player::getLeague, PlayerDTO::setLeague);
+        });
+        return modelMapper;
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,200 @@
+package ar.com.nanotaboada.java.samples.spring.boot.caches;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.events.RosterStaleEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the {@code players} cache, and everything else derived from change events, of every instance consistent
+ * with writes made on the others.
+ * <p>
+ * Locally, a write evicts the whole cache ({@code @CacheEvict(allEntries = true)}). Other instances share the
+ * database but not the cache, so after each committed write this bus broadcasts a {@link PlayerInvalidation} (the
+ * change type, the player's keys and the new roster version) over an {@link InvalidationTransport}, and every other
+ * instance evicts just the entries the write can have changed.
+ * </p>
+ *
+ * <h3>On each message:</h3>
+ * <ul>
+ * <li><b>Targeted keys:</b> The player's entries (by id, {@code squad-} number and their {@code fields-}
+ * projections) are evicted; entries of other players stay cached</li>
+ * <li><b>Roster-wide keys:</b> The full list, list projections and counts are evicted, since any write changes
+ * them</li>
+ * <li><b>Roster version:</b> Each instance tracks the highest version it has seen, from its own writes and from
+ * messages. A message more than one version ahead means messages were lost: the whole cache is cleared and a
+ * {@link RosterStaleEvent} is published. Versions are compared by their difference, so even
+ * {@code Long.MAX_VALUE} cannot overflow the check</li>
+ * <li><b>Local event:</b> The change is republished as a {@link PlayerChangedEvent}, with the player read back from
+ * the shared database, so the key filter, bitmap index, read model and shard directory see it as if it had been
+ * written here. The event is published outside any transaction, so only listeners with {@code fallbackExecution}
+ * receive it; the outbox and the replication log do not record it again, and this bus does not send it back out</li>
+ * <li><b>Own messages:</b> Ignored; the local eviction already happened</li>
+ * </ul>
+ * <p>
+ * With {@code players.outbox.enabled=true}, committed writes are broadcast from the outbox relay
+ * ({@link #broadcast(PlayerChange)}) instead of on the request thread, once they are durably recorded. A relay may
+ * drain changes other instances wrote; their writer then receives its own change back, which is harmless.
+ * </p>
+ *
+ * @see CacheInvalidationConfiguration
+ * @since 4.0.2025
+ */
+@Slf4j
+public class CacheInvalidationBus {
+
+    private static final String CACHE_NAME = "players";
+    private static final long UNKNOWN = -1L;
+    private static final ThreadLocal<Boolean> REPUBLISHING = new ThreadLocal<>();
+
+    private final CacheManager cacheManager;
+    private final PlayersRepository playersRepository;
+    private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InvalidationTransport transport;
+    private final boolean outbox;
+    private final String origin = UUID.randomUUID().toString();
+    private final AtomicLong rosterVersion = new AtomicLong(UNKNOWN);
+
+    public CacheInvalidationBus(CacheManager cacheManager, PlayersRepository playersRepository,
+            ModelMapper modelMapper, ApplicationEventPublisher eventPublisher, InvalidationTransport transport,
+            boolean outbox) {
+        this.cacheManager = cacheManager;
+        this.playersRepository = playersRepository;
+        this.modelMapper = modelMapper;
+        this.eventPublisher = eventPublisher;
+        this.transport = transport;
+        this.outbox = outbox;
+        transport.listen(this::receive);
+    }
+
+    /**
+     * @return whether the current thread is publishing a change received from another instance
+     */
+    public static boolean isRepublishing() {
+        return REPUBLISHING.get() != null;
+    }
+
+    /**
+     * Broadcasts a committed write to the other instances, unless the outbox relay does. Changes this bus
+     * republished from another instance are not sent back out.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        if (isRepublishing()) {
+            return;
+        }
+        rosterVersion.accumulateAndGet(event.version(), Math::max);
+        if (!outbox) {
+            transport.send(new PlayerInvalidation(origin, event.version(), event.type(), event.id(),
+                    event.squadNumber()));
+        }
+    }
+
+    /**
+     * Broadcasts a change drained from the outbox, whose sequence is the roster version it took.
+     *
+     * @param change the change
+     */
+    public void broadcast(PlayerChange change) {
+        rosterVersion.accumulateAndGet(change.sequence(), Math::max);
+        transport.send(new PlayerInvalidation(origin, change.sequence(), change.type(), change.id(),
+                change.squadNumber()));
+    }
+
+    /**
+     * Evicts what a write on another instance can have changed, and republishes the change locally.
+     *
+     * @param invalidation the message
+     */
+    public void receive(PlayerInvalidation invalidation) {
+        if (origin.equals(invalidation.origin())) {
+            return;
+        }
+        long previous = rosterVersion.getAndAccumulate(invalidation.rosterVersion(), Math::max);
+        if (previous != UNKNOWN && invalidation.rosterVersion() - previous > 1) {
+            log.debug("Missed cache invalidations between roster versions {} and {} - clearing the cache", previous,
+                    invalidation.rosterVersion());
+            Cache cache = cacheManager.getCache(CACHE_NAME);
+            if (cache != null) {
+                cache.clear();
+            }
+            eventPublisher.publishEvent(new RosterStaleEvent(previous, invalidation.rosterVersion()));
+            return;
+        }
+        evict(invalidation);
+        republish(invalidation);
+    }
+
+    /**
+     * @return this instance's name on the bus
+     */
+    public String origin() {
+        return origin;
+    }
+
+    private void evict(PlayerInvalidation invalidation) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        if (!(cache.getNativeCache() instanceof ConcurrentMap<?, ?> entries)) {
+            cache.clear();
+            return;
+        }
+        String idProjection = "fields-" + invalidation.id() + "-";
+        String squadProjection = "fields-squad-" + invalidation.squadNumber() + "-";
+        entries.keySet().removeIf(key -> SimpleKey.EMPTY.equals(key)
+                || key instanceof String text && (text.startsWith("fields-[") || text.startsWith("count-")
+                        || text.startsWith(idProjection) || text.startsWith(squadProjection)));
+        cache.evict(invalidation.id());
+        cache.evict("squad-" + invalidation.squadNumber());
+    }
+
+    /**
+     * Publishes the remote change as a local event. Creates and updates carry the player as currently stored, so a
+     * player changed again or deleted meanwhile is published as it is now; if it cannot be read, the roster is
+     * marked stale instead.
+     */
+    private void republish(PlayerInvalidation invalidation) {
+        PlayerChangedEvent event;
+        try {
+            event = switch (invalidation.type()) {
+                case CREATED, UPDATED -> playersRepository.findById(invalidation.id())
+                        .map(player -> modelMapper.map(player, PlayerDTO.class))
+                        .map(player -> new PlayerChangedEvent(invalidation.type(), invalidation.id(),
+                                player.getSquadNumber(), player, invalidation.rosterVersion()))
+                        .orElseGet(() -> PlayerChangedEvent.deleted(invalidation.id(), invalidation.squadNumber(),
+                                invalidation.rosterVersion()));
+                case DELETED -> PlayerChangedEvent.deleted(invalidation.id(), invalidation.squadNumber(),
+                        invalidation.rosterVersion());
+            };
+        } catch (RuntimeException exception) {
+            log.warn("Player {} changed on another instance could not be read - marking the roster stale",
+                    invalidation.id(), exception);
+            eventPublisher.publishEvent(new RosterStaleEvent(invalidation.rosterVersion() - 1,
+                    invalidation.rosterVersion()));
+            return;
+        }
+        REPUBLISHING.set(Boolean.TRUE);
+        try {
+            eventPublisher.publishEvent(event);
+        } finally {
+            REPUBLISHING.remove();
+        }
+    }
+}
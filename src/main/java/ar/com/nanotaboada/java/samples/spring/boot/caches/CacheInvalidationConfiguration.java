@@ -0,0 +1,73 @@
+package ar.com.nanotaboada.java.samples.spring.boot.caches;
+
+import java.util.List;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+
+/**
+ * Wires the {@link CacheInvalidationBus} and the transport selected by {@code players.invalidation-bus.transport}.
+ * <p>
+ * Disabled by default ({@code none}); a single instance needs no bus. With several instances behind a load balancer,
+ * pick a transport and every instance keeps its own {@code players} cache without serving stale entries.
+ * </p>
+ *
+ * <h3>Properties:</h3>
+ * <ul>
+ * <li>{@code players.invalidation-bus.transport} — {@code none}, {@code in-process}, {@code multicast} or
+ * {@code http}</li>
+ * <li>{@code players.invalidation-bus.multicast.group} / {@code .port} — UDP group every instance joins (default
+ * 239.255.90.0:4446)</li>
+ * <li>{@code players.invalidation-bus.http.peers} — comma-separated base URLs of the other instances</li>
+ * <li>{@code players.invalidation-bus.http.secret} — secret shared by the instances, required by the {@code http}
+ * transport</li>
+ * </ul>
+ *
+ * @since 4.0.2025
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("'${players.invalidation-bus.transport:none}' != 'none'")
+public class CacheInvalidationConfiguration {
+
+    private static final String TRANSPORT = "players.invalidation-bus.transport";
+
+    @Bean
+    @ConditionalOnProperty(name = TRANSPORT, havingValue = "in-process")
+    InProcessInvalidationTransport inProcessInvalidationTransport() {
+        return new InProcessInvalidationTransport();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = TRANSPORT, havingValue = "multicast")
+    MulticastInvalidationTransport multicastInvalidationTransport(
+            @Value("${players.invalidation-bus.multicast.group:239.255.90.0}") String group,
+            @Value("${players.invalidation-bus.multicast.port:4446}") int port) {
+        return new MulticastInvalidationTransport(group, port);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = TRANSPORT, havingValue = "http")
+    HttpInvalidationTransport httpInvalidationTransport(
+            @Value("${players.invalidation-bus.http.peers:}") List<String> peers,
+            @Value("${players.invalidation-bus.http.secret:}") String secret) {
+        return new HttpInvalidationTransport(RestClient.builder(), peers, secret);
+    }
+
+    @Bean
+    CacheInvalidationBus cacheInvalidationBus(CacheManager cacheManager, PlayersRepository playersRepository,
+            ModelMapper modelMapper, ApplicationEventPublisher eventPublisher,
+            InvalidationTransport invalidationTransport,
+            @Value("${players.outbox.enabled:false}") boolean outbox) {
+        return new CacheInvalidationBus(cacheManager, playersRepository, modelMapper, eventPublisher,
+                invalidationTransport, outbox);
+    }
+}
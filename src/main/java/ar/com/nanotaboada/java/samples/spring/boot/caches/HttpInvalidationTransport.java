@@ -0,0 +1,111 @@
+package ar.com.nanotaboada.java.samples.spring.boot.caches;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link InvalidationTransport} that POSTs each message to every peer's {@code /cache/invalidations} endpoint.
+ * <p>
+ * Peers are a static list of base URLs. Sends run on a single background thread, so a write never waits for a peer,
+ * and messages reach each peer in the order they were sent. A peer that cannot be reached is logged and skipped.
+ * </p>
+ * <p>
+ * Every message carries the secret the instances share in {@value #SECRET_HEADER}. A receiver applies only messages
+ * that present it, since a forged message evicts entries and marks players deleted in the key filter and read model.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+@Slf4j
+public class HttpInvalidationTransport implements InvalidationTransport {
+
+    static final String PATH = "/cache/invalidations";
+
+    /**
+     * Request header carrying the secret shared by the instances, which proves a message was sent by one of them.
+     */
+    public static final String SECRET_HEADER = "X-Players-Invalidation-Secret";
+
+    private final List<RestClient> peers;
+    private final byte[] secret;
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-http");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Consumer<PlayerInvalidation> receiver;
+
+    public HttpInvalidationTransport(RestClient.Builder restClientBuilder, List<String> peerUrls, String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException(
+                    "players.invalidation-bus.http.secret must be set, to the same value on every instance");
+        }
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.peers = peerUrls.stream()
+                .filter(url -> !url.isBlank())
+                .map(url -> restClientBuilder.clone().baseUrl(url.strip()).build())
+                .toList();
+    }
+
+    @Override
+    public void send(PlayerInvalidation invalidation) {
+        String body = invalidation.encode();
+        String presented = new String(secret, StandardCharsets.UTF_8);
+        sender.execute(() -> {
+            for (RestClient peer : peers) {
+                try {
+                    peer.post()
+                            .uri(PATH)
+                            .header(SECRET_HEADER, presented)
+                            .contentType(MediaType.TEXT_PLAIN)
+                            .body(body)
+                            .retrieve()
+                            .toBodilessEntity();
+                } catch (RestClientException exception) {
+                    log.warn("Could not send cache invalidation to a peer: {}", exception.getMessage());
+                }
+            }
+        });
+    }
+
+    @Override
+    public void listen(Consumer<PlayerInvalidation> receiver) {
+        this.receiver = receiver;
+    }
+
+    /**
+     * @param presented the value of the {@value #SECRET_HEADER} header, or {@code null} if there is none
+     * @return whether a message presenting it was sent by an instance sharing this one's secret
+     */
+    public boolean isAuthentic(String presented) {
+        return presented != null && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Hands a message POSTed by a peer to the bus; the caller has checked it with {@link #isAuthentic(String)}.
+     *
+     * @param text the request body
+     * @throws IllegalArgumentException if the body is not a message
+     */
+    public void receive(String text) {
+        PlayerInvalidation invalidation = PlayerInvalidation.decode(text);
+        if (receiver != null) {
+            receiver.accept(invalidation);
+        }
+    }
+
+    @Override
+    public void close() {
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,39 @@
+package ar.com.nanotaboada.java.samples.spring.boot.caches;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * {@link InvalidationTransport} between instances running in the same JVM.
+ * <p>
+ * Every instance registers with one static hub, and messages are delivered synchronously on the sender's thread, so
+ * tests can start several application contexts (or buses) and assert right after a write.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+public class InProcessInvalidationTransport implements InvalidationTransport {
+
+    private static final Set<Consumer<PlayerInvalidation>> RECEIVERS = ConcurrentHashMap.newKeySet();
+
+    private Consumer<PlayerInvalidation> receiver;
+
+    @Override
+    public void send(PlayerInvalidation invalidation) {
+        RECEIVERS.forEach(each -> each.accept(invalidation));
+    }
+
+    @Override
+    public void listen(Consumer<PlayerInvalidation> receiver) {
+        this.receiver = receiver;
+        RECEIVERS.add(receiver);
+    }
+
+    @Override
+    public void close() {
+        if (receiver != null) {
+            RECEIVERS.remove(receiver);
+        }
+    }
+}
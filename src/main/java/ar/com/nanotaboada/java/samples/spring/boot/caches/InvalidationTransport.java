@@ -0,0 +1,39 @@
+package ar.com.nanotaboada.java.samples.spring.boot.caches;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link PlayerInvalidation} messages between instances for the {@link CacheInvalidationBus}.
+ * <p>
+ * Delivery is best effort: a transport may drop or duplicate messages. The bus evicts idempotently and uses the
+ * roster version in each message to notice what it missed.
+ * </p>
+ *
+ * <h3>Implementations:</h3>
+ * <ul>
+ * <li>{@link InProcessInvalidationTransport} — instances in the same JVM (tests)</li>
+ * <li>{@link MulticastInvalidationTransport} — UDP multicast on the local network</li>
+ * <li>{@link HttpInvalidationTransport} — HTTP fan-out to a static list of peers</li>
+ * </ul>
+ *
+ * @since 4.0.2025
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    /**
+     * Sends a message to every other instance. Must not block on slow or unreachable instances.
+     *
+     * @param invalidation the message
+     */
+    void send(PlayerInvalidation invalidation);
+
+    /**
+     * Registers the receiver of messages from other instances; called once, before the first message is sent.
+     *
+     * @param receiver the receiver
+     */
+    void listen(Consumer<PlayerInvalidation> receiver);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,86 @@
+package ar.com.nanotaboada.java.samples.spring.boot.caches;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link InvalidationTransport} over UDP multicast.
+ * <p>
+ * Every instance joins the same group and port; a message is one datagram sent to the group. The time-to-live is 1,
+ * so messages stay on the local network, and loopback is on, so instances on the same host (e.g. several on
+ * localhost) receive each other's messages. Datagrams can be lost; the bus notices from the roster versions.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+@Slf4j
+public class MulticastInvalidationTransport implements InvalidationTransport {
+
+    private static final int MAX_DATAGRAM = 512;
+
+    private final InetSocketAddress group;
+    private final MulticastSocket socket;
+    private final Thread listener;
+    private volatile Consumer<PlayerInvalidation> receiver;
+
+    public MulticastInvalidationTransport(String group, int port) {
+        try {
+            this.group = new InetSocketAddress(InetAddress.getByName(group), port);
+            this.socket = new MulticastSocket(port);
+            socket.setTimeToLive(1);
+            socket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+            socket.joinGroup(this.group, null);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not join multicast group " + group + ":" + port, exception);
+        }
+        this.listener = new Thread(this::receive, "cache-invalidation-multicast");
+        listener.setDaemon(true);
+    }
+
+    @Override
+    public void send(PlayerInvalidation invalidation) {
+        byte[] data = invalidation.encode().getBytes(StandardCharsets.US_ASCII);
+        try {
+            socket.send(new DatagramPacket(data, data.length, group));
+        } catch (IOException exception) {
+            log.warn("Could not send cache invalidation to {}: {}", group, exception.getMessage());
+        }
+    }
+
+    @Override
+    public void listen(Consumer<PlayerInvalidation> receiver) {
+        this.receiver = receiver;
+        listener.start();
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                receiver.accept(PlayerInvalidation.decode(
+                        new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.US_ASCII)));
+            } catch (SocketException exception) {
+                // Closed
+            } catch (IOException | RuntimeException exception) {
+                log.warn("Ignoring cache invalidation datagram: {}", exception.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ar.com.nanotaboada.java.samples.spring.boot.caches;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Wires the off-heap tier: replaces the auto-configured cache manager with one whose {@code players} cache is an
+ * {@link OffHeapTieredCache}.
+ * <p>
+ * Disabled by default; set {@code players.off-heap-cache.enabled=true} to turn it on. Other caches, if any, stay plain
+ * on-heap caches.
+ * </p>
+ *
+ * <h3>Properties:</h3>
+ * <ul>
+ * <li>{@code players.off-heap-cache.max-size} — native memory the player records may use (default 64MB); players that
+ * do not fit stay on the heap</li>
+ * </ul>
+ *
+ * @see OffHeapPlayerStore
+ * @since 4.0.2025
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "players.off-heap-cache.enabled", havingValue = "true")
+public class OffHeapCacheConfiguration {
+
+    private static final String CACHE_NAME = "players";
+
+    @Bean(destroyMethod = "close")
+    OffHeapPlayerStore offHeapPlayerStore(@Value("${players.off-heap-cache.max-size:64MB}") DataSize maxSize) {
+        return new OffHeapPlayerStore(maxSize.toBytes());
+    }
+
+    @Bean
+    CacheManager cacheManager(OffHeapPlayerStore offHeapPlayerStore) {
+        return new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                Cache cache = super.createConcurrentMapCache(name);
+                return CACHE_NAME.equals(name) ? new OffHeapTieredCache(cache, offHeapPlayerStore) : cache;
+            }
+        };
+    }
+}
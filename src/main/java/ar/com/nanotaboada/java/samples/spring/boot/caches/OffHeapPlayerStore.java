@@ -0,0 +1,203 @@
+package ar.com.nanotaboada.java.samples.spring.boot.caches;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.PlayerRecordCodec;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+
+/**
+ * Player records serialized into native memory, outside the GC-managed heap, and indexed by squad number.
+ * <p>
+ * Records are appended to fixed-size chunks allocated from one shared {@link Arena}; the heap only holds the chunk
+ * handles and the squad number index. Records use the {@link PlayerRecordCodec} layout and are decoded into a new
+ * {@link PlayerDTO} each time they are read.
+ * </p>
+ *
+ * <h3>Lifecycle:</h3>
+ * <ul>
+ * <li><b>Writes:</b> Append only; storing a squad number again points the index at the new record, and storing an
+ * identical record again reuses the existing one</li>
+ * <li><b>Clear:</b> Resets the index and rewinds the chunks, which are kept for reuse</li>
+ * <li><b>Capacity:</b> Once {@code maxBytes} are in use, further records are refused and callers keep them on the
+ * heap</li>
+ * <li><b>Close:</b> Frees the arena; afterwards nothing is stored or found</li>
+ * </ul>
+ *
+ * @see OffHeapTieredCache
+ * @since 4.0.2025
+ */
+public class OffHeapPlayerStore implements AutoCloseable {
+
+    static final int CHUNK_SIZE = 1 << 20;
+
+    private final Arena arena = Arena.ofShared();
+    private final long maxBytes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<MemorySegment> chunks = new ArrayList<>();
+    private final Map<Integer, Long> index = new HashMap<>();
+    private int chunk;
+    private long position;
+    private long usedBytes;
+    private boolean closed;
+
+    /**
+     * @param maxBytes the native memory the records may use, in whole {@value #CHUNK_SIZE}-byte chunks (at least one)
+     */
+    public OffHeapPlayerStore(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Stores a player under its squad number.
+     *
+     * @param player the player to store
+     * @return true if stored; false if it has no id or squad number, does not fit the layout, or the store is full
+     */
+    public boolean put(PlayerDTO player) {
+        MemorySegment encoded = PlayerRecordCodec.encode(player);
+        if (encoded == null || encoded.byteSize() > CHUNK_SIZE) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            Long existing = index.get(player.getSquadNumber());
+            if (existing != null && record(existing).mismatch(encoded) == -1) {
+                return true;
+            }
+            long address = allocate(encoded.byteSize());
+            if (address < 0) {
+                return false;
+            }
+            MemorySegment.copy(encoded, 0, chunks.get(chunkOf(address)), offsetOf(address), encoded.byteSize());
+            index.put(player.getSquadNumber(), address);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Decodes the player stored under a squad number, provided it is the one expected.
+     *
+     * @param squadNumber the squad number
+     * @param id the id the stored player must have
+     * @return a new DTO decoded from native memory, or null if no such player is stored
+     */
+    public PlayerDTO get(int squadNumber, UUID id) {
+        lock.readLock().lock();
+        try {
+            Long address = closed ? null : index.get(squadNumber);
+            if (address == null) {
+                return null;
+            }
+            MemorySegment record = record(address);
+            return PlayerRecordCodec.hasId(record, id) ? PlayerRecordCodec.decode(record) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every record; the chunks stay allocated and are written over.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            chunk = 0;
+            position = 0;
+            usedBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of squad numbers with a record
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the bytes written since the last clear, superseded records included
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Frees the native memory. Records decoded earlier stay valid: they live on the heap.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                closed = true;
+                index.clear();
+                chunks.clear();
+                arena.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bump allocation within the current chunk, moving to the next one (allocating it if needed) when full.
+     *
+     * @return the address of the reserved bytes, or -1 if the store is full
+     */
+    private long allocate(long size) {
+        if (position + size > CHUNK_SIZE) {
+            chunk++;
+            position = 0;
+        }
+        if (chunk == chunks.size()) {
+            if ((long) (chunk + 1) * CHUNK_SIZE > Math.max(maxBytes, CHUNK_SIZE)) {
+                return -1;
+            }
+            chunks.add(arena.allocate(CHUNK_SIZE, Long.BYTES));
+        }
+        long address = ((long) chunk << 32) | position;
+        position += size;
+        usedBytes += size;
+        return address;
+    }
+
+    private MemorySegment record(long address) {
+        MemorySegment segment = chunks.get(chunkOf(address));
+        long offset = offsetOf(address);
+        return segment.asSlice(offset, PlayerRecordCodec.length(segment, offset));
+    }
+
+    private static int chunkOf(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static long offsetOf(long address) {
+        return address & 0xFFFF_FFFFL;
+    }
+}
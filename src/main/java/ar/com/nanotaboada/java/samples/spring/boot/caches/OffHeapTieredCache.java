@@ -0,0 +1,174 @@
+package ar.com.nanotaboada.java.samples.spring.boot.caches;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+
+/**
+ * Two-tier {@link Cache}: an on-heap cache for keys and small values, and an {@link OffHeapPlayerStore} for the
+ * players themselves.
+ * <p>
+ * When a player, or a list of players, is put, the players are written off-heap and the on-heap tier only keeps a
+ * reference to them: a squad number and an id per player. Reads resolve those references and decode the players on
+ * access, so callers always get fresh DTOs. Everything else (projections, counts, nulls) stays on the heap as is.
+ * </p>
+ *
+ * <h3>Fallbacks:</h3>
+ * <ul>
+ * <li><b>Store full:</b> Values that cannot be written off-heap are kept on the heap, as without this tier</li>
+ * <li><b>Stale reference:</b> If a referenced player is no longer stored (or its squad number now belongs to another
+ * id), the entry is evicted and the read is a miss</li>
+ * <li><b>Clear:</b> Clears both tiers</li>
+ * </ul>
+ *
+ * @see OffHeapCacheConfiguration
+ * @since 4.0.2025
+ */
+public class OffHeapTieredCache implements Cache {
+
+    private final Cache heap;
+    private final OffHeapPlayerStore store;
+
+    public OffHeapTieredCache(Cache heap, OffHeapPlayerStore store) {
+        this.heap = heap;
+        this.store = store;
+    }
+
+    @Override
+    public String getName() {
+        return heap.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return heap.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = heap.get(key);
+        if (wrapper == null || !(wrapper.get() instanceof OffHeapReference reference)) {
+            return wrapper;
+        }
+        Object value = reference.resolve(store);
+        if (value == null) {
+            heap.evict(key);
+            return null;
+        }
+        return new SimpleValueWrapper(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = (wrapper != null) ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    public synchronized <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            @SuppressWarnings("unchecked")
+            T value = (T) wrapper.get();
+            return value;
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception exception) {
+            throw new ValueRetrievalException(key, valueLoader, exception);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        OffHeapReference reference = store(value);
+        heap.put(key, (reference != null) ? reference : value);
+    }
+
+    /**
+     * Players keep their off-heap records until the next clear: other entries may still refer to them.
+     */
+    @Override
+    public void evict(Object key) {
+        heap.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+        store.clear();
+    }
+
+    /**
+     * @return a reference to the players written off-heap, or null if the value is not players or could not be
+     * written
+     */
+    private OffHeapReference store(Object value) {
+        if (value instanceof PlayerDTO player) {
+            return store.put(player) ? new OffHeapReference(List.of(player), true) : null;
+        }
+        if (value instanceof List<?> list && !list.isEmpty()) {
+            List<PlayerDTO> players = new ArrayList<>(list.size());
+            for (Object element : list) {
+                if (!(element instanceof PlayerDTO player) || !store.put(player)) {
+                    return null;
+                }
+                players.add(player);
+            }
+            return new OffHeapReference(players, false);
+        }
+        return null;
+    }
+
+    /**
+     * What the on-heap tier holds instead of players: their squad numbers and ids, 20 bytes of payload per player.
+     */
+    private static final class OffHeapReference {
+
+        private final int[] squadNumbers;
+        private final long[] ids;
+        private final boolean single;
+
+        OffHeapReference(List<PlayerDTO> players, boolean single) {
+            this.squadNumbers = new int[players.size()];
+            this.ids = new long[players.size() * 2];
+            this.single = single;
+            for (int i = 0; i < players.size(); i++) {
+                PlayerDTO player = players.get(i);
+                squadNumbers[i] = player.getSquadNumber();
+                ids[2 * i] = player.getId().getMostSignificantBits();
+                ids[2 * i + 1] = player.getId().getLeastSignificantBits();
+            }
+        }
+
+        /**
+         * @return the decoded player or list of players, or null if any of them is no longer stored
+         */
+        Object resolve(OffHeapPlayerStore store) {
+            List<PlayerDTO> players = new ArrayList<>(squadNumbers.length);
+            for (int i = 0; i < squadNumbers.length; i++) {
+                PlayerDTO player = store.get(squadNumbers[i], new UUID(ids[2 * i], ids[2 * i + 1]));
+                if (player == null) {
+                    return null;
+                }
+                players.add(player);
+            }
+            return single ? players.get(0) : List.copyOf(players);
+        }
+    }
+}
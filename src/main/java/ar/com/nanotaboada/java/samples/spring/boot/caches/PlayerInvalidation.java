@@ -0,0 +1,48 @@
+package ar.com.nanotaboada.java.samples.spring.boot.caches;
+
+import java.util.UUID;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+
+/**
+ * One message on the {@link CacheInvalidationBus}: a player changed on another instance.
+ * <p>
+ * On the wire it is a single line of text, {@code <origin> <rosterVersion> <type> <id> <squadNumber>}, short enough
+ * for one UDP datagram and readable in a packet capture.
+ * </p>
+ *
+ * @param origin        the instance that made the change, so it can ignore its own messages
+ * @param rosterVersion the roster version after the change
+ * @param type          what happened to the player
+ * @param id            the player's UUID
+ * @param squadNumber   the player's squad number
+ * @since 4.0.2025
+ */
+public record PlayerInvalidation(String origin, long rosterVersion, PlayerChangedEvent.Type type, UUID id,
+        Integer squadNumber) {
+
+    /**
+     * @return the message as sent on the wire
+     */
+    public String encode() {
+        return origin + " " + rosterVersion + " " + type + " " + id + " " + squadNumber;
+    }
+
+    /**
+     * @param text a message as sent on the wire
+     * @return the message
+     * @throws IllegalArgumentException if the text is not a message, or its roster version is negative
+     */
+    public static PlayerInvalidation decode(String text) {
+        String[] parts = text.strip().split(" ");
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Not a player invalidation: " + text);
+        }
+        long rosterVersion = Long.parseLong(parts[1]);
+        if (rosterVersion < 0) {
+            throw new IllegalArgumentException("Negative roster version: " + text);
+        }
+        return new PlayerInvalidation(parts[0], rosterVersion, PlayerChangedEvent.Type.valueOf(parts[2]),
+                UUID.fromString(parts[3]), Integer.valueOf(parts[4]));
+    }
+}
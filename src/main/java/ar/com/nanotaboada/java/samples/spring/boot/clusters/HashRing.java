@@ -0,0 +1,58 @@
+package ar.com.nanotaboada.java.samples.spring.boot.clusters;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring over squad numbers: each node owns the arcs of the ring that end at one of its points.
+ * <p>
+ * Every node is placed at {@code virtualNodes} points, so keys spread evenly and adding or removing a node only moves
+ * the keys on its own arcs. Points and keys are hashed with the first 8 bytes of their MD5 digest, which is stable
+ * across JVMs: every node built from the same list agrees on every owner.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+public final class HashRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    /**
+     * @param nodes the node ids (their base URLs), at least one
+     * @param virtualNodes the number of points per node
+     */
+    public HashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * @param squadNumber the key
+     * @return the node that owns it: the first point at or after the key's hash, wrapping around
+     */
+    public String ownerOf(int squadNumber) {
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(Integer.toString(squadNumber)));
+        return ((point != null) ? point : points.firstEntry()).getValue();
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("MD5 is not available", exception);
+        }
+    }
+}
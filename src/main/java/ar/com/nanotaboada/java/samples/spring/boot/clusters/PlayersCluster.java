@@ -0,0 +1,332 @@
+package ar.com.nanotaboada.java.samples.spring.boot.clusters;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cluster mode: each node stores the players whose squad numbers it owns on a {@link HashRing}, and answers for the
+ * others by asking its peers.
+ * <p>
+ * The nodes are a static list of base URLs ({@code players.cluster.nodes}), identical on every node, and
+ * {@code players.cluster.self} says which one this is. Each node keeps its own database. At startup, players this
+ * node does not own are dropped from it: every node starts from the same seed, and from then on writes only reach
+ * the owner.
+ * </p>
+ *
+ * <h3>Requests:</h3>
+ * <ul>
+ * <li><b>Forward:</b> A request for a squad number owned by a peer is sent to that peer, and its status, body and
+ * {@code Location} are returned as they are</li>
+ * <li><b>Scatter-gather:</b> Roster-wide reads are sent to every peer in parallel and merged with this node's
+ * answer</li>
+ * <li><b>Scope:</b> Requests between nodes carry {@value #SCOPE_HEADER}{@code : local}, which makes the receiving
+ * node answer from its own players only, so requests are never forwarded twice</li>
+ * <li><b>Authentication:</b> They also carry the shared {@code players.cluster.secret} in {@value #SECRET_HEADER};
+ * a request with the scope header but without the secret is answered like any client's, for the whole roster</li>
+ * </ul>
+ *
+ * <h3>Transport:</h3>
+ * <p>
+ * One JDK {@link HttpClient} preferring HTTP/2 serves every peer: with {@code server.http2.enabled=true} on the
+ * nodes, the first request to a peer upgrades its connection (h2c) and later requests are multiplexed over it. A
+ * peer that cannot be reached, or fails a scatter-gather, turns the request into {@code 503 Service Unavailable}
+ * rather than a partial answer.
+ * </p>
+ *
+ * @see HashRing
+ * @since 4.0.2025
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "players.cluster.enabled", havingValue = "true")
+public class PlayersCluster {
+
+    /**
+     * Request header marking a request sent by another node.
+     */
+    public static final String SCOPE_HEADER = "X-Players-Cluster-Scope";
+
+    /**
+     * Request header carrying the secret shared by the nodes, which proves a request was sent by one of them.
+     */
+    public static final String SECRET_HEADER = "X-Players-Cluster-Secret";
+
+    private static final String LOCAL_SCOPE = "local";
+    private static final ParameterizedTypeReference<List<PlayerDTO>> PLAYERS = new ParameterizedTypeReference<>() {
+    };
+
+    private final String self;
+    private final byte[] secret;
+    private final List<String> peers;
+    private final HashRing ring;
+    private final RestClient restClient;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "players-cluster");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PlayersCluster(JdbcTemplate jdbcTemplate,
+            @Value("${players.cluster.self}") String self,
+            @Value("${players.cluster.nodes}") List<String> nodes,
+            @Value("${players.cluster.secret}") String secret,
+            @Value("${players.cluster.virtual-nodes:128}") int virtualNodes,
+            @Value("${players.cluster.timeout:5s}") Duration timeout) {
+        this.self = normalize(self);
+        List<String> members = nodes.stream()
+                .filter(node -> !node.isBlank())
+                .map(PlayersCluster::normalize)
+                .distinct()
+                .toList();
+        if (!members.contains(this.self)) {
+            throw new IllegalStateException("players.cluster.self must be one of players.cluster.nodes");
+        }
+        if (secret.isBlank()) {
+            throw new IllegalStateException("players.cluster.secret must be set, to the same value on every node");
+        }
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.peers = members.stream().filter(node -> !node.equals(this.self)).toList();
+        this.ring = new HashRing(members, virtualNodes);
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(timeout)
+                .build());
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        prune(jdbcTemplate);
+    }
+
+    /**
+     * @param squadNumber the squad number
+     * @return whether this node stores the player wearing it
+     */
+    public boolean owns(Integer squadNumber) {
+        return self.equals(ring.ownerOf(squadNumber));
+    }
+
+    /**
+     * @return whether the current request was sent by another node, with the cluster's secret, and must be answered
+     *         from this node's players
+     */
+    public boolean isPeerRequest() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String presented = request.getHeader(SECRET_HEADER);
+        return LOCAL_SCOPE.equals(request.getHeader(SCOPE_HEADER)) && presented != null
+                && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends the current request to the node that owns a squad number.
+     *
+     * @param squadNumber the squad number the request is about
+     * @param method the request method
+     * @param body the request body, or null
+     * @param type the response body type
+     * @return the owner's status, body and {@code Location}
+     */
+    public <T> ResponseEntity<T> forward(Integer squadNumber, HttpMethod method, Object body,
+            ParameterizedTypeReference<T> type) {
+        String owner = ring.ownerOf(squadNumber);
+        ResponseEntity<T> response = send(method, currentRequest(owner, UnaryOperator.identity()), body, type);
+        ResponseEntity.BodyBuilder relayed = ResponseEntity.status(response.getStatusCode());
+        if (response.getHeaders().getLocation() != null) {
+            relayed.location(response.getHeaders().getLocation());
+        }
+        return relayed.body(response.getBody());
+    }
+
+    /**
+     * Sends the current request, rewritten, to every peer in parallel.
+     *
+     * @param rewrite changes to the request URI (e.g. query parameters) before it is sent
+     * @param type the response body type
+     * @return every peer's response, each one successful
+     */
+    public <T> List<ResponseEntity<T>> scatter(UnaryOperator<UriComponentsBuilder> rewrite,
+            ParameterizedTypeReference<T> type) {
+        return sendAll(peers.stream().map(peer -> currentRequest(peer, rewrite)).toList(), type);
+    }
+
+    /**
+     * Sends the current request to every peer and adds their answers to this node's.
+     *
+     * @param local this node's answer
+     * @param type the response body type
+     * @return this node's answer followed by every peer's
+     */
+    public <T> List<T> gather(List<T> local, ParameterizedTypeReference<List<T>> type) {
+        List<T> merged = new ArrayList<>(local);
+        for (ResponseEntity<List<T>> response : scatter(UnaryOperator.identity(), type)) {
+            if (response.getBody() != null) {
+                merged.addAll(response.getBody());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Sends the current request to every peer and returns the first answer found, for lookups by a key the ring does
+     * not place (a player's id).
+     *
+     * @param type the response body type
+     * @return the body of a peer that answered {@code 200 OK}, or null if none did
+     */
+    public <T> T find(ParameterizedTypeReference<T> type) {
+        List<URI> requests = peers.stream().map(peer -> currentRequest(peer, UnaryOperator.identity())).toList();
+        return submitAll(requests, type).stream()
+                .filter(response -> response.getStatusCode().is2xxSuccessful())
+                .map(ResponseEntity::getBody)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Retrieves many players by squad number: this node's through {@code local}, and each peer's in one request with
+     * only the squad numbers that peer owns.
+     *
+     * @param squadNumbers the squad numbers to retrieve
+     * @param local retrieves the players this node owns
+     * @return the players found, in no particular order
+     */
+    public List<PlayerDTO> bySquadNumbers(List<Integer> squadNumbers, Function<List<Integer>, List<PlayerDTO>> local) {
+        Map<String, List<Integer>> byOwner = squadNumbers.stream()
+                .distinct()
+                .collect(Collectors.groupingBy(ring::ownerOf, LinkedHashMap::new, Collectors.toList()));
+        List<Integer> owned = byOwner.remove(self);
+        List<PlayerDTO> players = new ArrayList<>((owned != null) ? local.apply(owned) : List.of());
+        List<URI> requests = byOwner.entrySet().stream()
+                .map(entry -> currentRequest(entry.getKey(), uri -> uri.replaceQueryParam("ids",
+                        entry.getValue().stream().map(String::valueOf).collect(Collectors.joining(",")))))
+                .toList();
+        sendAll(requests, PLAYERS).forEach(response -> players.addAll(response.getBody()));
+        return players;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void prune(JdbcTemplate jdbcTemplate) {
+        List<Integer> foreign = jdbcTemplate.queryForList("SELECT squadNumber FROM players", Integer.class)
+                .stream()
+                .filter(squadNumber -> !owns(squadNumber))
+                .toList();
+        for (Integer squadNumber : foreign) {
+            jdbcTemplate.update("DELETE FROM players WHERE squadNumber = ?", squadNumber);
+        }
+        log.info("Players cluster node {} of {} - dropped {} players owned by other nodes", self, peers.size() + 1,
+                foreign.size());
+    }
+
+    private <T> List<ResponseEntity<T>> sendAll(List<URI> requests, ParameterizedTypeReference<T> type) {
+        List<ResponseEntity<T>> responses = submitAll(requests, type);
+        for (ResponseEntity<T> response : responses) {
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "A peer answered " + response.getStatusCode());
+            }
+        }
+        return responses;
+    }
+
+    private <T> List<ResponseEntity<T>> submitAll(List<URI> requests, ParameterizedTypeReference<T> type) {
+        List<Future<ResponseEntity<T>>> futures = requests.stream()
+                .map(uri -> executor.submit(() -> send(HttpMethod.GET, uri, null, type)))
+                .toList();
+        List<ResponseEntity<T>> responses = new ArrayList<>(futures.size());
+        for (Future<ResponseEntity<T>> future : futures) {
+            try {
+                responses.add(future.get());
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted waiting for peers");
+            } catch (ExecutionException exception) {
+                if (exception.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Peer request failed", exception.getCause());
+            }
+        }
+        return responses;
+    }
+
+    private <T> ResponseEntity<T> send(HttpMethod method, URI uri, Object body, ParameterizedTypeReference<T> type) {
+        try {
+            RestClient.RequestBodySpec request = restClient.method(method)
+                    .uri(uri)
+                    .header(SCOPE_HEADER, LOCAL_SCOPE)
+                    .header(SECRET_HEADER, new String(secret, StandardCharsets.UTF_8))
+                    .accept(MediaType.APPLICATION_JSON);
+            if (body != null) {
+                request.contentType(MediaType.APPLICATION_JSON).body(body);
+            }
+            return request.retrieve()
+                    .onStatus(_ -> true, (_, _) -> {
+                    })
+                    .toEntity(type);
+        } catch (RestClientException exception) {
+            log.warn("Players cluster peer could not be reached: {}", exception.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Peer unreachable: " + uri.getHost(),
+                    exception);
+        }
+    }
+
+    /**
+     * @return the current request's path and query on another node, rewritten
+     */
+    private static URI currentRequest(String node, UnaryOperator<UriComponentsBuilder> rewrite) {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+                .getRequest();
+        String query = request.getQueryString();
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(
+                node + request.getRequestURI() + ((query != null) ? "?" + query : ""));
+        return rewrite.apply(uri).build(true).toUri();
+    }
+
+    private static String normalize(String url) {
+        String stripped = url.strip();
+        return stripped.endsWith("/") ? stripped.substring(0, stripped.length() - 1) : stripped;
+    }
+}
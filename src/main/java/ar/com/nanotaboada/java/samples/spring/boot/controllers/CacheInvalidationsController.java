@@ -0,0 +1,63 @@
+package ar.com.nanotaboada.java.samples.spring.boot.controllers;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import ar.com.nanotaboada.java.samples.spring.boot.caches.CacheInvalidationBus;
+import ar.com.nanotaboada.java.samples.spring.boot.caches.HttpInvalidationTransport;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * REST Controller receiving cache invalidations from peer instances over the HTTP transport.
+ * <p>
+ * Only mapped with {@code players.invalidation-bus.transport=http}. Internal to the cluster, so it is left out of the
+ * OpenAPI documentation. Messages must carry the instances' shared secret in
+ * {@value HttpInvalidationTransport#SECRET_HEADER}.
+ * </p>
+ *
+ * <h3>Base Path:</h3>
+ * <ul>
+ * <li><b>POST</b> {@code /cache/invalidations} - One invalidation message (text/plain)</li>
+ * </ul>
+ *
+ * @see CacheInvalidationBus
+ * @since 4.0.2025
+ */
+@Hidden
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "players.invalidation-bus.transport", havingValue = "http")
+public class CacheInvalidationsController {
+
+    private final HttpInvalidationTransport httpInvalidationTransport;
+
+    /**
+     * Applies an invalidation sent by a peer.
+     *
+     * @param secret  the secret the sender presents
+     * @param message the message, as encoded by the sender
+     * @return 204 No Content, 403 Forbidden if the secret is missing or wrong, or 400 Bad Request if the body is not
+     *         a message
+     */
+    @PostMapping(value = "/cache/invalidations", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<Void> post(
+            @RequestHeader(value = HttpInvalidationTransport.SECRET_HEADER, required = false) String secret,
+            @RequestBody String message) {
+        if (!httpInvalidationTransport.isAuthentic(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            httpInvalidationTransport.receive(message);
+        } catch (IllegalArgumentException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
@@ -0,0 +1,56 @@
+package ar.com.nanotaboada.java.samples.spring.boot.controllers;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Redirects writes sent to a follower instance to the writer.
+ * <p>
+ * A follower's roster only changes by applying the writer's log; a player written locally would be missing on every
+ * other instance and would take a roster version the next replicated change needs. {@code POST}, {@code PUT} and
+ * {@code DELETE} requests on {@code /players} are therefore answered with {@code 307 Temporary Redirect} to the same
+ * path on {@code players.replication.writer-url}, which keeps the method and body.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+@Component
+@ConditionalOnProperty(name = "players.replication.role", havingValue = "follower")
+public class FollowerWriteRedirectFilter extends OncePerRequestFilter {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "DELETE");
+
+    private final String writerUrl;
+
+    public FollowerWriteRedirectFilter(@Value("${players.replication.writer-url}") String writerUrl) {
+        this.writerUrl = writerUrl.endsWith("/") ? writerUrl.substring(0, writerUrl.length() - 1) : writerUrl;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !WRITE_METHODS.contains(request.getMethod())
+                || !(path.equals("/players") || path.startsWith("/players/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String query = request.getQueryString();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, writerUrl + path + ((query != null) ? "?" + query : ""));
+    }
+}
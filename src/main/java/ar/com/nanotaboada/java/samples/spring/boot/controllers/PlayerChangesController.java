@@ -0,0 +1,59 @@
+package ar.com.nanotaboada.java.samples.spring.boot.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * REST Controller streaming roster changes as Server-Sent Events.
+ * <p>
+ * Clients that keep a copy of the roster load {@code GET /players} once and then follow this stream instead of
+ * polling. Each event carries a sequence number as its id; browsers' {@code EventSource} sends it back as
+ * {@code Last-Event-ID} when reconnecting, and the stream resumes right after it.
+ * </p>
+ *
+ * <h3>Base Path:</h3>
+ * <ul>
+ * <li><b>GET</b> {@code /players/changes} - Stream player changes (text/event-stream)</li>
+ * </ul>
+ *
+ * @see PlayerChangeFeed
+ * @since 4.0.2025
+ */
+@RestController
+@Tag(name = "Players")
+@RequiredArgsConstructor
+public class PlayerChangesController {
+
+    private final PlayerChangeFeed playerChangeFeed;
+
+    /**
+     * Streams player changes, optionally replaying those after {@code Last-Event-ID}.
+     *
+     * @param lastEventId the last sequence number the client received (optional)
+     * @return the event stream
+     */
+    @GetMapping(value = "/players/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Streams player changes as Server-Sent Events")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK - created, updated, deleted and reset events", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = PlayerChange.class)))
+    })
+    public SseEmitter changes(
+            @Parameter(description = "Last sequence number received; changes after it are replayed")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return playerChangeFeed.subscribe(lastEventId);
+    }
+}
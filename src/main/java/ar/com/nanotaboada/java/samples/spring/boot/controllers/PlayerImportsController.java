@@ -0,0 +1,107 @@
+package ar.com.nanotaboada.java.samples.spring.boot.controllers;
+
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.LOCATION;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerImportDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayerImports;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * REST Controller for bulk imports of players.
+ * <p>
+ * An upload is accepted as soon as it has been received; rows are parsed, validated and stored in the background
+ * (see {@link PlayerImports}), and the job's progress can be polled until it completes.
+ * </p>
+ *
+ * <h3>Base Path:</h3>
+ * <ul>
+ * <li><b>POST</b> {@code /players/imports} - Queue an import of a {@code text/csv} or {@code application/x-ndjson}
+ * upload</li>
+ * <li><b>GET</b> {@code /players/imports/{id}} - Progress of an import</li>
+ * </ul>
+ *
+ * @see PlayerImports
+ * @since 4.0.2025
+ */
+@RestController
+@Tag(name = "Players")
+@RequiredArgsConstructor
+public class PlayerImportsController {
+
+    private final PlayerImports playerImports;
+
+    /**
+     * Queues an import of the uploaded players.
+     *
+     * @param contentType {@code text/csv} (with a header row of {@code PlayerDTO} property names) or
+     *                    {@code application/x-ndjson} (one player per line)
+     * @param upload      the request body
+     * @return 202 Accepted with the queued job and a Location header to poll, or 415 Unsupported Media Type for any
+     *         other content type
+     * @throws IOException if the upload cannot be read or spooled
+     */
+    @PostMapping(value = "/players/imports", consumes = { "text/csv", "application/x-ndjson" })
+    @Operation(summary = "Queues a bulk import of players from a CSV or NDJSON upload")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Accepted", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerImportDTO.class))),
+            @ApiResponse(responseCode = "415", description = "Unsupported Media Type - Neither CSV nor NDJSON", content = @Content)
+    })
+    public ResponseEntity<PlayerImportDTO> post(@RequestHeader(CONTENT_TYPE) String contentType, InputStream upload)
+            throws IOException {
+        PlayerImports.Format format = PlayerImports.Format.of(contentType).orElse(null);
+        if (format == null) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        PlayerImportDTO job = playerImports.submit(upload, format);
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(LOCATION, location.toString())
+                .body(job);
+    }
+
+    /**
+     * Retrieves the progress of an import.
+     *
+     * @param id the job id returned when the upload was accepted
+     * @return 200 OK with the job's progress, or 404 Not Found if there is no such job
+     */
+    @GetMapping("/players/imports/{id}")
+    @Operation(summary = "Retrieves the progress of a bulk import")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerImportDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Not Found - No such import, or it finished long ago", content = @Content)
+    })
+    public ResponseEntity<PlayerImportDTO> getProgress(
+            @Parameter(description = "Job id returned when the upload was accepted") @PathVariable UUID id) {
+        PlayerImportDTO job = playerImports.progress(id);
+        return (job != null)
+                ? ResponseEntity.status(HttpStatus.OK).body(job)
+                : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+}
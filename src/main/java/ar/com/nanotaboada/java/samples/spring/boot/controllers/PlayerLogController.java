@@ -0,0 +1,75 @@
+package ar.com.nanotaboada.java.samples.spring.boot.controllers;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayerReplicationLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * REST Controller serving the writer's replication log to follower instances.
+ * <p>
+ * Only mapped with {@code players.replication.role=writer}. Followers send their applied offset (their roster
+ * version) as {@code after} and apply the returned changes in order.
+ * </p>
+ *
+ * <h3>Base Path:</h3>
+ * <ul>
+ * <li><b>GET</b> {@code /players/log?after={sequence}} - Changes committed after a sequence</li>
+ * </ul>
+ *
+ * @see PlayerReplicationLog
+ * @since 4.0.2025
+ */
+@RestController
+@Tag(name = "Players")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "players.replication.role", havingValue = "writer")
+public class PlayerLogController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final PlayerReplicationLog playerReplicationLog;
+
+    /**
+     * Retrieves the changes committed after a sequence, oldest first.
+     *
+     * @param after the follower's applied offset
+     * @param limit the largest number of changes to return (1 to {@value #MAX_LIMIT})
+     * @return 200 OK with the changes (empty when the follower is up to date), 400 Bad Request if {@code after} or
+     *         {@code limit} is out of range, or 410 Gone if the log no longer holds the changes after {@code after}
+     */
+    @GetMapping("/players/log")
+    @Operation(summary = "Retrieves committed player changes for follower instances")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerChange[].class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Negative offset or invalid limit", content = @Content),
+            @ApiResponse(responseCode = "410", description = "Gone - Changes after the offset are not in the log; reseed the follower", content = @Content)
+    })
+    public ResponseEntity<List<PlayerChange>> getChangesAfter(
+            @Parameter(description = "Sequence of the last change the follower applied") @RequestParam long after,
+            @Parameter(description = "Largest number of changes to return") @RequestParam(defaultValue = "500") int limit) {
+        if (after < 0 || limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        List<PlayerChange> changes = playerReplicationLog.since(after, limit);
+        if (changes == null) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(changes);
+    }
+}
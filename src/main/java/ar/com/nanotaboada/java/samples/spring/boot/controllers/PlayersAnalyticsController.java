@@ -0,0 +1,116 @@
+package ar.com.nanotaboada.java.samples.spring.boot.controllers;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ar.com.nanotaboada.java.samples.spring.boot.indexes.IndexedField;
+import ar.com.nanotaboada.java.samples.spring.boot.indexes.PlayerBitmapIndex;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * REST Controller for analytics dashboards, answered from the in-memory {@link PlayerBitmapIndex}.
+ * <p>
+ * Each field takes one or more comma-separated values: values of one field are combined with OR, fields with AND
+ * (e.g. {@code ?position=Centre-Back,Left-Back&league=Premier League}). Nothing here queries the database.
+ * </p>
+ *
+ * <h3>Base Path:</h3>
+ * <ul>
+ * <li><b>GET</b> {@code /players/analytics} - Players matching a compound filter</li>
+ * <li><b>GET</b> {@code /players/analytics/counts?groupBy={field}} - Matching players counted per value of a
+ * field</li>
+ * </ul>
+ *
+ * @see PlayerBitmapIndex
+ * @since 4.0.2025
+ */
+@RestController
+@Tag(name = "Players")
+@RequiredArgsConstructor
+public class PlayersAnalyticsController {
+
+    private final PlayerBitmapIndex playerBitmapIndex;
+
+    /**
+     * Retrieves the players matching a compound filter on the indexed fields.
+     *
+     * @param position accepted positions (optional)
+     * @param team accepted teams (optional)
+     * @param league accepted leagues (optional)
+     * @param starting11 accepted starting eleven flags (optional)
+     * @return 200 OK with the matching players by squad number
+     */
+    @GetMapping("/players/analytics")
+    @Operation(summary = "Retrieves players matching a compound filter from the in-memory index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerDTO[].class)))
+    })
+    public ResponseEntity<List<PlayerDTO>> filter(
+            @RequestParam(required = false) List<String> position,
+            @RequestParam(required = false) List<String> team,
+            @RequestParam(required = false) List<String> league,
+            @RequestParam(required = false) List<String> starting11) {
+        List<PlayerDTO> players = playerBitmapIndex.filter(criteria(position, team, league, starting11));
+        return ResponseEntity.status(HttpStatus.OK).body(players);
+    }
+
+    /**
+     * Counts the players matching a compound filter, per value of one indexed field.
+     * <p>
+     * Example: {@code /players/analytics/counts?groupBy=team&league=Liga Portugal,La Liga}
+     * </p>
+     *
+     * @param groupBy the field to group by ({@code position}, {@code team}, {@code league} or {@code starting11})
+     * @param position accepted positions (optional)
+     * @param team accepted teams (optional)
+     * @param league accepted leagues (optional)
+     * @param starting11 accepted starting eleven flags (optional)
+     * @return 200 OK with the number of matching players per value, or 400 Bad Request if {@code groupBy} is not an
+     *         indexed field
+     */
+    @GetMapping("/players/analytics/counts")
+    @Operation(summary = "Counts players matching a compound filter, grouped by an indexed field")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Bad Request - groupBy is not an indexed field", content = @Content)
+    })
+    public ResponseEntity<Map<String, Integer>> count(
+            @RequestParam String groupBy,
+            @RequestParam(required = false) List<String> position,
+            @RequestParam(required = false) List<String> team,
+            @RequestParam(required = false) List<String> league,
+            @RequestParam(required = false) List<String> starting11) {
+        Optional<IndexedField> field = IndexedField.fromProperty(groupBy);
+        if (field.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        Map<String, Integer> counts = playerBitmapIndex.count(field.get(),
+                criteria(position, team, league, starting11));
+        return ResponseEntity.status(HttpStatus.OK).body(counts);
+    }
+
+    private static Map<IndexedField, List<String>> criteria(List<String> position, List<String> team,
+            List<String> league, List<String> starting11) {
+        Map<IndexedField, List<String>> criteria = new EnumMap<>(IndexedField.class);
+        criteria.put(IndexedField.POSITION, position);
+        criteria.put(IndexedField.TEAM, team);
+        criteria.put(IndexedField.LEAGUE, league);
+        criteria.put(IndexedField.STARTING11, starting11);
+        return criteria;
+    }
+}
@@ -3,9 +3,19 @@ package ar.com.nanotaboada.java.samples.spring.boot.controllers;
 import static org.springframework.http.HttpHeaders.LOCATION;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,10 +24,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import ar.com.nanotaboada.java.samples.spring.boot.clusters.PlayersCluster;
 import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFields;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFilter;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayersSyncDTO;
 import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -38,9 +54,15 @@ import lombok.RequiredArgsConstructor;
  * <h3>Base Path:</h3>
  * <ul>
  * <li><b>GET</b> {@code /players} - Retrieve all players</li>
+ * <li><b>GET</b> {@code /players?since={version}} - Retrieve players changed or deleted after a roster version</li>
  * <li><b>GET</b> {@code /players/{id}} - Retrieve player by UUID (admin/internal use)</li>
+ * <li><b>GET</b> {@code /players/search?team=…&position=…&sort=…&limit=…} - Filter, sort and page players</li>
  * <li><b>GET</b> {@code /players/search/league/{league}} - Search players by league name</li>
  * <li><b>GET</b> {@code /players/squadnumber/{squadNumber}} - Retrieve player by squad number</li>
+ * <li><b>GET</b> {@code /players/squadnumbers?ids={squadNumbers}} - Retrieve many players by squad number</li>
+ * <li><b>GET</b> {@code /players/uuids?ids={ids}} - Retrieve many players by UUID (admin/internal use)</li>
+ * <li><b>GET</b> {@code /players?fields={fields}} - Return only the requested properties (also on {@code /players/{id}},
+ * {@code /players/squadnumber/{squadNumber}} and {@code /players/search/league/{league}})</li>
  * <li><b>POST</b> {@code /players} - Create a new player</li>
  * <li><b>PUT</b> {@code /players/{squadNumber}} - Update an existing player by squad number</li>
  * <li><b>DELETE</b> {@code /players/{squadNumber}} - Delete a player by squad number</li>
@@ -51,10 +73,19 @@ import lombok.RequiredArgsConstructor;
  * <li><b>200 OK:</b> Successful retrieval</li>
  * <li><b>201 Created:</b> Successful creation (with Location header)</li>
  * <li><b>204 No Content:</b> Successful update/delete</li>
+ * <li><b>400 Bad Request:</b> Invalid query parameter</li>
  * <li><b>422 Unprocessable Entity:</b> Validation failure</li>
  * <li><b>404 Not Found:</b> Resource not found</li>
  * </ul>
  *
+ * <h3>Cluster Mode:</h3>
+ * <p>
+ * With {@code players.cluster.enabled=true}, requests for a squad number another node owns are forwarded to it, and
+ * roster-wide reads gather every node's players (see {@link PlayersCluster}). Lookups by UUID ask the other nodes when
+ * the player is not stored here. Each node numbers its own writes, so delta sync ({@code ?since}) answers
+ * {@code 400 Bad Request}, as with league shards.
+ * </p>
+ *
  * @see PlayersService
  * @see PlayerDTO
  * @since 4.0.2025
@@ -64,7 +95,36 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class PlayersController {
 
+    /**
+     * Largest number of ids accepted by the multi-get endpoints, which keeps their {@code IN} query bounded.
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
+    /**
+     * Response header carrying the number of players matching a filter, across all pages.
+     */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    /**
+     * Page size of the filter endpoint when {@code limit} is not given, and the largest one accepted.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 25;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final ParameterizedTypeReference<Void> NO_BODY = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<PlayerDTO> PLAYER = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<List<PlayerDTO>> PLAYERS = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<Map<String, Object>> FIELDS = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> FIELDS_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+
     private final PlayersService playersService;
+    private final ObjectProvider<PlayersCluster> playersCluster;
 
     /*
      * -----------------------------------------------------------------------------------------------------------------------
@@ -90,6 +150,10 @@ public class PlayersController {
             @ApiResponse(responseCode = "422", description = "Unprocessable Entity - Validation failure", content = @Content)
     })
     public ResponseEntity<Void> post(@RequestBody @Valid PlayerDTO playerDTO) {
+        PlayersCluster cluster = cluster();
+        if (cluster != null && !cluster.owns(playerDTO.getSquadNumber())) {
+            return cluster.forward(playerDTO.getSquadNumber(), HttpMethod.POST, playerDTO, NO_BODY);
+        }
         PlayerDTO createdPlayer = playersService.create(playerDTO);
         if (createdPlayer == null) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
@@ -121,10 +185,62 @@ public class PlayersController {
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerDTO[].class)))
     })
     public ResponseEntity<List<PlayerDTO>> getAll() {
-        List<PlayerDTO> players = playersService.retrieveAll();
+        List<PlayerDTO> players = gather(playersService.retrieveAll(), PLAYERS);
         return ResponseEntity.status(HttpStatus.OK).body(players);
     }
 
+    /**
+     * Retrieves only the requested properties of all players (sparse fieldset).
+     * <p>
+     * Example: {@code /players?fields=squadNumber,lastName,abbrPosition}. Only those columns are selected from the
+     * database, and each player is serialized with only those properties.
+     * </p>
+     *
+     * @param fields comma-separated properties to return (e.g. {@code squadNumber,lastName,abbrPosition})
+     * @return 200 OK with array of partial players, or 400 Bad Request if a field is unknown
+     */
+    @GetMapping(value = "/players", params = { "fields", "!since" })
+    @Operation(summary = "Retrieves the requested properties of all players")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Unknown field", content = @Content)
+    })
+    public ResponseEntity<List<Map<String, Object>>> getAll(@RequestParam List<String> fields) {
+        return PlayerFields.parse(fields)
+                .map(selected -> ResponseEntity.status(HttpStatus.OK)
+                        .body(gather(playersService.retrieveAll(selected), FIELDS_LIST)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+    }
+
+    /**
+     * Retrieves what changed in the squad after a roster version (delta sync).
+     * <p>
+     * Clients keep the {@code version} of the last response and send it back as {@code since}; the response grows
+     * with the number of changes, not with the size of the roster. {@code since=0} returns the whole roster.
+     * Apply {@code deleted} and {@code players} by player id, or, when {@code reset} is true, replace the local copy
+     * with {@code players}.
+     * </p>
+     *
+     * @param since the roster version the client has
+     * @return 200 OK with the changes and the new version, or 400 Bad Request if {@code since} is negative or the
+     *         roster is spread over league shards or cluster nodes, which have no common version
+     */
+    @GetMapping(value = "/players", params = "since")
+    @Operation(summary = "Retrieves players changed or deleted after a roster version")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayersSyncDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Negative version, or league shards or cluster mode enabled", content = @Content)
+    })
+    public ResponseEntity<PlayersSyncDTO> getChangedSince(@RequestParam long since) {
+        if (since < 0 || cluster() != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        PlayersSyncDTO changes = playersService.retrieveChangedSince(since);
+        return (changes != null)
+                ? ResponseEntity.status(HttpStatus.OK).body(changes)
+                : ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    }
+
     /**
      * Retrieves a single player by their surrogate UUID (admin/internal use only).
      *
@@ -138,12 +254,33 @@ public class PlayersController {
             @ApiResponse(responseCode = "404", description = "Not Found", content = @Content)
     })
     public ResponseEntity<PlayerDTO> getById(@PathVariable UUID id) {
-        PlayerDTO playerDTO = playersService.retrieveById(id);
+        PlayerDTO playerDTO = find(playersService.retrieveById(id), PLAYER);
         return (playerDTO != null)
                 ? ResponseEntity.status(HttpStatus.OK).body(playerDTO)
                 : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
 
+    /**
+     * Retrieves only the requested properties of a player by their surrogate UUID (admin/internal use only).
+     *
+     * @param id the UUID surrogate key of the player
+     * @param fields comma-separated properties to return (e.g. {@code squadNumber,lastName,abbrPosition})
+     * @return 200 OK with the partial player, 404 Not Found if player doesn't exist, or 400 Bad Request if a field is
+     *         unknown
+     */
+    @GetMapping(value = "/players/{id}", params = "fields")
+    @Operation(summary = "Retrieves the requested properties of a player by UUID (admin/internal use)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Unknown field", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Not Found", content = @Content)
+    })
+    public ResponseEntity<Map<String, Object>> getById(@PathVariable UUID id, @RequestParam List<String> fields) {
+        return PlayerFields.parse(fields)
+                .map(selected -> found(find(playersService.retrieveById(id, selected), FIELDS)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+    }
+
     /**
      * Retrieves a player by their squad number.
      * <p>
@@ -160,12 +297,140 @@ public class PlayersController {
             @ApiResponse(responseCode = "404", description = "Not Found", content = @Content)
     })
     public ResponseEntity<PlayerDTO> getBySquadNumber(@PathVariable Integer squadNumber) {
+        PlayersCluster cluster = cluster();
+        if (cluster != null && !cluster.owns(squadNumber)) {
+            return cluster.forward(squadNumber, HttpMethod.GET, null, PLAYER);
+        }
         PlayerDTO player = playersService.retrieveBySquadNumber(squadNumber);
         return (player != null)
                 ? ResponseEntity.status(HttpStatus.OK).body(player)
                 : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
 
+    /**
+     * Retrieves only the requested properties of a player by their squad number.
+     * <p>
+     * Example: {@code /players/squadnumber/10?fields=lastName,abbrPosition}
+     * </p>
+     *
+     * @param squadNumber the squad number to retrieve (jersey number, typically 1-99)
+     * @param fields comma-separated properties to return (e.g. {@code squadNumber,lastName,abbrPosition})
+     * @return 200 OK with the partial player, 404 Not Found if no player has that number, or 400 Bad Request if a
+     *         field is unknown
+     */
+    @GetMapping(value = "/players/squadnumber/{squadNumber}", params = "fields")
+    @Operation(summary = "Retrieves the requested properties of a player by squad number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Unknown field", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Not Found", content = @Content)
+    })
+    public ResponseEntity<Map<String, Object>> getBySquadNumber(@PathVariable Integer squadNumber,
+            @RequestParam List<String> fields) {
+        PlayersCluster cluster = cluster();
+        if (cluster != null && !cluster.owns(squadNumber)) {
+            return cluster.forward(squadNumber, HttpMethod.GET, null, FIELDS);
+        }
+        return PlayerFields.parse(fields)
+                .map(selected -> found(playersService.retrieveBySquadNumber(squadNumber, selected)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+    }
+
+    /**
+     * Retrieves many players by squad number in one call (e.g. a starting eleven).
+     * <p>
+     * Example: {@code /players/squadnumbers?ids=23,26,13,19,3,24,7,20,11,10,9}
+     * </p>
+     *
+     * @param ids the squad numbers to retrieve (1 to {@value #MAX_BATCH_SIZE})
+     * @return 200 OK with the players found in request order (unknown numbers are left out), or 400 Bad Request if
+     *         {@code ids} is empty, too long or not a list of numbers
+     */
+    @GetMapping("/players/squadnumbers")
+    @Operation(summary = "Retrieves many players by squad number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerDTO[].class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Empty, too many or invalid ids", content = @Content)
+    })
+    public ResponseEntity<List<PlayerDTO>> getBySquadNumbers(@RequestParam List<Integer> ids) {
+        if (!isValidBatch(ids)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        PlayersCluster cluster = cluster();
+        List<PlayerDTO> players = (cluster != null)
+                ? inRequestOrder(ids, cluster.bySquadNumbers(ids, playersService::retrieveBySquadNumbers),
+                        PlayerDTO::getSquadNumber)
+                : playersService.retrieveBySquadNumbers(ids);
+        return ResponseEntity.status(HttpStatus.OK).body(players);
+    }
+
+    /**
+     * Retrieves many players by their surrogate UUID in one call (admin/internal use only).
+     *
+     * @param ids the UUID surrogate keys to retrieve (1 to {@value #MAX_BATCH_SIZE})
+     * @return 200 OK with the players found in request order (unknown ids are left out), or 400 Bad Request if
+     *         {@code ids} is empty, too long or not a list of UUIDs
+     */
+    @GetMapping("/players/uuids")
+    @Operation(summary = "Retrieves many players by UUID (admin/internal use)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerDTO[].class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Empty, too many or invalid ids", content = @Content)
+    })
+    public ResponseEntity<List<PlayerDTO>> getByIds(@RequestParam List<UUID> ids) {
+        if (!isValidBatch(ids)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        PlayersCluster cluster = cluster();
+        List<PlayerDTO> players = (cluster != null)
+                ? inRequestOrder(ids, cluster.gather(playersService.retrieveByIds(ids), PLAYERS), PlayerDTO::getId)
+                : playersService.retrieveByIds(ids);
+        return ResponseEntity.status(HttpStatus.OK).body(players);
+    }
+
+    /**
+     * Filters players by any combination of criteria, with sorting and paging.
+     * <p>
+     * Example: {@code /players/search?league=Premier League&starting11=true&sort=-dateOfBirth&limit=5}. Criteria are
+     * exact matches combined with AND; {@code bornFrom} and {@code bornTo} ({@code yyyy-MM-dd}) bound the date of
+     * birth, inclusive. {@code sort} takes property names, prefixed with {@code -} for descending order. The total
+     * number of matching players is returned in the {@value #TOTAL_COUNT_HEADER} header.
+     * </p>
+     *
+     * @param filter the criteria, bound from the query parameters of the same names
+     * @param sort sort keys in priority order (default by squad number)
+     * @param page zero-based page number
+     * @param limit page size (1 to {@value #MAX_PAGE_SIZE}; another node of the cluster may ask for more)
+     * @return 200 OK with the requested page of matching players, 400 Bad Request if sort, paging or the date range is
+     *         invalid, or 422 Unprocessable Entity if a criterion cannot be parsed
+     */
+    @GetMapping("/players/search")
+    @Operation(summary = "Filters players by team, position, league, starting eleven and date of birth")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerDTO[].class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid sort, page, limit or date range", content = @Content),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity - Malformed criterion (e.g. date not in yyyy-MM-dd)", content = @Content)
+    })
+    public ResponseEntity<List<PlayerDTO>> filter(PlayerFilter filter,
+            @RequestParam(defaultValue = "") List<String> sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        long offset = (long) page * limit;
+        Optional<Sort> order = PlayerFilter.parseSort(sort);
+        if (order.isEmpty() || !filter.hasValidRange() || page < 0 || limit < 1
+                || (limit > MAX_PAGE_SIZE && !isPeerRequest()) || offset + limit > Integer.MAX_VALUE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        PlayersCluster cluster = cluster();
+        if (cluster != null) {
+            return filterAcrossCluster(cluster, filter, order.get(), page, limit);
+        }
+        List<PlayerDTO> players = playersService.filter(filter, order.get(), (int) offset, limit);
+        return ResponseEntity.status(HttpStatus.OK)
+                .header(TOTAL_COUNT_HEADER, String.valueOf(playersService.count(filter)))
+                .body(players);
+    }
+
     /**
      * Searches for players by league name (case-insensitive partial match).
      * <p>
@@ -181,10 +446,31 @@ public class PlayersController {
             @ApiResponse(responseCode = "200", description = "OK - Returns matching players (or empty array if none found)", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerDTO[].class)))
     })
     public ResponseEntity<List<PlayerDTO>> searchByLeague(@PathVariable String league) {
-        List<PlayerDTO> players = playersService.searchByLeague(league);
+        List<PlayerDTO> players = gather(playersService.searchByLeague(league), PLAYERS);
         return ResponseEntity.status(HttpStatus.OK).body(players);
     }
 
+    /**
+     * Searches for players by league name and returns only the requested properties (sparse fieldset).
+     *
+     * @param league the league name to search for (e.g., "Premier", "Liga")
+     * @param fields comma-separated properties to return (e.g. {@code squadNumber,lastName,abbrPosition})
+     * @return 200 OK with array of matching partial players, or 400 Bad Request if a field is unknown
+     */
+    @GetMapping(value = "/players/search/league/{league}", params = "fields")
+    @Operation(summary = "Searches players by league name and returns the requested properties")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Unknown field", content = @Content)
+    })
+    public ResponseEntity<List<Map<String, Object>>> searchByLeague(@PathVariable String league,
+            @RequestParam List<String> fields) {
+        return PlayerFields.parse(fields)
+                .map(selected -> ResponseEntity.status(HttpStatus.OK)
+                        .body(gather(playersService.searchByLeague(league, selected), FIELDS_LIST)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+    }
+
     /*
      * -----------------------------------------------------------------------------------------------------------------------
      * HTTP PUT
@@ -214,6 +500,10 @@ public class PlayersController {
             return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
         }
         playerDTO.setSquadNumber(squadNumber);
+        PlayersCluster cluster = cluster();
+        if (cluster != null && !cluster.owns(squadNumber)) {
+            return cluster.forward(squadNumber, HttpMethod.PUT, playerDTO, NO_BODY);
+        }
         boolean updated = playersService.update(squadNumber, playerDTO);
         return (updated)
                 ? ResponseEntity.status(HttpStatus.NO_CONTENT).build()
@@ -239,9 +529,104 @@ public class PlayersController {
             @ApiResponse(responseCode = "404", description = "Not Found", content = @Content)
     })
     public ResponseEntity<Void> delete(@PathVariable Integer squadNumber) {
+        PlayersCluster cluster = cluster();
+        if (cluster != null && !cluster.owns(squadNumber)) {
+            return cluster.forward(squadNumber, HttpMethod.DELETE, null, NO_BODY);
+        }
         boolean deleted = playersService.deleteBySquadNumber(squadNumber);
         return (deleted)
                 ? ResponseEntity.status(HttpStatus.NO_CONTENT).build()
                 : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
+
+    /**
+     * Filters every node's players: each node returns its matches up to the end of the page, and the page is cut from
+     * the merged, sorted matches. The total is the sum of every node's count.
+     * <p>
+     * Each peer is asked once, for its first page with the end of the requested page as page size, so a deep page
+     * costs one call per peer. Only authenticated peer requests may exceed {@value #MAX_PAGE_SIZE}.
+     * </p>
+     */
+    private ResponseEntity<List<PlayerDTO>> filterAcrossCluster(PlayersCluster cluster, PlayerFilter filter,
+            Sort sort, int page, int limit) {
+        int offset = page * limit;
+        int end = offset + limit;
+        List<PlayerDTO> players = new ArrayList<>(playersService.filter(filter, sort, 0, end));
+        long count = playersService.count(filter);
+        for (ResponseEntity<List<PlayerDTO>> response : cluster.scatter(
+                uri -> uri.replaceQueryParam("page", 0).replaceQueryParam("limit", end), PLAYERS)) {
+            if (response.getBody() != null) {
+                players.addAll(response.getBody());
+            }
+            count += totalCount(response);
+        }
+        players.sort(PlayerFilter.comparator(sort));
+        return ResponseEntity.status(HttpStatus.OK)
+                .header(TOTAL_COUNT_HEADER, String.valueOf(count))
+                .body(players.subList(Math.min(offset, players.size()), Math.min(end, players.size())));
+    }
+
+    /**
+     * @return a peer's {@value #TOTAL_COUNT_HEADER}
+     * @throws ResponseStatusException 503 Service Unavailable if the peer did not send a count
+     */
+    private static long totalCount(ResponseEntity<?> response) {
+        String total = response.getHeaders().getFirst(TOTAL_COUNT_HEADER);
+        try {
+            if (total != null) {
+                return Long.parseLong(total);
+            }
+        } catch (NumberFormatException _) {
+            // reported below, like a missing count
+        }
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "A peer answered without a valid " + TOTAL_COUNT_HEADER + " header");
+    }
+
+    /**
+     * @return whether another node of the cluster, authenticated by the shared secret, sent the current request
+     */
+    private boolean isPeerRequest() {
+        PlayersCluster cluster = playersCluster.getIfAvailable();
+        return cluster != null && cluster.isPeerRequest();
+    }
+
+    /**
+     * @return the cluster, or null when not clustered or when another node asked for this node's players only
+     */
+    private PlayersCluster cluster() {
+        PlayersCluster cluster = playersCluster.getIfAvailable();
+        return (cluster != null && !cluster.isPeerRequest()) ? cluster : null;
+    }
+
+    private <T> List<T> gather(List<T> local, ParameterizedTypeReference<List<T>> type) {
+        PlayersCluster cluster = cluster();
+        return (cluster != null) ? cluster.gather(local, type) : local;
+    }
+
+    private <T> T find(T local, ParameterizedTypeReference<T> type) {
+        PlayersCluster cluster = cluster();
+        return (local == null && cluster != null) ? cluster.find(type) : local;
+    }
+
+    private static <K> List<PlayerDTO> inRequestOrder(List<K> keys, List<PlayerDTO> players,
+            Function<PlayerDTO, K> keyOf) {
+        Map<K, PlayerDTO> byKey = players.stream()
+                .collect(Collectors.toMap(keyOf, Function.identity(), (first, _) -> first));
+        return keys.stream()
+                .distinct()
+                .map(byKey::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static <T> ResponseEntity<T> found(T body) {
+        return (body != null)
+                ? ResponseEntity.status(HttpStatus.OK).body(body)
+                : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    private static boolean isValidBatch(List<?> ids) {
+        return !ids.isEmpty() && ids.size() <= MAX_BATCH_SIZE && !ids.contains(null);
+    }
 }
@@ -0,0 +1,68 @@
+package ar.com.nanotaboada.java.samples.spring.boot.controllers;
+
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersArrowExport;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * REST Controller for columnar exports of the roster.
+ * <p>
+ * The roster is streamed as an Apache Arrow IPC stream (see {@link PlayersArrowExport}) while it is read, so
+ * analytical tools get typed, dictionary-encoded columns without parsing JSON, and the server never holds more than
+ * one batch.
+ * </p>
+ * <p>
+ * In cluster mode, the export is not gathered from the other nodes: each node streams the players it stores, and the
+ * whole roster is the union of every node's export. Streams cannot be merged without decoding them, which would give
+ * up the bounded memory the export is for.
+ * </p>
+ *
+ * <h3>Base Path:</h3>
+ * <ul>
+ * <li><b>GET</b> {@code /players/export} - Every player, as {@code application/vnd.apache.arrow.stream}</li>
+ * </ul>
+ *
+ * @see PlayersArrowExport
+ * @since 4.0.2025
+ */
+@RestController
+@Tag(name = "Players")
+@RequiredArgsConstructor
+public class PlayersExportController {
+
+    private final PlayersArrowExport playersArrowExport;
+
+    /**
+     * Streams every player stored on this node as Arrow.
+     *
+     * @return 200 OK with the Arrow IPC stream, as a {@code players.arrows} attachment
+     */
+    @GetMapping(value = "/players/export", produces = ArrowStreamWriter.MEDIA_TYPE)
+    @Operation(summary = "Exports every player as an Apache Arrow IPC stream", description = "In cluster mode, only the players stored on the node that answers")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = ArrowStreamWriter.MEDIA_TYPE))
+    })
+    public ResponseEntity<StreamingResponseBody> getExport() {
+        ContentDisposition attachment = ContentDisposition.attachment().filename("players.arrows").build();
+        // Streaming bodies skip message conversion, so the type in produces is not applied to the response
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(ArrowStreamWriter.MEDIA_TYPE))
+                .header(CONTENT_DISPOSITION, attachment.toString())
+                .body(playersArrowExport::write);
+    }
+}
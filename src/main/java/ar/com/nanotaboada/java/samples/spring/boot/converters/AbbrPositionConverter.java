@@ -0,0 +1,19 @@
+package ar.com.nanotaboada.java.samples.spring.boot.converters;
+
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.LookupTable;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the abbreviated position as an id into the {@code abbr_positions} lookup table.
+ *
+ * @see LookupConverter
+ * @since 4.0.2025
+ */
+@Converter
+public class AbbrPositionConverter extends LookupConverter {
+
+    public AbbrPositionConverter(PlayerLookups playerLookups) {
+        super(playerLookups, LookupTable.ABBR_POSITIONS);
+    }
+}
@@ -0,0 +1,438 @@
+package ar.com.nanotaboada.java.samples.spring.boot.converters;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes the Apache Arrow IPC streaming format ({@code application/vnd.apache.arrow.stream}): a schema, dictionary
+ * batches, then record batches, each framed as an encapsulated message, and an end-of-stream marker.
+ * <p>
+ * Only the column types the roster needs are supported: UTF-8 strings, 32-bit signed integers, dates as days since
+ * the epoch, booleans, and UTF-8 strings dictionary-encoded with 32-bit signed indices. Metadata is written with
+ * {@link FlatBufferBuilder}, as metadata version V5, little-endian, uncompressed.
+ * </p>
+ *
+ * <h3>Usage:</h3>
+ * <ol>
+ * <li>{@link #writeSchema(List)} once</li>
+ * <li>{@link #writeDictionary(long, Utf8Column, boolean)} for every dictionary, before the first batch that uses
+ * it; entries added later are sent as delta batches</li>
+ * <li>{@link #writeBatch(int, List)} for each batch of rows, one column per field, in schema order</li>
+ * <li>{@link #end()}</li>
+ * </ol>
+ * <p>
+ * Columns are plain growable buffers: fill them, write the batch, then {@link Column#clear()} them for the next one,
+ * so memory is bounded by the batch size rather than the number of rows.
+ * </p>
+ *
+ * @see <a href="https://arrow.apache.org/docs/format/Columnar.html#serialization-and-interprocess-communication-ipc">
+ *      Arrow IPC format</a>
+ * @since 4.0.2025
+ */
+public final class ArrowStreamWriter {
+
+    /**
+     * Media type of the Arrow IPC streaming format.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.apache.arrow.stream";
+
+    private static final int CONTINUATION = 0xFFFFFFFF;
+    private static final short METADATA_V5 = 4;
+    private static final byte HEADER_SCHEMA = 1;
+    private static final byte HEADER_DICTIONARY_BATCH = 2;
+    private static final byte HEADER_RECORD_BATCH = 3;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_UTF8 = 5;
+    private static final byte TYPE_BOOL = 6;
+    private static final byte TYPE_DATE = 8;
+    private static final short DATE_UNIT_DAY = 0;
+    private static final short DATE_UNIT_MILLISECOND = 1;
+    private static final byte[] PADDING = new byte[8];
+
+    private final OutputStream out;
+
+    public ArrowStreamWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Column types.
+     */
+    public enum Type {
+        UTF8, INT32, DATE_DAY, BOOL
+    }
+
+    /**
+     * A column of the schema.
+     *
+     * @param name         the column name
+     * @param type         the value type ({@link Type#UTF8} for dictionary-encoded columns)
+     * @param nullable     whether values may be null
+     * @param dictionaryId the dictionary holding the values, or null if the column holds them itself
+     */
+    public record Field(String name, Type type, boolean nullable, Long dictionaryId) {
+
+        public static Field of(String name, Type type, boolean nullable) {
+            return new Field(name, type, nullable, null);
+        }
+
+        public static Field dictionary(String name, boolean nullable, long dictionaryId) {
+            return new Field(name, Type.UTF8, nullable, dictionaryId);
+        }
+    }
+
+    public void writeSchema(List<Field> fields) throws IOException {
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        int[] offsets = new int[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            offsets[i] = field(builder, fields.get(i));
+        }
+        int vector = offsets(builder, offsets);
+        builder.startTable(4);
+        builder.addOffset(1, vector);
+        int schema = builder.endTable();
+        writeMessage(builder, HEADER_SCHEMA, schema, List.of());
+    }
+
+    /**
+     * @param id     the dictionary id, as given to {@link Field#dictionary(String, boolean, long)}
+     * @param values the entries; indices in record batches count from the first entry of the first batch
+     * @param delta  whether these entries follow the ones already sent for this id
+     */
+    public void writeDictionary(long id, Utf8Column values, boolean delta) throws IOException {
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        List<byte[]> body = new ArrayList<>();
+        int batch = recordBatch(builder, values.size(), List.of(values), body);
+        builder.startTable(3);
+        builder.addLong(0, id, 0);
+        builder.addOffset(1, batch);
+        builder.addBoolean(2, delta, false);
+        int dictionary = builder.endTable();
+        writeMessage(builder, HEADER_DICTIONARY_BATCH, dictionary, body);
+    }
+
+    /**
+     * @param length  the number of rows, which every column must hold
+     * @param columns one column per field, in schema order; an {@link IntColumn} of indices for dictionary-encoded
+     *                fields
+     */
+    public void writeBatch(int length, List<? extends Column> columns) throws IOException {
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        List<byte[]> body = new ArrayList<>();
+        int batch = recordBatch(builder, length, columns, body);
+        writeMessage(builder, HEADER_RECORD_BATCH, batch, body);
+    }
+
+    /**
+     * Writes the end-of-stream marker and flushes; the output stream is left open.
+     */
+    public void end() throws IOException {
+        writeInt(CONTINUATION);
+        writeInt(0);
+        out.flush();
+    }
+
+    private static int field(FlatBufferBuilder builder, Field field) {
+        int name = builder.createString(field.name());
+        int type = type(builder, field.type());
+        int dictionary = 0;
+        if (field.dictionaryId() != null) {
+            int indexType = intType(builder);
+            builder.startTable(4);
+            builder.addLong(0, field.dictionaryId(), 0);
+            builder.addOffset(1, indexType);
+            dictionary = builder.endTable();
+        }
+        // Readers expect the children vector even when it is empty
+        int children = offsets(builder, new int[0]);
+        builder.startTable(7);
+        builder.addOffset(0, name);
+        builder.addBoolean(1, field.nullable(), false);
+        builder.addByte(2, typeId(field.type()), (byte) 0);
+        builder.addOffset(3, type);
+        if (field.dictionaryId() != null) {
+            builder.addOffset(4, dictionary);
+        }
+        builder.addOffset(5, children);
+        return builder.endTable();
+    }
+
+    private static int type(FlatBufferBuilder builder, Type type) {
+        return switch (type) {
+            case INT32 -> intType(builder);
+            case DATE_DAY -> {
+                builder.startTable(1);
+                builder.addShort(0, DATE_UNIT_DAY, DATE_UNIT_MILLISECOND);
+                yield builder.endTable();
+            }
+            case UTF8, BOOL -> {
+                builder.startTable(0);
+                yield builder.endTable();
+            }
+        };
+    }
+
+    private static int intType(FlatBufferBuilder builder) {
+        builder.startTable(2);
+        builder.addInt(0, Integer.SIZE, 0);
+        builder.addBoolean(1, true, false);
+        return builder.endTable();
+    }
+
+    private static byte typeId(Type type) {
+        return switch (type) {
+            case UTF8 -> TYPE_UTF8;
+            case INT32 -> TYPE_INT;
+            case DATE_DAY -> TYPE_DATE;
+            case BOOL -> TYPE_BOOL;
+        };
+    }
+
+    private static int offsets(FlatBufferBuilder builder, int[] offsets) {
+        builder.startVector(Integer.BYTES, offsets.length, Integer.BYTES);
+        for (int i = offsets.length - 1; i >= 0; i--) {
+            builder.addOffset(offsets[i]);
+        }
+        return builder.endVector();
+    }
+
+    /**
+     * Builds a RecordBatch table and collects the body buffers it describes, each padded to 8 bytes.
+     */
+    private static int recordBatch(FlatBufferBuilder builder, int length, List<? extends Column> columns,
+            List<byte[]> body) {
+        List<long[]> buffers = new ArrayList<>();
+        long position = 0;
+        for (Column column : columns) {
+            for (byte[] buffer : column.buffers()) {
+                buffers.add(new long[] { position, buffer.length });
+                body.add(buffer);
+                position += padded(buffer.length);
+            }
+        }
+        builder.startVector(2 * Long.BYTES, buffers.size(), Long.BYTES);
+        for (int i = buffers.size() - 1; i >= 0; i--) {
+            builder.addLongPair(buffers.get(i)[0], buffers.get(i)[1]);
+        }
+        int bufferVector = builder.endVector();
+        builder.startVector(2 * Long.BYTES, columns.size(), Long.BYTES);
+        for (int i = columns.size() - 1; i >= 0; i--) {
+            builder.addLongPair(columns.get(i).size(), columns.get(i).nullCount());
+        }
+        int nodeVector = builder.endVector();
+        builder.startTable(5);
+        builder.addLong(0, length, 0);
+        builder.addOffset(1, nodeVector);
+        builder.addOffset(2, bufferVector);
+        return builder.endTable();
+    }
+
+    /**
+     * Writes an encapsulated message: continuation marker, metadata length, Message flatbuffer padded to 8 bytes,
+     * then the body.
+     */
+    private void writeMessage(FlatBufferBuilder builder, byte headerType, int header, List<byte[]> body)
+            throws IOException {
+        long bodyLength = body.stream().mapToLong(buffer -> padded(buffer.length)).sum();
+        builder.startTable(5);
+        builder.addLong(3, bodyLength, 0);
+        builder.addOffset(2, header);
+        builder.addShort(0, METADATA_V5, (short) 0);
+        builder.addByte(1, headerType, (byte) 0);
+        byte[] metadata = builder.finish(builder.endTable());
+        int metadataLength = (int) padded(metadata.length);
+        writeInt(CONTINUATION);
+        writeInt(metadataLength);
+        out.write(metadata);
+        out.write(PADDING, 0, metadataLength - metadata.length);
+        for (byte[] buffer : body) {
+            out.write(buffer);
+            out.write(PADDING, 0, (int) (padded(buffer.length) - buffer.length));
+        }
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array());
+    }
+
+    private static long padded(long length) {
+        return (length + 7) & ~7L;
+    }
+
+    /**
+     * A growable column of one batch, with its validity bitmap.
+     */
+    public abstract static sealed class Column permits Utf8Column, IntColumn, BoolColumn {
+
+        private byte[] validity = new byte[8];
+        private int size;
+        private int nullCount;
+
+        public int size() {
+            return size;
+        }
+
+        public int nullCount() {
+            return nullCount;
+        }
+
+        /**
+         * Empties the column, keeping its buffers for the next batch.
+         */
+        public void clear() {
+            Arrays.fill(validity, 0, bitmapLength(size), (byte) 0);
+            size = 0;
+            nullCount = 0;
+        }
+
+        public void appendNull() {
+            nullCount++;
+            appendValidity(false);
+            appendEmpty();
+        }
+
+        /**
+         * @return the Arrow buffers of the column, in layout order; the validity bitmap is left empty when nothing
+         *         is null
+         */
+        abstract List<byte[]> buffers();
+
+        /**
+         * Appends the placeholder a null value takes in the value buffers.
+         */
+        abstract void appendEmpty();
+
+        void appendValidity(boolean valid) {
+            validity = ensure(validity, bitmapLength(size + 1));
+            if (valid) {
+                validity[size >> 3] |= (byte) (1 << (size & 7));
+            }
+            size++;
+        }
+
+        byte[] validityBuffer() {
+            return (nullCount == 0) ? new byte[0] : Arrays.copyOf(validity, bitmapLength(size));
+        }
+
+        static int bitmapLength(int bits) {
+            return (bits + 7) >> 3;
+        }
+
+        static byte[] ensure(byte[] buffer, int length) {
+            return (length <= buffer.length) ? buffer : Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+        }
+    }
+
+    /**
+     * UTF-8 strings: validity, 32-bit offsets and data buffers.
+     */
+    public static final class Utf8Column extends Column {
+
+        private int[] offsets = new int[16];
+        private byte[] data = new byte[256];
+
+        public void append(String value) {
+            if (value == null) {
+                appendNull();
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int start = offsets[size()];
+            data = ensure(data, start + bytes.length);
+            System.arraycopy(bytes, 0, data, start, bytes.length);
+            appendValidity(true);
+            setEnd(start + bytes.length);
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            offsets[0] = 0;
+        }
+
+        @Override
+        void appendEmpty() {
+            setEnd(offsets[size() - 1]);
+        }
+
+        @Override
+        List<byte[]> buffers() {
+            ByteBuffer offsetBuffer = ByteBuffer.allocate((size() + 1) * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            offsetBuffer.asIntBuffer().put(offsets, 0, size() + 1);
+            return List.of(validityBuffer(), offsetBuffer.array(), Arrays.copyOf(data, offsets[size()]));
+        }
+
+        private void setEnd(int end) {
+            if (size() >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[size()] = end;
+        }
+    }
+
+    /**
+     * 32-bit signed integers, also used for dates (days since the epoch) and dictionary indices.
+     */
+    public static final class IntColumn extends Column {
+
+        private int[] values = new int[16];
+
+        public void append(int value) {
+            if (size() >= values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size()] = value;
+            appendValidity(true);
+        }
+
+        @Override
+        void appendEmpty() {
+            if (size() - 1 >= values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size() - 1] = 0;
+        }
+
+        @Override
+        List<byte[]> buffers() {
+            ByteBuffer buffer = ByteBuffer.allocate(size() * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asIntBuffer().put(values, 0, size());
+            return List.of(validityBuffer(), buffer.array());
+        }
+    }
+
+    /**
+     * Booleans, one bit each.
+     */
+    public static final class BoolColumn extends Column {
+
+        private byte[] bits = new byte[8];
+
+        public void append(boolean value) {
+            bits = ensure(bits, bitmapLength(size() + 1));
+            int index = size();
+            bits[index >> 3] = (byte) ((value)
+                    ? bits[index >> 3] | (1 << (index & 7))
+                    : bits[index >> 3] & ~(1 << (index & 7)));
+            appendValidity(true);
+        }
+
+        @Override
+        void appendEmpty() {
+            bits = ensure(bits, bitmapLength(size()));
+            int index = size() - 1;
+            bits[index >> 3] = (byte) (bits[index >> 3] & ~(1 << (index & 7)));
+        }
+
+        @Override
+        List<byte[]> buffers() {
+            return List.of(validityBuffer(), Arrays.copyOf(bits, bitmapLength(size())));
+        }
+    }
+}
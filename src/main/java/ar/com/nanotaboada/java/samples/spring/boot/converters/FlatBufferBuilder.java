@@ -0,0 +1,204 @@
+package ar.com.nanotaboada.java.samples.spring.boot.converters;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The part of a FlatBuffers builder that Arrow IPC metadata needs: tables of scalars and offsets, strings, and
+ * vectors of offsets or of 16-byte structs.
+ * <p>
+ * Like the reference builder, it writes back to front: children are written before the table that points at them,
+ * and every offset points forward. Vtables are not shared between tables, which costs a few bytes per message and
+ * nothing else.
+ * </p>
+ *
+ * @see <a href="https://flatbuffers.dev/internals/">FlatBuffers internals</a>
+ * @since 4.0.2025
+ */
+final class FlatBufferBuilder {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+    private int space = buffer.capacity();
+    private int minAlign = 1;
+    private int[] vtable;
+    private int objectStart;
+    private int vectorLength;
+
+    /**
+     * @return the offset of the last thing written, counted from the end of the buffer
+     */
+    int offset() {
+        return buffer.capacity() - space;
+    }
+
+    int createString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        prep(1, 0);
+        putByte((byte) 0);
+        startVector(1, bytes.length, 1);
+        space -= bytes.length;
+        buffer.put(space, bytes);
+        return endVector();
+    }
+
+    /**
+     * Starts a vector; write its elements last to first, then call {@link #endVector()}.
+     */
+    void startVector(int elementSize, int length, int alignment) {
+        vectorLength = length;
+        prep(Integer.BYTES, elementSize * length);
+        prep(alignment, elementSize * length);
+    }
+
+    int endVector() {
+        putInt(vectorLength);
+        return offset();
+    }
+
+    /**
+     * Writes one element of a vector of offsets.
+     */
+    void addOffset(int offset) {
+        prep(Integer.BYTES, 0);
+        putInt(offset() - offset + Integer.BYTES);
+    }
+
+    /**
+     * Writes one element of a vector of structs made of two {@code long}s.
+     */
+    void addLongPair(long first, long second) {
+        prep(Long.BYTES, 2 * Long.BYTES);
+        putLong(second);
+        putLong(first);
+    }
+
+    void startTable(int fields) {
+        vtable = new int[fields];
+        objectStart = offset();
+    }
+
+    void addBoolean(int field, boolean value, boolean defaultValue) {
+        if (value != defaultValue) {
+            prep(1, 0);
+            putByte((byte) (value ? 1 : 0));
+            vtable[field] = offset();
+        }
+    }
+
+    void addByte(int field, byte value, byte defaultValue) {
+        if (value != defaultValue) {
+            prep(1, 0);
+            putByte(value);
+            vtable[field] = offset();
+        }
+    }
+
+    void addShort(int field, short value, short defaultValue) {
+        if (value != defaultValue) {
+            prep(Short.BYTES, 0);
+            putShort(value);
+            vtable[field] = offset();
+        }
+    }
+
+    void addInt(int field, int value, int defaultValue) {
+        if (value != defaultValue) {
+            prep(Integer.BYTES, 0);
+            putInt(value);
+            vtable[field] = offset();
+        }
+    }
+
+    void addLong(int field, long value, long defaultValue) {
+        if (value != defaultValue) {
+            prep(Long.BYTES, 0);
+            putLong(value);
+            vtable[field] = offset();
+        }
+    }
+
+    void addOffset(int field, int offset) {
+        addOffset(offset);
+        vtable[field] = offset();
+    }
+
+    /**
+     * Writes the table's vtable just before it.
+     *
+     * @return the table's offset
+     */
+    int endTable() {
+        prep(Integer.BYTES, 0);
+        putInt(0);
+        int table = offset();
+        int used = vtable.length;
+        while (used > 0 && vtable[used - 1] == 0) {
+            used--;
+        }
+        for (int field = used - 1; field >= 0; field--) {
+            prep(Short.BYTES, 0);
+            putShort((short) ((vtable[field] != 0) ? table - vtable[field] : 0));
+        }
+        prep(Short.BYTES, 0);
+        putShort((short) (table - objectStart));
+        prep(Short.BYTES, 0);
+        putShort((short) ((used + 2) * Short.BYTES));
+        buffer.putInt(buffer.capacity() - table, offset() - table);
+        vtable = null;
+        return table;
+    }
+
+    /**
+     * Writes the root offset.
+     *
+     * @return the finished buffer, whose length is a multiple of its largest alignment
+     */
+    byte[] finish(int root) {
+        prep(minAlign, Integer.BYTES);
+        addOffset(root);
+        return Arrays.copyOfRange(buffer.array(), space, buffer.capacity());
+    }
+
+    /**
+     * Pads so that, once {@code additionalBytes} more are written, the write position is aligned to {@code size}.
+     */
+    private void prep(int size, int additionalBytes) {
+        minAlign = Math.max(minAlign, size);
+        int padding = (~(offset() + additionalBytes) + 1) & (size - 1);
+        while (space < padding + size + additionalBytes) {
+            grow();
+        }
+        for (int i = 0; i < padding; i++) {
+            putByte((byte) 0);
+        }
+    }
+
+    private void grow() {
+        int used = offset();
+        ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+        grown.put(grown.capacity() - used, buffer.array(), space, used);
+        space += grown.capacity() - buffer.capacity();
+        buffer = grown;
+    }
+
+    private void putByte(byte value) {
+        buffer.put(--space, value);
+    }
+
+    private void putShort(short value) {
+        space -= Short.BYTES;
+        buffer.putShort(space, value);
+    }
+
+    private void putInt(int value) {
+        space -= Integer.BYTES;
+        buffer.putInt(space, value);
+    }
+
+    private void putLong(long value) {
+        space -= Long.BYTES;
+        buffer.putLong(space, value);
+    }
+}
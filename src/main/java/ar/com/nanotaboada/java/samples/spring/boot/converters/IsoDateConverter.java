@@ -49,20 +49,28 @@ public class IsoDateConverter implements AttributeConverter<LocalDate, String> {
 
     private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
 
+    /**
+     * Canonical stored form, identical to the seed data: millisecond precision and a literal {@code Z}.
+     * Every value written with one fixed-width form makes TEXT comparison match date order, so range
+     * filters on {@code dateOfBirth} can use its index.
+     */
+    private static final DateTimeFormatter CANONICAL_FORMATTER = DateTimeFormatter.ofPattern(
+            "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+
     /**
      * Converts a {@link LocalDate} to an ISO-8601 formatted string for database
      * storage.
      *
      * @param date the LocalDate to convert (may be null)
-     * @return ISO-8601 formatted string (e.g., "1992-09-02T00:00:00Z"), or null if
-     * input is null
+     * @return ISO-8601 formatted string (e.g., "1992-09-02T00:00:00.000Z"), or null
+     * if input is null
      */
     @Override
     public String convertToDatabaseColumn(LocalDate date) {
         if (date == null) {
             return null;
         }
-        return date.atStartOfDay().atOffset(ZoneOffset.UTC).format(ISO_FORMATTER);
+        return date.atStartOfDay().atOffset(ZoneOffset.UTC).format(CANONICAL_FORMATTER);
     }
 
     /**
@@ -0,0 +1,19 @@
+package ar.com.nanotaboada.java.samples.spring.boot.converters;
+
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.LookupTable;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the league name as an id into the {@code leagues} lookup table.
+ *
+ * @see LookupConverter
+ * @since 4.0.2025
+ */
+@Converter
+public class LeagueConverter extends LookupConverter {
+
+    public LeagueConverter(PlayerLookups playerLookups) {
+        super(playerLookups, LookupTable.LEAGUES);
+    }
+}
@@ -0,0 +1,68 @@
+package ar.com.nanotaboada.java.samples.spring.boot.converters;
+
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.LookupTable;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Base JPA AttributeConverter for properties stored as an id into a {@link LookupTable}: the entity keeps the name,
+ * the column holds the id.
+ * <p>
+ * Hibernate creates converters through Spring's bean container, so subclasses receive {@link PlayerLookups} in their
+ * constructor. Hydrated names are the shared {@link StringDictionary} instances.
+ * </p>
+ *
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * {
+ *     &#64;code
+ *     &#64;Entity
+ *     public class Player {
+ *         @Column(name = "leagueId")
+ *         @Convert(converter = LeagueConverter.class)
+ *         private String league;
+ *     }
+ * }
+ * </pre>
+ *
+ * @see PlayerLookups
+ * @since 4.0.2025
+ */
+public abstract class LookupConverter implements AttributeConverter<String, Integer> {
+
+    /**
+     * Bound for names not in the table: no row has it, so filters on them match nothing.
+     */
+    public static final int UNKNOWN_ID = -1;
+
+    private final PlayerLookups playerLookups;
+    private final LookupTable table;
+
+    protected LookupConverter(PlayerLookups playerLookups, LookupTable table) {
+        this.playerLookups = playerLookups;
+        this.table = table;
+    }
+
+    /**
+     * @param name the attribute value (may be null)
+     * @return the id of the name, {@link #UNKNOWN_ID} if it is not in the table, or null if it is null
+     */
+    @Override
+    public Integer convertToDatabaseColumn(String name) {
+        if (name == null) {
+            return null;
+        }
+        Integer id = playerLookups.idOf(table, name);
+        return (id != null) ? id : UNKNOWN_ID;
+    }
+
+    /**
+     * @param id the column value read from the database (may be null)
+     * @return the shared instance of the name with that id
+     */
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return playerLookups.nameOf(table, id);
+    }
+}
@@ -0,0 +1,158 @@
+package ar.com.nanotaboada.java.samples.spring.boot.converters;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+
+/**
+ * Compact binary layout of one player, shared by the records kept in native memory and the roster snapshot file.
+ *
+ * <h3>Record layout (unaligned, native byte order):</h3>
+ * <ul>
+ * <li><b>0:</b> {@code int} record length in bytes, this header included</li>
+ * <li><b>4:</b> {@code int} squad number</li>
+ * <li><b>8:</b> two {@code long}s, the most and least significant bits of the id</li>
+ * <li><b>24:</b> {@code long} date of birth as epoch day, {@link Long#MIN_VALUE} when absent</li>
+ * <li><b>32:</b> {@code byte} starting 11: 1 true, 0 false, -1 absent</li>
+ * <li><b>33:</b> first name, middle name, last name, position, abbreviated position, team and league, each as a
+ * {@code short} UTF-8 length (-1 when absent) followed by its bytes</li>
+ * </ul>
+ *
+ * <p>
+ * Reads are bounds-checked by {@link MemorySegment}: a truncated or corrupt record fails with an
+ * {@link IndexOutOfBoundsException} instead of reading past it.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+public final class PlayerRecordCodec {
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED;
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED;
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+
+    private static final int LENGTH_OFFSET = 0;
+    private static final int SQUAD_NUMBER_OFFSET = 4;
+    private static final int ID_OFFSET = 8;
+    private static final int DATE_OF_BIRTH_OFFSET = 24;
+    private static final int STARTING11_OFFSET = 32;
+    private static final int STRINGS_OFFSET = 33;
+    private static final int STRING_FIELDS = 7;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private PlayerRecordCodec() {
+    }
+
+    /**
+     * @param segment a segment holding records
+     * @param offset  where a record starts
+     * @return the length of that record, in bytes
+     */
+    public static int length(MemorySegment segment, long offset) {
+        return segment.get(INT, offset + LENGTH_OFFSET);
+    }
+
+    /**
+     * Compares the id of a record without decoding it.
+     *
+     * @param record the record
+     * @param id     the expected id
+     * @return whether the record holds that id
+     */
+    public static boolean hasId(MemorySegment record, UUID id) {
+        return record.get(LONG, ID_OFFSET) == id.getMostSignificantBits()
+                && record.get(LONG, ID_OFFSET + 8) == id.getLeastSignificantBits();
+    }
+
+    /**
+     * Encodes into a heap segment, to be copied where the record is kept in one bulk {@link MemorySegment#copy}.
+     *
+     * @param player the player to encode
+     * @return the encoded record, or null if the player has no id or squad number, or a string is longer than its
+     * {@code short} length allows
+     */
+    public static MemorySegment encode(PlayerDTO player) {
+        if (player.getId() == null || player.getSquadNumber() == null) {
+            return null;
+        }
+        byte[][] strings = {
+                utf8(player.getFirstName()), utf8(player.getMiddleName()), utf8(player.getLastName()),
+                utf8(player.getPosition()), utf8(player.getAbbrPosition()), utf8(player.getTeam()),
+                utf8(player.getLeague())
+        };
+        int length = STRINGS_OFFSET;
+        for (byte[] string : strings) {
+            if (string != null && string.length > Short.MAX_VALUE) {
+                return null;
+            }
+            length += Short.BYTES + ((string != null) ? string.length : 0);
+        }
+        MemorySegment record = MemorySegment.ofArray(new byte[length]);
+        record.set(INT, LENGTH_OFFSET, length);
+        record.set(INT, SQUAD_NUMBER_OFFSET, player.getSquadNumber());
+        record.set(LONG, ID_OFFSET, player.getId().getMostSignificantBits());
+        record.set(LONG, ID_OFFSET + 8, player.getId().getLeastSignificantBits());
+        record.set(LONG, DATE_OF_BIRTH_OFFSET,
+                (player.getDateOfBirth() != null) ? player.getDateOfBirth().toEpochDay() : NO_DATE);
+        record.set(BYTE, STARTING11_OFFSET,
+                (player.getStarting11() != null) ? (byte) (player.getStarting11() ? 1 : 0) : (byte) -1);
+        long offset = STRINGS_OFFSET;
+        for (byte[] string : strings) {
+            if (string == null) {
+                record.set(SHORT, offset, (short) -1);
+                offset += Short.BYTES;
+            } else {
+                record.set(SHORT, offset, (short) string.length);
+                offset += Short.BYTES;
+                MemorySegment.copy(string, 0, record, BYTE, offset, string.length);
+                offset += string.length;
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Low-cardinality strings go through the {@link StringDictionary}, as they do when read from the database.
+     *
+     * @param record the record, sliced to its length
+     * @return a new DTO
+     */
+    public static PlayerDTO decode(MemorySegment record) {
+        String[] strings = new String[STRING_FIELDS];
+        long offset = STRINGS_OFFSET;
+        for (int i = 0; i < STRING_FIELDS; i++) {
+            short length = record.get(SHORT, offset);
+            offset += Short.BYTES;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                MemorySegment.copy(record, BYTE, offset, bytes, 0, length);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                offset += length;
+            }
+        }
+        long dateOfBirth = record.get(LONG, DATE_OF_BIRTH_OFFSET);
+        byte starting11 = record.get(BYTE, STARTING11_OFFSET);
+        PlayerDTO player = new PlayerDTO();
+        player.setId(new UUID(record.get(LONG, ID_OFFSET), record.get(LONG, ID_OFFSET + 8)));
+        player.setFirstName(strings[0]);
+        player.setMiddleName(strings[1]);
+        player.setLastName(strings[2]);
+        player.setDateOfBirth((dateOfBirth != NO_DATE) ? LocalDate.ofEpochDay(dateOfBirth) : null);
+        player.setSquadNumber(record.get(INT, SQUAD_NUMBER_OFFSET));
+        player.setPosition(StringDictionary.canonical(strings[3]));
+        player.setAbbrPosition(StringDictionary.canonical(strings[4]));
+        player.setTeam(StringDictionary.canonical(strings[5]));
+        player.setLeague(StringDictionary.canonical(strings[6]));
+        player.setStarting11((starting11 >= 0) ? starting11 == 1 : null);
+        return player;
+    }
+
+    private static byte[] utf8(String value) {
+        return (value != null) ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,19 @@
+package ar.com.nanotaboada.java.samples.spring.boot.converters;
+
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.LookupTable;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the position name as an id into the {@code positions} lookup table.
+ *
+ * @see LookupConverter
+ * @since 4.0.2025
+ */
+@Converter
+public class PositionConverter extends LookupConverter {
+
+    public PositionConverter(PlayerLookups playerLookups) {
+        super(playerLookups, LookupTable.POSITIONS);
+    }
+}
@@ -0,0 +1,60 @@
+package ar.com.nanotaboada.java.samples.spring.boot.converters;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary of canonical instances for low-cardinality strings (team, league, position).
+ * <p>
+ * Every hydrated entity and mapped DTO would otherwise hold its own copy of values like {@code "Premier League"};
+ * routing them through {@link #canonical(String)} makes all holders share one instance per distinct value, so a cache
+ * of many players keeps a handful of strings instead of one per player and field.
+ * </p>
+ * <p>
+ * The dictionary is bounded: once {@link #MAX_ENTRIES} distinct values are held, new values are returned as given
+ * rather than added, so a column that turns out not to be low-cardinality cannot grow it without limit.
+ * </p>
+ *
+ * @see LookupConverter
+ * @since 4.0.2025
+ */
+public final class StringDictionary {
+
+    /**
+     * Upper bound on distinct values kept.
+     */
+    public static final int MAX_ENTRIES = 4096;
+
+    private static final Map<String, String> ENTRIES = new ConcurrentHashMap<>();
+
+    private StringDictionary() {
+    }
+
+    /**
+     * Returns the canonical instance of a value, adding it on first sight.
+     *
+     * @param value the value (may be null)
+     * @return an equal string shared by every caller, or {@code value} itself if it is null or the dictionary is full
+     */
+    public static String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = ENTRIES.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (ENTRIES.size() >= MAX_ENTRIES) {
+            return value;
+        }
+        canonical = ENTRIES.putIfAbsent(value, value);
+        return (canonical != null) ? canonical : value;
+    }
+
+    /**
+     * @return the number of distinct values held
+     */
+    public static int size() {
+        return ENTRIES.size();
+    }
+}
@@ -0,0 +1,19 @@
+package ar.com.nanotaboada.java.samples.spring.boot.converters;
+
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.LookupTable;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the team name as an id into the {@code teams} lookup table.
+ *
+ * @see LookupConverter
+ * @since 4.0.2025
+ */
+@Converter
+public class TeamConverter extends LookupConverter {
+
+    public TeamConverter(PlayerLookups playerLookups) {
+        super(playerLookups, LookupTable.TEAMS);
+    }
+}
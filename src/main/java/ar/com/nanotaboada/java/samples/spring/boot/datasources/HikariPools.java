@@ -0,0 +1,32 @@
+package ar.com.nanotaboada.java.samples.spring.boot.datasources;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Builds the extra connection pools of read replicas and league shards: same driver and Hikari settings as the
+ * primary ({@code spring.datasource.*}), another URL.
+ *
+ * @since 4.0.2025
+ */
+final class HikariPools {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    private HikariPools() {
+    }
+
+    static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        pool.setPoolName("players-" + name);
+        return pool;
+    }
+}
@@ -0,0 +1,114 @@
+package ar.com.nanotaboada.java.samples.spring.boot.datasources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+
+/**
+ * Wires league-partitioned storage: players are spread over several SQLite files by league, so writes to leagues on
+ * different shards no longer wait for the same database lock.
+ * <p>
+ * Disabled by default, in which case only {@link LeagueShards#single()} is declared and nothing is routed. Set
+ * {@code players.shards.enabled=true} and list the shard URLs in {@code players.shards.urls} to turn it on: each
+ * shard gets its own pool (same driver and Hikari settings as {@code spring.datasource.*}) and is migrated with the
+ * application's Flyway migrations, then players on the wrong shard, the seed included, are moved to their league's.
+ * </p>
+ * <p>
+ * The {@link DataSource} becomes a {@link LazyConnectionDataSourceProxy} over a {@link LeagueShardDataSource}, and the
+ * {@link PlayersRepository} is wrapped in a {@link ShardedPlayersRepository} that fans reads out and merges them.
+ * </p>
+ *
+ * <h3>Single-database features:</h3>
+ * <ul>
+ * <li>Delta sync, replication, the outbox and the roster snapshot file read one roster version, and each shard has
+ * its own; leave them disabled</li>
+ * <li>Read replicas replace the same {@link DataSource}; the two cannot be combined</li>
+ * </ul>
+ *
+ * <h3>Properties:</h3>
+ * <ul>
+ * <li>{@code players.shards.urls} — comma-separated JDBC URLs of the shards; the first also holds the lookup
+ * catalog. Changing the list moves leagues between shards on the next start</li>
+ * </ul>
+ *
+ * @see LeagueShards
+ * @since 4.0.2025
+ */
+@Configuration(proxyBeanMethods = false)
+public class LeagueShardConfiguration {
+
+    @Bean
+    LeagueShards leagueShards(DataSourceProperties properties, Environment environment,
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            @Value("${players.shards.enabled:false}") boolean enabled,
+            @Value("${players.shards.urls:}") List<String> urls,
+            @Value("${spring.flyway.enabled:true}") boolean migrate,
+            @Value("${spring.flyway.locations:classpath:db/migration}") String[] locations) {
+        if (!enabled) {
+            return LeagueShards.single();
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : urls) {
+            if (!url.isBlank()) {
+                DataSource shard = HikariPools.pool(properties, environment, url.strip(), "shard-" + shards.size());
+                if (migrate) {
+                    Flyway.configure().dataSource(shard).locations(forVendor(locations, url)).load().migrate();
+                }
+                shards.add(shard);
+            }
+        }
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("players.shards.urls must list at least one shard");
+        }
+        return new LeagueShards(shards, transactionManager::getObject);
+    }
+
+    /**
+     * Resolves the {@code {vendor}} placeholder, as Spring Boot does for the application's own migrations.
+     */
+    private static String[] forVendor(String[] locations, String url) {
+        String vendor = DatabaseDriver.fromJdbcUrl(url.strip()).getId();
+        return Arrays.stream(locations)
+                .map(location -> location.replace("{vendor}", vendor))
+                .toArray(String[]::new);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "players.shards.enabled", havingValue = "true")
+    DataSource dataSource(LeagueShards leagueShards) {
+        return new LazyConnectionDataSourceProxy(new LeagueShardDataSource(leagueShards));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "players.shards.enabled", havingValue = "true")
+    static BeanPostProcessor shardedPlayersRepository(ObjectProvider<LeagueShards> leagueShards,
+            ObjectProvider<PlayerLookups> playerLookups) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof PlayersRepository repository) {
+                    return ShardedPlayersRepository.wrap(repository, leagueShards.getObject(), playerLookups);
+                }
+                return bean;
+            }
+        };
+    }
+}
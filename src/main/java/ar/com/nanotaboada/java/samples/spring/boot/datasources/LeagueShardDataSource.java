@@ -0,0 +1,37 @@
+package ar.com.nanotaboada.java.samples.spring.boot.datasources;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * {@link DataSource} that connects to the league shard the current thread is pinned to, or to shard 0 when it is not
+ * pinned (startup, schema validation and lookup tables).
+ * <p>
+ * Behind a {@code LazyConnectionDataSourceProxy}, the connection is only fetched at the first statement, so a
+ * transaction may begin before it knows which league it writes and pin the shard once it does.
+ * </p>
+ *
+ * @see LeagueShards
+ * @since 4.0.2025
+ */
+public class LeagueShardDataSource extends AbstractRoutingDataSource {
+
+    public LeagueShardDataSource(LeagueShards leagueShards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < leagueShards.size(); shard++) {
+            targets.put(shard, leagueShards.dataSource(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(leagueShards.dataSource(0));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return LeagueShards.pinned();
+    }
+}
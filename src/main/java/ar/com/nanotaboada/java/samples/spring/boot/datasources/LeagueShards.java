@@ -0,0 +1,405 @@
+package ar.com.nanotaboada.java.samples.spring.boot.datasources;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.events.RosterStaleEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The league shards: one SQLite database per shard, each holding the players of the leagues that hash to it.
+ * <p>
+ * A league's shard is the CRC-32 of its lower-cased name modulo the number of shards, so it never changes while the
+ * shard list stays the same. Every shard has the full schema and its own {@code roster_version}; the lookup tables of
+ * shard 0 are the catalog all shards share, since the league, team and position ids stored in {@code players} must
+ * mean the same thing everywhere.
+ * </p>
+ *
+ * <h3>Routing:</h3>
+ * <ul>
+ * <li><b>Pinned:</b> A transaction that writes pins the shard of the player's league ({@link #pin(String)}); every
+ * connection it opens from then on, through {@link LeagueShardDataSource}, goes to that shard</li>
+ * <li><b>Fan-out:</b> Work that is not pinned runs on a small executor, once per shard and in parallel, each call
+ * pinned to its shard ({@link #across(Collection, IntFunction)})</li>
+ * <li><b>Directory:</b> Squad numbers and ids are mapped to their shard in memory, loaded at startup and kept up to
+ * date after every committed write, so lookups by key go straight to the owning shard and squad numbers stay unique
+ * across shards ({@link #claim(Integer, String)}); a {@link RosterStaleEvent} has it read again from the shards</li>
+ * </ul>
+ * <p>
+ * {@link #single()} is the unpartitioned case: nothing is ever pinned and every method leaves routing to the
+ * application's single database.
+ * </p>
+ *
+ * @see LeagueShardDataSource
+ * @see LeagueShardConfiguration
+ * @since 4.0.2025
+ */
+@Slf4j
+public class LeagueShards {
+
+    private static final ThreadLocal<Integer> PINNED = new ThreadLocal<>();
+    private static final String PLAYER_COLUMNS = "id, squadNumber, firstName, middleName, lastName, dateOfBirth, "
+            + "positionId, abbrPositionId, teamId, leagueId, starting11, version";
+    private static final String COPY_PLAYER = "INSERT INTO players (" + PLAYER_COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final List<DataSource> shards;
+    private final List<JdbcTemplate> templates;
+    private final Supplier<PlatformTransactionManager> transactionManager;
+    private final ExecutorService executor;
+    private final Map<Integer, Integer> squadNumbers = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * Opens the shards, moves every player to the shard of its league and loads the directory.
+     *
+     * @param shards the shard databases, already migrated; shard 0 holds the lookup catalog
+     * @param transactionManager the application's transaction manager, for {@link #inNewTransaction}
+     */
+    public LeagueShards(List<DataSource> shards, Supplier<PlatformTransactionManager> transactionManager) {
+        this.shards = List.copyOf(shards);
+        this.templates = this.shards.stream().map(JdbcTemplate::new).toList();
+        this.transactionManager = transactionManager;
+        this.executor = this.shards.isEmpty() ? null : Executors.newFixedThreadPool(this.shards.size() * 2,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "league-shards");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        if (isPartitioned()) {
+            rebalance();
+            load();
+        }
+    }
+
+    /**
+     * @return the unpartitioned case: a single database and no routing
+     */
+    public static LeagueShards single() {
+        return new LeagueShards(List.of(), () -> null);
+    }
+
+    /**
+     * @return the shard the current thread is pinned to, or null if it is not pinned
+     */
+    public static Integer pinned() {
+        return PINNED.get();
+    }
+
+    /**
+     * @return whether players are spread across several shards
+     */
+    public boolean isPartitioned() {
+        return !shards.isEmpty();
+    }
+
+    /**
+     * @return the number of shards (0 when not partitioned)
+     */
+    public int size() {
+        return shards.size();
+    }
+
+    /**
+     * @param shard the shard number
+     * @return the shard's database
+     */
+    public DataSource dataSource(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * @param league the league name (may be null)
+     * @return the shard that holds the league's players
+     */
+    public int shardOf(String league) {
+        CRC32 crc = new CRC32();
+        crc.update(String.valueOf(league).toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        return (int) Math.floorMod(crc.getValue(), (long) Math.max(shards.size(), 1));
+    }
+
+    /**
+     * @param squadNumber the squad number
+     * @return the shard that holds the player wearing it, or null if unknown
+     */
+    public Integer ownerOf(Integer squadNumber) {
+        return (squadNumber != null) ? squadNumbers.get(squadNumber) : null;
+    }
+
+    /**
+     * @param id the player id
+     * @return the shard that holds the player, or null if unknown
+     */
+    public Integer ownerOf(UUID id) {
+        return (id != null) ? ids.get(id) : null;
+    }
+
+    /**
+     * Pins the current transaction to the shard of a league, until it completes. Does nothing when not partitioned.
+     *
+     * @param league the league of the player the transaction writes
+     * @throws IllegalStateException if there is no transaction, or it is already pinned to another shard
+     */
+    public void pin(String league) {
+        if (!isPartitioned()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A league shard can only be pinned inside a transaction");
+        }
+        int shard = shardOf(league);
+        Integer current = PINNED.get();
+        if (current != null) {
+            if (current != shard) {
+                throw new IllegalStateException("Transaction already pinned to league shard " + current);
+            }
+            return;
+        }
+        PINNED.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PINNED.remove();
+            }
+        });
+    }
+
+    /**
+     * Reserves a squad number for a new player of a league and pins the current transaction to its shard. The
+     * reservation is released if the transaction rolls back.
+     *
+     * @param squadNumber the new player's squad number
+     * @param league the new player's league
+     * @return false if another player, on any shard, already wears the number
+     */
+    public boolean claim(Integer squadNumber, String league) {
+        if (!isPartitioned()) {
+            return true;
+        }
+        pin(league);
+        int shard = shardOf(league);
+        if (squadNumbers.putIfAbsent(squadNumber, shard) != null) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    squadNumbers.remove(squadNumber, shard);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Runs work pinned to a shard on the current thread, then restores the previous pin.
+     *
+     * @param shard the shard
+     * @param work the work
+     * @return what the work returned
+     */
+    public <T> T on(int shard, Supplier<T> work) {
+        Integer previous = PINNED.get();
+        PINNED.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                PINNED.set(previous);
+            } else {
+                PINNED.remove();
+            }
+        }
+    }
+
+    /**
+     * Runs work in its own transaction on the shard of a league, suspending the current one.
+     *
+     * @param league the league whose shard the work writes
+     * @param work the work
+     * @return what the work returned
+     */
+    public <T> T inNewTransaction(String league, Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager.get());
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return on(shardOf(league), () -> template.execute(_ -> work.get()));
+    }
+
+    /**
+     * Runs work once per shard, in parallel, each call pinned to its shard.
+     *
+     * @param work the work, given the shard number
+     * @return what each call returned, in shard order
+     */
+    public <T> List<T> fanOut(IntFunction<T> work) {
+        return across(IntStream.range(0, shards.size()).boxed().toList(), work);
+    }
+
+    /**
+     * Runs work once for each of the given shards, in parallel, each call pinned to its shard. The calls never run
+     * on the current thread, so they never join its transaction.
+     *
+     * @param targets the shards to run on
+     * @param work the work, given the shard number
+     * @return what each call returned, in the order of {@code targets}
+     */
+    public <T> List<T> across(Collection<Integer> targets, IntFunction<T> work) {
+        List<Future<T>> futures = targets.stream()
+                .map(shard -> executor.submit(() -> on(shard, () -> work.apply(shard))))
+                .toList();
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the league shards");
+            } catch (ExecutionException exception) {
+                if (exception.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("League shard query failed", exception.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Picks the template lookup tables are read and written through: the catalog on shard 0 when the current
+     * transaction is pinned to another shard, the given (routed) template otherwise.
+     *
+     * @param routed the application's template
+     * @return the template to use for lookup tables
+     */
+    public JdbcTemplate lookups(JdbcTemplate routed) {
+        Integer shard = PINNED.get();
+        return (shard != null && shard != 0) ? templates.get(0) : routed;
+    }
+
+    /**
+     * Keeps the directory up to date once a write has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        if (!isPartitioned()) {
+            return;
+        }
+        if (event.type() == PlayerChangedEvent.Type.DELETED) {
+            squadNumbers.remove(event.squadNumber());
+            ids.remove(event.id());
+        } else {
+            int shard = shardOf(event.player().getLeague());
+            squadNumbers.put(event.squadNumber(), shard);
+            ids.put(event.id(), shard);
+        }
+    }
+
+    /**
+     * Reads the directory again when changes may have been missed.
+     */
+    @EventListener
+    public void onRosterStale(RosterStaleEvent event) {
+        if (isPartitioned()) {
+            load();
+        }
+    }
+
+    /**
+     * Moves every player stored on a shard other than its league's to the right one. Shards created from the same
+     * migrations all start with the full seed, so this also leaves each seeded player on exactly one shard.
+     *
+     * @return the number of players moved or dropped as duplicates
+     */
+    public int rebalance() {
+        Map<Integer, String> leagues = new HashMap<>();
+        templates.get(0).query("SELECT id, name FROM leagues",
+                resultSet -> {
+                    leagues.put(resultSet.getInt("id"), resultSet.getString("name"));
+                });
+        int moved = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            JdbcTemplate source = templates.get(shard);
+            for (Map<String, Object> row : source.queryForList("SELECT " + PLAYER_COLUMNS + " FROM players")) {
+                Object leagueId = row.get("leagueId");
+                int owner = shardOf((leagueId != null) ? leagues.get(((Number) leagueId).intValue()) : null);
+                if (owner != shard) {
+                    templates.get(owner).update(COPY_PLAYER, row.values().toArray());
+                    source.update("DELETE FROM players WHERE id = ?", row.get("id"));
+                    moved++;
+                }
+            }
+        }
+        if (moved > 0) {
+            log.info("League shards rebalanced - {} players moved", moved);
+        }
+        return moved;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception exception) {
+                    log.warn("League shard could not be closed", exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads every shard's keys, then drops the entries of players no longer on any shard. Lookups meanwhile still see
+     * the previous entries.
+     */
+    private void load() {
+        Map<UUID, Integer> loadedIds = new HashMap<>();
+        Map<Integer, Integer> loadedSquadNumbers = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int owner = shard;
+            templates.get(shard).query("SELECT id, squadNumber FROM players",
+                    resultSet -> {
+                        loadedIds.put(UUID.fromString(resultSet.getString("id")), owner);
+                        loadedSquadNumbers.put(resultSet.getInt("squadNumber"), owner);
+                    });
+        }
+        ids.putAll(loadedIds);
+        ids.keySet().retainAll(loadedIds.keySet());
+        squadNumbers.putAll(loadedSquadNumbers);
+        squadNumbers.keySet().retainAll(loadedSquadNumbers.keySet());
+        log.info("League shards loaded - {} players on {} shards", ids.size(), shards.size());
+    }
+}
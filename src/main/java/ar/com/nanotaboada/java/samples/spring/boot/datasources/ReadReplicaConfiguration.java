@@ -0,0 +1,70 @@
+package ar.com.nanotaboada.java.samples.spring.boot.datasources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Wires read/write routing: replaces the auto-configured {@link DataSource} with one that sends read-only
+ * transactions to read replicas and everything else to the primary.
+ * <p>
+ * Disabled by default; set {@code players.replicas.enabled=true} and list the replicas in
+ * {@code players.replicas.urls} to turn it on. The primary is still configured through {@code spring.datasource.*};
+ * each replica gets its own pool with the same driver and Hikari settings.
+ * </p>
+ * <p>
+ * Routing uses a {@link LazyConnectionDataSourceProxy}: the physical connection is only fetched at the first
+ * statement, once the transaction has been marked read-only, and read-only connections come from a
+ * {@link ReadReplicaDataSource}. Locally, replicas can be copies of the SQLite file (e.g. taken with
+ * {@code sqlite3 storage/players-sqlite3.db ".backup storage/replica-1.db"}); a copy that falls behind simply stops
+ * receiving reads.
+ * </p>
+ *
+ * <h3>Properties:</h3>
+ * <ul>
+ * <li>{@code players.replicas.urls} — comma-separated JDBC URLs of the replicas</li>
+ * <li>{@code players.replicas.lag-check-interval} — how often each replica's roster version is polled
+ * (default 1s)</li>
+ * </ul>
+ *
+ * @see ReadReplicas
+ * @since 4.0.2025
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "players.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    @Bean
+    ReadReplicas readReplicas(DataSourceProperties properties, Environment environment,
+            @Value("${players.replicas.urls:}") List<String> urls,
+            @Value("${players.replicas.lag-check-interval:1s}") Duration lagCheckInterval) {
+        HikariDataSource primary = HikariPools.pool(properties, environment, properties.determineUrl(), "primary");
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (!url.isBlank()) {
+                replicas.add(HikariPools.pool(properties, environment, url.strip(),
+                        "replica-" + (replicas.size() + 1)));
+            }
+        }
+        return new ReadReplicas(primary, replicas, lagCheckInterval);
+    }
+
+    @Bean
+    DataSource dataSource(ReadReplicas readReplicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(readReplicas.primary());
+        dataSource.setReadOnlyDataSource(new ReadReplicaDataSource(readReplicas));
+        return dataSource;
+    }
+}
@@ -0,0 +1,49 @@
+package ar.com.nanotaboada.java.samples.spring.boot.datasources;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link DataSource} for read-only transactions: connects to a replica that has caught up with this instance's
+ * writes, or to the primary when none has.
+ * <p>
+ * A replica that refuses the connection is marked unavailable and the primary serves the read instead.
+ * </p>
+ *
+ * @see ReadReplicas
+ * @since 4.0.2025
+ */
+@Slf4j
+public class ReadReplicaDataSource extends AbstractDataSource {
+
+    private final ReadReplicas readReplicas;
+
+    public ReadReplicaDataSource(ReadReplicas readReplicas) {
+        this.readReplicas = readReplicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource replica = readReplicas.select();
+        if (replica != null) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException exception) {
+                log.warn("Read replica refused a connection - reading from the primary", exception);
+                readReplicas.markUnavailable(replica);
+            }
+        }
+        return readReplicas.primary().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+}
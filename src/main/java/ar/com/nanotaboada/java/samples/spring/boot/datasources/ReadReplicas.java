@@ -0,0 +1,183 @@
+package ar.com.nanotaboada.java.samples.spring.boot.datasources;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The primary database, its read replicas and how far each replica has caught up.
+ * <p>
+ * Replica lag is measured in roster versions ({@code roster_version} table), the same marker delta sync uses: every
+ * write takes the next version, so a replica whose version is at least the primary's last-commit marker holds every
+ * write committed through this instance.
+ * </p>
+ *
+ * <h3>Read-your-writes:</h3>
+ * <ul>
+ * <li><b>Marker:</b> After each write commits, the primary's version is read and kept as the marker, before the
+ * response is sent; a client reading after its own write therefore never lands on a replica without it</li>
+ * <li><b>Unknown marker:</b> At startup, or if the primary could not be read after a write, every read goes to the
+ * primary until the next poll reads its version</li>
+ * <li><b>Replica versions:</b> Polled at a fixed interval; a replica that fails the poll is unavailable until the next
+ * one succeeds</li>
+ * <li><b>Selection:</b> Round robin over the replicas at or past the marker; when none is, the primary serves the
+ * read</li>
+ * </ul>
+ *
+ * @see ReadReplicaDataSource
+ * @see ReadReplicaConfiguration
+ * @since 4.0.2025
+ */
+@Slf4j
+public class ReadReplicas {
+
+    private static final String VERSION_QUERY = "SELECT version FROM roster_version WHERE id = 1";
+    private static final long UNAVAILABLE = -1L;
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicLong marker = new AtomicLong(UNKNOWN);
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "read-replicas");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReadReplicas(DataSource primary, List<DataSource> replicas, Duration lagCheckInterval) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        refresh();
+        poller.scheduleWithFixedDelay(this::refresh, lagCheckInterval.toMillis(), lagCheckInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the primary database, for writes and for reads no replica can serve yet
+     */
+    public DataSource primary() {
+        return primary;
+    }
+
+    /**
+     * @return the primary's roster version as of the last write committed through this instance
+     */
+    public long marker() {
+        return marker.get();
+    }
+
+    /**
+     * Picks a replica that has every write committed through this instance.
+     *
+     * @return the replica, or null if none has caught up (or none is available)
+     */
+    public DataSource select() {
+        long required = marker.get();
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.version >= required) {
+                return replica.dataSource;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marks a replica unavailable until its next successful poll, e.g. after it refused a connection.
+     *
+     * @param dataSource the replica
+     */
+    public void markUnavailable(DataSource dataSource) {
+        replicas.stream()
+                .filter(replica -> replica.dataSource == dataSource)
+                .forEach(replica -> replica.version = UNAVAILABLE);
+    }
+
+    /**
+     * Advances the marker to the primary's version once a write has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        long version = versionOf(primary);
+        if (version != UNAVAILABLE) {
+            marker.accumulateAndGet(version, (current, committed) ->
+                    (current == UNKNOWN) ? committed : Math.max(current, committed));
+        } else {
+            // Without the marker, no replica can be trusted to hold this write
+            marker.set(UNKNOWN);
+        }
+    }
+
+    /**
+     * Polls the roster version of every replica.
+     */
+    public void refresh() {
+        for (Replica replica : replicas) {
+            replica.version = versionOf(replica.dataSource);
+        }
+        if (marker.get() == UNKNOWN) {
+            long version = versionOf(primary);
+            if (version != UNAVAILABLE) {
+                marker.set(version);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+        close(primary);
+        replicas.forEach(replica -> close(replica.dataSource));
+    }
+
+    private static long versionOf(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(VERSION_QUERY)) {
+            return resultSet.next() ? resultSet.getLong(1) : UNAVAILABLE;
+        } catch (SQLException exception) {
+            log.debug("Roster version could not be read", exception);
+            return UNAVAILABLE;
+        }
+    }
+
+    private static void close(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception exception) {
+                log.warn("Data source could not be closed", exception);
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile long version = UNAVAILABLE;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
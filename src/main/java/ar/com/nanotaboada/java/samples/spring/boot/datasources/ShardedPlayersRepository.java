@@ -0,0 +1,237 @@
+package ar.com.nanotaboada.java.samples.spring.boot.datasources;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFilter;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.LookupTable;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+
+/**
+ * {@link PlayersRepository} over the league shards: sends each call that is not pinned to a shard to the shards that
+ * can answer it, in parallel, and merges what they return.
+ * <p>
+ * A call made while the thread is pinned (every write, see {@link LeagueShards#pin(String)}) goes straight to the
+ * repository and, through {@link LeagueShardDataSource}, to that shard.
+ * </p>
+ *
+ * <h3>Routing:</h3>
+ * <ul>
+ * <li><b>By key:</b> Squad number and id lookups go to the shard the directory maps the key to, or to every shard
+ * when the key is unknown</li>
+ * <li><b>By league:</b> League searches go to the shards of the leagues that match; a filter on one league goes to
+ * its shard</li>
+ * <li><b>Everything else:</b> Every shard</li>
+ * </ul>
+ *
+ * <h3>Merging:</h3>
+ * <ul>
+ * <li><b>Lists:</b> Concatenated, and sorted again when the call took a {@link Sort} or its name ends in
+ * {@code OrderByVersion}</li>
+ * <li><b>Filter pages and {@link Pageable} calls:</b> Each shard returns its first {@code offset + limit} matches;
+ * the merged, sorted list is cut to the page, and page totals are summed</li>
+ * <li><b>Optionals:</b> The first one present</li>
+ * <li><b>Counts:</b> Summed</li>
+ * <li><b>Roster version:</b> Summed. Every commit takes the next version of exactly one shard, so the sum is the
+ * number of writes committed on all shards: it grows with each of them and tells whether the roster changed since it
+ * was last read, but not in which order. Delta sync needs that order, and is refused when the roster is sharded (see
+ * {@code PlayersService#retrieveChangedSince})</li>
+ * <li><b>Booleans:</b> True if any shard says so</li>
+ * <li><b>Anything else:</b> The first non-null result</li>
+ * </ul>
+ * <p>
+ * Unpinned writes are refused: a write must pin the shard of its player's league first.
+ * </p>
+ *
+ * @see LeagueShards
+ * @since 4.0.2025
+ */
+final class ShardedPlayersRepository implements InvocationHandler {
+
+    private final PlayersRepository target;
+    private final LeagueShards leagueShards;
+    private final ObjectProvider<PlayerLookups> playerLookups;
+
+    private ShardedPlayersRepository(PlayersRepository target, LeagueShards leagueShards,
+            ObjectProvider<PlayerLookups> playerLookups) {
+        this.target = target;
+        this.leagueShards = leagueShards;
+        this.playerLookups = playerLookups;
+    }
+
+    static PlayersRepository wrap(PlayersRepository target, LeagueShards leagueShards,
+            ObjectProvider<PlayerLookups> playerLookups) {
+        return (PlayersRepository) Proxy.newProxyInstance(PlayersRepository.class.getClassLoader(),
+                new Class<?>[] { PlayersRepository.class },
+                new ShardedPlayersRepository(target, leagueShards, playerLookups));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "Sharded " + target;
+            };
+        }
+        if (LeagueShards.pinned() != null) {
+            return call(method, args);
+        }
+        return switch (method.getName()) {
+            case "findBySquadNumber", "findProjectedBySquadNumber" ->
+                    byKey(leagueShards.ownerOf((Integer) args[0]), method, args);
+            case "findById", "findProjectedById", "existsById", "getReferenceById", "getById", "getOne" ->
+                    byKey(leagueShards.ownerOf((UUID) args[0]), method, args);
+            case "findByLeagueContainingIgnoreCase", "findProjectedByLeague" ->
+                    merge(method, args, leagueShards.across(shardsOf(playerLookups.getObject()
+                            .namesContaining(LookupTable.LEAGUES, (String) args[0])), _ -> call(method, args)));
+            case "findMatching" -> findMatching((PlayerFilter) args[0], (Sort) args[1], (int) args[2], (int) args[3]);
+            case "countMatching" ->
+                    merge(method, args, leagueShards.across(shardsOf((PlayerFilter) args[0]), _ -> call(method, args)));
+            default -> {
+                if (isWrite(method)) {
+                    throw new IllegalStateException(method.getName() + " must run in a transaction pinned to a "
+                            + "league shard");
+                }
+                if (Slice.class.isAssignableFrom(method.getReturnType())) {
+                    yield findPage(method, args);
+                }
+                yield merge(method, args, leagueShards.fanOut(_ -> call(method, args)));
+            }
+        };
+    }
+
+    private Object byKey(Integer owner, Method method, Object[] args) {
+        List<Object> results = (owner != null)
+                ? leagueShards.across(List.of(owner), _ -> call(method, args))
+                : leagueShards.fanOut(_ -> call(method, args));
+        return merge(method, args, results);
+    }
+
+    private List<Player> findMatching(PlayerFilter filter, Sort sort, int offset, int limit) {
+        int end = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        List<Player> merged = new ArrayList<>();
+        leagueShards.across(shardsOf(filter), _ -> target.findMatching(filter, sort, 0, end))
+                .forEach(merged::addAll);
+        merged.sort(PlayerFilter.comparator(sort));
+        return new ArrayList<>(merged.subList(Math.min(offset, merged.size()), Math.min(end, merged.size())));
+    }
+
+    private Slice<Object> findPage(Method method, Object[] args) {
+        int index = 0;
+        while (!(args[index] instanceof Pageable)) {
+            index++;
+        }
+        Pageable pageable = (Pageable) args[index];
+        Object[] firstPages = args.clone();
+        int end = Integer.MAX_VALUE;
+        if (pageable.isPaged()) {
+            end = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+            firstPages[index] = PageRequest.of(0, end, pageable.getSort());
+        }
+        List<Slice<?>> slices = leagueShards.fanOut(_ -> (Slice<?>) call(method, firstPages));
+        List<Object> merged = new ArrayList<>();
+        slices.forEach(slice -> merged.addAll(slice.getContent()));
+        merged.sort(PlayerFilter.comparator(pageable.getSort()));
+        int offset = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE) : 0;
+        List<Object> content = new ArrayList<>(
+                merged.subList(Math.min(offset, merged.size()), Math.min(end, merged.size())));
+        if (Page.class.isAssignableFrom(method.getReturnType())) {
+            long total = slices.stream().mapToLong(slice -> ((Page<?>) slice).getTotalElements()).sum();
+            return new PageImpl<>(content, pageable, total);
+        }
+        return new SliceImpl<>(content, pageable, merged.size() > end);
+    }
+
+    private List<Integer> shardsOf(PlayerFilter filter) {
+        return (filter.league() != null)
+                ? List.of(leagueShards.shardOf(filter.league()))
+                : IntStream.range(0, leagueShards.size()).boxed().toList();
+    }
+
+    private List<Integer> shardsOf(Collection<String> leagues) {
+        return leagues.stream()
+                .map(leagueShards::shardOf)
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private Object call(Method method, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new UndeclaredThrowableException(exception.getCause());
+        } catch (IllegalAccessException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static Object merge(Method method, Object[] args, List<Object> results) {
+        Class<?> type = method.getReturnType();
+        if (type == Optional.class) {
+            return results.stream()
+                    .map(Optional.class::cast)
+                    .filter(Optional::isPresent)
+                    .findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (type == long.class || type == Long.class) {
+            return results.stream().mapToLong(Long.class::cast).sum();
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (Iterable.class.isAssignableFrom(type) && !Slice.class.isAssignableFrom(type)) {
+            List<Object> merged = new ArrayList<>();
+            results.forEach(result -> ((Iterable<?>) result).forEach(merged::add));
+            for (Object arg : (args != null) ? args : new Object[0]) {
+                if (arg instanceof Sort sort && sort.isSorted()) {
+                    merged.sort(PlayerFilter.comparator(sort));
+                }
+            }
+            if (method.getName().endsWith("OrderByVersion")) {
+                merged.sort(PlayerFilter.comparator(Sort.by("version")));
+            }
+            return merged;
+        }
+        return results.stream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static boolean isWrite(Method method) {
+        String name = method.getName();
+        return name.startsWith("save") || name.startsWith("delete") || name.equals("flush")
+                || name.equals("nextRosterVersion");
+    }
+}
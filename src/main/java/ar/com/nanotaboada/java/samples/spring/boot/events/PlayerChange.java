@@ -0,0 +1,31 @@
+package ar.com.nanotaboada.java.samples.spring.boot.events;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent.Type;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+
+/**
+ * A {@link PlayerChangedEvent} as recorded in the {@link PlayerChangeLog}, stamped with its sequence number.
+ * <p>
+ * This is the payload of each {@code GET /players/changes} event. Sequence numbers start at 1 when the application
+ * starts and increase by one per change, so a client that saw sequence {@code n} has seen every change up to
+ * {@code n}.
+ * </p>
+ *
+ * @param sequence    position of the change in the log
+ * @param type        what happened to the player
+ * @param id          the player's UUID
+ * @param squadNumber the player's squad number
+ * @param player      the player's data after the change, omitted for deletions
+ * @since 4.0.2025
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PlayerChange(long sequence, Type type, UUID id, Integer squadNumber, PlayerDTO player) {
+
+    static PlayerChange of(long sequence, PlayerChangedEvent event) {
+        return new PlayerChange(sequence, event.type(), event.id(), event.squadNumber(), event.player());
+    }
+}
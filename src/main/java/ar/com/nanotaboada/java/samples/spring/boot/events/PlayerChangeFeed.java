@@ -0,0 +1,270 @@
+package ar.com.nanotaboada.java.samples.spring.boot.events;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ar.com.nanotaboada.java.samples.spring.boot.caches.CacheInvalidationBus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans committed player changes out to Server-Sent Events subscribers.
+ * <p>
+ * Each {@link PlayerChangedEvent} is appended to a {@link PlayerChangeLog} after its transaction commits. The write
+ * path stops there: a single dispatcher thread walks every subscriber from the last sequence it queued up to the head
+ * of the log, and puts the events on that subscriber's bounded queue. A burst of writes is therefore handled in one
+ * pass. Each queue is drained by its own sender task, so a slow client only holds up its own stream, never the other
+ * subscribers or a request that changes the roster. A subscriber whose queue overflows is disconnected; it
+ * reconnects with {@code Last-Event-ID} and catches up from the log, or receives a {@code reset}.
+ * </p>
+ * <p>
+ * With {@code players.outbox.enabled=true}, local writes reach the feed from the outbox relay instead
+ * ({@link #publish(PlayerChangedEvent)}), in commit order and only once they are durably recorded. Changes
+ * republished by the cache invalidation bus from other instances still arrive as events.
+ * </p>
+ *
+ * <h3>Events sent to subscribers:</h3>
+ * <ul>
+ * <li><b>created / updated / deleted:</b> one {@link PlayerChange} per change, with the sequence number as event
+ * id</li>
+ * <li><b>reset:</b> the requested {@code Last-Event-ID} is no longer in the log; reload {@code GET /players} and
+ * keep listening</li>
+ * <li><b>heartbeat</b> comments keep idle connections open through proxies and detect clients that went away</li>
+ * </ul>
+ *
+ * <h3>Properties:</h3>
+ * <ul>
+ * <li>{@code players.changes.buffer-size} — changes kept for {@code Last-Event-ID} replay (default 1024)</li>
+ * <li>{@code players.changes.heartbeat} — interval between heartbeat comments (default 15s)</li>
+ * <li>{@code players.changes.subscriber-queue} — events queued for one subscriber before it is disconnected
+ * (default 256)</li>
+ * <li>{@code players.changes.timeout} — lifetime of a connection before the client has to reconnect
+ * (default 30m)</li>
+ * </ul>
+ *
+ * @see PlayerChangeLog
+ * @since 4.0.2025
+ */
+@Slf4j
+@Component
+public class PlayerChangeFeed {
+
+    private final PlayerChangeLog changeLog;
+    private final Duration timeout;
+    private final int queueCapacity;
+    private final boolean outbox;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean deliveryPending = new AtomicBoolean();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "player-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "player-change-feed-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PlayerChangeFeed(
+            @Value("${players.changes.buffer-size:1024}") int bufferSize,
+            @Value("${players.changes.heartbeat:15s}") Duration heartbeat,
+            @Value("${players.changes.timeout:30m}") Duration timeout,
+            @Value("${players.changes.subscriber-queue:256}") int queueCapacity,
+            @Value("${players.outbox.enabled:false}") boolean outbox) {
+        this.changeLog = new PlayerChangeLog(bufferSize);
+        this.timeout = timeout;
+        this.queueCapacity = queueCapacity;
+        this.outbox = outbox;
+        dispatcher.scheduleAtFixedRate(
+                this::sendHeartbeats, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a change stream.
+     *
+     * @param lastEventId the last sequence number the client received, or {@code null} to receive only changes made
+     *                    from now on
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, (lastEventId != null) ? lastEventId : changeLog.lastSequence(),
+                queueCapacity);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(_ -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        dispatcher.execute(() -> deliver(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Records a committed change, unless the outbox relay delivers local writes.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        if (outbox && !CacheInvalidationBus.isRepublishing()) {
+            return;
+        }
+        publish(event);
+    }
+
+    /**
+     * Records a committed change and schedules its delivery; never waits for subscribers.
+     *
+     * @param event the change
+     */
+    public void publish(PlayerChangedEvent event) {
+        changeLog.append(event);
+        if (deliveryPending.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                deliveryPending.set(false);
+                subscribers.forEach(this::deliver);
+            });
+        }
+    }
+
+    /**
+     * @return the sequence number of the latest change
+     */
+    public long lastSequence() {
+        return changeLog.lastSequence();
+    }
+
+    /**
+     * @return the number of open change streams
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void close() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Queues every change a subscriber has not seen yet. Runs on the dispatcher thread only.
+     */
+    private void deliver(Subscriber subscriber) {
+        List<PlayerChange> changes = changeLog.since(subscriber.lastSent);
+        if (changes == null) {
+            long head = changeLog.lastSequence();
+            if (enqueue(subscriber, SseEmitter.event()
+                    .id(String.valueOf(head))
+                    .name("reset")
+                    .data(Map.of("sequence", head), MediaType.APPLICATION_JSON))) {
+                subscriber.lastSent = head;
+            }
+            return;
+        }
+        for (PlayerChange change : changes) {
+            if (!enqueue(subscriber, SseEmitter.event()
+                    .id(String.valueOf(change.sequence()))
+                    .name(change.type().name().toLowerCase(Locale.ROOT))
+                    .data(change, MediaType.APPLICATION_JSON))) {
+                return;
+            }
+            subscriber.lastSent = change.sequence();
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    /**
+     * Puts an event on a subscriber's queue and makes sure a sender drains it; disconnects the subscriber if the queue
+     * is full.
+     *
+     * @return {@code false} if the subscriber was disconnected
+     */
+    private boolean enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            log.debug("Disconnecting change stream subscriber: {} events queued", queueCapacity);
+            subscribers.remove(subscriber);
+            subscriber.closed = true;
+            subscriber.queue.clear();
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+        return !subscriber.closed;
+    }
+
+    /**
+     * Sends a subscriber's queued events in order. Runs on a sender thread, one at a time per subscriber, so a client
+     * that reads slowly blocks only this task.
+     */
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException exception) {
+                    drop(subscriber, exception);
+                    return;
+                }
+            }
+            if (subscriber.closed) {
+                subscriber.emitter.complete();
+                return;
+            }
+            subscriber.draining.set(false);
+        } while ((subscriber.closed || !subscriber.queue.isEmpty())
+                && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void drop(Subscriber subscriber, Exception exception) {
+        log.debug("Dropping change stream subscriber: {}", exception.getMessage());
+        subscribers.remove(subscriber);
+        subscriber.closed = true;
+        subscriber.queue.clear();
+        subscriber.emitter.completeWithError(exception);
+    }
+
+    /**
+     * An open change stream, the last sequence number queued for it (only touched on the dispatcher thread) and the
+     * events waiting to be sent.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private long lastSent;
+
+        Subscriber(SseEmitter emitter, long lastSent, int queueCapacity) {
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
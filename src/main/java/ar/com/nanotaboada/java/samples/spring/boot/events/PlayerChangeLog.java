@@ -0,0 +1,73 @@
+package ar.com.nanotaboada.java.samples.spring.boot.events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded, in-memory log of the most recent player changes.
+ * <p>
+ * A fixed-size ring buffer: appending assigns the next sequence number and overwrites the oldest entry once the log
+ * is full. Readers ask for everything after the last sequence they saw; if part of that range has already been
+ * overwritten (or the sequence is from before a restart) the log cannot fill the gap, and the reader has to start
+ * over from a full roster.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+public class PlayerChangeLog {
+
+    private final PlayerChange[] buffer;
+    private long lastSequence;
+
+    /**
+     * @param capacity the number of changes kept for replay (must be positive)
+     */
+    public PlayerChangeLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+        }
+        this.buffer = new PlayerChange[capacity];
+    }
+
+    /**
+     * Records a change under the next sequence number.
+     *
+     * @param event the change to record
+     * @return the recorded change
+     */
+    public synchronized PlayerChange append(PlayerChangedEvent event) {
+        PlayerChange change = PlayerChange.of(++lastSequence, event);
+        buffer[index(change.sequence())] = change;
+        return change;
+    }
+
+    /**
+     * @return the sequence number of the latest change, or 0 if nothing has changed yet
+     */
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Returns the changes recorded after {@code sequence}, oldest first.
+     *
+     * @param sequence the last sequence number the caller has seen
+     * @return the changes after it (empty if the caller is up to date), or {@code null} if they are no longer all in
+     *         the log or {@code sequence} was never issued
+     */
+    public synchronized List<PlayerChange> since(long sequence) {
+        long oldest = Math.max(1, lastSequence - buffer.length + 1);
+        if (sequence < oldest - 1 || sequence > lastSequence) {
+            return null;
+        }
+        List<PlayerChange> changes = new ArrayList<>((int) (lastSequence - sequence));
+        for (long next = sequence + 1; next <= lastSequence; next++) {
+            changes.add(buffer[index(next)]);
+        }
+        return changes;
+    }
+
+    private int index(long sequence) {
+        return (int) ((sequence - 1) % buffer.length);
+    }
+}
@@ -0,0 +1,43 @@
+package ar.com.nanotaboada.java.samples.spring.boot.events;
+
+import java.util.UUID;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+
+/**
+ * Application event published by {@code PlayersService} after every successful create, update or delete.
+ * <p>
+ * Listeners that must only see committed changes use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT, fallbackExecution = true)}; the event is then delivered
+ * once the surrounding transaction commits, or immediately when there is none.
+ * </p>
+ *
+ * @param type        what happened to the player
+ * @param id          the player's UUID
+ * @param squadNumber the player's squad number
+ * @param player      the player's data after the change, or {@code null} for deletions
+ * @param version     the roster version the change took; listeners that record changes key them by it, since several
+ *                    changes can share one transaction
+ * @see PlayerChangeFeed
+ * @since 4.0.2025
+ */
+public record PlayerChangedEvent(Type type, UUID id, Integer squadNumber, PlayerDTO player, long version) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static PlayerChangedEvent created(PlayerDTO player, long version) {
+        return new PlayerChangedEvent(Type.CREATED, player.getId(), player.getSquadNumber(), player, version);
+    }
+
+    public static PlayerChangedEvent updated(UUID id, PlayerDTO player, long version) {
+        return new PlayerChangedEvent(Type.UPDATED, id, player.getSquadNumber(), player, version);
+    }
+
+    public static PlayerChangedEvent deleted(UUID id, Integer squadNumber, long version) {
+        return new PlayerChangedEvent(Type.DELETED, id, squadNumber, null, version);
+    }
+}
@@ -0,0 +1,23 @@
+package ar.com.nanotaboada.java.samples.spring.boot.events;
+
+import java.util.List;
+
+/**
+ * Receives committed player changes from the outbox relay, in batches, off the request path.
+ * <p>
+ * Declare an implementation as a bean to register it. Delivery is at least once: a batch is only removed from the
+ * outbox once every consumer (and the webhook, if any) has taken it, so after a failure or a crash a consumer may see
+ * a batch again. Changes carry their sequence, which consumers can use to skip what they already handled.
+ * </p>
+ *
+ * @see PlayerChange
+ * @since 4.0.2025
+ */
+@FunctionalInterface
+public interface PlayerOutboxConsumer {
+
+    /**
+     * @param changes the next changes, oldest first; throw to have the batch delivered again later
+     */
+    void accept(List<PlayerChange> changes);
+}
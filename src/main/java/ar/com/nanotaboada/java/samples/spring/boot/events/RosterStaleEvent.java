@@ -0,0 +1,16 @@
+package ar.com.nanotaboada.java.samples.spring.boot.events;
+
+/**
+ * Application event published when this instance may have missed {@link PlayerChangedEvent}s, for example when the
+ * cache invalidation bus sees a gap in roster versions.
+ * <p>
+ * Components that keep a copy of the roster derived from change events drop it and load it again from the database
+ * on next use. Published outside any transaction, so plain {@code @EventListener}s receive it immediately.
+ * </p>
+ *
+ * @param fromVersion the last roster version this instance had seen
+ * @param toVersion   the roster version that revealed the gap
+ * @since 4.0.2025
+ */
+public record RosterStaleEvent(long fromVersion, long toVersion) {
+}
@@ -0,0 +1,58 @@
+package ar.com.nanotaboada.java.samples.spring.boot.indexes;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+
+/**
+ * Player properties kept in the {@link PlayerBitmapIndex}: low-cardinality fields that dashboards filter and group by.
+ *
+ * @since 4.0.2025
+ */
+public enum IndexedField {
+
+    POSITION("position", PlayerDTO::getPosition),
+    TEAM("team", PlayerDTO::getTeam),
+    LEAGUE("league", PlayerDTO::getLeague),
+    STARTING11("starting11", PlayerDTO::getStarting11);
+
+    private final String property;
+    private final Function<PlayerDTO, Object> accessor;
+
+    IndexedField(String property, Function<PlayerDTO, Object> accessor) {
+        this.property = property;
+        this.accessor = accessor;
+    }
+
+    /**
+     * @return the {@link PlayerDTO} property name, also used as query parameter name
+     */
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Reads this field of a player as the string it is indexed under.
+     *
+     * @param player the player
+     * @return the indexed value, or null if the player has none
+     */
+    public String valueOf(PlayerDTO player) {
+        return Objects.toString(accessor.apply(player), null);
+    }
+
+    /**
+     * Finds a field by its property name.
+     *
+     * @param property the property name (e.g. {@code "position"})
+     * @return the field, or empty if that property is not indexed
+     */
+    public static Optional<IndexedField> fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst();
+    }
+}
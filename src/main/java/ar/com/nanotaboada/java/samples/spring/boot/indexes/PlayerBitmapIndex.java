@@ -0,0 +1,290 @@
+package ar.com.nanotaboada.java.samples.spring.boot.indexes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.events.RosterStaleEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory secondary index over the roster for compound filters that never touch the database.
+ * <p>
+ * Every player gets a row ordinal in a dense {@link PlayerDTO} array. For each {@link IndexedField} and each distinct
+ * value, a {@link BitSet} holds the ordinals of the players with that value. A compound filter is then a few word-wide
+ * bitmap ORs (values of one field) and ANDs (across fields), followed by array lookups for the matching ordinals.
+ * </p>
+ *
+ * <h3>Consistency:</h3>
+ * <ul>
+ * <li><b>Load:</b> The roster is read once, when the application is ready (or on first use)</li>
+ * <li><b>Updates:</b> Each {@link PlayerChangedEvent} published by {@code PlayersService} is applied after its
+ * transaction commits, so rolled-back writes never reach the index</li>
+ * <li><b>Missed changes:</b> A {@link RosterStaleEvent} empties the index, which is loaded again on next use</li>
+ * <li><b>Concurrency:</b> Filters share a read lock; updates take the write lock for a few bit flips</li>
+ * </ul>
+ *
+ * <p>
+ * {@link BitSet} is uncompressed, which costs one bit per row per distinct value: a few kilobytes per value at a
+ * hundred thousand players, and nothing to decode on the hot path.
+ * </p>
+ *
+ * @see IndexedField
+ * @since 4.0.2025
+ */
+@Slf4j
+@Component
+public class PlayerBitmapIndex {
+
+    private static final Comparator<PlayerDTO> BY_SQUAD_NUMBER = Comparator.comparing(
+            PlayerDTO::getSquadNumber, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final PlayersRepository playersRepository;
+    private final ModelMapper modelMapper;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<IndexedField, Map<String, BitSet>> bitmaps = new EnumMap<>(IndexedField.class);
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private PlayerDTO[] rows = new PlayerDTO[64];
+    private volatile boolean loaded;
+
+    public PlayerBitmapIndex(PlayersRepository playersRepository, ModelMapper modelMapper) {
+        this.playersRepository = playersRepository;
+        this.modelMapper = modelMapper;
+        for (IndexedField field : IndexedField.values()) {
+            bitmaps.put(field, new HashMap<>());
+        }
+    }
+
+    /**
+     * Finds the players matching every field of a filter, and any of the values given for each field.
+     *
+     * @param criteria accepted values per field; fields without values are not filtered on
+     * @return the matching players, by squad number
+     */
+    public List<PlayerDTO> filter(Map<IndexedField, ? extends Collection<String>> criteria) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(criteria);
+            List<PlayerDTO> players = new ArrayList<>(matches.cardinality());
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                players.add(rows[ordinal]);
+            }
+            players.sort(BY_SQUAD_NUMBER);
+            return players;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the players matching a filter, grouped by the values of one field.
+     *
+     * @param groupBy the field whose values become the groups
+     * @param criteria accepted values per field; fields without values are not filtered on
+     * @return the number of matching players per value, by value; values without matches are left out
+     */
+    public Map<String, Integer> count(IndexedField groupBy, Map<IndexedField, ? extends Collection<String>> criteria) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(criteria);
+            Map<String, Integer> counts = new TreeMap<>();
+            bitmaps.get(groupBy).forEach((value, bitmap) -> {
+                BitSet group = (BitSet) bitmap.clone();
+                group.and(matches);
+                int count = group.cardinality();
+                if (count > 0) {
+                    counts.put(value, count);
+                }
+            });
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of players in the index
+     */
+    public int size() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp() {
+        ensureLoaded();
+    }
+
+    /**
+     * Applies a committed change. Changes arriving before the first load are skipped: the load reads them anyway.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            // Checked under the lock: a load in progress may have read the roster before this change committed
+            if (!loaded) {
+                return;
+            }
+            switch (event.type()) {
+                case CREATED, UPDATED -> put(withId(event.player(), event.id()));
+                case DELETED -> remove(event.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empties the index when changes may have been missed; it is loaded again from the database on next use.
+     */
+    @EventListener
+    public void onRosterStale(RosterStaleEvent event) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.values().forEach(Map::clear);
+            ordinals.clear();
+            live.clear();
+            rows = new PlayerDTO[64];
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                long start = System.nanoTime();
+                playersRepository.findAll().stream()
+                        .map(player -> modelMapper.map(player, PlayerDTO.class))
+                        .sorted(BY_SQUAD_NUMBER)
+                        .forEach(this::put);
+                loaded = true;
+                log.info("Player bitmap index loaded - {} players in {} ms",
+                        live.cardinality(), (System.nanoTime() - start) / 1_000_000);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ANDs, across fields, the OR of the bitmaps of each field's accepted values. Caller holds the read lock.
+     */
+    private BitSet match(Map<IndexedField, ? extends Collection<String>> criteria) {
+        BitSet matches = (BitSet) live.clone();
+        criteria.forEach((field, values) -> {
+            if (values == null || values.isEmpty()) {
+                return;
+            }
+            BitSet accepted = new BitSet();
+            Map<String, BitSet> byValue = bitmaps.get(field);
+            for (String value : values) {
+                BitSet bitmap = byValue.get(value);
+                if (bitmap != null) {
+                    accepted.or(bitmap);
+                }
+            }
+            matches.and(accepted);
+        });
+        return matches;
+    }
+
+    /**
+     * Inserts or replaces a player. Caller holds the write lock.
+     */
+    private void put(PlayerDTO player) {
+        Integer existing = ordinals.get(player.getId());
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            unindex(ordinal, rows[ordinal]);
+        } else {
+            ordinal = live.nextClearBit(0);
+            if (ordinal == rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+            }
+            ordinals.put(player.getId(), ordinal);
+            live.set(ordinal);
+        }
+        rows[ordinal] = player;
+        for (IndexedField field : IndexedField.values()) {
+            String value = field.valueOf(player);
+            if (value != null) {
+                bitmaps.get(field).computeIfAbsent(value, _ -> new BitSet()).set(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Removes a player; its ordinal is reused by the next insert. Caller holds the write lock.
+     */
+    private void remove(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        unindex(ordinal, rows[ordinal]);
+        rows[ordinal] = null;
+        live.clear(ordinal);
+    }
+
+    private void unindex(int ordinal, PlayerDTO player) {
+        for (IndexedField field : IndexedField.values()) {
+            String value = field.valueOf(player);
+            Map<String, BitSet> byValue = bitmaps.get(field);
+            BitSet bitmap = (value != null) ? byValue.get(value) : null;
+            if (bitmap != null) {
+                bitmap.clear(ordinal);
+                if (bitmap.isEmpty()) {
+                    byValue.remove(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Update events carry the request body, whose id is read-only and usually absent; rows always keep the id.
+     */
+    private PlayerDTO withId(PlayerDTO player, UUID id) {
+        if (id.equals(player.getId())) {
+            return player;
+        }
+        PlayerDTO copy = modelMapper.map(player, PlayerDTO.class);
+        copy.setId(id);
+        return copy;
+    }
+}
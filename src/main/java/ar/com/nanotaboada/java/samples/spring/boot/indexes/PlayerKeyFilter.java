@@ -0,0 +1,236 @@
+package ar.com.nanotaboada.java.samples.spring.boot.indexes;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.events.RosterStaleEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory membership filter over the roster keys, so lookups for players that do not exist never reach the database.
+ * <p>
+ * Squad numbers are tracked exactly, in an occupancy {@link BitSet} indexed by squad number. UUIDs are tracked in a
+ * Bloom filter: a "no" is definite, a "maybe" falls through to the database. Both only answer once loaded; until then
+ * every question is answered with "don't know" and callers query as before.
+ * </p>
+ *
+ * <h3>Consistency:</h3>
+ * <ul>
+ * <li><b>Load:</b> The ids and squad numbers are read once, when the application is ready (or on first use)</li>
+ * <li><b>Updates:</b> Each {@link PlayerChangedEvent} is applied after its transaction commits; a created player is
+ * therefore visible to lookups no later than the {@code 201 Created} response</li>
+ * <li><b>Deletions:</b> Clear the squad number bit; a Bloom filter cannot forget, so the deleted id keeps answering
+ * "maybe" until the filter is rebuilt</li>
+ * <li><b>Growth:</b> The Bloom filter is sized for twice the loaded roster (about 1% false positives); once that many
+ * ids were added, it is rebuilt from the database on next use</li>
+ * <li><b>Missed changes:</b> A {@link RosterStaleEvent} has the filter rebuilt from the database on next use</li>
+ * </ul>
+ *
+ * <p>
+ * Rows written around {@code PlayersService} (e.g. bulk SQL) are not seen; set {@code players.key-filter.enabled=false}
+ * where that happens.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+@Slf4j
+@Component
+public class PlayerKeyFilter {
+
+    private static final List<String> KEY_FIELDS = List.of("id", "squadNumber");
+    private static final int MIN_CAPACITY = 1024;
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 7;
+
+    private final PlayersRepository playersRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet squadNumbers = new BitSet();
+    private long[] idBits = new long[0];
+    private long idBitCount;
+    private int idCapacity;
+    private int idsAdded;
+    private volatile boolean loaded;
+
+    public PlayerKeyFilter(PlayersRepository playersRepository,
+            @Value("${players.key-filter.enabled:true}") boolean enabled) {
+        this.playersRepository = playersRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param squadNumber a squad number
+     * @return true if no player has it (definite); false if one does, or if the filter cannot tell
+     */
+    public boolean excludesSquadNumber(Integer squadNumber) {
+        return answer(squadNumber, false);
+    }
+
+    /**
+     * @param squadNumber a squad number
+     * @return true if a player has it; false if none does, or if the filter cannot tell
+     */
+    public boolean containsSquadNumber(Integer squadNumber) {
+        return answer(squadNumber, true);
+    }
+
+    /**
+     * @param id a player UUID
+     * @return true if no player has it (definite); false if one may, or if the filter cannot tell
+     */
+    public boolean excludesId(UUID id) {
+        if (id == null || !ensureLoaded()) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            long hash1 = mix(id.getMostSignificantBits());
+            long hash2 = mix(id.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, idBitCount);
+                if ((idBits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp() {
+        ensureLoaded();
+    }
+
+    /**
+     * Applies a committed change. Changes arriving before the first load are skipped: the load reads them anyway.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            // Checked under the lock: a load in progress may have read the roster before this change committed
+            if (!loaded) {
+                return;
+            }
+            switch (event.type()) {
+                case CREATED -> {
+                    addSquadNumber(event.squadNumber());
+                    addId(event.id());
+                }
+                case UPDATED -> addSquadNumber(event.squadNumber());
+                case DELETED -> {
+                    if (event.squadNumber() != null && event.squadNumber() >= 0) {
+                        squadNumbers.clear(event.squadNumber());
+                    }
+                }
+            }
+            if (idsAdded > idCapacity) {
+                loaded = false; // rebuilt, at a larger size, on next use
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the filter when changes may have been missed; it is rebuilt from the database on next use.
+     */
+    @EventListener
+    public void onRosterStale(RosterStaleEvent event) {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean answer(Integer squadNumber, boolean occupied) {
+        if (squadNumber == null || squadNumber < 0 || !ensureLoaded()) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return squadNumbers.get(squadNumber) == occupied;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return whether the filter can answer
+     */
+    private boolean ensureLoaded() {
+        if (!enabled) {
+            return false;
+        }
+        if (loaded) {
+            return true;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                long start = System.nanoTime();
+                List<Map<String, Object>> keys = playersRepository.findAllProjected(KEY_FIELDS);
+                idCapacity = Math.max(MIN_CAPACITY, keys.size() * 2);
+                idBitCount = (long) idCapacity * BITS_PER_KEY;
+                idBits = new long[(int) ((idBitCount + 63) >>> 6)];
+                idsAdded = 0;
+                squadNumbers.clear();
+                for (Map<String, Object> key : keys) {
+                    addSquadNumber((Integer) key.get("squadNumber"));
+                    addId((UUID) key.get("id"));
+                }
+                loaded = true;
+                log.info("Player key filter loaded - {} players in {} ms",
+                        keys.size(), (System.nanoTime() - start) / 1_000_000);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addSquadNumber(Integer squadNumber) {
+        if (squadNumber != null && squadNumber >= 0) {
+            squadNumbers.set(squadNumber);
+        }
+    }
+
+    private void addId(UUID id) {
+        if (id == null) {
+            return;
+        }
+        long hash1 = mix(id.getMostSignificantBits());
+        long hash2 = mix(id.getLeastSignificantBits()) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, idBitCount);
+            idBits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        idsAdded++;
+    }
+
+    /**
+     * Spreads the bits of a UUID half (SplitMix64 finalizer), so name-based UUIDs hash as evenly as random ones.
+     */
+    private static long mix(long value) {
+        long hash = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,158 @@
+package ar.com.nanotaboada.java.samples.spring.boot.metrics;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SQL activity recorded while handling a single HTTP request.
+ * <p>
+ * Bound to the request thread by {@link SqlStatisticsFilter} and fed by {@link SqlStatisticsDataSource}, which sees
+ * every statement Hibernate, Flyway or a {@code JdbcTemplate} sends through the application {@code DataSource}.
+ * Statements executed outside a request (startup, background jobs) are not attributed to anyone.
+ * </p>
+ *
+ * <h3>Recorded values:</h3>
+ * <ul>
+ * <li><b>Statements:</b> total count, split into SELECT / INSERT / UPDATE / DELETE</li>
+ * <li><b>Rows:</b> rows read through result sets plus rows reported by update counts</li>
+ * <li><b>JDBC time:</b> nanoseconds spent inside statement execution and result-set iteration</li>
+ * <li><b>Repeated SELECTs:</b> how many times the most frequent SELECT text ran — the N+1 signal</li>
+ * </ul>
+ *
+ * @see SqlStatisticsDataSource
+ * @see SqlStatisticsFilter
+ * @since 4.0.2025
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int selects;
+    private int inserts;
+    private int updates;
+    private int deletes;
+    private long rows;
+    private long nanos;
+    private final Map<String, Integer> selectCounts = new HashMap<>();
+
+    SqlStatistics() {
+    }
+
+    /**
+     * Starts recording on the current thread, replacing any previous recording.
+     *
+     * @return the new, empty statistics
+     */
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Continues recording into statistics begun on another thread, e.g. on the thread an async request runs its
+     * {@code Callable} on.
+     *
+     * @param statistics the statistics to record into
+     */
+    public static void resume(SqlStatistics statistics) {
+        CURRENT.set(statistics);
+    }
+
+    /**
+     * Stops recording on the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the statistics being recorded on the current thread, or null outside a recorded request
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(String sql) {
+        statements++;
+        switch (kindOf(sql)) {
+            case "select", "with" -> {
+                selects++;
+                selectCounts.merge(sql, 1, Integer::sum);
+            }
+            case "insert" -> inserts++;
+            case "update" -> updates++;
+            case "delete" -> deletes++;
+            default -> {
+                // DDL, PRAGMA and the like only count towards the total
+            }
+        }
+    }
+
+    void recordRows(long count) {
+        rows += count;
+    }
+
+    void recordNanos(long elapsed) {
+        nanos += elapsed;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getSelects() {
+        return selects;
+    }
+
+    public int getInserts() {
+        return inserts;
+    }
+
+    public int getUpdates() {
+        return updates;
+    }
+
+    public int getDeletes() {
+        return deletes;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return the SELECT text that ran most often in this request, or null if no SELECT ran
+     */
+    public String getMostRepeatedSelect() {
+        return selectCounts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+
+    /**
+     * @return how many times the most repeated SELECT ran (0 if no SELECT ran)
+     */
+    public int getMostRepeatedSelectCount() {
+        return selectCounts.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    private static String kindOf(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+}
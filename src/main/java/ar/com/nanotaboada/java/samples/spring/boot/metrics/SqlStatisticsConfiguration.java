@@ -0,0 +1,60 @@
+package ar.com.nanotaboada.java.samples.spring.boot.metrics;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wires per-request SQL statistics: decorates the application {@link DataSource} and registers the request filter.
+ * <p>
+ * Enabled by default; set {@code players.sql-statistics.enabled=false} to run without the JDBC proxies.
+ * </p>
+ *
+ * <h3>Properties:</h3>
+ * <ul>
+ * <li>{@code players.sql-statistics.expose-headers} — return {@code X-SQL-*} response headers (default false, true in
+ * the {@code debug} profile)</li>
+ * <li>{@code players.sql-statistics.repeated-select-threshold} — repetitions of one SELECT within a request that are
+ * reported as a possible N+1 (default 5)</li>
+ * </ul>
+ *
+ * @see SqlStatisticsDataSource
+ * @see SqlStatisticsFilter
+ * @since 4.0.2025
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "players.sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfiguration {
+
+    @Bean
+    static BeanPostProcessor sqlStatisticsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return (bean instanceof DataSource dataSource && !(bean instanceof SqlStatisticsDataSource))
+                        ? new SqlStatisticsDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${players.sql-statistics.expose-headers:false}") boolean exposeHeaders,
+            @Value("${players.sql-statistics.repeated-select-threshold:5}") int repeatedSelectThreshold) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatisticsFilter(meterRegistry, exposeHeaders, repeatedSelectThreshold));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
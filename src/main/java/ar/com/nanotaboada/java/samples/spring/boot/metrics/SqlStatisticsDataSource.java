@@ -0,0 +1,174 @@
+package ar.com.nanotaboada.java.samples.spring.boot.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} decorator that reports every statement to the current {@link SqlStatistics}.
+ * <p>
+ * Connections, statements and result sets are wrapped in lightweight JDK proxies. Statement execution and
+ * {@code ResultSet.next()} are timed and counted; everything else is passed straight through. When no request is
+ * being recorded, the proxies only forward calls.
+ * </p>
+ *
+ * @see SqlStatistics
+ * @since 4.0.2025
+ */
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    public SqlStatisticsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return wrap(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return wrap(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(
+                SqlStatisticsDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    /**
+     * Forwards a call to the wrapped object; proxies keep identity semantics for equals and hashCode.
+     */
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            default -> {
+                // forwarded below
+            }
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getTargetException();
+        }
+    }
+
+    /**
+     * Wraps statements created by a connection so their SQL text travels with them.
+     */
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlStatisticsDataSource.invoke(proxy, target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrap(PreparedStatement.class, result,
+                        new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall" -> wrap(CallableStatement.class, result,
+                        new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement" -> wrap(Statement.class, result, new StatementHandler((Statement) result, null));
+                default -> result;
+            };
+        }
+    }
+
+    /**
+     * Counts and times executions, and wraps the result sets they return.
+     */
+    private record StatementHandler(Statement target, String preparedSql) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            SqlStatistics statistics = SqlStatistics.current();
+            String name = method.getName();
+            if (statistics == null) {
+                return SqlStatisticsDataSource.invoke(proxy, target, method, args);
+            }
+            if (EXECUTE_METHODS.contains(name)) {
+                String sql = (args != null && args.length > 0 && args[0] instanceof String text) ? text : preparedSql;
+                statistics.recordStatement(sql);
+                long start = System.nanoTime();
+                Object result;
+                try {
+                    result = SqlStatisticsDataSource.invoke(proxy, target, method, args);
+                } finally {
+                    statistics.recordNanos(System.nanoTime() - start);
+                }
+                recordUpdateCounts(statistics, result);
+                return (result instanceof ResultSet resultSet) ? wrapResultSet(resultSet) : result;
+            }
+            Object result = SqlStatisticsDataSource.invoke(proxy, target, method, args);
+            return ("getResultSet".equals(name) && result instanceof ResultSet resultSet)
+                    ? wrapResultSet(resultSet)
+                    : result;
+        }
+
+        /**
+         * Adds rows reported by executeUpdate / executeBatch. Booleans from execute() and result sets are skipped:
+         * their rows are counted while iterating.
+         */
+        private static void recordUpdateCounts(SqlStatistics statistics, Object result) {
+            if (result instanceof Integer count) {
+                statistics.recordRows(Math.max(count, 0));
+            } else if (result instanceof Long count) {
+                statistics.recordRows(Math.max(count, 0));
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    statistics.recordRows(Math.max(count, 0));
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    statistics.recordRows(Math.max(count, 0));
+                }
+            }
+        }
+
+        private static ResultSet wrapResultSet(ResultSet resultSet) {
+            return wrap(ResultSet.class, resultSet, new ResultSetHandler(resultSet));
+        }
+    }
+
+    /**
+     * Counts rows read and times {@code next()}, which is where drivers fetch them.
+     */
+    private record ResultSetHandler(ResultSet target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            SqlStatistics statistics = SqlStatistics.current();
+            if (statistics == null || !"next".equals(method.getName())) {
+                return SqlStatisticsDataSource.invoke(proxy, target, method, args);
+            }
+            long start = System.nanoTime();
+            Object result = SqlStatisticsDataSource.invoke(proxy, target, method, args);
+            statistics.recordNanos(System.nanoTime() - start);
+            if (Boolean.TRUE.equals(result)) {
+                statistics.recordRows(1);
+            }
+            return result;
+        }
+    }
+}
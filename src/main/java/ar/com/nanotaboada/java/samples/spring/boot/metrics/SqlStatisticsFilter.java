@@ -0,0 +1,233 @@
+package ar.com.nanotaboada.java.samples.spring.boot.metrics;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records the SQL each HTTP request runs and publishes it as metrics and, in debug mode, as response headers.
+ * <p>
+ * Every request gets a fresh {@link SqlStatistics}. Once the request completes, the totals are recorded under the
+ * request's method and URI template:
+ * </p>
+ * <ul>
+ * <li>{@code players.sql.statements} — statements per request (distribution summary)</li>
+ * <li>{@code players.sql.rows} — rows read or written per request (distribution summary)</li>
+ * <li>{@code players.sql.time} — JDBC time per request (timer)</li>
+ * <li>{@code players.sql.repeated} — requests where the same SELECT ran at least
+ * {@code players.sql-statistics.repeated-select-threshold} times, the usual sign of an N+1 access pattern
+ * (counter)</li>
+ * </ul>
+ * <p>
+ * With {@code players.sql-statistics.expose-headers=true} (set by the {@code debug} profile) the same totals are
+ * returned as {@code X-SQL-*} headers. The response body is buffered for that until the request returns.
+ * </p>
+ * <p>
+ * Asynchronous requests (the Arrow export, the change stream) are recorded when the async request completes, and
+ * include the statements their {@code Callable} ran on Spring's async executor. Once a request has gone async its
+ * body is no longer buffered: writes made through the output stream go straight to the client, and no
+ * {@code X-SQL-*} headers are added, since the response is committed before the totals are known.
+ * </p>
+ *
+ * @see SqlStatistics
+ * @see SqlStatisticsDataSource
+ * @since 4.0.2025
+ */
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String SELECTS_HEADER = "X-SQL-Selects";
+    public static final String INSERTS_HEADER = "X-SQL-Inserts";
+    public static final String UPDATES_HEADER = "X-SQL-Updates";
+    public static final String DELETES_HEADER = "X-SQL-Deletes";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    public static final String TIME_HEADER = "X-SQL-Time-Millis";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean exposeHeaders;
+    private final int repeatedSelectThreshold;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry, boolean exposeHeaders, int repeatedSelectThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.exposeHeaders = exposeHeaders;
+        this.repeatedSelectThreshold = repeatedSelectThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.begin();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(SqlStatisticsFilter.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void preProcess(NativeWebRequest webRequest, Callable<T> task) {
+                        SqlStatistics.resume(statistics);
+                    }
+
+                    @Override
+                    public <T> void postProcess(NativeWebRequest webRequest, Callable<T> task, Object result) {
+                        SqlStatistics.end();
+                    }
+                });
+        BufferedResponse buffered = exposeHeaders ? new BufferedResponse(request, response) : null;
+        try {
+            chain.doFilter(request, (buffered != null) ? buffered : response);
+        } finally {
+            SqlStatistics.end();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, statistics);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, statistics);
+                if (buffered != null) {
+                    writeHeaders(buffered, statistics);
+                    buffered.copyBodyToResponse();
+                }
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", (pattern != null) ? pattern.toString() : "UNKNOWN");
+        DistributionSummary.builder("players.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("players.sql.rows")
+                .description("Rows read or written per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getRows());
+        Timer.builder("players.sql.time")
+                .description("JDBC time per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+        int repeated = statistics.getMostRepeatedSelectCount();
+        if (repeated >= repeatedSelectThreshold) {
+            meterRegistry.counter("players.sql.repeated", tags).increment();
+            log.warn("Possible N+1 - {} {} ran the same SELECT {} times: {}",
+                    request.getMethod(), tags.stream().filter(tag -> "uri".equals(tag.getKey())).findFirst()
+                            .map(tag -> tag.getValue()).orElse("UNKNOWN"),
+                    repeated, statistics.getMostRepeatedSelect());
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, SqlStatistics statistics) {
+        response.setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+        response.setHeader(SELECTS_HEADER, String.valueOf(statistics.getSelects()));
+        response.setHeader(INSERTS_HEADER, String.valueOf(statistics.getInserts()));
+        response.setHeader(UPDATES_HEADER, String.valueOf(statistics.getUpdates()));
+        response.setHeader(DELETES_HEADER, String.valueOf(statistics.getDeletes()));
+        response.setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+        response.setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.getNanos() / 1_000_000.0));
+    }
+
+    /**
+     * Buffers the body while the request is handled synchronously, and writes straight through once it has gone
+     * async, flushing whatever was buffered before the first async write.
+     */
+    private static final class BufferedResponse extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+        private ServletOutputStream outputStream;
+
+        BufferedResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream buffer = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        target(buffer).write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        target(buffer).write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        target(buffer).flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        buffer.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (request.isAsyncStarted()) {
+                passThrough().flushBuffer();
+            } else {
+                super.flushBuffer();
+            }
+        }
+
+        private ServletOutputStream target(ServletOutputStream buffer) throws IOException {
+            return request.isAsyncStarted() ? passThrough().getOutputStream() : buffer;
+        }
+
+        private synchronized HttpServletResponse passThrough() throws IOException {
+            copyBodyToResponse(false);
+            return (HttpServletResponse) getResponse();
+        }
+    }
+}
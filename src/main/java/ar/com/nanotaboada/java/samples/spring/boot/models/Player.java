@@ -3,15 +3,25 @@ package ar.com.nanotaboada.java.samples.spring.boot.models;
 import java.time.LocalDate;
 import java.util.UUID;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 
+import ar.com.nanotaboada.java.samples.spring.boot.converters.AbbrPositionConverter;
 import ar.com.nanotaboada.java.samples.spring.boot.converters.IsoDateConverter;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.LeagueConverter;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.LookupConverter;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.PositionConverter;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.TeamConverter;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookupsListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -32,7 +42,10 @@ import lombok.NoArgsConstructor;
  * <li>UUID primary key — generated at application level via {@code GenerationType.UUID}</li>
  * <li>Squad number natural key — unique domain identifier, used as path variable for mutations</li>
  * <li>ISO-8601 date storage for SQLite compatibility ({@link IsoDateConverter})</li>
+ * <li>Position, team and league stored as integer ids into lookup tables, hydrated as shared names
+ * ({@link LookupConverter})</li>
  * <li>JSON serialization support for LocalDate fields</li>
+ * <li>Roster version of the last write, for delta sync ({@code GET /players?since={version}})</li>
  * </ul>
  *
  * @see PlayerDTO
@@ -41,6 +54,7 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Table(name = "players")
+@EntityListeners(PlayerLookupsListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -48,9 +62,11 @@ public class Player {
 
     /**
      * Primary key — UUID generated at application level.
+     * Bound as VARCHAR so it matches the 36-character TEXT ids written by the seed migrations.
      */
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(name = "id", nullable = false, updatable = false, columnDefinition = "VARCHAR(36)")
     private UUID id;
 
@@ -73,9 +89,28 @@ public class Player {
     @Convert(converter = IsoDateConverter.class)
     private LocalDate dateOfBirth;
 
+    /**
+     * Position, team and league keep their names here; the columns hold ids into the lookup tables.
+     * New names are added to those tables before the player is written ({@link PlayerLookupsListener}).
+     */
+    @Column(name = "positionId")
+    @Convert(converter = PositionConverter.class)
     private String position;
+    @Column(name = "abbrPositionId")
+    @Convert(converter = AbbrPositionConverter.class)
     private String abbrPosition;
+    @Column(name = "teamId")
+    @Convert(converter = TeamConverter.class)
     private String team;
+    @Column(name = "leagueId")
+    @Convert(converter = LeagueConverter.class)
     private String league;
     private Boolean starting11;
+
+    /**
+     * Roster version at which this player was last created or updated; assigned by the service on every write.
+     * Rows written outside the service (e.g. seed migrations) are at version 1.
+     */
+    @Column(name = "version", nullable = false)
+    private Long version = 1L;
 }
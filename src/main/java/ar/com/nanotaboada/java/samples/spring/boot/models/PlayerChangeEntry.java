@@ -0,0 +1,133 @@
+package ar.com.nanotaboada.java.samples.spring.boot.models;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.IsoDateConverter;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Columns shared by the tables that record committed player changes ({@link PlayerLogEntry},
+ * {@link PlayerOutboxEntry}).
+ * <p>
+ * The sequence is the roster version the change took, so entries are ordered the way they committed. The player is
+ * stored with its names rather than lookup ids, and only for creations and updates.
+ * </p>
+ *
+ * @see PlayerChange
+ * @since 4.0.2025
+ */
+@MappedSuperclass
+@Getter
+@Setter
+public abstract class PlayerChangeEntry implements Persistable<Long> {
+
+    /**
+     * Roster version at which the change committed.
+     */
+    @Id
+    @Column(name = "sequence", nullable = false, updatable = false)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private PlayerChangedEvent.Type type;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "playerId", nullable = false, columnDefinition = "VARCHAR(36)")
+    private UUID playerId;
+
+    @Column(name = "squadNumber", nullable = false)
+    private Integer squadNumber;
+
+    private String firstName;
+    private String middleName;
+    private String lastName;
+    @Convert(converter = IsoDateConverter.class)
+    private LocalDate dateOfBirth;
+    private String position;
+    private String abbrPosition;
+    private String team;
+    private String league;
+    private Boolean starting11;
+
+    /**
+     * Fills the entry from a change.
+     *
+     * @param sequence the roster version the change took
+     * @param event the change
+     */
+    protected void record(long sequence, PlayerChangedEvent event) {
+        setSequence(sequence);
+        setType(event.type());
+        setPlayerId(event.id());
+        setSquadNumber(event.squadNumber());
+        PlayerDTO player = event.player();
+        if (player != null) {
+            setFirstName(player.getFirstName());
+            setMiddleName(player.getMiddleName());
+            setLastName(player.getLastName());
+            setDateOfBirth(player.getDateOfBirth());
+            setPosition(player.getPosition());
+            setAbbrPosition(player.getAbbrPosition());
+            setTeam(player.getTeam());
+            setLeague(player.getLeague());
+            setStarting11(player.getStarting11());
+        }
+    }
+
+    /**
+     * @return the entry as a change, with the player omitted for deletions
+     */
+    public PlayerChange toChange() {
+        PlayerDTO player = null;
+        if (type != PlayerChangedEvent.Type.DELETED) {
+            player = new PlayerDTO();
+            player.setId(playerId);
+            player.setSquadNumber(squadNumber);
+            player.setFirstName(firstName);
+            player.setMiddleName(middleName);
+            player.setLastName(lastName);
+            player.setDateOfBirth(dateOfBirth);
+            player.setPosition(position);
+            player.setAbbrPosition(abbrPosition);
+            player.setTeam(team);
+            player.setLeague(league);
+            player.setStarting11(starting11);
+        }
+        return new PlayerChange(sequence, type, playerId, squadNumber, player);
+    }
+
+    @Override
+    @Transient
+    @JsonIgnore
+    public Long getId() {
+        return sequence;
+    }
+
+    /**
+     * Entries are only ever inserted, so saving one never needs to look for an existing row first.
+     */
+    @Override
+    @Transient
+    @JsonIgnore
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package ar.com.nanotaboada.java.samples.spring.boot.models;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Player properties a client may ask for with {@code fields=} (sparse fieldsets).
+ * <p>
+ * Names are the {@link PlayerDTO} properties, which are also the {@link Player} attribute names, so a requested field
+ * maps straight to a selected column. {@code version} is internal and cannot be requested.
+ * </p>
+ *
+ * @see PlayerDTO
+ * @since 4.0.2025
+ */
+public final class PlayerFields {
+
+    /**
+     * Every selectable field, in {@link PlayerDTO} declaration order.
+     */
+    public static final List<String> ALL = List.of(
+            "id", "firstName", "middleName", "lastName", "dateOfBirth", "squadNumber", "position", "abbrPosition",
+            "team", "league", "starting11");
+
+    private PlayerFields() {
+    }
+
+    /**
+     * Validates the requested fields and puts them in canonical order.
+     * <p>
+     * The result lists each field once, in {@link #ALL} order, whatever the order and repetitions of the request;
+     * it is therefore also a stable cache key.
+     * </p>
+     *
+     * @param requested the field names sent by the client (surrounding blanks are ignored)
+     * @return the canonical field list, or empty if nothing was requested or any name is unknown
+     */
+    public static Optional<List<String>> parse(Collection<String> requested) {
+        List<String> names = requested.stream()
+                .map(name -> (name != null) ? name.strip() : "")
+                .toList();
+        if (names.isEmpty() || !ALL.containsAll(names)) {
+            return Optional.empty();
+        }
+        return Optional.of(ALL.stream().filter(names::contains).toList());
+    }
+}
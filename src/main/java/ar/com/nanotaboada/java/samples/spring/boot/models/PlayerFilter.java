@@ -0,0 +1,101 @@
+package ar.com.nanotaboada.java.samples.spring.boot.models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Criteria of the multi-criteria filter ({@code GET /players/search}), bound from query parameters.
+ * <p>
+ * Every criterion is optional and they are combined with AND; a null criterion matches every player. Text criteria
+ * are exact matches, so each one can seek on an index. Being a record, a filter is also a ready-made cache key.
+ * </p>
+ *
+ * @param team exact team name (e.g. {@code "SL Benfica"})
+ * @param position exact position (e.g. {@code "Centre-Back"})
+ * @param abbrPosition exact abbreviated position (e.g. {@code "CB"})
+ * @param league exact league name (e.g. {@code "Premier League"})
+ * @param starting11 whether the player started the final
+ * @param bornFrom earliest date of birth, inclusive ({@code yyyy-MM-dd})
+ * @param bornTo latest date of birth, inclusive ({@code yyyy-MM-dd})
+ * @since 4.0.2025
+ */
+public record PlayerFilter(
+        String team,
+        String position,
+        String abbrPosition,
+        String league,
+        Boolean starting11,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornTo) {
+
+    /**
+     * Properties a filter result can be sorted by.
+     */
+    public static final Set<String> SORTABLE = Set.of(
+            "squadNumber", "firstName", "lastName", "dateOfBirth", "position", "abbrPosition", "team", "league");
+
+    /**
+     * Whether the birth-date range, if any, is not empty.
+     *
+     * @return false if both bounds are set and {@code bornFrom} is after {@code bornTo}
+     */
+    public boolean hasValidRange() {
+        return bornFrom == null || bornTo == null || !bornFrom.isAfter(bornTo);
+    }
+
+    /**
+     * Parses sort keys such as {@code lastName} (ascending) or {@code -dateOfBirth} (descending).
+     * <p>
+     * Squad number is appended as the last key when missing: it is unique, so pages never overlap or skip players.
+     * </p>
+     *
+     * @param keys the sort keys sent by the client, in priority order (may be empty)
+     * @return the sort, or empty if any key names a property outside {@link #SORTABLE}
+     */
+    public static Optional<Sort> parseSort(List<String> keys) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String key : keys) {
+            String trimmed = key.strip();
+            boolean descending = trimmed.startsWith("-");
+            String property = descending ? trimmed.substring(1) : trimmed;
+            if (!SORTABLE.contains(property)) {
+                return Optional.empty();
+            }
+            orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+        }
+        if (orders.stream().noneMatch(order -> "squadNumber".equals(order.getProperty()))) {
+            orders.add(Sort.Order.asc("squadNumber"));
+        }
+        return Optional.of(Sort.by(orders));
+    }
+
+    /**
+     * Orders players in memory the way a sorted query returns them, for results merged from several databases.
+     * Nulls come first when ascending, as SQLite sorts them.
+     *
+     * @param sort the order (properties from {@link #SORTABLE}, read from {@link Player} or {@link PlayerDTO})
+     * @return a comparator of players in that order
+     */
+    public static Comparator<Object> comparator(Sort sort) {
+        Comparator<Object> comparator = (_, _) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Object> byProperty = Comparator.<Object, Comparable<Object>>comparing(
+                    item -> valueOf(item, order.getProperty()), Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> valueOf(Object item, String property) {
+        return (Comparable<Object>) new BeanWrapperImpl(item).getPropertyValue(property);
+    }
+}
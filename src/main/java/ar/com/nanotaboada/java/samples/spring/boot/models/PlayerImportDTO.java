@@ -0,0 +1,77 @@
+package ar.com.nanotaboada.java.samples.spring.boot.models;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the progress of a bulk import ({@code GET /players/imports/{id}}).
+ * <p>
+ * Counters grow while the import runs; {@code rowsRead} is always {@code imported + rejected} once the job has
+ * finished. Only the first rejections are kept, so {@code rejections} may be shorter than {@code rejected}.
+ * </p>
+ *
+ * @see PlayerDTO
+ * @since 4.0.2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerImportDTO {
+
+    /**
+     * Job id returned when the upload was accepted.
+     */
+    private UUID id;
+
+    private Status status;
+
+    /**
+     * Data rows parsed so far (the CSV header and blank lines are not counted).
+     */
+    private long rowsRead;
+
+    /**
+     * Players created so far.
+     */
+    private long imported;
+
+    /**
+     * Rows that could not be parsed, failed validation or clashed with an existing squad number.
+     */
+    private long rejected;
+
+    private List<Rejection> rejections;
+
+    private Instant submittedAt;
+
+    /**
+     * When the job completed or failed, or null while it is queued or running.
+     */
+    private Instant finishedAt;
+
+    /**
+     * Why the job stopped before the end of the upload, or null.
+     */
+    private String failure;
+
+    /**
+     * Lifecycle of an import job.
+     */
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * A rejected row.
+     *
+     * @param line   the line of the upload the row starts on (1-based, the CSV header included)
+     * @param reason why it was rejected
+     */
+    public record Rejection(long line, String reason) {
+    }
+}
@@ -0,0 +1,34 @@
+package ar.com.nanotaboada.java.samples.spring.boot.models;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.NoArgsConstructor;
+
+/**
+ * JPA Entity recording one committed player change in the replication log.
+ * <p>
+ * Maps to the {@code player_log} table. A follower whose roster version is {@code n} needs exactly the entries after
+ * {@code n}.
+ * </p>
+ *
+ * @see PlayerChange
+ * @since 4.0.2025
+ */
+@Entity
+@Table(name = "player_log")
+@NoArgsConstructor
+public class PlayerLogEntry extends PlayerChangeEntry {
+
+    /**
+     * @param sequence the roster version the change took
+     * @param event the change
+     * @return the log entry recording it
+     */
+    public static PlayerLogEntry of(long sequence, PlayerChangedEvent event) {
+        PlayerLogEntry entry = new PlayerLogEntry();
+        entry.record(sequence, event);
+        return entry;
+    }
+}
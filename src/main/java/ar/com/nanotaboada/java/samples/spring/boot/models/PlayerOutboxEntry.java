@@ -0,0 +1,34 @@
+package ar.com.nanotaboada.java.samples.spring.boot.models;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.NoArgsConstructor;
+
+/**
+ * JPA Entity holding one committed player change until it has been published.
+ * <p>
+ * Maps to the {@code player_outbox} table. Rows are written in the same transaction as the change and deleted once
+ * every consumer has received them, so the table only holds what is still to be published.
+ * </p>
+ *
+ * @see PlayerChange
+ * @since 4.0.2025
+ */
+@Entity
+@Table(name = "player_outbox")
+@NoArgsConstructor
+public class PlayerOutboxEntry extends PlayerChangeEntry {
+
+    /**
+     * @param sequence the roster version the change took
+     * @param event the change
+     * @return the outbox entry holding it
+     */
+    public static PlayerOutboxEntry of(long sequence, PlayerChangedEvent event) {
+        PlayerOutboxEntry entry = new PlayerOutboxEntry();
+        entry.record(sequence, event);
+        return entry;
+    }
+}
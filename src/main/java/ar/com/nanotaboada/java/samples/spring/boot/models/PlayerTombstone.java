@@ -0,0 +1,64 @@
+package ar.com.nanotaboada.java.samples.spring.boot.models;
+
+import java.util.UUID;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * JPA Entity recording that a player was deleted, and at which roster version.
+ * <p>
+ * Maps to the {@code player_tombstones} table. Delta sync ({@code GET /players?since={version}}) returns the
+ * tombstones newer than the client's version so it can drop those players from its copy of the roster.
+ * </p>
+ *
+ * @see Player
+ * @see PlayersSyncDTO
+ * @since 4.0.2025
+ */
+@Entity
+@Table(name = "player_tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerTombstone implements Persistable<UUID> {
+
+    /**
+     * UUID of the deleted player.
+     */
+    @Id
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "id", nullable = false, updatable = false, columnDefinition = "VARCHAR(36)")
+    private UUID id;
+
+    @Column(name = "squadNumber", nullable = false)
+    private Integer squadNumber;
+
+    /**
+     * Roster version at which the player was deleted.
+     */
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * Tombstones are only ever inserted, so saving one never needs to look for an existing row first.
+     */
+    @Override
+    @Transient
+    @JsonIgnore
+    public boolean isNew() {
+        return true;
+    }
+}
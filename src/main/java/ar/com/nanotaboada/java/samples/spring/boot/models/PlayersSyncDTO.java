@@ -0,0 +1,56 @@
+package ar.com.nanotaboada.java.samples.spring.boot.models;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for delta sync ({@code GET /players?since={version}}).
+ * <p>
+ * Carries everything that changed after the client's version: players created or updated, and players deleted.
+ * The client applies both and keeps {@code version} for its next sync. When {@code reset} is set, {@code players} is
+ * the whole roster and {@code deleted} is empty: the client replaces its local copy instead of applying a delta.
+ * </p>
+ *
+ * @see PlayerDTO
+ * @see PlayerTombstone
+ * @since 4.0.2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayersSyncDTO {
+
+    /**
+     * Roster version this response brings the client up to.
+     */
+    private long version;
+
+    /**
+     * Whether {@code players} is the whole roster, to replace the client's copy: a sync from scratch
+     * ({@code since=0}), or a version the server does not know (e.g. kept by a client across a database reset).
+     */
+    private boolean reset;
+
+    /**
+     * Players created or updated after the requested version.
+     */
+    private List<PlayerDTO> players;
+
+    /**
+     * Players deleted after the requested version.
+     */
+    private List<Deleted> deleted;
+
+    /**
+     * A deleted player, identified by both keys.
+     *
+     * @param id          the deleted player's UUID
+     * @param squadNumber the deleted player's squad number
+     */
+    public record Deleted(UUID id, Integer squadNumber) {
+    }
+}
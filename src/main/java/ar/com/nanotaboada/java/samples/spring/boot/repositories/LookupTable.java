@@ -0,0 +1,53 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Lookup tables of the low-cardinality player properties, each stored once and referenced from {@code players} by an
+ * integer id (see the V7 migration).
+ *
+ * @see PlayerLookups
+ * @since 4.0.2025
+ */
+public enum LookupTable {
+
+    POSITIONS("positions", "position"),
+    ABBR_POSITIONS("abbr_positions", "abbrPosition"),
+    TEAMS("teams", "team"),
+    LEAGUES("leagues", "league");
+
+    private final String table;
+    private final String property;
+
+    LookupTable(String table, String property) {
+        this.table = table;
+        this.property = property;
+    }
+
+    /**
+     * @return the name of the lookup table
+     */
+    public String table() {
+        return table;
+    }
+
+    /**
+     * @return the {@code Player} property whose values the table holds
+     */
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Finds the lookup table of a property.
+     *
+     * @param property the property name (e.g. {@code "team"})
+     * @return the table, or empty if the property is stored in {@code players} itself
+     */
+    public static Optional<LookupTable> fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(lookupTable -> lookupTable.property.equals(property))
+                .findFirst();
+    }
+}
@@ -0,0 +1,82 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.IsoDateConverter;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+
+/**
+ * Writes a change shipped from the writer's replication log into this instance's database.
+ * <p>
+ * The change is written as it happened on the writer: same player id, and the change's sequence as both the player's
+ * (or tombstone's) version and the new roster version. Entity saves would generate a new id for an unknown player, so
+ * the rows are written with plain SQL in the caller's transaction; names are translated through
+ * {@link PlayerLookups}, which adds any this instance has not seen yet.
+ * </p>
+ *
+ * <h3>Statements:</h3>
+ * <ul>
+ * <li><b>Created / updated:</b> Upsert on the player id, so replaying a change already applied is harmless</li>
+ * <li><b>Deleted:</b> Delete by id and upsert the tombstone</li>
+ * <li><b>Always:</b> Set the roster version to the change's sequence</li>
+ * </ul>
+ *
+ * @see PlayerChange
+ * @since 4.0.2025
+ */
+@Component
+public class PlayerLogApplier {
+
+    private static final String UPSERT_PLAYER = """
+            INSERT INTO players (id, squadNumber, firstName, middleName, lastName, dateOfBirth,
+                                 positionId, abbrPositionId, teamId, leagueId, starting11, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET
+                firstName = excluded.firstName, middleName = excluded.middleName, lastName = excluded.lastName,
+                dateOfBirth = excluded.dateOfBirth, positionId = excluded.positionId,
+                abbrPositionId = excluded.abbrPositionId, teamId = excluded.teamId, leagueId = excluded.leagueId,
+                starting11 = excluded.starting11, version = excluded.version
+            """;
+    private static final String DELETE_PLAYER = "DELETE FROM players WHERE id = ?";
+    private static final String UPSERT_TOMBSTONE = """
+            INSERT INTO player_tombstones (id, squadNumber, version) VALUES (?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET version = excluded.version
+            """;
+    private static final String SET_ROSTER_VERSION = "UPDATE roster_version SET version = ? WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlayerLookups playerLookups;
+    private final IsoDateConverter isoDateConverter = new IsoDateConverter();
+
+    public PlayerLogApplier(JdbcTemplate jdbcTemplate, PlayerLookups playerLookups) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.playerLookups = playerLookups;
+    }
+
+    /**
+     * Writes the change and moves the roster version to its sequence. Must run in a transaction.
+     *
+     * @param change the change, as read from the writer's log
+     */
+    public void apply(PlayerChange change) {
+        String id = change.id().toString();
+        if (change.type() == PlayerChangedEvent.Type.DELETED) {
+            jdbcTemplate.update(DELETE_PLAYER, id);
+            jdbcTemplate.update(UPSERT_TOMBSTONE, id, change.squadNumber(), change.sequence());
+        } else {
+            PlayerDTO player = change.player();
+            jdbcTemplate.update(UPSERT_PLAYER, id, change.squadNumber(), player.getFirstName(),
+                    player.getMiddleName(), player.getLastName(),
+                    isoDateConverter.convertToDatabaseColumn(player.getDateOfBirth()),
+                    playerLookups.register(LookupTable.POSITIONS, player.getPosition()),
+                    playerLookups.register(LookupTable.ABBR_POSITIONS, player.getAbbrPosition()),
+                    playerLookups.register(LookupTable.TEAMS, player.getTeam()),
+                    playerLookups.register(LookupTable.LEAGUES, player.getLeague()),
+                    player.getStarting11(), change.sequence());
+        }
+        jdbcTemplate.update(SET_ROSTER_VERSION, change.sequence());
+    }
+}
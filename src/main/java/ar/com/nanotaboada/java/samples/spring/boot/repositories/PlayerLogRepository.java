@@ -0,0 +1,40 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerLogEntry;
+
+/**
+ * Spring Data JPA Repository for {@link PlayerLogEntry} entities.
+ *
+ * @see PlayerLogEntry
+ * @since 4.0.2025
+ */
+@Repository
+public interface PlayerLogRepository extends JpaRepository<PlayerLogEntry, Long> {
+
+    /**
+     * Finds the changes committed after a roster version (range scan on the primary key).
+     *
+     * @param sequence the roster version the follower has applied
+     * @param limit the largest number of entries to return
+     * @return entries with a greater sequence, oldest first
+     */
+    List<PlayerLogEntry> findBySequenceGreaterThanOrderBySequence(Long sequence, Limit limit);
+
+    /**
+     * Deletes the changes that fell out of the retention window in one statement, without loading them.
+     *
+     * @param sequence the newest sequence to delete
+     * @return the number of entries deleted
+     */
+    @Modifying
+    @Query("DELETE FROM PlayerLogEntry e WHERE e.sequence <= :sequence")
+    int deleteThrough(Long sequence);
+}
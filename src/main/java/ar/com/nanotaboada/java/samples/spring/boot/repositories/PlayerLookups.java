@@ -0,0 +1,207 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.StringDictionary;
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.LeagueShards;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory copy of the {@link LookupTable lookup tables}: translates team, league and position names to the integer
+ * ids stored in {@code players}, and back.
+ * <p>
+ * The tables hold a few dozen rows, so each is read whole and kept as two maps. The converters in
+ * {@code converters} use it on every bind and hydration; {@link PlayerLookupsListener} registers new names before a
+ * player is written.
+ * </p>
+ *
+ * <h3>Consistency:</h3>
+ * <ul>
+ * <li><b>Load:</b> Every table is read when the application is ready (or on first use)</li>
+ * <li><b>Unknown id:</b> The table is read again; ids only appear, so this catches rows added by another process</li>
+ * <li><b>Unknown name:</b> Answered as no id at all, without a query: a filter on a name nobody has matches nothing,
+ * and only writes add names</li>
+ * <li><b>Register:</b> Inserts the name if absent, in the caller's transaction; if that transaction rolls back, the
+ * name is forgotten again</li>
+ * <li><b>League shards:</b> With partitioned storage, the tables of the first shard are the catalog every shard's
+ * ids refer to; a transaction pinned to another shard reads and writes them there, outside its transaction</li>
+ * </ul>
+ *
+ * @see LookupTable
+ * @since 4.0.2025
+ */
+@Slf4j
+@Component
+public class PlayerLookups {
+
+    private static final String INSERT_IF_ABSENT = """
+            INSERT INTO %1$s (id, name)
+            SELECT candidate.id, ? FROM (SELECT COALESCE(MAX(id), 0) + 1 AS id FROM %1$s) AS candidate
+            WHERE NOT EXISTS (SELECT 1 FROM %1$s WHERE name = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LeagueShards leagueShards;
+    private final Map<LookupTable, Entries> tables = new ConcurrentHashMap<>();
+
+    public PlayerLookups(JdbcTemplate jdbcTemplate, ObjectProvider<LeagueShards> leagueShards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leagueShards = leagueShards.getIfAvailable(LeagueShards::single);
+    }
+
+    /**
+     * Reads every lookup table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (LookupTable table : LookupTable.values()) {
+            reload(table);
+        }
+        log.info("Player lookups loaded - {} teams, {} leagues, {} positions",
+                tables.get(LookupTable.TEAMS).ids().size(), tables.get(LookupTable.LEAGUES).ids().size(),
+                tables.get(LookupTable.POSITIONS).ids().size());
+    }
+
+    /**
+     * @param table the lookup table
+     * @param name the name (may be null)
+     * @return the id of the name, or null if the name is null or not in the table
+     */
+    public Integer idOf(LookupTable table, String name) {
+        return (name != null) ? entries(table).ids().get(name) : null;
+    }
+
+    /**
+     * @param table the lookup table
+     * @param id the id (may be null)
+     * @return the shared instance of the name with that id, or null if the id is null or not in the table
+     */
+    public String nameOf(LookupTable table, Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String name = entries(table).names().get(id);
+        if (name == null) {
+            name = reload(table).names().get(id);
+            if (name == null) {
+                log.warn("No {} row with id {}", table.table(), id);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * @param table the lookup table
+     * @return every name in the table, in ascending order
+     */
+    public List<String> names(LookupTable table) {
+        return entries(table).ids().keySet().stream().sorted().toList();
+    }
+
+    /**
+     * @param table the lookup table
+     * @param term the text to look for, ignoring case
+     * @return the names that contain the term, in ascending order
+     */
+    public List<String> namesContaining(LookupTable table, String term) {
+        String upper = term.toUpperCase(Locale.ROOT);
+        return names(table).stream()
+                .filter(name -> name.toUpperCase(Locale.ROOT).contains(upper))
+                .toList();
+    }
+
+    /**
+     * Adds a name to a lookup table unless it is already there.
+     *
+     * @param table the lookup table
+     * @param name the name
+     * @return the id of the name
+     */
+    public int register(LookupTable table, String name) {
+        Integer known = idOf(table, name);
+        if (known != null) {
+            return known;
+        }
+        JdbcTemplate catalog = leagueShards.lookups(jdbcTemplate);
+        catalog.update(INSERT_IF_ABSENT.formatted(table.table()), name, name);
+        int id = catalog.queryForObject("SELECT id FROM " + table.table() + " WHERE name = ?", Integer.class,
+                name);
+        tables.compute(table, (_, entries) -> entries(table, entries).with(name, id));
+        // Only committed names enter the process-wide dictionary, so a rolled-back write leaves nothing behind
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        StringDictionary.canonical(name);
+                    } else {
+                        tables.computeIfPresent(table, (_, entries) -> entries.without(name, id));
+                    }
+                }
+            });
+        } else {
+            StringDictionary.canonical(name);
+        }
+        return id;
+    }
+
+    private Entries entries(LookupTable table) {
+        Entries entries = tables.get(table);
+        return (entries != null) ? entries : reload(table);
+    }
+
+    private Entries entries(LookupTable table, Entries entries) {
+        return (entries != null) ? entries : query(table);
+    }
+
+    private Entries reload(LookupTable table) {
+        Entries entries = query(table);
+        tables.put(table, entries);
+        return entries;
+    }
+
+    private Entries query(LookupTable table) {
+        Map<String, Integer> ids = new HashMap<>();
+        leagueShards.lookups(jdbcTemplate).query("SELECT id, name FROM " + table.table(),
+                resultSet -> {
+                    ids.put(StringDictionary.canonical(resultSet.getString("name")), resultSet.getInt("id"));
+                });
+        return Entries.of(ids);
+    }
+
+    /**
+     * One lookup table, both ways. Immutable: changes replace it.
+     */
+    private record Entries(Map<String, Integer> ids, Map<Integer, String> names) {
+
+        static Entries of(Map<String, Integer> ids) {
+            Map<Integer, String> names = new HashMap<>();
+            ids.forEach((name, id) -> names.put(id, name));
+            return new Entries(Map.copyOf(ids), Map.copyOf(names));
+        }
+
+        Entries with(String name, int id) {
+            Map<String, Integer> changed = new HashMap<>(ids);
+            changed.put(name, id);
+            return of(changed);
+        }
+
+        Entries without(String name, int id) {
+            Map<String, Integer> changed = new HashMap<>(ids);
+            changed.remove(name, id);
+            return of(changed);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * JPA entity listener that adds a player's team, league and positions to the {@link LookupTable lookup tables} before
+ * the player is inserted or updated, so the converters can bind them as ids.
+ * <p>
+ * Created by Hibernate through Spring's bean container, which injects {@link PlayerLookups}.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+public class PlayerLookupsListener {
+
+    private final PlayerLookups playerLookups;
+
+    public PlayerLookupsListener(PlayerLookups playerLookups) {
+        this.playerLookups = playerLookups;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void register(Player player) {
+        register(LookupTable.POSITIONS, player.getPosition());
+        register(LookupTable.ABBR_POSITIONS, player.getAbbrPosition());
+        register(LookupTable.TEAMS, player.getTeam());
+        register(LookupTable.LEAGUES, player.getLeague());
+    }
+
+    private void register(LookupTable table, String name) {
+        if (name != null) {
+            playerLookups.register(table, name);
+        }
+    }
+}
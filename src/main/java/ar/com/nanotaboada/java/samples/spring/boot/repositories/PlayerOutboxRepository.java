@@ -0,0 +1,40 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerOutboxEntry;
+
+/**
+ * Spring Data JPA Repository for {@link PlayerOutboxEntry} entities.
+ *
+ * @see PlayerOutboxEntry
+ * @since 4.0.2025
+ */
+@Repository
+public interface PlayerOutboxRepository extends JpaRepository<PlayerOutboxEntry, Long> {
+
+    /**
+     * Finds the unpublished changes after a sequence (range scan on the primary key).
+     *
+     * @param sequence the last sequence already handed to the relay
+     * @param limit the largest number of entries to return
+     * @return entries with a greater sequence, oldest first
+     */
+    List<PlayerOutboxEntry> findBySequenceGreaterThanOrderBySequence(Long sequence, Limit limit);
+
+    /**
+     * Deletes the published changes in one statement, without loading them.
+     *
+     * @param sequence the last sequence every consumer has received
+     * @return the number of entries deleted
+     */
+    @Modifying
+    @Query("DELETE FROM PlayerOutboxEntry e WHERE e.sequence <= :sequence")
+    int deletePublishedThrough(Long sequence);
+}
@@ -0,0 +1,27 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerTombstone;
+
+/**
+ * Spring Data JPA Repository for {@link PlayerTombstone} entities.
+ *
+ * @see PlayerTombstone
+ * @since 4.0.2025
+ */
+@Repository
+public interface PlayerTombstonesRepository extends JpaRepository<PlayerTombstone, UUID> {
+
+    /**
+     * Finds the players deleted after a roster version (range scan on {@code idx_player_tombstones_version}).
+     *
+     * @param version the roster version the client has
+     * @return tombstones with a greater version, oldest first
+     */
+    List<PlayerTombstone> findByVersionGreaterThanOrderByVersion(Long version);
+}
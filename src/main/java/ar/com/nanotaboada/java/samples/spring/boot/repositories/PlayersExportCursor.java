@@ -0,0 +1,105 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.LeagueShards;
+
+/**
+ * Forward-only cursor over the raw {@code players} rows, for exports that read the whole roster.
+ * <p>
+ * Rows are read in keyset pages of {@code players.export.batch-size}, each one a short query for the squad numbers
+ * after the last one read, and handed over one by one once the page's statement is closed. No statement stays open
+ * while the caller works, so a client reading the export slowly never holds a read lock on the database, and writers
+ * (which SQLite's rollback journal blocks while any reader is open) wait at most for one page. Neither entities nor
+ * the roster are ever held in memory. Lookup columns are returned as their ids, as stored, and the date of birth as
+ * an epoch day, so nothing is converted that the caller does not need.
+ * </p>
+ * <p>
+ * Rows come in squad number order. With league shards, each shard is read in turn, so the order holds within each
+ * shard only. As pages are separate reads, the export is not a snapshot: a player written while it runs is included
+ * if its squad number is after the page being read. No player is returned twice.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+@Repository
+public class PlayersExportCursor {
+
+    private static final String SELECT_PAGE = """
+            SELECT id, squadNumber, firstName, middleName, lastName, dateOfBirth,
+                   positionId, abbrPositionId, teamId, leagueId, starting11
+            FROM players
+            WHERE squadNumber > ?
+            ORDER BY squadNumber
+            LIMIT ?
+            """;
+
+    private final List<JdbcTemplate> sources;
+    private final int pageSize;
+
+    public PlayersExportCursor(JdbcTemplate jdbcTemplate, ObjectProvider<LeagueShards> leagueShards,
+            @Value("${players.export.batch-size:4096}") int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("players.export.batch-size must be at least 1");
+        }
+        LeagueShards shards = leagueShards.getIfAvailable(LeagueShards::single);
+        List<DataSource> dataSources = shards.isPartitioned()
+                ? IntStream.range(0, shards.size()).mapToObj(shards::dataSource).toList()
+                : List.of(jdbcTemplate.getDataSource());
+        this.sources = dataSources.stream()
+                .map(JdbcTemplate::new)
+                .toList();
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * A stored player row.
+     *
+     * @param dateOfBirth days since 1970-01-01
+     */
+    public record Row(String id, int squadNumber, String firstName, String middleName, String lastName,
+            int dateOfBirth, int positionId, int abbrPositionId, int teamId, int leagueId, boolean starting11) {
+    }
+
+    /**
+     * Reads every player.
+     *
+     * @param consumer called once per row, on the calling thread
+     */
+    public void forEach(Consumer<Row> consumer) {
+        for (JdbcTemplate source : sources) {
+            int after = Integer.MIN_VALUE;
+            List<Row> page;
+            do {
+                // Read to the end before handing rows over, so the statement is closed while the caller works
+                page = source.query(SELECT_PAGE, (resultSet, _) -> new Row(
+                        resultSet.getString(1),
+                        resultSet.getInt(2),
+                        resultSet.getString(3),
+                        resultSet.getString(4),
+                        resultSet.getString(5),
+                        // Stored as canonical ISO-8601 text (see IsoDateConverter); the date is its first 10 chars
+                        (int) LocalDate.parse(resultSet.getString(6).substring(0, 10)).toEpochDay(),
+                        resultSet.getInt(7),
+                        resultSet.getInt(8),
+                        resultSet.getInt(9),
+                        resultSet.getInt(10),
+                        resultSet.getBoolean(11)), after, pageSize);
+                page.forEach(consumer);
+                if (!page.isEmpty()) {
+                    after = page.getLast().squadNumber();
+                }
+            } while (page.size() == pageSize);
+        }
+    }
+}
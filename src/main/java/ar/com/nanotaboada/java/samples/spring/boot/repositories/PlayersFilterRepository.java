@@ -0,0 +1,53 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFilter;
+
+/**
+ * Custom repository fragment for the multi-criteria filter: dynamic queries built from a {@link PlayerFilter}.
+ * <p>
+ * Mixed into {@link PlayersRepository} and implemented by {@link PlayersFilterRepositoryImpl}. Only the criteria that
+ * are set become predicates, so each combination is its own query and can use the index that fits it (see the V6
+ * and V7 migrations). Results and count are separate queries, so callers can cache the count.
+ * </p>
+ *
+ * @see PlayerFilter
+ * @since 4.0.2025
+ */
+public interface PlayersFilterRepository {
+
+    /**
+     * Finds one page of the players matching a filter.
+     *
+     * @param filter the criteria to match (null criteria are ignored)
+     * @param sort the order of the results (properties from {@link PlayerFilter#SORTABLE})
+     * @param offset the number of matching players to skip
+     * @param limit the largest number of players to return
+     * @return the matching players in {@code sort} order
+     */
+    List<Player> findMatching(PlayerFilter filter, Sort sort, int offset, int limit);
+
+    /**
+     * Counts the players matching a filter.
+     *
+     * @param filter the criteria to match (null criteria are ignored)
+     * @return the number of matching players
+     */
+    long countMatching(PlayerFilter filter);
+
+    /**
+     * Finds players by league name using case-insensitive wildcard matching.
+     * <p>
+     * The term is matched against the {@code leagues} lookup table in memory; the query then seeks on the ids of the
+     * matching leagues. No query is run if no league matches.
+     * </p>
+     *
+     * @param league the league name to search for (partial matches allowed)
+     * @return a list of players whose league name contains the search term
+     */
+    List<Player> findByLeagueContainingIgnoreCase(String league);
+}
@@ -0,0 +1,135 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaBuilder.SimpleCase;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Criteria API implementation of {@link PlayersFilterRepository}.
+ * <p>
+ * Paging is pushed down as {@code LIMIT}/{@code OFFSET} and never triggers a count; the count is its own query.
+ * Found by Spring Data through the {@code Impl} suffix.
+ * </p>
+ * <p>
+ * Position, team and league are stored as lookup ids, so sorting on them ranks the ids by name ({@link PlayerLookups})
+ * to keep alphabetical order.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+public class PlayersFilterRepositoryImpl implements PlayersFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PlayerLookups playerLookups;
+
+    public PlayersFilterRepositoryImpl(PlayerLookups playerLookups) {
+        this.playerLookups = playerLookups;
+    }
+
+    @Override
+    public List<Player> findMatching(PlayerFilter filter, Sort sort, int offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Player> query = builder.createQuery(Player.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(root)
+                .where(predicates(filter, builder, root))
+                .orderBy(orders(sort, builder, root, playerLookups));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countMatching(PlayerFilter filter) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(builder.count(root))
+                .where(predicates(filter, builder, root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<Player> findByLeagueContainingIgnoreCase(String league) {
+        List<String> leagues = playerLookups.namesContaining(LookupTable.LEAGUES, league);
+        if (leagues.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Player> query = builder.createQuery(Player.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(root)
+                .where(root.get("league").in(leagues));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private static Predicate[] predicates(PlayerFilter filter, CriteriaBuilder builder, Root<Player> root) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.team() != null) {
+            predicates.add(builder.equal(root.get("team"), filter.team()));
+        }
+        if (filter.position() != null) {
+            predicates.add(builder.equal(root.get("position"), filter.position()));
+        }
+        if (filter.abbrPosition() != null) {
+            predicates.add(builder.equal(root.get("abbrPosition"), filter.abbrPosition()));
+        }
+        if (filter.league() != null) {
+            predicates.add(builder.equal(root.get("league"), filter.league()));
+        }
+        if (filter.starting11() != null) {
+            predicates.add(builder.equal(root.get("starting11"), filter.starting11()));
+        }
+        if (filter.bornFrom() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(root.<LocalDate>get("dateOfBirth"), filter.bornFrom()));
+        }
+        if (filter.bornTo() != null) {
+            predicates.add(builder.lessThanOrEqualTo(root.<LocalDate>get("dateOfBirth"), filter.bornTo()));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static List<Order> orders(Sort sort, CriteriaBuilder builder, Root<Player> root,
+            PlayerLookups playerLookups) {
+        return sort.stream()
+                .map(order -> {
+                    Expression<?> key = sortKey(order.getProperty(), builder, root, playerLookups);
+                    return order.isAscending() ? builder.asc(key) : builder.desc(key);
+                })
+                .toList();
+    }
+
+    /**
+     * @return the property itself, or for a lookup property, the rank of its name among the names in the table
+     */
+    private static Expression<?> sortKey(String property, CriteriaBuilder builder, Root<Player> root,
+            PlayerLookups playerLookups) {
+        LookupTable table = LookupTable.fromProperty(property).orElse(null);
+        if (table == null) {
+            return root.get(property);
+        }
+        List<String> names = playerLookups.names(table);
+        SimpleCase<String, Integer> rank = builder.selectCase(root.get(property));
+        for (int i = 0; i < names.size(); i++) {
+            rank.when(names.get(i), i);
+        }
+        return rank.otherwise(names.size());
+    }
+}
@@ -0,0 +1,63 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFields;
+
+/**
+ * Custom repository fragment for sparse fieldsets: queries that select only the requested columns.
+ * <p>
+ * Mixed into {@link PlayersRepository} and implemented by {@link PlayersProjectionRepositoryImpl}. Each row comes
+ * back as a map from field name to value, in the order of {@code fields}, with no entity hydrated.
+ * </p>
+ *
+ * <h3>Provided Methods:</h3>
+ * <ul>
+ * <li><b>Collection:</b> findAllProjected, findProjectedByLeague</li>
+ * <li><b>Lookup:</b> findProjectedById, findProjectedBySquadNumber</li>
+ * </ul>
+ *
+ * @see PlayerFields
+ * @since 4.0.2025
+ */
+public interface PlayersProjectionRepository {
+
+    /**
+     * Selects the given fields of every player.
+     *
+     * @param fields the fields to select (validated names from {@link PlayerFields})
+     * @return one map per player
+     */
+    List<Map<String, Object>> findAllProjected(List<String> fields);
+
+    /**
+     * Selects the given fields of the player with a UUID (index lookup on the primary key).
+     *
+     * @param id the UUID primary key
+     * @param fields the fields to select (validated names from {@link PlayerFields})
+     * @return the selected fields, or empty if no player has that id
+     */
+    Optional<Map<String, Object>> findProjectedById(UUID id, List<String> fields);
+
+    /**
+     * Selects the given fields of the player wearing a squad number (index lookup on the unique key).
+     *
+     * @param squadNumber the squad number
+     * @param fields the fields to select (validated names from {@link PlayerFields})
+     * @return the selected fields, or empty if no player has that number
+     */
+    Optional<Map<String, Object>> findProjectedBySquadNumber(Integer squadNumber, List<String> fields);
+
+    /**
+     * Selects the given fields of the players whose league contains a term, ignoring case (same match as
+     * {@link PlayersFilterRepository#findByLeagueContainingIgnoreCase(String)}).
+     *
+     * @param league the league name to search for (partial matches allowed)
+     * @param fields the fields to select (validated names from {@link PlayerFields})
+     * @return one map per matching player
+     */
+    List<Map<String, Object>> findProjectedByLeague(String league, List<String> fields);
+}
@@ -0,0 +1,92 @@
+package ar.com.nanotaboada.java.samples.spring.boot.repositories;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Criteria API implementation of {@link PlayersProjectionRepository}.
+ * <p>
+ * Builds a tuple query whose SELECT list holds only the requested attributes, so the database reads, and the driver
+ * transfers, nothing else. Found by Spring Data through the {@code Impl} suffix.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+public class PlayersProjectionRepositoryImpl implements PlayersProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PlayerLookups playerLookups;
+
+    public PlayersProjectionRepositoryImpl(PlayerLookups playerLookups) {
+        this.playerLookups = playerLookups;
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllProjected(List<String> fields) {
+        return select(fields, null);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findProjectedById(UUID id, List<String> fields) {
+        return select(fields, (builder, root) -> builder.equal(root.get("id"), id)).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findProjectedBySquadNumber(Integer squadNumber, List<String> fields) {
+        return select(fields, (builder, root) -> builder.equal(root.get("squadNumber"), squadNumber))
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjectedByLeague(String league, List<String> fields) {
+        List<String> leagues = playerLookups.namesContaining(LookupTable.LEAGUES, league);
+        if (leagues.isEmpty()) {
+            return List.of();
+        }
+        return select(fields, (builder, root) -> root.get("league").in(leagues));
+    }
+
+    private List<Map<String, Object>> select(List<String> fields,
+            BiFunction<CriteriaBuilder, Root<Player>, Predicate> restriction) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Player> root = query.from(Player.class);
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> root.get(field).alias(field))
+                .toList();
+        query.multiselect(selections);
+        if (restriction != null) {
+            query.where(restriction.apply(builder, root));
+        }
+        return entityManager.createQuery(query)
+                .getResultList()
+                .stream()
+                .map(tuple -> toMap(tuple, fields))
+                .toList();
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+}
@@ -1,10 +1,12 @@
 package ar.com.nanotaboada.java.samples.spring.boot.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
@@ -19,7 +21,12 @@ import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
  * <h3>Provided Methods:</h3>
  * <ul>
  * <li><b>Inherited from JpaRepository:</b> save, findAll, findById(UUID), existsById, deleteById, etc.</li>
- * <li><b>Derived Queries:</b> findBySquadNumber, findByLeagueContainingIgnoreCase</li>
+ * <li><b>Derived Queries:</b> findBySquadNumber, findBySquadNumberIn, findByVersionGreaterThanOrderByVersion</li>
+ * <li><b>Projections:</b> findAllProjected, findProjectedById, findProjectedBySquadNumber, findProjectedByLeague
+ * (see {@link PlayersProjectionRepository})</li>
+ * <li><b>Filter:</b> findMatching, countMatching, findByLeagueContainingIgnoreCase
+ * (see {@link PlayersFilterRepository})</li>
+ * <li><b>Roster Version:</b> findRosterVersion, nextRosterVersion (single-row {@code roster_version} table)</li>
  * </ul>
  *
  * @see Player
@@ -27,7 +34,8 @@ import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
  * @since 4.0.2025
  */
 @Repository
-public interface PlayersRepository extends JpaRepository<Player, UUID> {
+public interface PlayersRepository extends JpaRepository<Player, UUID>, PlayersProjectionRepository,
+        PlayersFilterRepository {
 
     /**
      * Finds a player by their squad number (exact match).
@@ -42,10 +50,36 @@ public interface PlayersRepository extends JpaRepository<Player, UUID> {
     Optional<Player> findBySquadNumber(Integer squadNumber);
 
     /**
-     * Finds players by league name using case-insensitive wildcard matching.
+     * Finds the players wearing any of the given squad numbers, in one {@code IN} query on the unique index.
      *
-     * @param league the league name to search for (partial matches allowed)
-     * @return a list of players whose league name contains the search term
+     * @param squadNumbers the squad numbers to search for
+     * @return the players found, in no particular order
      */
-    List<Player> findByLeagueContainingIgnoreCase(String league);
+    List<Player> findBySquadNumberIn(Collection<Integer> squadNumbers);
+
+    /**
+     * Finds the players created or updated after a roster version (range scan on {@code idx_players_version}).
+     *
+     * @param version the roster version the client has
+     * @return players with a greater version, oldest change first
+     */
+    List<Player> findByVersionGreaterThanOrderByVersion(Long version);
+
+    /**
+     * Reads the current roster version.
+     *
+     * @return the version of the latest create, update or delete
+     */
+    @Query(value = "SELECT version FROM roster_version WHERE id = 1", nativeQuery = true)
+    long findRosterVersion();
+
+    /**
+     * Takes the next roster version in a single statement. The row lock it acquires serializes concurrent writers,
+     * and the new version stays invisible to readers until the surrounding transaction commits.
+     *
+     * @return the new roster version
+     */
+    @Query(value = "UPDATE roster_version SET version = version + 1 WHERE id = 1 RETURNING version",
+            nativeQuery = true)
+    long nextRosterVersion();
 }
@@ -0,0 +1,192 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+
+/**
+ * Reads an import upload one row at a time, so memory stays flat however large the upload is.
+ * <p>
+ * <b>CSV</b> (RFC 4180): the first record names the columns, using {@link PlayerDTO} property names in any order;
+ * fields may be quoted, with doubled quotes inside, and quoted fields may span lines. Empty fields are null.
+ * <b>NDJSON</b>: one {@link PlayerDTO} JSON object per line. Blank lines are skipped in both formats.
+ * </p>
+ * <p>
+ * A row that cannot be turned into a {@link PlayerDTO} is returned with an error instead of ending the read; only a
+ * malformed CSV header or an I/O failure does.
+ * </p>
+ *
+ * @since 4.0.2025
+ */
+final class PlayerImportReader implements Closeable {
+
+    static final Set<String> COLUMNS = Set.of("squadNumber", "firstName", "middleName", "lastName", "dateOfBirth",
+            "position", "abbrPosition", "team", "league", "starting11");
+
+    private final BufferedReader reader;
+    private final PlayerImports.Format format;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long line;
+    private long recordLine;
+
+    PlayerImportReader(BufferedReader reader, PlayerImports.Format format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * A parsed row: either a player or the reason it could not be read.
+     *
+     * @param line   the line the row starts on (1-based)
+     * @param player the player, or null
+     * @param error  the reason, or null
+     */
+    record Row(long line, PlayerDTO player, String error) {
+    }
+
+    /**
+     * @return the next row, or null at the end of the upload
+     * @throws IOException if the upload cannot be read
+     * @throws IllegalArgumentException if the CSV header is missing, repeats a column or names an unknown one
+     */
+    Row next() throws IOException {
+        return (format == PlayerImports.Format.CSV) ? nextCsv() : nextNdjson();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row nextNdjson() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+        if (text == null) {
+            return null;
+        }
+        try {
+            return new Row(line, objectMapper.readValue(text, PlayerDTO.class), null);
+        } catch (JsonProcessingException exception) {
+            return new Row(line, null, exception.getOriginalMessage());
+        }
+    }
+
+    private Row nextCsv() throws IOException {
+        if (header == null) {
+            List<String> names = nextRecord();
+            if (names == null) {
+                return null;
+            }
+            // A byte order mark, as spreadsheet exports write, is not part of the first column name
+            header = names.stream().map(name -> name.replace("\uFEFF", "").strip()).toList();
+            for (String name : header) {
+                if (!COLUMNS.contains(name)) {
+                    throw new IllegalArgumentException("Unknown CSV column '" + name + "', expected any of " + COLUMNS);
+                }
+            }
+            if (Set.copyOf(header).size() != header.size()) {
+                throw new IllegalArgumentException("CSV header repeats a column: " + header);
+            }
+        }
+        List<String> fields = nextRecord();
+        if (fields == null) {
+            return null;
+        }
+        long start = recordLine;
+        if (fields.size() != header.size()) {
+            return new Row(start, null, "Expected " + header.size() + " fields but found " + fields.size());
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (!fields.get(i).isEmpty()) {
+                values.put(header.get(i), fields.get(i));
+            }
+        }
+        try {
+            return new Row(start, objectMapper.convertValue(values, PlayerDTO.class), null);
+        } catch (IllegalArgumentException exception) {
+            return new Row(start, null, exception.getMessage().lines().findFirst().orElse("Invalid row"));
+        }
+    }
+
+    /**
+     * Reads the next non-blank CSV record.
+     *
+     * @return its fields, or null at the end of the upload
+     */
+    private List<String> nextRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean started = false;
+        recordLine = 0;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (recordLine == 0 && c != '\n' && c != '\r') {
+                recordLine = line + 1;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                started = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                started = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                line++;
+                if (started || !field.isEmpty()) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+            } else {
+                field.append((char) c);
+                started = true;
+            }
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted CSV field starting before line " + (line + 1));
+        }
+        if (started || !field.isEmpty()) {
+            line++;
+            fields.add(field.toString());
+            return fields;
+        }
+        return null;
+    }
+}
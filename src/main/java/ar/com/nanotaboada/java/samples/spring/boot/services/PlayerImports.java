@@ -0,0 +1,351 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.com.nanotaboada.java.samples.spring.boot.clusters.PlayersCluster;
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.LeagueShards;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerImportDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerImportDTO.Rejection;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerImportDTO.Status;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs bulk imports of players uploaded as CSV or NDJSON ({@code POST /players/imports}) in the background.
+ * <p>
+ * The upload is spooled to a temporary file while the request is read, and the request returns as soon as the job is
+ * queued. One background thread then runs the jobs in turn: SQLite takes one writer at a time, so parallel imports
+ * would only wait on each other's locks.
+ * </p>
+ *
+ * <h3>Rows:</h3>
+ * <ul>
+ * <li><b>Parsing:</b> Streamed by {@link PlayerImportReader}, one row at a time</li>
+ * <li><b>Validation:</b> Each row is checked against the {@link PlayerDTO} constraints, as {@code POST /players}
+ * does</li>
+ * <li><b>Writes:</b> Valid rows are created through {@link PlayersService#create(PlayerDTO)} in batches of
+ * {@code players.imports.batch-size} rows (default 500), one transaction per batch, so roster versions, change
+ * events and the key filter behave as for single creates. Under league shards a batch is split by shard</li>
+ * <li><b>Failures:</b> A batch whose transaction fails is retried one row per transaction, so one bad row only
+ * rejects itself. Rows whose squad number is taken, or owned by another node in cluster mode, are rejected</li>
+ * </ul>
+ * <p>
+ * Jobs live in memory: progress is lost on restart, and only the last {@code players.imports.retained-jobs}
+ * finished jobs (default 100) are kept.
+ * </p>
+ *
+ * @see PlayerImportDTO
+ * @since 4.0.2025
+ */
+@Slf4j
+@Service
+public class PlayerImports {
+
+    private static final int MAX_REJECTIONS = 100;
+
+    private final PlayersService playersService;
+    private final Validator validator;
+    private final TransactionTemplate transaction;
+    private final LeagueShards leagueShards;
+    private final IntPredicate owned;
+    private final Executor executor;
+    private final int batchSize;
+    private final Path directory;
+    private final int retainedJobs;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Map<UUID, Job> jobs = new LinkedHashMap<>();
+
+    /**
+     * Upload formats, by content type. Both are read as UTF-8.
+     */
+    public enum Format {
+        CSV("text/csv"), NDJSON("application/x-ndjson");
+
+        private final MediaType mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+        }
+
+        /**
+         * @param contentType a {@code Content-Type} header, parameters allowed
+         * @return the matching format, or empty if there is none
+         */
+        public static Optional<Format> of(String contentType) {
+            try {
+                MediaType type = MediaType.parseMediaType(contentType);
+                for (Format format : values()) {
+                    if (format.mediaType.equalsTypeAndSubtype(type)) {
+                        return Optional.of(format);
+                    }
+                }
+            } catch (RuntimeException _) {
+                // Missing or malformed, same as unsupported
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Autowired
+    public PlayerImports(PlayersService playersService, Validator validator,
+            PlatformTransactionManager transactionManager, LeagueShards leagueShards,
+            ObjectProvider<PlayersCluster> playersCluster,
+            @Value("${players.imports.batch-size:500}") int batchSize,
+            @Value("${players.imports.directory:${java.io.tmpdir}}") String directory,
+            @Value("${players.imports.retained-jobs:100}") int retainedJobs) {
+        this(playersService, validator, transactionManager, leagueShards, ownedBy(playersCluster.getIfAvailable()),
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "player-imports");
+                    thread.setDaemon(true);
+                    return thread;
+                }), batchSize, Path.of(directory), retainedJobs);
+    }
+
+    public PlayerImports(PlayersService playersService, Validator validator,
+            PlatformTransactionManager transactionManager, LeagueShards leagueShards, IntPredicate owned,
+            Executor executor, int batchSize, Path directory, int retainedJobs) {
+        this.playersService = playersService;
+        this.validator = validator;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.leagueShards = leagueShards;
+        this.owned = owned;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.directory = directory;
+        this.retainedJobs = retainedJobs;
+    }
+
+    /**
+     * Spools an upload and queues its import.
+     *
+     * @param upload the request body, read to the end before this returns
+     * @param format the upload's format
+     * @return the queued job's progress
+     * @throws IOException if the upload cannot be read or spooled
+     */
+    public PlayerImportDTO submit(InputStream upload, Format format) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "player-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exception) {
+            Files.deleteIfExists(file);
+            throw exception;
+        }
+        Job job = new Job(UUID.randomUUID(), file, format);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            evictFinished();
+        }
+        log.info("Import {} queued - {} upload of {} bytes", job.id, format, Files.size(file));
+        executor.execute(() -> run(job));
+        return job.progress();
+    }
+
+    /**
+     * @param id the job id
+     * @return the job's progress, or null if there is no such job (or it was evicted)
+     */
+    public PlayerImportDTO progress(UUID id) {
+        synchronized (jobs) {
+            Job job = jobs.get(id);
+            return (job != null) ? job.progress() : null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private void run(Job job) {
+        job.status = Status.RUNNING;
+        try (PlayerImportReader reader = new PlayerImportReader(
+                Files.newBufferedReader(job.file, StandardCharsets.UTF_8), job.format, objectMapper)) {
+            List<PlayerImportReader.Row> batch = new ArrayList<>(batchSize);
+            PlayerImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                job.rowsRead.incrementAndGet();
+                String error = (row.error() != null) ? row.error() : validate(row.player());
+                if (error != null) {
+                    job.reject(row.line(), error);
+                } else {
+                    batch.add(row);
+                }
+                if (batch.size() == batchSize) {
+                    write(job, batch);
+                    batch.clear();
+                }
+            }
+            write(job, batch);
+            job.finish(Status.COMPLETED, null);
+            log.info("Import {} completed - {} players imported, {} rows rejected", job.id, job.imported.get(),
+                    job.rejected.get());
+        } catch (IOException | IllegalArgumentException exception) {
+            job.finish(Status.FAILED, exception.getMessage());
+            log.warn("Import {} failed after {} rows: {}", job.id, job.rowsRead.get(), exception.getMessage());
+        } catch (RuntimeException exception) {
+            job.finish(Status.FAILED, exception.getMessage());
+            log.error("Import {} failed after {} rows", job.id, job.rowsRead.get(), exception);
+        } finally {
+            try {
+                Files.deleteIfExists(job.file);
+            } catch (IOException exception) {
+                log.warn("Could not delete import upload {}: {}", job.file, exception.getMessage());
+            }
+        }
+    }
+
+    private String validate(PlayerDTO playerDTO) {
+        Set<ConstraintViolation<PlayerDTO>> violations = validator.validate(playerDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!owned.test(playerDTO.getSquadNumber())) {
+            return "Squad number " + playerDTO.getSquadNumber() + " is owned by another node";
+        }
+        return null;
+    }
+
+    /**
+     * Writes a batch of valid rows, one transaction per league shard it touches.
+     */
+    private void write(Job job, List<PlayerImportReader.Row> batch) {
+        Map<Integer, List<PlayerImportReader.Row>> byShard = batch.stream()
+                .collect(Collectors.groupingBy(
+                        row -> leagueShards.isPartitioned() ? leagueShards.shardOf(row.player().getLeague()) : 0,
+                        LinkedHashMap::new, Collectors.toList()));
+        for (List<PlayerImportReader.Row> rows : byShard.values()) {
+            try {
+                List<Boolean> created = transaction.execute(_ -> rows.stream()
+                        .map(row -> playersService.create(row.player()) != null)
+                        .toList());
+                tally(job, rows, created);
+            } catch (RuntimeException exception) {
+                log.debug("Import {} batch of {} rows failed, retrying one row at a time: {}", job.id, rows.size(),
+                        exception.getMessage());
+                for (PlayerImportReader.Row row : rows) {
+                    try {
+                        tally(job, List.of(row), transaction.execute(_ ->
+                                List.of(playersService.create(row.player()) != null)));
+                    } catch (RuntimeException rowException) {
+                        job.reject(row.line(), "Could not be stored: " + rowException.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void tally(Job job, List<PlayerImportReader.Row> rows, List<Boolean> created) {
+        Iterator<Boolean> results = created.iterator();
+        for (PlayerImportReader.Row row : rows) {
+            if (results.next()) {
+                job.imported.incrementAndGet();
+            } else {
+                job.reject(row.line(), "Squad number " + row.player().getSquadNumber() + " already exists");
+            }
+        }
+    }
+
+    private void evictFinished() {
+        long finished = jobs.values().stream().filter(job -> job.finishedAt != null).count();
+        Iterator<Job> oldest = jobs.values().iterator();
+        while (finished > retainedJobs && oldest.hasNext()) {
+            if (oldest.next().finishedAt != null) {
+                oldest.remove();
+                finished--;
+            }
+        }
+    }
+
+    private static IntPredicate ownedBy(PlayersCluster playersCluster) {
+        return (playersCluster != null) ? playersCluster::owns : _ -> true;
+    }
+
+    /**
+     * State of one import, updated by the import thread and read by progress requests.
+     */
+    private static final class Job {
+
+        private final UUID id;
+        private final Path file;
+        private final Format format;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<Rejection> rejections = new ArrayList<>();
+        private volatile Status status = Status.QUEUED;
+        private volatile Instant finishedAt;
+        private volatile String failure;
+
+        private Job(UUID id, Path file, Format format) {
+            this.id = id;
+            this.file = file;
+            this.format = format;
+        }
+
+        private void reject(long line, String reason) {
+            rejected.incrementAndGet();
+            synchronized (rejections) {
+                if (rejections.size() < MAX_REJECTIONS) {
+                    rejections.add(new Rejection(line, reason));
+                }
+            }
+        }
+
+        private void finish(Status outcome, String reason) {
+            failure = reason;
+            finishedAt = Instant.now();
+            status = outcome;
+        }
+
+        private PlayerImportDTO progress() {
+            List<Rejection> sample;
+            synchronized (rejections) {
+                sample = List.copyOf(rejections);
+            }
+            return new PlayerImportDTO(id, status, rowsRead.get(), imported.get(), rejected.get(), sample,
+                    submittedAt, finishedAt, failure);
+        }
+    }
+}
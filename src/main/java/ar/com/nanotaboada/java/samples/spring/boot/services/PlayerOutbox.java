@@ -0,0 +1,72 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerOutboxEntry;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerOutboxRepository;
+
+/**
+ * Transactional outbox: records every committed {@link PlayersService} mutation for later publishing.
+ * <p>
+ * Active with {@code players.outbox.enabled=true}. Each change is written to {@code player_outbox} just before its
+ * transaction commits, in that same transaction, keyed by the roster version it took: a write that commits is always
+ * in the outbox, and one that rolls back never is. Publishing is left to {@link PlayerOutboxRelay}, off the request
+ * path.
+ * </p>
+ *
+ * @see PlayerOutboxEntry
+ * @since 4.0.2025
+ */
+@Component
+@ConditionalOnProperty(name = "players.outbox.enabled", havingValue = "true")
+public class PlayerOutbox {
+
+    private final PlayerOutboxRepository playerOutboxRepository;
+
+    public PlayerOutbox(PlayerOutboxRepository playerOutboxRepository) {
+        this.playerOutboxRepository = playerOutboxRepository;
+    }
+
+    /**
+     * Adds the change under the roster version it took, so each of several changes in one transaction (an import
+     * batch) gets its own entry.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void append(PlayerChangedEvent event) {
+        playerOutboxRepository.save(PlayerOutboxEntry.of(event.version(), event));
+    }
+
+    /**
+     * Returns the unpublished changes after {@code sequence}, oldest first. Reads the primary, never a replica, so
+     * published changes are not seen again.
+     *
+     * @param sequence the last sequence handed out
+     * @param limit the largest number of changes to return
+     * @return the changes
+     */
+    @Transactional
+    public List<PlayerChange> next(long sequence, int limit) {
+        return playerOutboxRepository.findBySequenceGreaterThanOrderBySequence(sequence, Limit.of(limit)).stream()
+                .map(PlayerOutboxEntry::toChange)
+                .toList();
+    }
+
+    /**
+     * Removes the changes every consumer has received.
+     *
+     * @param sequence the last published sequence
+     */
+    @Transactional
+    public void published(long sequence) {
+        playerOutboxRepository.deletePublishedThrough(sequence);
+    }
+}
@@ -0,0 +1,54 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ar.com.nanotaboada.java.samples.spring.boot.caches.CacheInvalidationBus;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangeFeed;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerOutboxConsumer;
+
+/**
+ * The application's own {@link PlayerOutboxConsumer}s: with the outbox on, the Server-Sent Events feed and the cache
+ * invalidation bus are fed by the {@link PlayerOutboxRelay} instead of by listeners on the request thread.
+ * <p>
+ * Each consumer remembers the last sequence it took and skips it when a batch is delivered again because another
+ * consumer or the webhook failed; the relay hands batches over in sequence order, from one thread.
+ * </p>
+ *
+ * @see PlayerOutboxRelay
+ * @since 4.0.2025
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "players.outbox.enabled", havingValue = "true")
+public class PlayerOutboxConsumers {
+
+    @Bean
+    PlayerOutboxConsumer playerChangeFeedConsumer(PlayerChangeFeed playerChangeFeed) {
+        return once(change -> playerChangeFeed.publish(
+                new PlayerChangedEvent(change.type(), change.id(), change.squadNumber(), change.player(),
+                        change.sequence())));
+    }
+
+    @Bean
+    PlayerOutboxConsumer cacheInvalidationBusConsumer(ObjectProvider<CacheInvalidationBus> cacheInvalidationBus) {
+        return once(change -> cacheInvalidationBus.ifAvailable(bus -> bus.broadcast(change)));
+    }
+
+    private static PlayerOutboxConsumer once(Consumer<PlayerChange> consumer) {
+        long[] taken = { 0 };
+        return changes -> {
+            for (PlayerChange change : changes) {
+                if (change.sequence() > taken[0]) {
+                    consumer.accept(change);
+                    taken[0] = change.sequence();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,162 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerOutboxConsumer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the {@link PlayerOutbox} in batches to the registered {@link PlayerOutboxConsumer} beans and, optionally, to
+ * a webhook.
+ * <p>
+ * Active with {@code players.outbox.enabled=true}. All delivery runs on one background thread, so a slow consumer or
+ * an unreachable webhook never holds a request, and changes are delivered in commit order.
+ * </p>
+ *
+ * <h3>Delivery:</h3>
+ * <ul>
+ * <li><b>When:</b> Right after each commit, and every {@code players.outbox.poll-interval} (default 1s) for changes
+ * committed by other instances or left behind by a crash</li>
+ * <li><b>Batches:</b> Up to {@code players.outbox.batch-size} changes (default 100), oldest first; full batches are
+ * followed by the next straight away</li>
+ * <li><b>Webhook:</b> With {@code players.outbox.webhook-url} set, each batch is POSTed there as a JSON array; any
+ * response other than 2xx is a failure</li>
+ * <li><b>Failures:</b> A batch is deleted from the outbox only once every consumer and the webhook took it; otherwise
+ * it is retried on the next poll (at-least-once)</li>
+ * </ul>
+ *
+ * @see PlayerOutbox
+ * @since 4.0.2025
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "players.outbox.enabled", havingValue = "true")
+public class PlayerOutboxRelay {
+
+    private final PlayerOutbox playerOutbox;
+    private final List<PlayerOutboxConsumer> consumers;
+    private final RestClient restClient;
+    private final String webhookUrl;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final AtomicBoolean drainPending = new AtomicBoolean();
+    private final ScheduledExecutorService relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "player-outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long published;
+
+    @Autowired
+    public PlayerOutboxRelay(PlayerOutbox playerOutbox, ObjectProvider<PlayerOutboxConsumer> consumers,
+            @Value("${players.outbox.webhook-url:}") String webhookUrl,
+            @Value("${players.outbox.poll-interval:1s}") Duration pollInterval,
+            @Value("${players.outbox.batch-size:100}") int batchSize) {
+        this(playerOutbox, consumers.orderedStream().toList(), RestClient.builder(), webhookUrl, pollInterval,
+                batchSize);
+    }
+
+    public PlayerOutboxRelay(PlayerOutbox playerOutbox, List<PlayerOutboxConsumer> consumers,
+            RestClient.Builder restClientBuilder, String webhookUrl, Duration pollInterval, int batchSize) {
+        this.playerOutbox = playerOutbox;
+        this.consumers = List.copyOf(consumers);
+        this.restClient = restClientBuilder.build();
+        this.webhookUrl = webhookUrl.isBlank() ? null : webhookUrl;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts polling once the application is ready, beginning with whatever a previous run left in the outbox.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        relay.scheduleWithFixedDelay(this::drainQuietly, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules a drain once a write has committed; never waits for it.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        if (drainPending.compareAndSet(false, true)) {
+            relay.execute(() -> {
+                drainPending.set(false);
+                drainQuietly();
+            });
+        }
+    }
+
+    /**
+     * Delivers every unpublished change. Only called from the relay thread (and from tests).
+     *
+     * @return the number of changes delivered
+     */
+    public int drain() {
+        int delivered = 0;
+        List<PlayerChange> batch;
+        do {
+            batch = playerOutbox.next(published, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            deliver(batch);
+            long last = batch.getLast().sequence();
+            playerOutbox.published(last);
+            published = last;
+            delivered += batch.size();
+        } while (batch.size() == batchSize);
+        return delivered;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        relay.shutdownNow();
+    }
+
+    private void deliver(List<PlayerChange> batch) {
+        for (PlayerOutboxConsumer consumer : consumers) {
+            consumer.accept(batch);
+        }
+        if (webhookUrl != null) {
+            restClient.post()
+                    .uri(webhookUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(batch)
+                    .retrieve()
+                    .toBodilessEntity();
+        }
+    }
+
+    private void drainQuietly() {
+        try {
+            int delivered = drain();
+            if (delivered > 0) {
+                log.debug("Published {} player changes - outbox at sequence {}", delivered, published);
+            }
+        } catch (RuntimeException exception) {
+            log.warn("Publishing player changes after sequence {} failed - retrying in {}: {}", published,
+                    pollInterval, exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The follower's side of replication: pulls the writer's log and applies it, in order, to this instance's database.
+ * <p>
+ * Active with {@code players.replication.role=follower}. The applied offset is the follower's own roster version,
+ * moved in the same transaction as each applied change ({@link PlayersService#replicate(PlayerChange)}), so it
+ * survives restarts and always matches the data. A follower starts from a copy of the writer's database file (or the
+ * same seed) and serves reads; writes sent to it are redirected to the writer.
+ * </p>
+ *
+ * <h3>Polling:</h3>
+ * <ul>
+ * <li><b>Interval:</b> Every {@code players.replication.poll-interval} (default 1s), and straight away again while
+ * full batches keep arriving</li>
+ * <li><b>Writer unreachable:</b> Logged, and retried on the next poll; reads keep being served, only staler</li>
+ * <li><b>Gap (410 Gone):</b> The writer's log no longer holds the changes this follower needs; replication stops
+ * until the follower is reseeded from a copy of the writer's database and restarted</li>
+ * </ul>
+ *
+ * @see PlayerReplicationLog
+ * @since 4.0.2025
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "players.replication.role", havingValue = "follower")
+public class PlayerReplicationFollower {
+
+    private static final ParameterizedTypeReference<List<PlayerChange>> CHANGES = new ParameterizedTypeReference<>() {
+    };
+
+    private final PlayersService playersService;
+    private final RestClient restClient;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replication-follower");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean stopped;
+
+    @Autowired
+    public PlayerReplicationFollower(PlayersService playersService,
+            @Value("${players.replication.writer-url}") String writerUrl,
+            @Value("${players.replication.poll-interval:1s}") Duration pollInterval,
+            @Value("${players.replication.batch-size:500}") int batchSize) {
+        this(playersService, RestClient.builder().baseUrl(writerUrl), pollInterval, batchSize);
+    }
+
+    public PlayerReplicationFollower(PlayersService playersService, RestClient.Builder restClientBuilder,
+            Duration pollInterval, int batchSize) {
+        this.playersService = playersService;
+        this.restClient = restClientBuilder.build();
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts polling once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        poller.scheduleWithFixedDelay(this::pollQuietly, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pulls and applies every change the writer has committed after this follower's applied offset.
+     *
+     * @return the number of changes applied
+     */
+    public int poll() {
+        int applied = 0;
+        List<PlayerChange> changes;
+        do {
+            long offset = playersService.retrieveRosterVersion();
+            changes = fetch(offset);
+            for (PlayerChange change : changes) {
+                if (playersService.replicate(change)) {
+                    applied++;
+                }
+            }
+        } while (changes.size() == batchSize);
+        if (applied > 0) {
+            log.info("Replicated {} changes - applied offset {}", applied, playersService.retrieveRosterVersion());
+        }
+        return applied;
+    }
+
+    /**
+     * @return true once the writer's log could no longer bring this follower up to date
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private List<PlayerChange> fetch(long offset) {
+        try {
+            List<PlayerChange> changes = restClient.get()
+                    .uri("/players/log?after={after}&limit={limit}", offset, batchSize)
+                    .retrieve()
+                    .body(CHANGES);
+            return (changes != null) ? changes : List.of();
+        } catch (RestClientResponseException exception) {
+            if (exception.getStatusCode().isSameCodeAs(HttpStatus.GONE)) {
+                stopped = true;
+                log.error("Writer's log no longer holds the changes after {} - reseed this follower from a copy of "
+                        + "the writer's database", offset);
+                return List.of();
+            }
+            throw exception;
+        }
+    }
+
+    private void pollQuietly() {
+        if (stopped) {
+            return;
+        }
+        try {
+            poll();
+        } catch (RestClientException exception) {
+            log.warn("Replication poll failed - retrying in {}: {}", pollInterval, exception.getMessage());
+        } catch (RuntimeException exception) {
+            log.error("Replication poll failed - retrying in {}", pollInterval, exception);
+        }
+    }
+}
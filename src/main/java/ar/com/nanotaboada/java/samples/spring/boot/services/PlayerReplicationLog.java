@@ -0,0 +1,101 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerLogEntry;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLogRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+
+/**
+ * The writer's side of replication: an ordered, durable log of every committed {@link PlayersService} mutation.
+ * <p>
+ * Active with {@code players.replication.role=writer}. Follower instances pull the log over
+ * {@code GET /players/log} and apply it in order ({@link PlayerReplicationFollower}).
+ * </p>
+ *
+ * <h3>Ordering:</h3>
+ * <ul>
+ * <li><b>Append:</b> Each change is written to {@code player_log} just before its transaction commits, in that same
+ * transaction, so the log holds exactly the committed changes</li>
+ * <li><b>Sequence:</b> The roster version the change took; writers are serialized by the {@code roster_version} row
+ * lock, so sequences follow commit order without gaps</li>
+ * <li><b>Retention:</b> Each append also deletes the entries more than {@code players.replication.log-retention}
+ * sequences behind it, in the same transaction, so the log holds a bounded window of recent changes</li>
+ * <li><b>Gaps:</b> A follower asking for changes the log does not hold (older than the log, or newer than the
+ * roster) cannot be brought up to date from it and has to be reseeded from a copy of the writer's database</li>
+ * </ul>
+ *
+ * <h3>Properties:</h3>
+ * <ul>
+ * <li>{@code players.replication.log-retention} — how many of the latest changes the log keeps (default 10000); a
+ * follower further behind than that gets {@code 410 Gone}</li>
+ * </ul>
+ *
+ * @see PlayerLogEntry
+ * @since 4.0.2025
+ */
+@Component
+@ConditionalOnProperty(name = "players.replication.role", havingValue = "writer")
+public class PlayerReplicationLog {
+
+    private final PlayerLogRepository playerLogRepository;
+    private final PlayersRepository playersRepository;
+    private final long retention;
+
+    public PlayerReplicationLog(PlayerLogRepository playerLogRepository, PlayersRepository playersRepository,
+            @Value("${players.replication.log-retention:10000}") long retention) {
+        if (retention < 1) {
+            throw new IllegalArgumentException("players.replication.log-retention must be positive, was " + retention);
+        }
+        this.playerLogRepository = playerLogRepository;
+        this.playersRepository = playersRepository;
+        this.retention = retention;
+    }
+
+    /**
+     * Appends the change under the roster version it took, so each of several changes in one transaction (an import
+     * batch) gets its own entry, and drops the entries that fell out of the retention window.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void append(PlayerChangedEvent event) {
+        long sequence = event.version();
+        playerLogRepository.save(PlayerLogEntry.of(sequence, event));
+        if (sequence > retention) {
+            playerLogRepository.deleteThrough(sequence - retention);
+        }
+    }
+
+    /**
+     * Returns the changes committed after {@code sequence}, oldest first.
+     *
+     * @param sequence the follower's applied offset (its roster version)
+     * @param limit the largest number of changes to return
+     * @return the changes after it (empty if the follower is up to date), or {@code null} if the log cannot bring the
+     *         follower up to date
+     */
+    @Transactional(readOnly = true)
+    public List<PlayerChange> since(long sequence, int limit) {
+        long current = playersRepository.findRosterVersion();
+        if (sequence > current) {
+            return null;
+        }
+        List<PlayerLogEntry> entries = playerLogRepository.findBySequenceGreaterThanOrderBySequence(sequence,
+                Limit.of(limit));
+        if (sequence < current && (entries.isEmpty() || entries.getFirst().getSequence() != sequence + 1)) {
+            return null;
+        }
+        return entries.stream()
+                .map(PlayerLogEntry::toChange)
+                .toList();
+    }
+}
@@ -0,0 +1,199 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.BoolColumn;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.Column;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.Field;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.IntColumn;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.Type;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.Utf8Column;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.LookupTable;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersExportCursor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Columnar export of the roster as an Apache Arrow IPC stream.
+ * <p>
+ * Rows are read from {@link PlayersExportCursor} and written in record batches of {@code players.export.batch-size}
+ * rows, so memory is bounded by the batch size whatever the size of the roster. Position, abbreviated position,
+ * team and league are dictionary-encoded: every dictionary is sent once, seeded from {@link PlayerLookups}, and the
+ * columns carry 32-bit indices into it. A name registered after the dictionaries were sent is appended as a delta
+ * dictionary batch just before the record batch that first uses it.
+ * </p>
+ *
+ * @see ArrowStreamWriter
+ * @since 4.0.2025
+ */
+@Slf4j
+@Service
+public class PlayersArrowExport {
+
+    /**
+     * The dictionary-encoded columns, in schema order; the ordinal is the dictionary id.
+     */
+    private static final List<LookupTable> DICTIONARIES = List.of(
+            LookupTable.POSITIONS, LookupTable.ABBR_POSITIONS, LookupTable.TEAMS, LookupTable.LEAGUES);
+
+    private static final List<Field> SCHEMA = List.of(
+            Field.of("id", Type.UTF8, false),
+            Field.of("squadNumber", Type.INT32, false),
+            Field.of("firstName", Type.UTF8, false),
+            Field.of("middleName", Type.UTF8, true),
+            Field.of("lastName", Type.UTF8, false),
+            Field.of("dateOfBirth", Type.DATE_DAY, false),
+            Field.dictionary("position", false, 0),
+            Field.dictionary("abbrPosition", false, 1),
+            Field.dictionary("team", false, 2),
+            Field.dictionary("league", false, 3),
+            Field.of("starting11", Type.BOOL, false));
+
+    private final PlayersExportCursor playersExportCursor;
+    private final PlayerLookups playerLookups;
+    private final int batchSize;
+
+    public PlayersArrowExport(PlayersExportCursor playersExportCursor, PlayerLookups playerLookups,
+            @Value("${players.export.batch-size:4096}") int batchSize) {
+        this.playersExportCursor = playersExportCursor;
+        this.playerLookups = playerLookups;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Writes every player to the stream; the stream is flushed but left open.
+     *
+     * @param out where to write the Arrow IPC stream
+     * @return the number of players written
+     * @throws IOException if the stream cannot be written
+     */
+    public long write(OutputStream out) throws IOException {
+        Batch batch = new Batch(new ArrowStreamWriter(out));
+        batch.start();
+        try {
+            playersExportCursor.forEach(row -> {
+                try {
+                    batch.add(row);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        batch.finish();
+        log.info("Players exported as Arrow - {} rows in {} batches", batch.rows, batch.batches);
+        return batch.rows;
+    }
+
+    /**
+     * The columns of the batch being filled, and the dictionaries sent so far.
+     */
+    private final class Batch {
+
+        private final ArrowStreamWriter writer;
+        private final Utf8Column id = new Utf8Column();
+        private final IntColumn squadNumber = new IntColumn();
+        private final Utf8Column firstName = new Utf8Column();
+        private final Utf8Column middleName = new Utf8Column();
+        private final Utf8Column lastName = new Utf8Column();
+        private final IntColumn dateOfBirth = new IntColumn();
+        private final Map<LookupTable, IntColumn> indices = new EnumMap<>(LookupTable.class);
+        private final BoolColumn starting11 = new BoolColumn();
+        private final List<Column> columns;
+        /** Lookup id to dictionary index, per dictionary. */
+        private final Map<LookupTable, Map<Integer, Integer>> dictionaries = new EnumMap<>(LookupTable.class);
+        /** Entries added since the dictionaries were last sent, per dictionary. */
+        private final Map<LookupTable, Utf8Column> deltas = new EnumMap<>(LookupTable.class);
+        private long rows;
+        private long batches;
+
+        Batch(ArrowStreamWriter writer) {
+            this.writer = writer;
+            for (LookupTable table : DICTIONARIES) {
+                indices.put(table, new IntColumn());
+                dictionaries.put(table, new HashMap<>());
+                deltas.put(table, new Utf8Column());
+            }
+            this.columns = List.of(id, squadNumber, firstName, middleName, lastName, dateOfBirth,
+                    indices.get(LookupTable.POSITIONS), indices.get(LookupTable.ABBR_POSITIONS),
+                    indices.get(LookupTable.TEAMS), indices.get(LookupTable.LEAGUES), starting11);
+        }
+
+        void start() throws IOException {
+            writer.writeSchema(SCHEMA);
+            for (LookupTable table : DICTIONARIES) {
+                Map<Integer, Integer> dictionary = dictionaries.get(table);
+                for (String name : playerLookups.names(table)) {
+                    dictionary.put(playerLookups.idOf(table, name), dictionary.size());
+                    deltas.get(table).append(name);
+                }
+            }
+            sendDictionaries(false);
+        }
+
+        void add(PlayersExportCursor.Row row) throws IOException {
+            id.append(row.id());
+            squadNumber.append(row.squadNumber());
+            firstName.append(row.firstName());
+            middleName.append(row.middleName());
+            lastName.append(row.lastName());
+            dateOfBirth.append(row.dateOfBirth());
+            indices.get(LookupTable.POSITIONS).append(indexOf(LookupTable.POSITIONS, row.positionId()));
+            indices.get(LookupTable.ABBR_POSITIONS).append(indexOf(LookupTable.ABBR_POSITIONS, row.abbrPositionId()));
+            indices.get(LookupTable.TEAMS).append(indexOf(LookupTable.TEAMS, row.teamId()));
+            indices.get(LookupTable.LEAGUES).append(indexOf(LookupTable.LEAGUES, row.leagueId()));
+            starting11.append(row.starting11());
+            if (id.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void finish() throws IOException {
+            if (id.size() > 0) {
+                flush();
+            }
+            writer.end();
+        }
+
+        private int indexOf(LookupTable table, int lookupId) {
+            Map<Integer, Integer> dictionary = dictionaries.get(table);
+            Integer index = dictionary.get(lookupId);
+            if (index == null) {
+                // Registered by a write after the export started
+                index = dictionary.size();
+                dictionary.put(lookupId, index);
+                deltas.get(table).append(playerLookups.nameOf(table, lookupId));
+            }
+            return index;
+        }
+
+        private void flush() throws IOException {
+            sendDictionaries(true);
+            writer.writeBatch(id.size(), columns);
+            rows += id.size();
+            batches++;
+            columns.forEach(Column::clear);
+        }
+
+        private void sendDictionaries(boolean delta) throws IOException {
+            for (int dictionaryId = 0; dictionaryId < DICTIONARIES.size(); dictionaryId++) {
+                Utf8Column entries = deltas.get(DICTIONARIES.get(dictionaryId));
+                if (!delta || entries.size() > 0) {
+                    writer.writeDictionary(dictionaryId, entries, delta);
+                    entries.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.events.RosterStaleEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional copy-on-write read model: serves the roster reads of {@link PlayersService} from an immutable
+ * {@link PlayersSnapshot} instead of the cache and the database.
+ * <p>
+ * Disabled by default; set {@code players.read-model.enabled=true} to turn it on. While disabled, nothing is loaded
+ * and change events are ignored.
+ * </p>
+ *
+ * <h3>Publication:</h3>
+ * <ul>
+ * <li><b>Readers:</b> Read one {@code volatile} reference and work on the snapshot it points to - no locks, no cache
+ * lookups and no database fallback</li>
+ * <li><b>Writers:</b> Each {@link PlayerChangedEvent} is applied after its transaction commits by building a new
+ * snapshot and swapping the reference; writers are serialized, readers never wait for them</li>
+ * <li><b>Load:</b> The roster is read once, when the application is ready (or on first use), from the
+ * {@link PlayersSnapshotFile} if it matches the database and through Hibernate otherwise</li>
+ * <li><b>Missed changes:</b> A {@link RosterStaleEvent} drops the snapshot, and the next read loads it again</li>
+ * </ul>
+ *
+ * <p>
+ * Each write copies the roster, which is cheap for a squad and keeps every read a plain array or map lookup. A
+ * rolled-back write never publishes its event, so it never reaches the snapshot.
+ * </p>
+ *
+ * @see PlayersSnapshot
+ * @see PlayersSnapshotFile
+ * @since 4.0.2025
+ */
+@Slf4j
+@Component("playersReadModel") // named explicitly: the @Cacheable conditions of PlayersService refer to it
+public class PlayersReadModel {
+
+    private final PlayersRepository playersRepository;
+    private final ModelMapper modelMapper;
+    private final PlayersSnapshotFile playersSnapshotFile;
+    private final boolean enabled;
+    private volatile PlayersSnapshot snapshot;
+
+    public PlayersReadModel(PlayersRepository playersRepository, ModelMapper modelMapper,
+            PlayersSnapshotFile playersSnapshotFile, @Value("${players.read-model.enabled:false}") boolean enabled) {
+        this.playersRepository = playersRepository;
+        this.modelMapper = modelMapper;
+        this.playersSnapshotFile = playersSnapshotFile;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return whether reads are served from the snapshot
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the current snapshot, loading it on first use. Callers should read it once per operation, so a write
+     * published meanwhile cannot mix two versions of the roster in one answer.
+     *
+     * @return the current snapshot
+     */
+    public PlayersSnapshot snapshot() {
+        PlayersSnapshot current = snapshot;
+        return (current != null) ? current : load();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Publishes a new snapshot with a committed change applied. Changes arriving before the first load are skipped:
+     * the load reads them anyway.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onPlayerChanged(PlayerChangedEvent event) {
+        PlayersSnapshot current = snapshot;
+        if (!enabled || current == null) {
+            return;
+        }
+        snapshot = switch (event.type()) {
+            case CREATED, UPDATED -> current.with(withId(event.player(), event.id()));
+            case DELETED -> current.without(event.id());
+        };
+    }
+
+    /**
+     * Drops the snapshot when changes may have been missed; the next read loads the roster again.
+     */
+    @EventListener
+    public synchronized void onRosterStale(RosterStaleEvent event) {
+        snapshot = null;
+    }
+
+    private synchronized PlayersSnapshot load() {
+        if (snapshot == null) {
+            long start = System.nanoTime();
+            snapshot = playersSnapshotFile.read()
+                    .map(PlayersSnapshot::of)
+                    .orElseGet(() -> PlayersSnapshot.of(loadFromDatabase()));
+            log.info("Player read model loaded - {} players in {} ms",
+                    snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Reads the roster through Hibernate, and has the snapshot file rewritten so the next start can skip this.
+     */
+    private List<PlayerDTO> loadFromDatabase() {
+        List<PlayerDTO> players = playersRepository.findAll()
+                .stream()
+                .map(player -> modelMapper.map(player, PlayerDTO.class))
+                .toList();
+        playersSnapshotFile.scheduleWrite();
+        return players;
+    }
+
+    /**
+     * Update events carry the request body, whose id is read-only and usually absent; snapshots always keep the id.
+     */
+    private PlayerDTO withId(PlayerDTO player, UUID id) {
+        if (id.equals(player.getId())) {
+            return player;
+        }
+        PlayerDTO copy = modelMapper.map(player, PlayerDTO.class);
+        copy.setId(id);
+        return copy;
+    }
+}
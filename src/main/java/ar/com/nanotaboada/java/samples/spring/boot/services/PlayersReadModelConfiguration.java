@@ -0,0 +1,53 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Lets roster reads keep their read-only transaction while the {@link PlayersReadModel} answers them.
+ * <p>
+ * The application {@link DataSource} is wrapped in a {@link LazyConnectionDataSourceProxy}: beginning and committing
+ * a transaction that runs no statement never fetches a physical connection, so a snapshot read still gets its
+ * read-only and flush-mode hints but never waits on the pool. Read replicas and league shards already route through
+ * such a proxy and are left as they are.
+ * </p>
+ * <p>
+ * Only active with {@code players.read-model.enabled=true}; otherwise reads go to the database anyway.
+ * </p>
+ *
+ * @see PlayersReadModel
+ * @since 4.0.2025
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "players.read-model.enabled", havingValue = "true")
+public class PlayersReadModelConfiguration {
+
+    @Bean
+    static BeanPostProcessor lazyConnectionDataSourcePostProcessor() {
+        return new LazyConnectionPostProcessor();
+    }
+
+    /**
+     * Runs before other decorators (e.g. SQL statistics), so it sees the auto-configured pool itself.
+     */
+    private static final class LazyConnectionPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy))
+                    ? new LazyConnectionDataSourceProxy(dataSource)
+                    : bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
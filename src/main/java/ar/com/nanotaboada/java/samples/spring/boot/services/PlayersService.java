@@ -1,17 +1,40 @@
 package ar.com.nanotaboada.java.samples.spring.boot.services;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.LeagueShards;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.indexes.PlayerKeyFilter;
 import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
 import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFields;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFilter;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerTombstone;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayersSyncDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLogApplier;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerTombstonesRepository;
 import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,11 +51,26 @@ import lombok.extern.slf4j.Slf4j;
  * <li><b>Caching:</b> Uses Spring Cache abstraction for improved performance</li>
  * <li><b>DTO Mapping:</b> Converts between {@link Player} entities and {@link PlayerDTO} objects</li>
  * <li><b>Business Logic:</b> Encapsulates domain-specific operations</li>
+ * <li><b>Sparse Fieldsets:</b> Overloads taking a {@link PlayerFields} list select only those columns</li>
+ * <li><b>Delta Sync:</b> Every write takes the next roster version; deletions leave a {@link PlayerTombstone}</li>
+ * <li><b>Change Events:</b> Publishes a {@link PlayerChangedEvent} after every successful create, update or
+ * delete</li>
+ * <li><b>Read Model:</b> With {@code players.read-model.enabled=true}, whole-player reads are answered from the
+ * {@link PlayersReadModel} snapshot, bypassing the cache and the database. They keep their read-only transaction;
+ * in this mode connections are fetched lazily ({@link PlayersReadModelConfiguration}), so a snapshot read never
+ * checks out one</li>
+ * <li><b>Fast Negatives:</b> Lookups and create conflicts the {@link PlayerKeyFilter} can answer on its own never
+ * reach the database</li>
+ * <li><b>Replication:</b> On a follower instance, changes pulled from the writer's log are applied through
+ * {@link #replicate(PlayerChange)}, in order, as if they had been written here</li>
+ * <li><b>League Shards:</b> With partitioned storage, every write pins the shard of the player's league before its
+ * first statement, and a player whose new league lives on another shard is moved there ({@link LeagueShards})</li>
  * </ul>
  *
  * <h3>Cache Strategy:</h3>
  * <ul>
  * <li><b>@Cacheable:</b> Retrieval operations (read-through cache)</li>
+ * <li><b>Multi-get:</b> Batch lookups read and fill the same per-key entries through the {@link CacheManager}</li>
  * <li><b>@CacheEvict(allEntries=true):</b> Mutating operations (create/update/delete) - invalidates entire cache to maintain
  * consistency</li>
  * </ul>
@@ -54,8 +92,17 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class PlayersService {
 
+    private static final String CACHE_NAME = "players";
+
     private final PlayersRepository playersRepository;
+    private final PlayerTombstonesRepository playerTombstonesRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final PlayersReadModel playersReadModel;
+    private final PlayerKeyFilter playerKeyFilter;
+    private final PlayerLogApplier playerLogApplier;
+    private final LeagueShards leagueShards;
 
     /*
      * -----------------------------------------------------------------------------------------------------------------------
@@ -70,7 +117,8 @@ public class PlayersService {
      * {@code GenerationType.UUID}), and returns the saved player with its assigned UUID.
      * </p>
      * <p>
-     * <b>Conflict Detection:</b> Checks if a player with the same squad number already exists.
+     * <b>Conflict Detection:</b> Checks if a player with the same squad number already exists, in the
+     * {@link PlayerKeyFilter} first and in the database only if the filter cannot tell.
      * If a race condition occurs between check and save, DataIntegrityViolationException is caught
      * and null is returned to indicate conflict.
      * </p>
@@ -83,15 +131,25 @@ public class PlayersService {
     public PlayerDTO create(PlayerDTO playerDTO) {
         log.debug("Creating new player with squad number: {}", playerDTO.getSquadNumber());
 
-        if (playersRepository.findBySquadNumber(playerDTO.getSquadNumber()).isPresent()) {
+        if (playerKeyFilter.containsSquadNumber(playerDTO.getSquadNumber())
+                || (!playerKeyFilter.excludesSquadNumber(playerDTO.getSquadNumber())
+                        && playersRepository.findBySquadNumber(playerDTO.getSquadNumber()).isPresent())) {
             log.warn("Cannot create player - squad number {} already exists", playerDTO.getSquadNumber());
             return null;
         }
+        if (!leagueShards.claim(playerDTO.getSquadNumber(), playerDTO.getLeague())) {
+            log.warn("Cannot create player - squad number {} already exists on another league shard",
+                    playerDTO.getSquadNumber());
+            return null;
+        }
 
         try {
             Player player = mapFrom(playerDTO);
+            long version = playersRepository.nextRosterVersion();
+            player.setVersion(version);
             Player savedPlayer = playersRepository.save(player);
             PlayerDTO result = mapFrom(savedPlayer);
+            eventPublisher.publishEvent(PlayerChangedEvent.created(result, version));
             log.info("Player created successfully - ID: {}, Squad Number: {}", result.getId(), result.getSquadNumber());
             return result;
         } catch (DataIntegrityViolationException _) {
@@ -112,8 +170,11 @@ public class PlayersService {
      * @return a list of all players (empty list if none found)
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "players")
+    @Cacheable(value = "players", condition = "!@playersReadModel.enabled")
     public List<PlayerDTO> retrieveAll() {
+        if (playersReadModel.isEnabled()) {
+            return playersReadModel.snapshot().all();
+        }
         return playersRepository.findAll()
                 .stream()
                 .map(this::mapFrom)
@@ -130,8 +191,14 @@ public class PlayersService {
      * @return the player DTO if found, null otherwise
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "players", key = "#id", unless = "#result == null")
+    @Cacheable(value = "players", key = "#id", condition = "!@playersReadModel.enabled", unless = "#result == null")
     public PlayerDTO retrieveById(UUID id) {
+        if (playersReadModel.isEnabled()) {
+            return playersReadModel.snapshot().byId(id);
+        }
+        if (playerKeyFilter.excludesId(id)) {
+            return null;
+        }
         return playersRepository.findById(id)
                 .map(this::mapFrom)
                 .orElse(null);
@@ -147,13 +214,154 @@ public class PlayersService {
      * @return the player DTO if found, null otherwise
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "players", key = "'squad-' + #squadNumber", unless = "#result == null")
+    @Cacheable(value = "players", key = "'squad-' + #squadNumber", condition = "!@playersReadModel.enabled",
+            unless = "#result == null")
     public PlayerDTO retrieveBySquadNumber(Integer squadNumber) {
+        if (playersReadModel.isEnabled()) {
+            return playersReadModel.snapshot().bySquadNumber(squadNumber);
+        }
+        if (playerKeyFilter.excludesSquadNumber(squadNumber)) {
+            return null;
+        }
         return playersRepository.findBySquadNumber(squadNumber)
                 .map(this::mapFrom)
                 .orElse(null);
     }
 
+    /**
+     * Retrieves the given fields of all players (sparse fieldset).
+     * <p>
+     * Only the requested columns are selected and no entity is hydrated. Results are cached per field list.
+     * </p>
+     *
+     * @param fields the fields to return, in canonical order (see {@link PlayerFields#parse})
+     * @return one map of field name to value per player (empty list if none found)
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "players", key = "'fields-' + #fields")
+    public List<Map<String, Object>> retrieveAll(List<String> fields) {
+        return playersRepository.findAllProjected(fields);
+    }
+
+    /**
+     * Retrieves the given fields of a player by their UUID primary key (sparse fieldset).
+     *
+     * @param id the UUID primary key (must not be null)
+     * @param fields the fields to return, in canonical order (see {@link PlayerFields#parse})
+     * @return the selected fields if found, null otherwise
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "players", key = "'fields-' + #id + '-' + #fields", unless = "#result == null")
+    public Map<String, Object> retrieveById(UUID id, List<String> fields) {
+        if (playerKeyFilter.excludesId(id)) {
+            return null;
+        }
+        return playersRepository.findProjectedById(id, fields).orElse(null);
+    }
+
+    /**
+     * Retrieves the given fields of a player by their squad number (sparse fieldset).
+     *
+     * @param squadNumber the squad number to retrieve
+     * @param fields the fields to return, in canonical order (see {@link PlayerFields#parse})
+     * @return the selected fields if found, null otherwise
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "players", key = "'fields-squad-' + #squadNumber + '-' + #fields", unless = "#result == null")
+    public Map<String, Object> retrieveBySquadNumber(Integer squadNumber, List<String> fields) {
+        if (playerKeyFilter.excludesSquadNumber(squadNumber)) {
+            return null;
+        }
+        return playersRepository.findProjectedBySquadNumber(squadNumber, fields).orElse(null);
+    }
+
+    /**
+     * Retrieves many players by squad number in one call.
+     * <p>
+     * Each squad number is looked up in the same cache entries {@link #retrieveBySquadNumber(Integer)} reads and
+     * writes; the misses are loaded with a single {@code IN} query and put back in the cache, so a lineup of eleven
+     * costs at most one statement.
+     * </p>
+     *
+     * @param squadNumbers the squad numbers to retrieve (duplicates are answered once)
+     * @return the players found, in request order; unknown squad numbers are left out
+     */
+    public List<PlayerDTO> retrieveBySquadNumbers(List<Integer> squadNumbers) {
+        if (playersReadModel.isEnabled()) {
+            PlayersSnapshot snapshot = playersReadModel.snapshot();
+            return retrieveMany(squadNumbers, snapshot::bySquadNumber);
+        }
+        return retrieveMany(squadNumbers, PlayersService::squadNumberKey, playerKeyFilter::excludesSquadNumber,
+                playersRepository::findBySquadNumberIn, PlayerDTO::getSquadNumber);
+    }
+
+    /**
+     * Retrieves many players by UUID in one call.
+     * <p>
+     * Works like {@link #retrieveBySquadNumbers(List)}, over the cache entries of {@link #retrieveById(UUID)}.
+     * </p>
+     *
+     * @param ids the UUID primary keys to retrieve (duplicates are answered once)
+     * @return the players found, in request order; unknown ids are left out
+     */
+    public List<PlayerDTO> retrieveByIds(List<UUID> ids) {
+        if (playersReadModel.isEnabled()) {
+            PlayersSnapshot snapshot = playersReadModel.snapshot();
+            return retrieveMany(ids, snapshot::byId);
+        }
+        return retrieveMany(ids, id -> id, playerKeyFilter::excludesId, playersRepository::findAllById,
+                PlayerDTO::getId);
+    }
+
+    /**
+     * Retrieves what changed after a roster version: players created or updated, and players deleted.
+     * <p>
+     * All reads run in one read-only transaction, so the returned version matches the rows returned with it.
+     * A version newer than the current one (e.g. kept by a client across a database reset) is answered with the full
+     * roster, as if the client were syncing from scratch, and flagged as a reset so the client drops players it holds
+     * that no longer exist.
+     * </p>
+     * <p>
+     * With league shards, each shard numbers its own writes, so no single version orders the whole roster and there
+     * is nothing to answer with.
+     * </p>
+     *
+     * @param version the roster version the client has (0 for a full sync, which returns no deletions)
+     * @return the changes after {@code version} and the version they bring the client up to, or null if the roster
+     *         is spread over league shards
+     */
+    @Transactional(readOnly = true)
+    public PlayersSyncDTO retrieveChangedSince(long version) {
+        if (leagueShards.isPartitioned()) {
+            return null;
+        }
+        long current = playersRepository.findRosterVersion();
+        long since = (version > current) ? 0 : version;
+        List<PlayerDTO> players = playersRepository.findByVersionGreaterThanOrderByVersion(since)
+                .stream()
+                .map(this::mapFrom)
+                .toList();
+        // A client syncing from scratch has nothing to delete
+        List<PlayersSyncDTO.Deleted> deleted = (since == 0)
+                ? List.of()
+                : playerTombstonesRepository.findByVersionGreaterThanOrderByVersion(since)
+                        .stream()
+                        .map(tombstone -> new PlayersSyncDTO.Deleted(tombstone.getId(), tombstone.getSquadNumber()))
+                        .toList();
+        return new PlayersSyncDTO(current, since == 0, players, deleted);
+    }
+
+    /**
+     * Retrieves the current roster version: the version of the latest write, or on a follower the sequence of the
+     * latest change applied from the writer's log.
+     *
+     * @return the roster version
+     */
+    @Transactional(readOnly = true)
+    public long retrieveRosterVersion() {
+        return playersRepository.findRosterVersion();
+    }
+
     /*
      * -----------------------------------------------------------------------------------------------------------------------
      * Search
@@ -168,12 +376,65 @@ public class PlayersService {
      */
     @Transactional(readOnly = true)
     public List<PlayerDTO> searchByLeague(String league) {
+        if (playersReadModel.isEnabled()) {
+            String term = league.toUpperCase(Locale.ROOT);
+            return playersReadModel.snapshot().all()
+                    .stream()
+                    .filter(player -> player.getLeague() != null
+                            && player.getLeague().toUpperCase(Locale.ROOT).contains(term))
+                    .toList();
+        }
         return playersRepository.findByLeagueContainingIgnoreCase(league)
                 .stream()
                 .map(this::mapFrom)
                 .toList();
     }
 
+    /**
+     * Searches for players by league name and returns only the given fields (sparse fieldset).
+     *
+     * @param league the league name to search for (must not be null or blank)
+     * @param fields the fields to return, in canonical order (see {@link PlayerFields#parse})
+     * @return one map of field name to value per matching player (empty list if none found)
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchByLeague(String league, List<String> fields) {
+        return playersRepository.findProjectedByLeague(league, fields);
+    }
+
+    /**
+     * Filters players by any combination of team, position, league, starting eleven and birth-date range.
+     * <p>
+     * Filtering, sorting and paging all happen in the database, so only the requested page crosses the wire.
+     * </p>
+     *
+     * @param filter the criteria to match (null criteria are ignored)
+     * @param sort the order of the results
+     * @param offset the number of matching players to skip
+     * @param limit the largest number of players to return
+     * @return the requested page of matching players (empty list if none found)
+     */
+    @Transactional(readOnly = true)
+    public List<PlayerDTO> filter(PlayerFilter filter, Sort sort, int offset, int limit) {
+        return playersRepository.findMatching(filter, sort, offset, limit)
+                .stream()
+                .map(this::mapFrom)
+                .toList();
+    }
+
+    /**
+     * Counts the players matching a filter. Counts are cached per filter, so paging through a result does not count
+     * it again on every page.
+     *
+     * @param filter the criteria to match (null criteria are ignored)
+     * @return the number of matching players
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "players", key = "'count-' + #filter")
+    public long count(PlayerFilter filter) {
+        return playersRepository.countMatching(filter);
+    }
+
     /*
      * -----------------------------------------------------------------------------------------------------------------------
      * Update
@@ -203,9 +464,19 @@ public class PlayersService {
 
         return playersRepository.findBySquadNumber(squadNumber)
                 .map(existing -> {
-                    Player player = mapFrom(playerDTO);
-                    player.setId(existing.getId());
-                    playersRepository.save(player);
+                    long version;
+                    if (leagueShards.isPartitioned() && leagueShards.shardOf(existing.getLeague())
+                            != leagueShards.shardOf(playerDTO.getLeague())) {
+                        version = relocate(existing, playerDTO);
+                    } else {
+                        leagueShards.pin(existing.getLeague());
+                        Player player = mapFrom(playerDTO);
+                        player.setId(existing.getId());
+                        version = playersRepository.nextRosterVersion();
+                        player.setVersion(version);
+                        playersRepository.save(player);
+                    }
+                    eventPublisher.publishEvent(PlayerChangedEvent.updated(existing.getId(), playerDTO, version));
                     log.info("Player updated successfully - Squad Number: {}", squadNumber);
                     return true;
                 })
@@ -243,7 +514,11 @@ public class PlayersService {
 
         return playersRepository.findBySquadNumber(squadNumber)
                 .map(existing -> {
+                    leagueShards.pin(existing.getLeague());
                     playersRepository.delete(existing);
+                    long version = playersRepository.nextRosterVersion();
+                    playerTombstonesRepository.save(new PlayerTombstone(existing.getId(), squadNumber, version));
+                    eventPublisher.publishEvent(PlayerChangedEvent.deleted(existing.getId(), squadNumber, version));
                     log.info("Player deleted successfully - Squad Number: {}", squadNumber);
                     return true;
                 })
@@ -253,6 +528,116 @@ public class PlayersService {
                 });
     }
 
+    /*
+     * -----------------------------------------------------------------------------------------------------------------------
+     * Replicate
+     * -----------------------------------------------------------------------------------------------------------------------
+     */
+
+    /**
+     * Applies a change shipped from the writer's replication log (follower instances only).
+     * <p>
+     * Changes must arrive in log order: the change right after the current roster version is applied, with the
+     * roster version moved to its sequence in the same transaction, so the version is also the follower's applied
+     * offset. A change at or before that version was already applied and is skipped.
+     * </p>
+     *
+     * @param change the next change from the writer's log
+     * @return true if the change was applied, false if it had already been
+     * @throws IllegalStateException if changes between the roster version and this one are missing
+     */
+    @Transactional
+    @CacheEvict(value = "players", allEntries = true)
+    public boolean replicate(PlayerChange change) {
+        long applied = playersRepository.findRosterVersion();
+        if (change.sequence() <= applied) {
+            log.debug("Skipping replicated change {} - already at roster version {}", change.sequence(), applied);
+            return false;
+        }
+        if (change.sequence() != applied + 1) {
+            throw new IllegalStateException("Replicated change " + change.sequence()
+                    + " does not follow roster version " + applied);
+        }
+        playerLogApplier.apply(change);
+        eventPublisher.publishEvent(new PlayerChangedEvent(change.type(), change.id(), change.squadNumber(),
+                change.player(), change.sequence()));
+        log.debug("Replicated change {} - {} squad number {}", change.sequence(), change.type(),
+                change.squadNumber());
+        return true;
+    }
+
+    /**
+     * Moves an updated player to the league shard of its new league: the player is written there in a transaction of
+     * its own, then deleted from the old shard, with a tombstone, in the current one. The two shards are separate
+     * databases, so the move is not atomic: if the second transaction rolls back, the player is left on both.
+     *
+     * @return the roster version the delete took on the old shard, whose transaction the update event belongs to
+     */
+    private long relocate(Player existing, PlayerDTO playerDTO) {
+        leagueShards.inNewTransaction(playerDTO.getLeague(), () -> {
+            playerLogApplier.apply(new PlayerChange(playersRepository.nextRosterVersion(),
+                    PlayerChangedEvent.Type.CREATED, existing.getId(), playerDTO.getSquadNumber(), playerDTO));
+            return null;
+        });
+        leagueShards.pin(existing.getLeague());
+        playersRepository.delete(existing);
+        long version = playersRepository.nextRosterVersion();
+        playerTombstonesRepository.save(new PlayerTombstone(existing.getId(), existing.getSquadNumber(), version));
+        log.debug("Player moved to league shard {} - Squad Number: {}", leagueShards.shardOf(playerDTO.getLeague()),
+                existing.getSquadNumber());
+        return version;
+    }
+
+    /**
+     * Cache-first multi-get: answers what it can from the cache, drops the keys known not to exist, loads every other
+     * miss in one query, fills the cache under both keys of each loaded player, and returns the players in the order
+     * of {@code keys}.
+     */
+    private <K> List<PlayerDTO> retrieveMany(List<K> keys, Function<K, Object> cacheKeyOf, Predicate<K> excluded,
+            Function<Collection<K>, List<Player>> loader, Function<PlayerDTO, K> keyOf) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        Map<K, PlayerDTO> found = new LinkedHashMap<>();
+        Set<K> misses = new LinkedHashSet<>();
+        for (K key : keys) {
+            PlayerDTO cached = (cache != null) ? cache.get(cacheKeyOf.apply(key), PlayerDTO.class) : null;
+            if (cached != null) {
+                found.put(key, cached);
+            } else if (!excluded.test(key)) {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Player player : loader.apply(misses)) {
+                PlayerDTO playerDTO = mapFrom(player);
+                found.put(keyOf.apply(playerDTO), playerDTO);
+                if (cache != null) {
+                    cache.put(playerDTO.getId(), playerDTO);
+                    cache.put(squadNumberKey(playerDTO.getSquadNumber()), playerDTO);
+                }
+            }
+        }
+        return keys.stream()
+                .distinct()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Snapshot multi-get: every key is answered from one snapshot, in the order of {@code keys}.
+     */
+    private static <K> List<PlayerDTO> retrieveMany(List<K> keys, Function<K, PlayerDTO> lookup) {
+        return keys.stream()
+                .distinct()
+                .map(lookup)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static Object squadNumberKey(Integer squadNumber) {
+        return "squad-" + squadNumber;
+    }
+
     private PlayerDTO mapFrom(Player player) {
         return modelMapper.map(player, PlayerDTO.class);
     }
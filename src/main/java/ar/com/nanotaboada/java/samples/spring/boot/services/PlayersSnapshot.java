@@ -0,0 +1,159 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+
+/**
+ * Immutable, point-in-time copy of the roster, laid out for lookups that neither lock nor box.
+ * <p>
+ * Players sit in a dense array in roster order. Squad numbers are resolved through an open-addressing table of
+ * primitive {@code int} keys (linear probing, at most half full), so a lookup by squad number is a few array reads.
+ * UUIDs go through a plain {@link HashMap} built once per snapshot.
+ * </p>
+ * <p>
+ * A snapshot is never modified after construction: {@link #with(PlayerDTO)} and {@link #without(UUID)} return a new
+ * snapshot and leave this one untouched, so readers holding it keep a consistent view.
+ * </p>
+ *
+ * @see PlayersReadModel
+ * @since 4.0.2025
+ */
+public final class PlayersSnapshot {
+
+    private static final PlayersSnapshot EMPTY = new PlayersSnapshot(new PlayerDTO[0]);
+
+    private final PlayerDTO[] players;
+    private final List<PlayerDTO> all;
+    private final int[] squadKeys;
+    private final int[] squadSlots;
+    private final int mask;
+    private final Map<UUID, PlayerDTO> byId;
+
+    private PlayersSnapshot(PlayerDTO[] players) {
+        this.players = players;
+        this.all = Collections.unmodifiableList(Arrays.asList(players));
+        int capacity = Integer.highestOneBit(Math.max(2, players.length) * 2 - 1) << 1;
+        this.squadKeys = new int[capacity];
+        this.squadSlots = new int[capacity];
+        this.mask = capacity - 1;
+        this.byId = new HashMap<>(players.length * 2);
+        for (int ordinal = 0; ordinal < players.length; ordinal++) {
+            PlayerDTO player = players[ordinal];
+            byId.put(player.getId(), player);
+            if (player.getSquadNumber() != null) {
+                int slot = probe(player.getSquadNumber());
+                squadKeys[slot] = player.getSquadNumber();
+                squadSlots[slot] = ordinal + 1; // 0 marks an empty slot
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot without players
+     */
+    public static PlayersSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a snapshot of the given players, kept in the given order.
+     *
+     * @param players the roster (each player must have an id)
+     * @return the snapshot
+     */
+    public static PlayersSnapshot of(List<PlayerDTO> players) {
+        return new PlayersSnapshot(players.toArray(PlayerDTO[]::new));
+    }
+
+    /**
+     * @return every player, in roster order (unmodifiable)
+     */
+    public List<PlayerDTO> all() {
+        return all;
+    }
+
+    /**
+     * @return the number of players
+     */
+    public int size() {
+        return players.length;
+    }
+
+    /**
+     * @param id the player's UUID
+     * @return the player, or null if not in this snapshot
+     */
+    public PlayerDTO byId(UUID id) {
+        return byId.get(id);
+    }
+
+    /**
+     * @param squadNumber the player's squad number
+     * @return the player, or null if not in this snapshot
+     */
+    public PlayerDTO bySquadNumber(int squadNumber) {
+        int ordinal = squadSlots[probe(squadNumber)];
+        return (ordinal == 0) ? null : players[ordinal - 1];
+    }
+
+    /**
+     * Returns a copy of this snapshot with a player added at the end, or replaced in place if its id is present.
+     *
+     * @param player the player (must have an id)
+     * @return the new snapshot
+     */
+    public PlayersSnapshot with(PlayerDTO player) {
+        for (int ordinal = 0; ordinal < players.length; ordinal++) {
+            if (players[ordinal].getId().equals(player.getId())) {
+                PlayerDTO[] copy = players.clone();
+                copy[ordinal] = player;
+                return new PlayersSnapshot(copy);
+            }
+        }
+        PlayerDTO[] copy = Arrays.copyOf(players, players.length + 1);
+        copy[players.length] = player;
+        return new PlayersSnapshot(copy);
+    }
+
+    /**
+     * Returns a copy of this snapshot without a player.
+     *
+     * @param id the player's UUID
+     * @return the new snapshot, or this one if the player is not in it
+     */
+    public PlayersSnapshot without(UUID id) {
+        List<PlayerDTO> remaining = new ArrayList<>(players.length);
+        for (PlayerDTO player : players) {
+            if (!player.getId().equals(id)) {
+                remaining.add(player);
+            }
+        }
+        return (remaining.size() == players.length) ? this : of(remaining);
+    }
+
+    /**
+     * Finds the slot holding {@code squadNumber}, or the empty slot where it would go.
+     */
+    private int probe(int squadNumber) {
+        int slot = mix(squadNumber) & mask;
+        while (squadSlots[slot] != 0 && squadKeys[slot] != squadNumber) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Spreads consecutive squad numbers across the table (Murmur3 finalizer).
+     */
+    private static int mix(int key) {
+        int hash = key * 0x85ebca6b;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,266 @@
+package ar.com.nanotaboada.java.samples.spring.boot.services;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.PlayerRecordCodec;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Versioned binary copy of the roster on the storage volume, so {@link PlayersReadModel} can start from a
+ * memory-mapped file instead of loading every player through Hibernate.
+ * <p>
+ * Disabled by default; set {@code players.snapshot-file.enabled=true} to turn it on. Only the read model reads the
+ * file, so it is of use together with {@code players.read-model.enabled=true}.
+ * </p>
+ *
+ * <h3>File layout (native byte order):</h3>
+ * <ul>
+ * <li><b>0:</b> {@code int} magic number {@code PLRS}, which also rejects files written with another byte order</li>
+ * <li><b>4:</b> {@code int} format version</li>
+ * <li><b>8:</b> {@code long} roster version the players were read at ({@code roster_version} table)</li>
+ * <li><b>16:</b> {@code int} number of players</li>
+ * <li><b>20:</b> the players in roster order, in the {@link PlayerRecordCodec} layout</li>
+ * </ul>
+ *
+ * <h3>Consistency:</h3>
+ * <ul>
+ * <li><b>Write:</b> Once no change has committed for the settle delay, the roster and its version are read in one
+ * read-only transaction, written to a temporary file, forced to disk and moved over the previous file; every change
+ * postpones the write</li>
+ * <li><b>Read:</b> The file is mapped with {@link FileChannel#map} and accepted only if its roster version is the
+ * database's current one; a stale, truncated or foreign file is ignored, the roster is loaded from the database and a
+ * new file is written</li>
+ * <li><b>Mapping:</b> The record offsets are walked first, so a truncated file is rejected before anything is
+ * decoded; the players are then decoded onto the heap and the file is unmapped before {@link #read()} returns. The
+ * read model keeps every player on the heap anyway, so the mapping only saves the Hibernate load, not memory</li>
+ * </ul>
+ *
+ * <h3>Properties:</h3>
+ * <ul>
+ * <li>{@code players.snapshot-file.path} — where the file is kept (default
+ * {@code storage/players-roster.snapshot})</li>
+ * <li>{@code players.snapshot-file.settle-delay} — quiet time after the last change before the file is written
+ * (default 2s)</li>
+ * </ul>
+ *
+ * @see PlayersSnapshot
+ * @since 4.0.2025
+ */
+@Slf4j
+@Component
+public class PlayersSnapshotFile {
+
+    private static final int MAGIC = 0x504C5253; // "PLRS"
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED;
+
+    private final PlayersRepository playersRepository;
+    private final ModelMapper modelMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration settleDelay;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "players-snapshot-file");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> pendingWrite;
+
+    public PlayersSnapshotFile(PlayersRepository playersRepository, ModelMapper modelMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${players.snapshot-file.enabled:false}") boolean enabled,
+            @Value("${players.snapshot-file.path:storage/players-roster.snapshot}") String path,
+            @Value("${players.snapshot-file.settle-delay:2s}") Duration settleDelay) {
+        this.playersRepository = playersRepository;
+        this.modelMapper = modelMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.settleDelay = settleDelay;
+    }
+
+    /**
+     * Maps the file, provided it was written at the database's current roster version, decodes every player and
+     * unmaps it again.
+     *
+     * @return the players in roster order, or empty if the file is disabled, missing, stale or unreadable
+     */
+    public synchronized Optional<List<PlayerDTO>> read() {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        long version = playersRepository.findRosterVersion();
+        try (Arena arena = Arena.ofConfined();
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MemorySegment file = channel.map(MapMode.READ_ONLY, 0, channel.size(), arena);
+            long[] offsets = offsets(file, version);
+            if (offsets == null) {
+                log.info("Roster snapshot file {} does not match roster version {} - loading from the database",
+                        path, version);
+                return Optional.empty();
+            }
+            List<PlayerDTO> players = new ArrayList<>(offsets.length);
+            for (long offset : offsets) {
+                players.add(PlayerRecordCodec.decode(file.asSlice(offset, PlayerRecordCodec.length(file, offset))));
+            }
+            log.info("Roster snapshot file read - {} players at roster version {} in {} ms",
+                    players.size(), version, (System.nanoTime() - start) / 1_000_000);
+            return Optional.of(players);
+        } catch (IOException | RuntimeException exception) {
+            log.warn("Roster snapshot file {} could not be read - loading from the database", path, exception);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the file once writes settle. Changes arriving meanwhile postpone it.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        scheduleWrite();
+    }
+
+    /**
+     * Schedules a write of the current roster after the settle delay, replacing any write already scheduled.
+     */
+    public synchronized void scheduleWrite() {
+        if (!enabled) {
+            return;
+        }
+        if (pendingWrite != null) {
+            pendingWrite.cancel(false);
+        }
+        pendingWrite = writer.schedule(this::writeFromDatabase, settleDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes a roster and the version it was read at, replacing the file atomically.
+     *
+     * @param version the roster version the players were read at
+     * @param players the players, in roster order
+     * @throws IOException if the file cannot be written
+     */
+    public void write(long version, List<PlayerDTO> players) throws IOException {
+        List<MemorySegment> records = new ArrayList<>(players.size());
+        long size = HEADER_SIZE;
+        for (PlayerDTO player : players) {
+            MemorySegment record = PlayerRecordCodec.encode(player);
+            if (record == null) {
+                throw new IllegalArgumentException("Player cannot be encoded: " + player);
+            }
+            records.add(record);
+            size += record.byteSize();
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Arena arena = Arena.ofConfined();
+                FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MemorySegment file = channel.map(MapMode.READ_WRITE, 0, size, arena);
+            file.set(INT, 0, MAGIC);
+            file.set(INT, 4, FORMAT);
+            file.set(LONG, 8, version);
+            file.set(INT, 16, records.size());
+            long offset = HEADER_SIZE;
+            for (MemorySegment record : records) {
+                MemorySegment.copy(record, 0, file, offset, record.byteSize());
+                offset += record.byteSize();
+            }
+            file.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writer.shutdownNow();
+    }
+
+    private void writeFromDatabase() {
+        try {
+            long start = System.nanoTime();
+            RosterAtVersion roster = readOnlyTransaction.execute(_ -> new RosterAtVersion(
+                    playersRepository.findRosterVersion(),
+                    playersRepository.findAll()
+                            .stream()
+                            .map(player -> modelMapper.map(player, PlayerDTO.class))
+                            .toList()));
+            write(roster.version(), roster.players());
+            log.info("Roster snapshot file written - {} players at roster version {} in {} ms",
+                    roster.players().size(), roster.version(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException exception) {
+            log.warn("Roster snapshot file {} could not be written", path, exception);
+        }
+    }
+
+    /**
+     * Walks the record lengths without decoding the records.
+     *
+     * @return where each record starts, or null if the file is not a snapshot of this format at this roster version
+     */
+    private static long[] offsets(MemorySegment file, long version) {
+        if (file.byteSize() < HEADER_SIZE
+                || file.get(INT, 0) != MAGIC
+                || file.get(INT, 4) != FORMAT
+                || file.get(LONG, 8) != version) {
+            return null;
+        }
+        int count = file.get(INT, 16);
+        if (count < 0) {
+            return null;
+        }
+        long[] offsets = new long[count];
+        long offset = HEADER_SIZE;
+        for (int i = 0; i < count; i++) {
+            if (offset + Integer.BYTES > file.byteSize()) {
+                return null;
+            }
+            int length = PlayerRecordCodec.length(file, offset);
+            if (length <= 0) {
+                return null;
+            }
+            offsets[i] = offset;
+            offset += length;
+        }
+        return (offset == file.byteSize()) ? offsets : null;
+    }
+
+    private record RosterAtVersion(long version, List<PlayerDTO> players) {
+    }
+}
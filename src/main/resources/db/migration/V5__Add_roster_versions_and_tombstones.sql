@@ -0,0 +1,28 @@
+-- V5: Track a roster version per change for delta sync (GET /players?since={version})
+-- roster_version holds a single row with the latest version; every create, update and
+-- delete takes the next one. Players carry the version of their last write, and deleted
+-- players leave a tombstone with the version of their deletion. Both are indexed on
+-- version so a sync reads only the rows changed after the client's version.
+-- Existing players start at version 1, so a client syncing from version 0 gets them all.
+-- Compatible with both SQLite (local dev) and PostgreSQL (see #286).
+
+ALTER TABLE players ADD COLUMN version BIGINT NOT NULL DEFAULT 1;
+
+CREATE INDEX IF NOT EXISTS idx_players_version ON players (version);
+
+CREATE TABLE IF NOT EXISTS player_tombstones (
+    id           VARCHAR(36)  NOT NULL,
+    squadNumber  INTEGER      NOT NULL,
+    version      BIGINT       NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_player_tombstones_version ON player_tombstones (version);
+
+CREATE TABLE IF NOT EXISTS roster_version (
+    id           INTEGER      NOT NULL,
+    version      BIGINT       NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO roster_version (id, version) VALUES (1, 1);
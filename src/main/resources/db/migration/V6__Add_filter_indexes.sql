@@ -0,0 +1,28 @@
+-- V6: Indexes for the multi-criteria filter (GET /players/search?team=…&position=…)
+-- Each equality filter gets an index whose leading column it can seek on; the second
+-- column narrows the most common combinations (team + position, league + starting11,
+-- abbrPosition + starting11) without a lookup back into the table. dateOfBirth gets its
+-- own index for birth-date ranges. A filter on starting11 alone matches about half the
+-- roster, so it is left to a scan on purpose.
+-- dateOfBirth is TEXT, so a range only follows date order when every value has the same
+-- fixed-width form. Rows written before IsoDateConverter switched to the seed form
+-- ("1992-09-02T00:00:00.000Z") are normalized here.
+-- Compatible with both SQLite (local dev) and PostgreSQL (see #286).
+
+UPDATE players
+SET dateOfBirth = substr(dateOfBirth, 1, 19) || '.000Z'
+WHERE length(dateOfBirth) = 20 AND dateOfBirth LIKE '%Z';
+
+UPDATE players
+SET dateOfBirth = dateOfBirth || 'T00:00:00.000Z'
+WHERE length(dateOfBirth) = 10;
+
+CREATE INDEX IF NOT EXISTS idx_players_team_position ON players (team, position);
+
+CREATE INDEX IF NOT EXISTS idx_players_position ON players (position);
+
+CREATE INDEX IF NOT EXISTS idx_players_abbrposition_starting11 ON players (abbrPosition, starting11);
+
+CREATE INDEX IF NOT EXISTS idx_players_league_starting11 ON players (league, starting11);
+
+CREATE INDEX IF NOT EXISTS idx_players_dateofbirth ON players (dateOfBirth);
@@ -0,0 +1,95 @@
+-- V7: Move position, abbrPosition, team and league into lookup tables
+-- Each of these columns repeats a few dozen distinct names across every row. They now live
+-- once in a lookup table (id, name), and players keeps an INTEGER id per column, so rows are
+-- narrower and filters compare integers. The entity still exposes the names: converters
+-- translate ids and names in memory (see PlayerLookups).
+-- Ids are assigned in name order. SQLite cannot change a column's type in place, so players
+-- is rebuilt as players_normalized and renamed; the V5/V6 indexes are recreated on the ids.
+-- Compatible with both SQLite (local dev) and PostgreSQL (see #286).
+
+CREATE TABLE IF NOT EXISTS positions (
+    id           INTEGER      NOT NULL,
+    name         TEXT         NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS abbr_positions (
+    id           INTEGER      NOT NULL,
+    name         TEXT         NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS teams (
+    id           INTEGER      NOT NULL,
+    name         TEXT         NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS leagues (
+    id           INTEGER      NOT NULL,
+    name         TEXT         NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (name)
+);
+
+INSERT INTO positions (id, name)
+SELECT ROW_NUMBER() OVER (ORDER BY position), position
+FROM (SELECT DISTINCT position FROM players) AS distinct_positions;
+
+INSERT INTO abbr_positions (id, name)
+SELECT ROW_NUMBER() OVER (ORDER BY abbrPosition), abbrPosition
+FROM (SELECT DISTINCT abbrPosition FROM players) AS distinct_abbr_positions;
+
+INSERT INTO teams (id, name)
+SELECT ROW_NUMBER() OVER (ORDER BY team), team
+FROM (SELECT DISTINCT team FROM players) AS distinct_teams;
+
+INSERT INTO leagues (id, name)
+SELECT ROW_NUMBER() OVER (ORDER BY league), league
+FROM (SELECT DISTINCT league FROM players) AS distinct_leagues;
+
+CREATE TABLE players_normalized (
+    id             VARCHAR(36)  NOT NULL,
+    squadNumber    INTEGER      NOT NULL,
+    firstName      TEXT         NOT NULL,
+    middleName     TEXT,
+    lastName       TEXT         NOT NULL,
+    dateOfBirth    TEXT         NOT NULL,
+    positionId     INTEGER      NOT NULL REFERENCES positions (id),
+    abbrPositionId INTEGER      NOT NULL REFERENCES abbr_positions (id),
+    teamId         INTEGER      NOT NULL REFERENCES teams (id),
+    leagueId       INTEGER      NOT NULL REFERENCES leagues (id),
+    starting11     BOOLEAN      NOT NULL,
+    version        BIGINT       NOT NULL DEFAULT 1,
+    PRIMARY KEY (id),
+    UNIQUE (squadNumber)
+);
+
+INSERT INTO players_normalized (id, squadNumber, firstName, middleName, lastName, dateOfBirth,
+                                positionId, abbrPositionId, teamId, leagueId, starting11, version)
+SELECT p.id, p.squadNumber, p.firstName, p.middleName, p.lastName, p.dateOfBirth,
+       pos.id, abbr.id, t.id, l.id, p.starting11, p.version
+FROM players p
+JOIN positions pos ON pos.name = p.position
+JOIN abbr_positions abbr ON abbr.name = p.abbrPosition
+JOIN teams t ON t.name = p.team
+JOIN leagues l ON l.name = p.league;
+
+DROP TABLE players;
+
+ALTER TABLE players_normalized RENAME TO players;
+
+CREATE INDEX IF NOT EXISTS idx_players_version ON players (version);
+
+CREATE INDEX IF NOT EXISTS idx_players_team_position ON players (teamId, positionId);
+
+CREATE INDEX IF NOT EXISTS idx_players_position ON players (positionId);
+
+CREATE INDEX IF NOT EXISTS idx_players_abbrposition_starting11 ON players (abbrPositionId, starting11);
+
+CREATE INDEX IF NOT EXISTS idx_players_league_starting11 ON players (leagueId, starting11);
+
+CREATE INDEX IF NOT EXISTS idx_players_dateofbirth ON players (dateOfBirth);
@@ -0,0 +1,24 @@
+-- V8: Ordered log of committed player changes, for follower instances
+-- With players.replication.role=writer, every create, update and delete appends one row in
+-- the same transaction as the change, keyed by the roster version it took. Followers pull the
+-- rows after their own roster version (GET /players/log) and apply them in that order.
+-- Rows carry the player as written, with names rather than lookup ids, so a follower can apply
+-- them without knowing the writer's ids. The player columns are NULL for deletions.
+-- Compatible with both SQLite (local dev) and PostgreSQL (see #286).
+
+CREATE TABLE IF NOT EXISTS player_log (
+    sequence     BIGINT       NOT NULL,
+    type         TEXT         NOT NULL,
+    playerId     VARCHAR(36)  NOT NULL,
+    squadNumber  INTEGER      NOT NULL,
+    firstName    TEXT,
+    middleName   TEXT,
+    lastName     TEXT,
+    dateOfBirth  TEXT,
+    position     TEXT,
+    abbrPosition TEXT,
+    team         TEXT,
+    league       TEXT,
+    starting11   BOOLEAN,
+    PRIMARY KEY (sequence)
+);
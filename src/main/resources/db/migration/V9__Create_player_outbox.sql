@@ -0,0 +1,24 @@
+-- V9: Outbox of committed player changes still to be published
+-- With players.outbox.enabled=true, every create, update and delete inserts one row in the
+-- same transaction as the change, keyed by the roster version it took. A background relay
+-- reads the rows in that order, hands them to the registered consumers and the optional
+-- webhook, and deletes them once delivered; rows left behind by a crash are sent on restart.
+-- Same layout as player_log (V8). The player columns are NULL for deletions.
+-- Compatible with both SQLite (local dev) and PostgreSQL (see #286).
+
+CREATE TABLE IF NOT EXISTS player_outbox (
+    sequence     BIGINT       NOT NULL,
+    type         TEXT         NOT NULL,
+    playerId     VARCHAR(36)  NOT NULL,
+    squadNumber  INTEGER      NOT NULL,
+    firstName    TEXT,
+    middleName   TEXT,
+    lastName     TEXT,
+    dateOfBirth  TEXT,
+    position     TEXT,
+    abbrPosition TEXT,
+    team         TEXT,
+    league       TEXT,
+    starting11   BOOLEAN,
+    PRIMARY KEY (sequence)
+);
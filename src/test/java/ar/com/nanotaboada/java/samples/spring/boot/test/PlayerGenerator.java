@@ -0,0 +1,233 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.IsoDateConverter;
+import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
+
+/**
+ * Deterministic generator of synthetic players for volume and scale tests.
+ *
+ * <p>Every row is a pure function of {@code (seed, ordinal)}: the same seed always yields the same roster, no matter
+ * how many batches or runs it took to build it. Generated squad numbers start at {@link #FIRST_SQUAD_NUMBER}, so
+ * they never collide with the 26 players pre-seeded from {@code dml.sql}.</p>
+ *
+ * <p>Rows are written with plain JDBC batches instead of {@code PlayersRepository.saveAll()} so that filling
+ * {@code players} with millions of rows takes seconds rather than minutes.</p>
+ */
+public final class PlayerGenerator {
+
+    public static final long DEFAULT_SEED = 2022L;
+    public static final int FIRST_SQUAD_NUMBER = 1_000;
+    public static final int BATCH_SIZE = 10_000;
+
+    private static final String INSERT = """
+            INSERT INTO players (id, squadNumber, firstName, middleName, lastName, dateOfBirth,
+                                 positionId, abbrPositionId, teamId, leagueId, starting11)
+            VALUES (?, ?, ?, ?, ?, ?,
+                    (SELECT id FROM positions WHERE name = ?), (SELECT id FROM abbr_positions WHERE name = ?),
+                    (SELECT id FROM teams WHERE name = ?), (SELECT id FROM leagues WHERE name = ?), ?)
+            """;
+
+    private static final String INSERT_LOOKUP = """
+            INSERT INTO %1$s (id, name)
+            SELECT candidate.id, ? FROM (SELECT COALESCE(MAX(id), 0) + 1 AS id FROM %1$s) AS candidate
+            WHERE NOT EXISTS (SELECT 1 FROM %1$s WHERE name = ?)
+            """;
+
+    private static final String COUNT = "SELECT COUNT(*) FROM players WHERE squadNumber >= ?";
+
+    private static final String[] FIRST_NAMES = {
+        "Lionel", "Ángel", "Julián", "Enzo", "Alexis", "Rodrigo", "Nicolás", "Cristian", "Nahuel", "Damián",
+        "Franco", "Juan", "Gonzalo", "Leandro", "Germán", "Marcos", "Gerónimo", "Exequiel", "Thiago", "Alejandro",
+        "Guido", "Paulo", "Lautaro", "Lisandro", "Giovani"
+    };
+
+    private static final String[] MIDDLE_NAMES = {
+        null, "Andrés", "Fabián", "Emiliano", "Javier", "Alejandro", "Gabriel", "Daniel", "Martín", "Ezequiel"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Messi", "Di María", "Álvarez", "Fernández", "Mac Allister", "de Paul", "Otamendi", "Romero", "Molina",
+        "Martínez", "Armani", "Foyth", "Montiel", "Paredes", "Pezzella", "Acuña", "Rulli", "Palacios", "Almada",
+        "Gómez", "Rodríguez", "Dybala", "Tagliafico", "Correa", "Lo Celso"
+    };
+
+    private static final String[][] POSITIONS = {
+        { "Goalkeeper", "GK" }, { "Right-Back", "RB" }, { "Centre-Back", "CB" }, { "Left-Back", "LB" },
+        { "Defensive Midfield", "DM" }, { "Central Midfield", "CM" }, { "Attacking Midfield", "AM" },
+        { "Right Winger", "RW" }, { "Left Winger", "LW" }, { "Second Striker", "SS" }, { "Centre-Forward", "CF" }
+    };
+
+    private static final String[][] TEAMS = {
+        { "Aston Villa FC", "Premier League" }, { "Manchester City", "Premier League" },
+        { "Tottenham Hotspur", "Premier League" }, { "Atlético Madrid", "La Liga" }, { "Sevilla FC", "La Liga" },
+        { "Real Betis Balompié", "La Liga" }, { "SL Benfica", "Liga Portugal" }, { "Olympique Lyon", "Ligue 1" },
+        { "Paris Saint-Germain", "Ligue 1" }, { "AS Roma", "Serie A" }, { "Inter Milan", "Serie A" },
+        { "Ajax Amsterdam", "Eredivisie" }, { "Bayer 04 Leverkusen", "Bundesliga" },
+        { "River Plate", "Copa de la Liga" }, { "Atlanta United FC", "Major League Soccer" }
+    };
+
+    private static final LocalDate EARLIEST_BIRTH = LocalDate.of(1985, 1, 1);
+    private static final int BIRTH_RANGE_DAYS = 6_500;
+
+    private static final IsoDateConverter DATE_CONVERTER = new IsoDateConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long seed;
+
+    public PlayerGenerator(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, DEFAULT_SEED);
+    }
+
+    public PlayerGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seed = seed;
+    }
+
+    /**
+     * Number of generated rows currently stored (pre-seeded players are not counted).
+     */
+    public int count() {
+        Integer count = jdbcTemplate.queryForObject(COUNT, Integer.class, FIRST_SQUAD_NUMBER);
+        return (count != null) ? count : 0;
+    }
+
+    /**
+     * Appends generated rows until {@code target} of them are stored. Rows already present are kept, so a roster can
+     * be grown step by step (10³, 10⁴, …) without regenerating it.
+     *
+     * @param target the number of generated rows that must exist afterwards
+     * @return the number of rows inserted by this call
+     */
+    public int fill(int target) {
+        int from = count();
+        if (from < target) {
+            insertLookups();
+        }
+        for (int start = from; start < target; start += BATCH_SIZE) {
+            int end = Math.min(start + BATCH_SIZE, target);
+            insertBatch(start, end);
+        }
+        return Math.max(0, target - from);
+    }
+
+    /**
+     * The squad number assigned to the generated row at {@code ordinal} (unique by construction).
+     */
+    public static int squadNumberOf(int ordinal) {
+        return FIRST_SQUAD_NUMBER + ordinal;
+    }
+
+    /**
+     * The UUID assigned to the generated row at {@code ordinal} for the given seed.
+     */
+    public static UUID idOf(long seed, int ordinal) {
+        return UUID.nameUUIDFromBytes(("player-" + seed + "-" + ordinal).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds the generated row at {@code ordinal} as an entity, without touching the database.
+     */
+    public static Player createOne(long seed, int ordinal) {
+        long hash = mix(seed, ordinal);
+        String[] position = pick(POSITIONS, hash, 0);
+        String[] team = pick(TEAMS, hash, 8);
+        Player player = new Player();
+        player.setId(idOf(seed, ordinal));
+        player.setSquadNumber(squadNumberOf(ordinal));
+        player.setFirstName(pick(FIRST_NAMES, hash, 16));
+        player.setMiddleName(pick(MIDDLE_NAMES, hash, 24));
+        player.setLastName(pick(LAST_NAMES, hash, 32));
+        player.setDateOfBirth(EARLIEST_BIRTH.plusDays(Math.floorMod(hash >>> 40, BIRTH_RANGE_DAYS)));
+        player.setPosition(position[0]);
+        player.setAbbrPosition(position[1]);
+        player.setTeam(team[0]);
+        player.setLeague(team[1]);
+        player.setStarting11(((hash >>> 60) & 1L) == 1L);
+        return player;
+    }
+
+    /**
+     * Adds the generated positions, teams and leagues to the lookup tables, where missing.
+     */
+    private void insertLookups() {
+        for (String[] position : POSITIONS) {
+            insertLookup("positions", position[0]);
+            insertLookup("abbr_positions", position[1]);
+        }
+        for (String[] team : TEAMS) {
+            insertLookup("teams", team[0]);
+            insertLookup("leagues", team[1]);
+        }
+    }
+
+    private void insertLookup(String table, String name) {
+        jdbcTemplate.update(INSERT_LOOKUP.formatted(table), name, name);
+    }
+
+    private void insertBatch(int start, int end) {
+        jdbcTemplate.execute((Connection connection) -> {
+            boolean autoCommit = connection.getAutoCommit();
+            // Outside a surrounding transaction, commit once per batch instead of once per row
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (int ordinal = start; ordinal < end; ordinal++) {
+                    bind(statement, createOne(seed, ordinal));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                if (autoCommit) {
+                    connection.commit();
+                }
+            } catch (SQLException exception) {
+                if (autoCommit) {
+                    connection.rollback();
+                }
+                throw exception;
+            } finally {
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void bind(PreparedStatement statement, Player player) throws SQLException {
+        statement.setString(1, player.getId().toString());
+        statement.setInt(2, player.getSquadNumber());
+        statement.setString(3, player.getFirstName());
+        statement.setString(4, player.getMiddleName());
+        statement.setString(5, player.getLastName());
+        statement.setString(6, DATE_CONVERTER.convertToDatabaseColumn(player.getDateOfBirth()));
+        statement.setString(7, player.getPosition());
+        statement.setString(8, player.getAbbrPosition());
+        statement.setString(9, player.getTeam());
+        statement.setString(10, player.getLeague());
+        statement.setBoolean(11, player.getStarting11());
+    }
+
+    private static <T> T pick(T[] values, long hash, int shift) {
+        return values[(int) Math.floorMod(hash >>> shift, (long) values.length)];
+    }
+
+    /**
+     * SplitMix64 finalizer: a stateless, well-distributed hash of (seed, ordinal).
+     */
+    private static long mix(long seed, int ordinal) {
+        long z = seed * 0x9E3779B97F4A7C15L + ordinal;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
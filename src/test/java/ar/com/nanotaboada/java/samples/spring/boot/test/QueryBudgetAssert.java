@@ -0,0 +1,87 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test;
+
+import org.assertj.core.api.AbstractAssert;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ar.com.nanotaboada.java.samples.spring.boot.metrics.SqlStatisticsFilter;
+
+/**
+ * AssertJ assertions on the SQL a single request ran, read from the {@code X-SQL-*} headers written by
+ * {@link SqlStatisticsFilter}.
+ *
+ * <p>The application under test must run with {@code players.sql-statistics.expose-headers=true}. Typical use:</p>
+ *
+ * <pre>{@code
+ * thenQueries(response).hasSelectsAtMost(1).hasNoWrites();
+ * }</pre>
+ */
+public class QueryBudgetAssert extends AbstractAssert<QueryBudgetAssert, MockHttpServletResponse> {
+
+    private QueryBudgetAssert(MockHttpServletResponse response) {
+        super(response, QueryBudgetAssert.class);
+    }
+
+    public static QueryBudgetAssert thenQueries(MockHttpServletResponse response) {
+        return new QueryBudgetAssert(response);
+    }
+
+    public QueryBudgetAssert hasNoStatements() {
+        return hasCount("statements", SqlStatisticsFilter.STATEMENTS_HEADER, 0, 0);
+    }
+
+    public QueryBudgetAssert hasStatementsAtMost(int budget) {
+        return hasCount("statements", SqlStatisticsFilter.STATEMENTS_HEADER, 0, budget);
+    }
+
+    public QueryBudgetAssert hasSelects(int expected) {
+        return hasCount("SELECTs", SqlStatisticsFilter.SELECTS_HEADER, expected, expected);
+    }
+
+    public QueryBudgetAssert hasSelectsAtMost(int budget) {
+        return hasCount("SELECTs", SqlStatisticsFilter.SELECTS_HEADER, 0, budget);
+    }
+
+    public QueryBudgetAssert hasInserts(int expected) {
+        return hasCount("INSERTs", SqlStatisticsFilter.INSERTS_HEADER, expected, expected);
+    }
+
+    public QueryBudgetAssert hasUpdates(int expected) {
+        return hasCount("UPDATEs", SqlStatisticsFilter.UPDATES_HEADER, expected, expected);
+    }
+
+    public QueryBudgetAssert hasDeletes(int expected) {
+        return hasCount("DELETEs", SqlStatisticsFilter.DELETES_HEADER, expected, expected);
+    }
+
+    /**
+     * No INSERT, UPDATE or DELETE was executed.
+     */
+    public QueryBudgetAssert hasNoWrites() {
+        return hasInserts(0).hasUpdates(0).hasDeletes(0);
+    }
+
+    private QueryBudgetAssert hasCount(String label, String header, int min, int max) {
+        isNotNull();
+        String value = actual.getHeader(header);
+        if (value == null) {
+            failWithMessage("Expected response to carry the %s header; is players.sql-statistics.expose-headers on?",
+                    header);
+        }
+        int count = Integer.parseInt(value);
+        if (count < min || count > max) {
+            String expected = (min == max) ? String.valueOf(min) : "at most " + max;
+            failWithMessage("Expected %s %s but the request ran %d (%s)", expected, label, count, summary());
+        }
+        return this;
+    }
+
+    private String summary() {
+        return String.format("statements=%s, selects=%s, inserts=%s, updates=%s, deletes=%s, rows=%s",
+                actual.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER),
+                actual.getHeader(SqlStatisticsFilter.SELECTS_HEADER),
+                actual.getHeader(SqlStatisticsFilter.INSERTS_HEADER),
+                actual.getHeader(SqlStatisticsFilter.UPDATES_HEADER),
+                actual.getHeader(SqlStatisticsFilter.DELETES_HEADER),
+                actual.getHeader(SqlStatisticsFilter.ROWS_HEADER));
+    }
+}
@@ -0,0 +1,37 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} that records every SQL statement Hibernate is about to prepare.
+ *
+ * <p>Enable it for a test class with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=}<i>this class name</i>. Statements are
+ * recorded per thread, so call {@link #clear()} before the code under test and {@link #drain()} after it.</p>
+ */
+public class SqlStatementCapture implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.get().clear();
+    }
+
+    /**
+     * Returns the statements recorded on the current thread since the last call, and forgets them.
+     */
+    public static List<String> drain() {
+        List<String> statements = List.copyOf(STATEMENTS.get());
+        STATEMENTS.get().clear();
+        return statements;
+    }
+}
@@ -0,0 +1,98 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.caches;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ar.com.nanotaboada.java.samples.spring.boot.Application;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersService;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+
+/**
+ * Starts two application contexts on one SQLite file, linked by the in-process invalidation transport, the way two
+ * instances behind a load balancer share a database. Each keeps its own key filter, bitmap index and read model, all
+ * loaded before the writes below.
+ */
+@DisplayName("Cache Invalidation Bus between Two Nodes")
+class CacheInvalidationBusNodesTests {
+
+    @TempDir
+    private Path storage;
+
+    private ConfigurableApplicationContext first;
+    private ConfigurableApplicationContext second;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:sqlite:" + storage.resolve("players.db");
+        first = node(url, "always");
+        second = node(url, "never");
+    }
+
+    @AfterEach
+    void tearDown() {
+        second.close();
+        first.close();
+    }
+
+    /**
+     * Given two nodes that loaded the roster before squad number 27 existed
+     * When a player with squad number 27 is created on the first node
+     * Then the second node finds it by squad number, by id and in the whole roster, instead of answering 404 from
+     * its key filter or read model
+     */
+    @Test
+    void givenTwoNodes_whenPlayerCreatedOnFirst_thenSecondFindsIt() {
+        // Given
+        PlayersService firstService = first.getBean(PlayersService.class);
+        PlayersService secondService = second.getBean(PlayersService.class);
+        then(secondService.retrieveBySquadNumber(27)).isNull();
+        // When
+        PlayerDTO created = firstService.create(PlayerDTOFakes.createOneValid());
+        // Then
+        then(created).isNotNull();
+        then(secondService.retrieveBySquadNumber(27)).isNotNull()
+                .extracting(PlayerDTO::getId).isEqualTo(created.getId());
+        then(secondService.retrieveById(created.getId())).isNotNull();
+        then(secondService.retrieveAll()).extracting(PlayerDTO::getId).contains(created.getId());
+    }
+
+    /**
+     * Given a player with squad number 27 created on the first node and seen by the second
+     * When the first node deletes it and the second node creates squad number 27 again
+     * Then the second node accepts the create instead of answering 409 from its key filter
+     */
+    @Test
+    void givenPlayerDeletedOnFirst_whenCreatedOnSecond_thenCreated() {
+        // Given
+        PlayersService firstService = first.getBean(PlayersService.class);
+        PlayersService secondService = second.getBean(PlayersService.class);
+        firstService.create(PlayerDTOFakes.createOneValid());
+        then(secondService.retrieveBySquadNumber(27)).isNotNull();
+        // When
+        boolean deleted = firstService.deleteBySquadNumber(27);
+        PlayerDTO recreated = secondService.create(PlayerDTOFakes.createOneValid());
+        // Then
+        then(deleted).isTrue();
+        then(recreated).isNotNull();
+        then(firstService.retrieveBySquadNumber(27)).isNotNull()
+                .extracting(PlayerDTO::getId).isEqualTo(recreated.getId());
+    }
+
+    private static ConfigurableApplicationContext node(String url, String initialize) {
+        return new SpringApplicationBuilder(Application.class).run(
+                "--spring.datasource.url=" + url,
+                "--spring.sql.init.mode=" + initialize,
+                "--players.invalidation-bus.transport=in-process",
+                "--players.read-model.enabled=true");
+    }
+}
@@ -0,0 +1,216 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.caches;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.modelmapper.ModelMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.web.client.RestClient;
+
+import ar.com.nanotaboada.java.samples.spring.boot.caches.CacheInvalidationBus;
+import ar.com.nanotaboada.java.samples.spring.boot.caches.HttpInvalidationTransport;
+import ar.com.nanotaboada.java.samples.spring.boot.caches.InProcessInvalidationTransport;
+import ar.com.nanotaboada.java.samples.spring.boot.caches.PlayerInvalidation;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.events.RosterStaleEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerFakes;
+
+@DisplayName("Cross-Instance Cache Invalidation Bus")
+class CacheInvalidationBusTests {
+
+    private final PlayersRepository writerRepositoryMock = Mockito.mock(PlayersRepository.class);
+    private final PlayersRepository readerRepositoryMock = Mockito.mock(PlayersRepository.class);
+    private final List<Object> readerEvents = new ArrayList<>();
+    private final ConcurrentMapCacheManager writerCaches = new ConcurrentMapCacheManager("players");
+    private final ConcurrentMapCacheManager readerCaches = new ConcurrentMapCacheManager("players");
+    private final InProcessInvalidationTransport writerTransport = new InProcessInvalidationTransport();
+    private final InProcessInvalidationTransport readerTransport = new InProcessInvalidationTransport();
+    private CacheInvalidationBus writer;
+    private CacheInvalidationBus reader;
+
+    @BeforeEach
+    void setUp() {
+        writer = new CacheInvalidationBus(writerCaches, writerRepositoryMock, new ModelMapper(), _ -> {
+        }, writerTransport, false);
+        reader = new CacheInvalidationBus(readerCaches, readerRepositoryMock, new ModelMapper(), readerEvents::add,
+                readerTransport, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writerTransport.close();
+        readerTransport.close();
+    }
+
+    /**
+     * Given another instance that has seen roster version 1 and has the squad cached as a list, per player, as
+     * projections and as a count
+     * When a player is updated on this instance
+     * Then the other instance evicts that player's entries and the roster-wide ones, and keeps every other player
+     */
+    @Test
+    void givenCachedSquadOnOtherInstance_whenPlayerUpdated_thenEvictsOnlyAffectedEntries() {
+        // Given
+        List<PlayerDTO> squad = PlayerDTOFakes.createAll();
+        PlayerDTO updated = squad.get(0);
+        PlayerDTO other = squad.get(1);
+        writer.onPlayerChanged(PlayerChangedEvent.updated(squad.get(2).getId(), squad.get(2), 1));
+        Cache cache = readerCaches.getCache("players");
+        cache.put(SimpleKey.EMPTY, squad);
+        squad.forEach(player -> {
+            cache.put(player.getId(), player);
+            cache.put("squad-" + player.getSquadNumber(), player);
+        });
+        cache.put("fields-[lastName]", List.of());
+        cache.put("fields-" + updated.getId() + "-[lastName]", "projection");
+        cache.put("fields-squad-" + other.getSquadNumber() + "-[lastName]", "projection");
+        cache.put("count-filter", 26L);
+        // When
+        writer.onPlayerChanged(PlayerChangedEvent.updated(updated.getId(), updated, 2));
+        // Then
+        then(cache.get(updated.getId())).isNull();
+        then(cache.get("squad-" + updated.getSquadNumber())).isNull();
+        then(cache.get("fields-" + updated.getId() + "-[lastName]")).isNull();
+        then(cache.get(SimpleKey.EMPTY)).isNull();
+        then(cache.get("fields-[lastName]")).isNull();
+        then(cache.get("count-filter")).isNull();
+        then(cache.get(other.getId())).isNotNull();
+        then(cache.get("squad-" + other.getSquadNumber())).isNotNull();
+        then(cache.get("fields-squad-" + other.getSquadNumber() + "-[lastName]")).isNotNull();
+    }
+
+    /**
+     * Given both instances have a player cached, and the other instance last saw roster version 3
+     * When this instance writes, and then a message for roster version 6 arrives
+     * Then this instance ignores its own message, and the other clears its cache and marks its roster stale since it
+     * missed versions 4 and 5
+     */
+    @Test
+    void givenMissedVersions_whenInvalidationArrives_thenClearsWholeCache() {
+        // Given
+        PlayerDTO player = PlayerDTOFakes.createOneValid();
+        player.setId(UUID.randomUUID());
+        PlayerDTO other = PlayerDTOFakes.createOneForUpdate();
+        writerCaches.getCache("players").put(other.getId(), other);
+        Cache cache = readerCaches.getCache("players");
+        cache.put(other.getId(), other);
+        reader.receive(new PlayerInvalidation(writer.origin(), 3, PlayerChangedEvent.Type.DELETED, UUID.randomUUID(),
+                99));
+        // When
+        writer.onPlayerChanged(PlayerChangedEvent.created(player, 6));
+        // Then
+        then(writerCaches.getCache("players").get(other.getId())).isNotNull();
+        then(cache.get(other.getId())).isNull();
+        then(readerEvents).last().isEqualTo(new RosterStaleEvent(3, 6));
+    }
+
+    /**
+     * Given another instance that has seen roster version 1
+     * When a player is created on this instance, and then deleted
+     * Then the other instance publishes a local created event with the player as stored, and then a deleted event
+     */
+    @Test
+    void givenOtherInstance_whenPlayerCreatedAndDeleted_thenRepublishesChangesLocally() {
+        // Given
+        PlayerDTO created = PlayerDTOFakes.createOneValid();
+        created.setId(UUID.randomUUID());
+        reader.receive(new PlayerInvalidation(writer.origin(), 1, PlayerChangedEvent.Type.DELETED, UUID.randomUUID(),
+                99));
+        readerEvents.clear();
+        Mockito
+                .when(readerRepositoryMock.findById(created.getId()))
+                .thenReturn(Optional.of(PlayerFakes.createOneValid()), Optional.empty());
+        // When
+        writer.onPlayerChanged(PlayerChangedEvent.created(created, 2));
+        writer.onPlayerChanged(PlayerChangedEvent.deleted(created.getId(), created.getSquadNumber(), 3));
+        // Then
+        then(readerEvents).hasSize(2);
+        PlayerChangedEvent first = (PlayerChangedEvent) readerEvents.get(0);
+        then(first.type()).isEqualTo(PlayerChangedEvent.Type.CREATED);
+        then(first.squadNumber()).isEqualTo(27);
+        then(first.player().getLastName()).isEqualTo("Lo Celso");
+        then(first.version()).isEqualTo(2);
+        then(readerEvents.get(1)).isEqualTo(PlayerChangedEvent.deleted(created.getId(), 27, 3));
+    }
+
+    /**
+     * Given another instance that received a forged message for roster version Long.MAX_VALUE
+     * When a message for the next real roster version arrives
+     * Then the version check does not overflow: the player is evicted and republished, and the roster is not marked
+     * stale again
+     */
+    @Test
+    void givenMaxRosterVersionSeen_whenInvalidationArrives_thenNoOverflow() {
+        // Given
+        PlayerDTO other = PlayerDTOFakes.createOneForUpdate();
+        UUID deleted = UUID.randomUUID();
+        reader.receive(new PlayerInvalidation(writer.origin(), 3, PlayerChangedEvent.Type.DELETED, UUID.randomUUID(),
+                99));
+        reader.receive(new PlayerInvalidation(writer.origin(), Long.MAX_VALUE, PlayerChangedEvent.Type.DELETED,
+                UUID.randomUUID(), 98));
+        readerEvents.clear();
+        Cache cache = readerCaches.getCache("players");
+        cache.put(other.getId(), other);
+        // When
+        reader.receive(new PlayerInvalidation(writer.origin(), 4, PlayerChangedEvent.Type.DELETED, deleted, 97));
+        // Then
+        then(cache.get(other.getId())).isNotNull();
+        then(readerEvents).containsExactly(PlayerChangedEvent.deleted(deleted, 97, 4));
+    }
+
+    /**
+     * Given the HTTP transport configured with a shared secret
+     * When messages present the secret, another value or none, or the transport is configured without a secret
+     * Then only the message with the secret is authentic, and a transport without a secret does not start
+     */
+    @Test
+    void givenHttpTransport_whenSecretPresented_thenOnlySharedSecretIsAuthentic() {
+        // Given
+        HttpInvalidationTransport transport = new HttpInvalidationTransport(RestClient.builder(), List.of(), "s3cret");
+        // When
+        boolean shared = transport.isAuthentic("s3cret");
+        boolean other = transport.isAuthentic("s3cret2");
+        boolean none = transport.isAuthentic(null);
+        transport.close();
+        // Then
+        then(shared).isTrue();
+        then(other).isFalse();
+        then(none).isFalse();
+        thenThrownBy(() -> new HttpInvalidationTransport(RestClient.builder(), List.of(), " "))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * Given an invalidation message
+     * When it is encoded and decoded, or a malformed message or one with a negative roster version is decoded
+     * Then it round-trips, and the other messages are rejected
+     */
+    @Test
+    void givenInvalidation_whenEncodedAndDecoded_thenRoundTrips() {
+        // Given
+        PlayerInvalidation invalidation = new PlayerInvalidation("origin", 42, PlayerChangedEvent.Type.UPDATED,
+                UUID.randomUUID(), 10);
+        // When
+        PlayerInvalidation actual = PlayerInvalidation.decode(invalidation.encode());
+        // Then
+        then(actual).isEqualTo(invalidation);
+        thenThrownBy(() -> PlayerInvalidation.decode("origin 42")).isInstanceOf(IllegalArgumentException.class);
+        thenThrownBy(() -> PlayerInvalidation.decode("origin -1 UPDATED " + UUID.randomUUID() + " 10"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
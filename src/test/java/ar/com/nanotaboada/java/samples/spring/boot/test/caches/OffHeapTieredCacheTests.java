@@ -0,0 +1,106 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.caches;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import ar.com.nanotaboada.java.samples.spring.boot.caches.OffHeapPlayerStore;
+import ar.com.nanotaboada.java.samples.spring.boot.caches.OffHeapTieredCache;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.StringDictionary;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+
+@DisplayName("Off-Heap Tier of Players Cache")
+class OffHeapTieredCacheTests {
+
+    private final ConcurrentMapCache heap = new ConcurrentMapCache("players");
+    private OffHeapPlayerStore store;
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    /**
+     * Given the 26-player squad
+     * When it is cached as a list and each player under its id
+     * Then the heap holds no players, and every read decodes an equal copy from native memory
+     */
+    @Test
+    void givenSquad_whenCached_thenDecodesEqualCopiesOnAccess() {
+        // Given
+        store = new OffHeapPlayerStore(1 << 20);
+        OffHeapTieredCache cache = new OffHeapTieredCache(heap, store);
+        List<PlayerDTO> squad = PlayerDTOFakes.createAll();
+        // When
+        cache.put(SimpleKey.EMPTY, squad);
+        squad.forEach(player -> cache.put(player.getId(), player));
+        // Then
+        then(heap.getNativeCache().values()).noneMatch(value -> value instanceof PlayerDTO || value instanceof List);
+        then(store.size()).isEqualTo(26);
+        then(cache.get(SimpleKey.EMPTY).get()).isEqualTo(squad);
+        for (PlayerDTO player : squad) {
+            PlayerDTO actual = cache.get(player.getId(), PlayerDTO.class);
+            then(actual).isEqualTo(player).isNotSameAs(player);
+            then(actual.getTeam()).isSameAs(StringDictionary.canonical(player.getTeam()));
+        }
+    }
+
+    /**
+     * Given a store already holding one player
+     * When another player takes its squad number, or the cache is cleared
+     * Then entries referring to the first player miss, and a clear empties both tiers
+     */
+    @Test
+    void givenCachedPlayer_whenSquadNumberReusedOrCleared_thenMisses() {
+        // Given
+        store = new OffHeapPlayerStore(1 << 20);
+        OffHeapTieredCache cache = new OffHeapTieredCache(heap, store);
+        PlayerDTO player = PlayerDTOFakes.createOneForUpdate();
+        cache.put(player.getId(), player);
+        PlayerDTO other = PlayerDTOFakes.createOneForUpdate();
+        other.setId(UUID.randomUUID());
+        // When
+        cache.put(other.getId(), other);
+        PlayerDTO replaced = cache.get(player.getId(), PlayerDTO.class);
+        cache.clear();
+        // Then
+        then(replaced).isNull();
+        then(heap.get(player.getId())).isNull();
+        then(cache.get(other.getId())).isNull();
+        then(store.size()).isZero();
+        then(store.usedBytes()).isZero();
+    }
+
+    /**
+     * Given a store limited to one chunk of native memory
+     * When more players are cached than fit in it
+     * Then the ones that do not fit stay on the heap and are still served
+     */
+    @Test
+    void givenFullStore_whenCached_thenKeepsOnHeap() {
+        // Given
+        store = new OffHeapPlayerStore(0);
+        OffHeapTieredCache cache = new OffHeapTieredCache(heap, store);
+        PlayerDTO last = null;
+        // When
+        for (int squadNumber = 1; squadNumber <= 20_000; squadNumber++) {
+            last = PlayerDTOFakes.createOneValid();
+            last.setId(UUID.randomUUID());
+            last.setSquadNumber(squadNumber);
+            cache.put(last.getId(), last);
+        }
+        // Then
+        then(store.size()).isPositive().isLessThan(20_000);
+        then(store.usedBytes()).isLessThanOrEqualTo(1 << 20);
+        then(heap.get(last.getId()).get()).isSameAs(last);
+        then(cache.get(last.getId(), PlayerDTO.class)).isSameAs(last);
+    }
+}
@@ -0,0 +1,295 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.clusters;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.com.nanotaboada.java.samples.spring.boot.Application;
+import ar.com.nanotaboada.java.samples.spring.boot.clusters.HashRing;
+import ar.com.nanotaboada.java.samples.spring.boot.clusters.PlayersCluster;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+
+/**
+ * Cluster suite: starts three application JVMs in cluster mode, each with its own SQLite file seeded by Flyway, and
+ * checks forwarding and scatter-gather reads between them over HTTP.
+ *
+ * <p>Excluded from the default build; run it with {@code ./mvnw test -Pcluster}. The nodes run on the main classpath
+ * only, so they start with the application's own configuration rather than the test one.</p>
+ */
+@Tag("cluster")
+@DisplayName("Consistent-Hash Cluster")
+@TestInstance(Lifecycle.PER_CLASS)
+class PlayersClusterTests {
+
+    private static final int NODES = 3;
+    private static final int VIRTUAL_NODES = 128;
+    private static final Duration STARTUP = Duration.ofMinutes(2);
+    private static final String SECRET = "players-cluster-tests";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<String> nodes = new ArrayList<>();
+    private final List<Process> processes = new ArrayList<>();
+    private Path directory;
+
+    @BeforeAll
+    void startNodes() throws Exception {
+        directory = Files.createTempDirectory("players-cluster");
+        for (int node = 0; node < NODES; node++) {
+            nodes.add("http://localhost:" + freePort());
+        }
+        for (int node = 0; node < NODES; node++) {
+            processes.add(start(node));
+        }
+        for (String node : nodes) {
+            awaitReady(node);
+        }
+    }
+
+    @AfterAll
+    void stopNodes() throws Exception {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            process.waitFor();
+        }
+    }
+
+    /**
+     * Given a cluster of three nodes started from the same seed
+     * When the whole roster is read from each node
+     * Then every node returns the same players, each exactly once, and no node stores all of them
+     */
+    @Test
+    void givenCluster_whenGetAllFromEachNode_thenSameRosterWithoutDuplicates() throws Exception {
+        // Given
+        List<List<Integer>> rosters = new ArrayList<>();
+        List<Integer> stored = new ArrayList<>();
+        // When
+        for (String node : nodes) {
+            rosters.add(squadNumbers(players(get(node + "/players", false).body())));
+            stored.add(players(get(node + "/players", true).body()).size());
+        }
+        // Then
+        List<Integer> roster = rosters.getFirst();
+        then(roster).doesNotHaveDuplicates().isNotEmpty();
+        then(rosters).allSatisfy(actual -> then(actual).containsExactlyInAnyOrderElementsOf(roster));
+        then(stored.stream().mapToInt(Integer::intValue).sum()).isEqualTo(roster.size());
+        then(stored).allSatisfy(count -> then(count).isLessThan(roster.size()));
+    }
+
+    /**
+     * Given a squad number stored on one node only
+     * When it is read from each node
+     * Then every node returns the player
+     */
+    @Test
+    void givenSquadNumberOnOneNode_whenGetFromEachNode_thenFound() throws Exception {
+        // Given
+        Integer squadNumber = 10;
+        // When
+        List<HttpResponse<String>> responses = new ArrayList<>();
+        for (String node : nodes) {
+            responses.add(get(node + "/players/squadnumber/" + squadNumber, false));
+        }
+        // Then
+        then(responses).allSatisfy(response -> {
+            then(response.statusCode()).isEqualTo(200);
+            then(objectMapper.readValue(response.body(), PlayerDTO.class).getSquadNumber()).isEqualTo(squadNumber);
+        });
+    }
+
+    /**
+     * Given a new player whose squad number another node owns
+     * When it is created through a node that does not own it
+     * Then it is stored on the owner only, and can be deleted through any node
+     */
+    @Test
+    void givenPlayerOwnedElsewhere_whenPost_thenStoredOnOwnerOnly() throws Exception {
+        // Given
+        PlayerDTO playerDTO = PlayerDTOFakes.createOneValid();
+        String owner = new HashRing(nodes, VIRTUAL_NODES).ownerOf(playerDTO.getSquadNumber());
+        String entry = nodes.stream().filter(node -> !node.equals(owner)).findFirst().orElseThrow();
+        String path = "/players/squadnumber/" + playerDTO.getSquadNumber();
+        // When
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(entry + "/players"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(playerDTO)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        // Then
+        then(response.statusCode()).isEqualTo(201);
+        for (String node : nodes) {
+            then(get(node + path, true).statusCode()).isEqualTo(node.equals(owner) ? 200 : 404);
+        }
+        String other = nodes.stream().filter(node -> !node.equals(entry) && !node.equals(owner))
+                .findFirst().orElseThrow();
+        HttpResponse<Void> deleted = client.send(HttpRequest.newBuilder(URI.create(other + path)).DELETE().build(),
+                HttpResponse.BodyHandlers.discarding());
+        then(deleted.statusCode()).isEqualTo(204);
+        then(get(owner + path, true).statusCode()).isEqualTo(404);
+    }
+
+    /**
+     * Given players spread over the nodes
+     * When a sorted page is searched from each node
+     * Then every node returns the same page and the same total
+     */
+    @Test
+    void givenCluster_whenSearchPageFromEachNode_thenSamePageAndTotal() throws Exception {
+        // Given
+        List<Integer> roster = squadNumbers(players(get(nodes.getFirst() + "/players", false).body())).stream()
+                .sorted()
+                .toList();
+        // When
+        List<HttpResponse<String>> responses = new ArrayList<>();
+        for (String node : nodes) {
+            responses.add(get(node + "/players/search?sort=squadNumber&page=1&limit=5", false));
+        }
+        // Then
+        then(responses).allSatisfy(response -> {
+            then(response.statusCode()).isEqualTo(200);
+            then(response.headers().firstValue("X-Total-Count")).hasValue(String.valueOf(roster.size()));
+            then(squadNumbers(players(response.body()))).isEqualTo(roster.subList(5, 10));
+        });
+    }
+
+    /**
+     * Given a client that sends the local scope header without the cluster's secret
+     * When it reads the roster and asks for a page larger than the limit
+     * Then it gets the whole roster, as any client would, and the page is refused
+     */
+    @Test
+    void givenScopeHeaderWithoutSecret_whenGet_thenAnsweredAsClient() throws Exception {
+        // Given
+        String node = nodes.getFirst();
+        int roster = players(get(node + "/players", false).body()).size();
+        HttpRequest.Builder unauthenticated = HttpRequest.newBuilder()
+                .header("Accept", "application/json")
+                .header(PlayersCluster.SCOPE_HEADER, "local");
+        // When
+        HttpResponse<String> all = client.send(unauthenticated.copy().uri(URI.create(node + "/players")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> page = client.send(unauthenticated.copy()
+                .uri(URI.create(node + "/players/search?limit=1000")).build(), HttpResponse.BodyHandlers.ofString());
+        // Then
+        then(players(all.body())).hasSize(roster);
+        then(page.statusCode()).isEqualTo(400);
+    }
+
+    /**
+     * Given a node holding part of the roster
+     * When another node, with the cluster's secret, asks it for a page larger than the client limit
+     * Then it answers with all its own matches in one page, and their count
+     */
+    @Test
+    void givenPeerWithSecret_whenSearchBeyondLimit_thenLocalMatchesInOnePage() throws Exception {
+        // Given
+        String node = nodes.getFirst();
+        int local = players(get(node + "/players", true).body()).size();
+        // When
+        HttpResponse<String> response = get(node + "/players/search?sort=squadNumber&limit=1000", true);
+        // Then
+        then(response.statusCode()).isEqualTo(200);
+        then(response.headers().firstValue("X-Total-Count")).hasValue(String.valueOf(local));
+        then(players(response.body())).hasSize(local);
+    }
+
+    /**
+     * Given players spread over the nodes
+     * When the changes since a version are requested
+     * Then the request is refused, as no version orders every node's writes
+     */
+    @Test
+    void givenCluster_whenGetSince_thenBadRequest() throws Exception {
+        // When
+        HttpResponse<String> response = get(nodes.getFirst() + "/players?since=0", false);
+        // Then
+        then(response.statusCode()).isEqualTo(400);
+    }
+
+    private Process start(int node) throws IOException {
+        String classPath = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> !entry.endsWith("test-classes"))
+                .collect(Collectors.joining(File.pathSeparator));
+        String port = nodes.get(node).substring(nodes.get(node).lastIndexOf(':') + 1);
+        return new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", classPath, Application.class.getName(),
+                "--server.port=" + port,
+                "--management.server.port=0",
+                "--server.http2.enabled=true",
+                "--spring.datasource.url=jdbc:sqlite:" + directory.resolve("node-" + node + ".db"),
+                "--players.cluster.enabled=true",
+                "--players.cluster.self=" + nodes.get(node),
+                "--players.cluster.nodes=" + String.join(",", nodes),
+                "--players.cluster.secret=" + SECRET,
+                "--players.cluster.virtual-nodes=" + VIRTUAL_NODES)
+                .redirectErrorStream(true)
+                .redirectOutput(directory.resolve("node-" + node + ".log").toFile())
+                .start();
+    }
+
+    private void awaitReady(String node) throws Exception {
+        Instant deadline = Instant.now().plus(STARTUP);
+        while (Instant.now().isBefore(deadline)) {
+            try {
+                if (get(node + "/players", true).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException exception) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(node + " did not start within " + STARTUP + ", see " + directory);
+    }
+
+    private HttpResponse<String> get(String uri, boolean local) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri)).header("Accept", "application/json");
+        if (local) {
+            request.header(PlayersCluster.SCOPE_HEADER, "local").header(PlayersCluster.SECRET_HEADER, SECRET);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private List<PlayerDTO> players(String body) throws IOException {
+        return objectMapper.readValue(body, new TypeReference<>() {
+        });
+    }
+
+    private static List<Integer> squadNumbers(List<PlayerDTO> players) {
+        return players.stream().map(PlayerDTO::getSquadNumber).toList();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.controllers;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangeFeed;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+
+@DisplayName("Server-Sent Events on Change Feed")
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class PlayerChangesControllerTests {
+
+    private static final String PATH = "/players/changes";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private MockMvc application;
+
+    @Autowired
+    private PlayerChangeFeed playerChangeFeed;
+
+    /**
+     * Given an open change stream
+     * When a player is created and then deleted
+     * Then the stream receives a created and a deleted event with consecutive ids
+     */
+    @Test
+    void givenOpenStream_whenPlayerCreatedAndDeleted_thenStreamsBothChanges() throws Exception {
+        // Given
+        long before = playerChangeFeed.lastSequence();
+        MockHttpServletResponse stream = subscribe(null);
+        // When
+        createAndDelete(PlayerDTOFakes.createOneValid());
+        // Then
+        await().atMost(TIMEOUT).untilAsserted(() -> then(stream.getContentAsString())
+                .contains("id:" + (before + 1) + "\nevent:created\n")
+                .contains("id:" + (before + 2) + "\nevent:deleted\n")
+                .contains("\"squadNumber\":27"));
+    }
+
+    /**
+     * Given changes made while a client was disconnected
+     * When the client reconnects with the Last-Event-ID it last received
+     * Then the missed changes are replayed
+     */
+    @Test
+    void givenMissedChanges_whenReconnectWithLastEventId_thenReplaysThem() throws Exception {
+        // Given
+        long lastReceived = playerChangeFeed.lastSequence();
+        createAndDelete(PlayerDTOFakes.createOneValid());
+        // When
+        MockHttpServletResponse stream = subscribe(lastReceived);
+        // Then
+        await().atMost(TIMEOUT).untilAsserted(() -> then(stream.getContentAsString())
+                .contains("id:" + (lastReceived + 1) + "\nevent:created\n")
+                .contains("id:" + (lastReceived + 2) + "\nevent:deleted\n"));
+    }
+
+    /**
+     * Given a Last-Event-ID the feed never issued (e.g. from before a restart)
+     * When the client reconnects with it
+     * Then a reset event tells the client to reload the roster
+     */
+    @Test
+    void givenUnknownLastEventId_whenReconnect_thenSendsReset() throws Exception {
+        // Given
+        long unknown = playerChangeFeed.lastSequence() + 1_000;
+        // When
+        MockHttpServletResponse stream = subscribe(unknown);
+        // Then
+        await().atMost(TIMEOUT).untilAsserted(() -> then(stream.getContentAsString())
+                .contains("event:reset\n"));
+    }
+
+    @Nested
+    @DisplayName("with outbox")
+    @TestPropertySource(properties = "players.outbox.enabled=true")
+    class WithOutbox {
+
+        /**
+         * Given the transactional outbox is enabled and a change stream is open
+         * When a player is created and then deleted
+         * Then the outbox relay, not the request, delivers both changes to the stream
+         */
+        @Test
+        void givenOutbox_whenPlayerCreatedAndDeleted_thenStreamsBothChangesFromRelay() throws Exception {
+            // Given
+            long before = playerChangeFeed.lastSequence();
+            MockHttpServletResponse stream = subscribe(null);
+            // When
+            createAndDelete(PlayerDTOFakes.createOneValid());
+            // Then
+            await().atMost(TIMEOUT).untilAsserted(() -> then(stream.getContentAsString())
+                    .contains("id:" + (before + 1) + "\nevent:created\n")
+                    .contains("id:" + (before + 2) + "\nevent:deleted\n"));
+            then(playerChangeFeed.lastSequence()).isEqualTo(before + 2);
+        }
+    }
+
+    private MockHttpServletResponse subscribe(Long lastEventId) throws Exception {
+        var request = MockMvcRequestBuilders.get(PATH).accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = application.perform(request).andReturn();
+        then(result.getRequest().isAsyncStarted()).isTrue();
+        return result.getResponse();
+    }
+
+    private void createAndDelete(PlayerDTO dto) throws Exception {
+        application.perform(MockMvcRequestBuilders.post("/players")
+                .content(objectMapper.writeValueAsString(dto))
+                .contentType(MediaType.APPLICATION_JSON));
+        application.perform(MockMvcRequestBuilders.delete("/players/{squadNumber}", dto.getSquadNumber()));
+    }
+}
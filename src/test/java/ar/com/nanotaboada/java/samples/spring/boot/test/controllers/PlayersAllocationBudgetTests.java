@@ -0,0 +1,210 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.controllers;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+
+/**
+ * Allocation budgets per endpoint: bytes allocated on the handling thread by one request, on cache-hit and
+ * cache-miss paths.
+ *
+ * <p>MockMvc dispatches on the calling thread, so {@code com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes}
+ * read before and after {@code perform()} sees everything the filter chain, controller, service, mapping,
+ * serialization and logging allocated for that request. Each scenario is warmed up so the JIT has settled, then
+ * the smallest of several samples is compared with its budget in {@code allocation-budgets.properties}.</p>
+ *
+ * <p>When a budget fails, look at what the change added to the request path before raising it. The failure message
+ * gives the measured value next to the budget to help with that.</p>
+ */
+@DisplayName("Allocation Budgets per Endpoint")
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class PlayersAllocationBudgetTests {
+
+    private static final String PATH = "/players";
+    private static final String BUDGETS = "/allocation-budgets.properties";
+    private static final String MESSI_ID = "acc433bf-d505-51fe-831e-45eb44c4d43c";
+
+    private static final int WARM_UP_ITERATIONS = 200;
+    private static final int SAMPLES = 20;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static Properties budgets;
+
+    @Autowired
+    private MockMvc application;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Every measured request. Writes run in pairs (create/delete, update/restore) so the database ends each sample as
+     * it started; only the named request is measured.
+     */
+    enum Scenario {
+        GET_ALL_HIT(true, false),
+        GET_ALL_MISS(false, false),
+        GET_BY_ID_HIT(true, false),
+        GET_BY_ID_MISS(false, false),
+        GET_BY_SQUAD_NUMBER_HIT(true, false),
+        GET_BY_SQUAD_NUMBER_MISS(false, false),
+        GET_BY_SQUAD_NUMBER_NOT_FOUND(false, false),
+        SEARCH_BY_LEAGUE(false, false),
+        POST(false, true),
+        PUT(false, true),
+        DELETE(false, true);
+
+        final boolean cached;
+        final boolean writes;
+
+        Scenario(boolean cached, boolean writes) {
+            this.cached = cached;
+            this.writes = writes;
+        }
+
+        String key() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "JVM does not report per-thread allocation");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "JVM does not report per-thread allocation");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        budgets = new Properties();
+        try (InputStream stream = PlayersAllocationBudgetTests.class.getResourceAsStream(BUDGETS)) {
+            budgets.load(stream);
+        }
+    }
+
+    /**
+     * Given the scenarios measured by this suite
+     * When looking up their budgets
+     * Then every scenario has one
+     */
+    @Test
+    void givenScenarios_whenLookingUpBudgets_thenEveryScenarioHasOne() {
+        // Given
+        Stream<String> keys = Arrays.stream(Scenario.values()).map(Scenario::key);
+        // When / Then
+        then(keys).allMatch(budgets::containsKey);
+    }
+
+    /**
+     * Given a warmed-up endpoint on its cache-hit or cache-miss path
+     * When measuring the bytes allocated on the handling thread by one request
+     * Then the smallest of several samples stays within the endpoint's budget
+     */
+    @ParameterizedTest
+    @EnumSource(Scenario.class)
+    void givenWarmEndpoint_whenRequested_thenAllocationStaysWithinBudget(Scenario scenario) throws Exception {
+        // Given
+        long budget = Long.parseLong(budgets.getProperty(scenario.key(), "0").replace("_", ""));
+        then(budget).as("budget for %s", scenario.key()).isPositive();
+        for (int iteration = 0; iteration < WARM_UP_ITERATIONS; iteration++) {
+            sample(scenario);
+        }
+        // When
+        long allocated = Long.MAX_VALUE;
+        for (int iteration = 0; iteration < SAMPLES; iteration++) {
+            allocated = Math.min(allocated, sample(scenario));
+        }
+        // Then
+        then(allocated)
+                .as("%s allocated %,d bytes per request, over its budget of %,d", scenario.key(), allocated, budget)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    /**
+     * Prepares the scenario, performs its request and returns the bytes allocated by that request alone.
+     */
+    private long sample(Scenario scenario) throws Exception {
+        prepare(scenario);
+        MockHttpServletRequestBuilder request = request(scenario);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        int status = application.perform(request).andReturn().getResponse().getStatus();
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        then(status).as("status of %s", scenario.key()).isLessThan(500);
+        restore(scenario);
+        return allocated;
+    }
+
+    private void prepare(Scenario scenario) throws Exception {
+        if (!scenario.cached) {
+            cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        } else {
+            application.perform(request(scenario));
+        }
+        if (scenario == Scenario.DELETE) {
+            application.perform(post(PlayerDTOFakes.createOneValid()));
+        }
+    }
+
+    private void restore(Scenario scenario) throws Exception {
+        if (scenario == Scenario.POST) {
+            application.perform(MockMvcRequestBuilders
+                    .delete(PATH + "/{squadNumber}", PlayerDTOFakes.createOneValid().getSquadNumber()));
+        } else if (scenario == Scenario.PUT) {
+            application.perform(put(PlayerDTOFakes.createOneForUpdate()));
+        }
+    }
+
+    private static MockHttpServletRequestBuilder request(Scenario scenario) throws Exception {
+        return switch (scenario) {
+            case GET_ALL_HIT, GET_ALL_MISS -> MockMvcRequestBuilders.get(PATH);
+            case GET_BY_ID_HIT, GET_BY_ID_MISS -> MockMvcRequestBuilders.get(PATH + "/{id}", MESSI_ID);
+            case GET_BY_SQUAD_NUMBER_HIT, GET_BY_SQUAD_NUMBER_MISS ->
+                MockMvcRequestBuilders.get(PATH + "/squadnumber/{squadNumber}", 10);
+            case GET_BY_SQUAD_NUMBER_NOT_FOUND -> MockMvcRequestBuilders.get(PATH + "/squadnumber/{squadNumber}", 999);
+            case SEARCH_BY_LEAGUE -> MockMvcRequestBuilders.get(PATH + "/search/league/{league}", "Premier");
+            case POST -> post(PlayerDTOFakes.createOneValid());
+            case PUT -> put(PlayerDTOFakes.createOneUpdated());
+            case DELETE -> MockMvcRequestBuilders
+                    .delete(PATH + "/{squadNumber}", PlayerDTOFakes.createOneValid().getSquadNumber());
+        };
+    }
+
+    private static MockHttpServletRequestBuilder post(PlayerDTO dto) throws Exception {
+        return MockMvcRequestBuilders.post(PATH)
+                .content(OBJECT_MAPPER.writeValueAsString(dto))
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private static MockHttpServletRequestBuilder put(PlayerDTO dto) throws Exception {
+        return MockMvcRequestBuilders.put(PATH + "/{squadNumber}", dto.getSquadNumber())
+                .content(OBJECT_MAPPER.writeValueAsString(dto))
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,120 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.controllers;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.cache.test.autoconfigure.AutoConfigureCache;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.com.nanotaboada.java.samples.spring.boot.controllers.PlayersAnalyticsController;
+import ar.com.nanotaboada.java.samples.spring.boot.indexes.IndexedField;
+import ar.com.nanotaboada.java.samples.spring.boot.indexes.PlayerBitmapIndex;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+
+@DisplayName("Analytics Endpoints on Bitmap Index")
+@WebMvcTest(PlayersAnalyticsController.class)
+@AutoConfigureCache
+class PlayersAnalyticsControllerTests {
+
+    private static final String PATH = "/players/analytics";
+
+    @Autowired
+    private MockMvc application;
+
+    @MockitoBean
+    private PlayerBitmapIndex playerBitmapIndexMock;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TestConfiguration
+    static class ObjectMapperTestConfig {
+        @Bean
+        public ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+
+    /**
+     * Given players match a compound filter
+     * When filtering with several values for one field and a value for another
+     * Then response status is 200 OK and the index receives every value under its field
+     */
+    @Test
+    void givenMatchingPlayers_whenFilter_thenReturnsOkWithPlayers()
+            throws Exception {
+        // Given
+        Map<IndexedField, List<String>> criteria = new EnumMap<>(IndexedField.class);
+        criteria.put(IndexedField.POSITION, List.of("Centre-Back", "Left-Back"));
+        criteria.put(IndexedField.TEAM, null);
+        criteria.put(IndexedField.LEAGUE, List.of("Premier League"));
+        criteria.put(IndexedField.STARTING11, null);
+        List<PlayerDTO> expected = PlayerDTOFakes.createAll().stream()
+                .filter(player -> player.getSquadNumber() == 13 || player.getSquadNumber() == 25)
+                .toList();
+        Mockito
+                .when(playerBitmapIndexMock.filter(criteria))
+                .thenReturn(expected);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH)
+                .param("position", "Centre-Back,Left-Back")
+                .param("league", "Premier League");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        List<PlayerDTO> actual = objectMapper.readValue(response.getContentAsString(),
+                new TypeReference<List<PlayerDTO>>() {
+                });
+        // Then
+        verify(playerBitmapIndexMock, times(1)).filter(criteria);
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        then(actual).extracting(PlayerDTO::getSquadNumber).containsExactly(13, 25);
+    }
+
+    /**
+     * Given a groupBy that is not an indexed field
+     * When counting with it
+     * Then response status is 400 Bad Request and the index is not queried
+     */
+    @Test
+    void givenUnindexedGroupBy_whenCount_thenReturnsBadRequest()
+            throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH + "/counts")
+                .param("groupBy", "lastName");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        // Then
+        verify(playerBitmapIndexMock, never()).count(any(), any());
+        then(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+}
@@ -3,12 +3,16 @@ package ar.com.nanotaboada.java.samples.spring.boot.test.controllers;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,6 +23,7 @@ import org.springframework.boot.test.autoconfigure.json.AutoConfigureJsonTesters
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -33,6 +38,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import ar.com.nanotaboada.java.samples.spring.boot.controllers.PlayersController;
 import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFilter;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayersSyncDTO;
 import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersService;
 import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
 
@@ -213,6 +220,118 @@ class PlayersControllerTests {
         then(actual).usingRecursiveComparison().ignoringFields("id").isEqualTo(expected);
     }
 
+    /**
+     * Given players changed and deleted after a roster version
+     * When requesting the changes since that version
+     * Then response status is 200 OK with the changes and the current version
+     */
+    @Test
+    void givenChangesAfterVersion_whenGetSince_thenReturnsOkWithChanges()
+            throws Exception {
+        // Given
+        PlayerDTO updated = PlayerDTOFakes.createOneUpdated();
+        PlayersSyncDTO.Deleted deleted = new PlayersSyncDTO.Deleted(UUID.randomUUID(), 27);
+        PlayersSyncDTO expected = new PlayersSyncDTO(3L, false, List.of(updated), List.of(deleted));
+        Mockito
+                .when(playersServiceMock.retrieveChangedSince(1L))
+                .thenReturn(expected);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH)
+                .param("since", "1");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        PlayersSyncDTO actual = objectMapper.readValue(response.getContentAsString(), PlayersSyncDTO.class);
+        // Then
+        verify(playersServiceMock, times(1)).retrieveChangedSince(1L);
+        verify(playersServiceMock, never()).retrieveAll();
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        then(actual.getVersion()).isEqualTo(3L);
+        then(actual.isReset()).isFalse();
+        then(actual.getPlayers()).extracting(PlayerDTO::getSquadNumber).containsExactly(23);
+        then(actual.getDeleted()).containsExactly(deleted);
+    }
+
+    /**
+     * Given a client version the server does not know (e.g. kept across a database reset)
+     * When requesting the changes since it
+     * Then response status is 200 OK with the whole roster, flagged as a reset
+     */
+    @Test
+    void givenVersionAheadOfRoster_whenGetSince_thenReturnsOkWithReset()
+            throws Exception {
+        // Given
+        List<PlayerDTO> roster = PlayerDTOFakes.createAll();
+        Mockito
+                .when(playersServiceMock.retrieveChangedSince(42L))
+                .thenReturn(new PlayersSyncDTO(3L, true, roster, List.of()));
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH)
+                .param("since", "42");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        PlayersSyncDTO actual = objectMapper.readValue(response.getContentAsString(), PlayersSyncDTO.class);
+        // Then
+        verify(playersServiceMock, times(1)).retrieveChangedSince(42L);
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        then(response.getContentAsString()).contains("\"reset\":true");
+        then(actual.isReset()).isTrue();
+        then(actual.getPlayers()).hasSize(roster.size());
+        then(actual.getDeleted()).isEmpty();
+    }
+
+    /**
+     * Given a negative roster version
+     * When requesting the changes since it
+     * Then response status is 400 Bad Request and the service is not called
+     */
+    @Test
+    void givenNegativeVersion_whenGetSince_thenReturnsBadRequest()
+            throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH)
+                .param("since", "-1");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        // Then
+        verify(playersServiceMock, never()).retrieveChangedSince(anyLong());
+        then(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    /**
+     * Given the roster spread over league shards, which share no roster version
+     * When requesting the changes since a version
+     * Then response status is 400 Bad Request
+     */
+    @Test
+    void givenLeagueShards_whenGetSince_thenReturnsBadRequest()
+            throws Exception {
+        // Given
+        Mockito
+                .when(playersServiceMock.retrieveChangedSince(1L))
+                .thenReturn(null);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH)
+                .param("since", "1");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        // Then
+        verify(playersServiceMock, times(1)).retrieveChangedSince(1L);
+        then(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
     /**
      * Given a player exists
      * When requesting that player by UUID
@@ -329,6 +448,269 @@ class PlayersControllerTests {
         then(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
     }
 
+    /**
+     * Given players exist for some of the requested squad numbers
+     * When requesting them in one call
+     * Then response status is 200 OK and the players found are returned
+     */
+    @Test
+    void givenPlayersExist_whenGetBySquadNumbers_thenReturnsOk()
+            throws Exception {
+        // Given
+        List<Integer> squadNumbers = List.of(10, 23, 99);
+        List<PlayerDTO> expected = PlayerDTOFakes.createAll().stream()
+                .filter(player -> player.getSquadNumber() == 10 || player.getSquadNumber() == 23)
+                .toList();
+        Mockito
+                .when(playersServiceMock.retrieveBySquadNumbers(squadNumbers))
+                .thenReturn(expected);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH + "/squadnumbers")
+                .param("ids", "10,23,99");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        List<PlayerDTO> actual = objectMapper.readValue(response.getContentAsString(), new TypeReference<List<PlayerDTO>>() {
+        });
+        // Then
+        verify(playersServiceMock, times(1)).retrieveBySquadNumbers(squadNumbers);
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        then(actual).extracting(PlayerDTO::getSquadNumber).containsExactlyElementsOf(expected.stream().map(PlayerDTO::getSquadNumber).toList());
+    }
+
+    /**
+     * Given more squad numbers than a single call accepts
+     * When requesting them in one call
+     * Then response status is 400 Bad Request and the service is not called
+     */
+    @Test
+    void givenTooManySquadNumbers_whenGetBySquadNumbers_thenReturnsBadRequest()
+            throws Exception {
+        // Given
+        String ids = String.join(",", IntStream.rangeClosed(1, PlayersController.MAX_BATCH_SIZE + 1)
+                .mapToObj(String::valueOf)
+                .toList());
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH + "/squadnumbers")
+                .param("ids", ids);
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        // Then
+        verify(playersServiceMock, never()).retrieveBySquadNumbers(any());
+        then(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    /**
+     * Given a player exists for one of the requested UUIDs
+     * When requesting them in one call
+     * Then response status is 200 OK and only the existing player is returned
+     */
+    @Test
+    void givenPlayerExists_whenGetByIds_thenReturnsOk()
+            throws Exception {
+        // Given
+        PlayerDTO expected = PlayerDTOFakes.createOneForUpdate();
+        UUID unknown = UUID.randomUUID();
+        List<UUID> ids = List.of(expected.getId(), unknown);
+        Mockito
+                .when(playersServiceMock.retrieveByIds(ids))
+                .thenReturn(List.of(expected));
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH + "/uuids")
+                .param("ids", expected.getId() + "," + unknown);
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        String content = response.getContentAsString();
+        List<PlayerDTO> actual = objectMapper.readValue(content, new TypeReference<List<PlayerDTO>>() {
+        });
+        // Then
+        verify(playersServiceMock, times(1)).retrieveByIds(ids);
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        then(content).contains(expected.getId().toString()).doesNotContain(unknown.toString());
+        then(actual).extracting(PlayerDTO::getSquadNumber).containsExactly(expected.getSquadNumber());
+    }
+
+    /**
+     * Given a sparse fieldset of known properties
+     * When requesting all players with it
+     * Then response status is 200 OK and each player carries only those properties
+     */
+    @Test
+    void givenFields_whenGetAll_thenReturnsOkWithOnlyThoseProperties()
+            throws Exception {
+        // Given
+        List<String> fields = List.of("lastName", "squadNumber", "abbrPosition");
+        Map<String, Object> messi = new LinkedHashMap<>();
+        messi.put("lastName", "Messi");
+        messi.put("squadNumber", 10);
+        messi.put("abbrPosition", "RW");
+        Mockito
+                .when(playersServiceMock.retrieveAll(fields))
+                .thenReturn(List.of(messi));
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH)
+                .param("fields", "squadNumber,lastName,abbrPosition,lastName");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        List<Map<String, Object>> actual = objectMapper.readValue(response.getContentAsString(),
+                new TypeReference<List<Map<String, Object>>>() {
+                });
+        // Then
+        verify(playersServiceMock, times(1)).retrieveAll(fields);
+        verify(playersServiceMock, never()).retrieveAll();
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        then(actual).singleElement().satisfies(player -> then(player).containsOnlyKeys(fields));
+    }
+
+    /**
+     * Given a sparse fieldset naming an unknown property
+     * When requesting a player by squad number with it
+     * Then response status is 400 Bad Request and the service is not called
+     */
+    @Test
+    void givenUnknownField_whenGetBySquadNumber_thenReturnsBadRequest()
+            throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH + "/squadnumber/{squadNumber}", 10)
+                .param("fields", "lastName,salary");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        // Then
+        verify(playersServiceMock, never()).retrieveBySquadNumber(anyInt(), any());
+        verify(playersServiceMock, never()).retrieveBySquadNumber(anyInt());
+        then(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    /**
+     * Given a sparse fieldset and a squad number no player has
+     * When requesting that player with it
+     * Then response status is 404 Not Found
+     */
+    @Test
+    void givenFieldsAndUnknownPlayer_whenGetBySquadNumber_thenReturnsNotFound()
+            throws Exception {
+        // Given
+        Mockito
+                .when(playersServiceMock.retrieveBySquadNumber(999, List.of("lastName")))
+                .thenReturn(null);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH + "/squadnumber/{squadNumber}", 999)
+                .param("fields", "lastName");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        // Then
+        verify(playersServiceMock, times(1)).retrieveBySquadNumber(999, List.of("lastName"));
+        then(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+    }
+
+    /**
+     * Given players match a filter
+     * When filtering with criteria, sort and paging
+     * Then response status is 200 OK with the page of players and the total count in a header
+     */
+    @Test
+    void givenMatchingPlayers_whenFilter_thenReturnsOkWithTotalCount()
+            throws Exception {
+        // Given
+        PlayerFilter filter = new PlayerFilter(null, null, "CB", null, true, null, null);
+        List<PlayerDTO> expected = PlayerDTOFakes.createAll().stream()
+                .filter(player -> "CB".equals(player.getAbbrPosition()) && player.getStarting11())
+                .toList();
+        Sort sort = Sort.by(Sort.Order.desc("dateOfBirth"), Sort.Order.asc("squadNumber"));
+        Mockito
+                .when(playersServiceMock.filter(filter, sort, 5, 5))
+                .thenReturn(expected);
+        Mockito
+                .when(playersServiceMock.count(filter))
+                .thenReturn(7L);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH + "/search")
+                .param("abbrPosition", "CB")
+                .param("starting11", "true")
+                .param("sort", "-dateOfBirth")
+                .param("page", "1")
+                .param("limit", "5");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        List<PlayerDTO> actual = objectMapper.readValue(response.getContentAsString(),
+                new TypeReference<List<PlayerDTO>>() {
+                });
+        // Then
+        verify(playersServiceMock, times(1)).filter(filter, sort, 5, 5);
+        verify(playersServiceMock, times(1)).count(filter);
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        then(response.getHeader(PlayersController.TOTAL_COUNT_HEADER)).isEqualTo("7");
+        then(actual).extracting(PlayerDTO::getSquadNumber)
+                .containsExactlyElementsOf(expected.stream().map(PlayerDTO::getSquadNumber).toList());
+    }
+
+    /**
+     * Given a sort key that is not a sortable property
+     * When filtering with it
+     * Then response status is 400 Bad Request and the service is not called
+     */
+    @Test
+    void givenUnknownSortKey_whenFilter_thenReturnsBadRequest()
+            throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH + "/search")
+                .param("team", "SL Benfica")
+                .param("sort", "salary");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        // Then
+        verify(playersServiceMock, never()).filter(any(), any(), anyInt(), anyInt());
+        then(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    /**
+     * Given a birth-date range whose start is after its end
+     * When filtering with it
+     * Then response status is 400 Bad Request and the service is not called
+     */
+    @Test
+    void givenInvertedDateRange_whenFilter_thenReturnsBadRequest()
+            throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(PATH + "/search")
+                .param("bornFrom", "2000-01-01")
+                .param("bornTo", "1990-01-01");
+        // When
+        MockHttpServletResponse response = application
+                .perform(request)
+                .andReturn()
+                .getResponse();
+        // Then
+        verify(playersServiceMock, never()).filter(any(), any(), anyInt(), anyInt());
+        then(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
     /**
      * Given players exist in a specific league
      * When searching for players by league name
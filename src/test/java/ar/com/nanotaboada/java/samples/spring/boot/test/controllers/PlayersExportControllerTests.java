@@ -0,0 +1,91 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.controllers;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter;
+
+@DisplayName("Arrow Export over HTTP")
+@SpringBootTest
+@AutoConfigureMockMvc
+class PlayersExportControllerTests {
+
+    private static final String PATH = "/players/export";
+
+    @Autowired
+    private MockMvc application;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Given the seeded roster
+     * When the export is requested
+     * Then response status is 200 OK with the Arrow stream media type, as a players.arrows attachment, and the body
+     * decodes with Arrow's reader to every player, with dates of birth and dictionary-encoded leagues as stored
+     */
+    @Test
+    void givenRoster_whenGetExport_thenStreamsArrowAttachment() throws Exception {
+        // Given
+        long expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM players", Long.class);
+        MvcResult started = application
+                .perform(MockMvcRequestBuilders.get(PATH))
+                .andReturn();
+        // When
+        MockHttpServletResponse response = application
+                .perform(MockMvcRequestBuilders.asyncDispatch(started))
+                .andReturn()
+                .getResponse();
+        // Then
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        then(response.getContentType()).isEqualTo(ArrowStreamWriter.MEDIA_TYPE);
+        then(response.getHeader(HttpHeaders.CONTENT_DISPOSITION))
+                .isEqualTo("attachment; filename=\"players.arrows\"");
+        Map<Integer, String> leagues = new HashMap<>();
+        Map<Integer, LocalDate> births = new HashMap<>();
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader = new ArrowStreamReader(
+                        new ByteArrayInputStream(response.getContentAsByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                VarCharVector names = (VarCharVector) reader.getDictionaryVectors()
+                        .get(root.getSchema().findField("league").getDictionary().getId()).getVector();
+                for (int row = 0; row < root.getRowCount(); row++) {
+                    int squadNumber = ((IntVector) root.getVector("squadNumber")).get(row);
+                    int league = ((IntVector) root.getVector("league")).get(row);
+                    leagues.put(squadNumber, new String(names.get(league), StandardCharsets.UTF_8));
+                    births.put(squadNumber,
+                            LocalDate.ofEpochDay(((DateDayVector) root.getVector("dateOfBirth")).get(row)));
+                }
+            }
+        }
+        then((long) leagues.size()).isEqualTo(expected);
+        then(leagues.get(10)).isEqualTo("Ligue 1");
+        then(births.get(10)).isEqualTo(LocalDate.of(1987, 6, 24));
+    }
+}
@@ -0,0 +1,471 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.controllers;
+
+import static ar.com.nanotaboada.java.samples.spring.boot.test.QueryBudgetAssert.thenQueries;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.com.nanotaboada.java.samples.spring.boot.metrics.SqlStatisticsFilter;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Query budgets per endpoint: how many SQL statements each request may run against the full application stack.
+ *
+ * <p>A budget that starts failing means a change added round-trips to a request (a lazy association, a lost cache
+ * hit, an N+1 loop). Raise it only together with the reason.</p>
+ */
+@DisplayName("SQL Query Budgets per Endpoint")
+@SpringBootTest(properties = "players.sql-statistics.expose-headers=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class PlayersQueryBudgetTests {
+
+    private static final String PATH = "/players";
+    private static final String MESSI_ID = "acc433bf-d505-51fe-831e-45eb44c4d43c";
+    private static final String MARTINEZ_ID = "01772c59-43f0-5d85-b913-c78e4e281452";
+    private static final String MOLINA_ID = "da31293b-4c7e-5e0f-a168-469ee29ecbc4";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private MockMvc application;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void clearCache() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    /*
+     * -------------------------------------------------------------------------
+     * HTTP GET
+     * -------------------------------------------------------------------------
+     */
+
+    /**
+     * Given an empty cache
+     * When requesting a player by squad number twice
+     * Then the first request runs at most one SELECT and the second runs no SQL at all
+     */
+    @Test
+    void givenEmptyCache_whenGetBySquadNumberTwice_thenOneSelectThenNone() throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(PATH + "/squadnumber/{squadNumber}", 10);
+        // When
+        MockHttpServletResponse miss = perform(request);
+        MockHttpServletResponse hit = perform(request);
+        // Then
+        then(miss.getStatus()).isEqualTo(HttpStatus.OK.value());
+        thenQueries(miss).hasSelectsAtMost(1).hasNoWrites();
+        thenQueries(hit).hasNoStatements();
+    }
+
+    /**
+     * Given an empty cache
+     * When requesting a player by id twice
+     * Then the first request runs at most one SELECT and the second runs no SQL at all
+     */
+    @Test
+    void givenEmptyCache_whenGetByIdTwice_thenOneSelectThenNone() throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(PATH + "/{id}", MESSI_ID);
+        // When
+        MockHttpServletResponse miss = perform(request);
+        MockHttpServletResponse hit = perform(request);
+        // Then
+        then(miss.getStatus()).isEqualTo(HttpStatus.OK.value());
+        thenQueries(miss).hasSelectsAtMost(1).hasNoWrites();
+        thenQueries(hit).hasNoStatements();
+    }
+
+    /**
+     * Given an empty cache
+     * When requesting all players twice
+     * Then the first request runs a single SELECT, whatever the roster size, and the second runs no SQL at all
+     */
+    @Test
+    void givenEmptyCache_whenGetAllTwice_thenOneSelectThenNone() throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(PATH);
+        // When
+        MockHttpServletResponse miss = perform(request);
+        MockHttpServletResponse hit = perform(request);
+        // Then
+        then(miss.getStatus()).isEqualTo(HttpStatus.OK.value());
+        thenQueries(miss).hasSelects(1).hasNoWrites();
+        thenQueries(hit).hasNoStatements();
+    }
+
+    /**
+     * Given an empty cache
+     * When requesting a starting eleven by squad number in one call, twice
+     * Then the first request runs a single SELECT for all eleven and the second runs no SQL at all
+     */
+    @Test
+    void givenEmptyCache_whenGetStartingElevenTwice_thenOneSelectThenNone() throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(PATH + "/squadnumbers")
+                .param("ids", "23,26,13,19,3,11,7,24,20,10,9");
+        // When
+        MockHttpServletResponse miss = perform(request);
+        MockHttpServletResponse hit = perform(request);
+        // Then
+        then(miss.getStatus()).isEqualTo(HttpStatus.OK.value());
+        thenQueries(miss).hasSelects(1).hasNoWrites();
+        thenQueries(hit).hasNoStatements();
+    }
+
+    /**
+     * Given a player cached by a single lookup
+     * When requesting it together with uncached players in one call, then requesting the loaded players by id
+     * Then the first request runs a single SELECT for the uncached players, and the second runs no SQL at all
+     */
+    @Test
+    void givenPartlyCachedPlayers_whenGetManyThenGetByIds_thenOneSelectThenNone() throws Exception {
+        // Given
+        perform(MockMvcRequestBuilders.get(PATH + "/squadnumber/{squadNumber}", 10));
+        MockHttpServletRequestBuilder bySquadNumbers = MockMvcRequestBuilders.get(PATH + "/squadnumbers")
+                .param("ids", "10,23,26");
+        MockHttpServletRequestBuilder byIds = MockMvcRequestBuilders.get(PATH + "/uuids")
+                .param("ids", MARTINEZ_ID + "," + MOLINA_ID);
+        // When
+        MockHttpServletResponse partial = perform(bySquadNumbers);
+        MockHttpServletResponse hit = perform(byIds);
+        // Then
+        then(partial.getStatus()).isEqualTo(HttpStatus.OK.value());
+        thenQueries(partial).hasSelects(1).hasNoWrites();
+        thenQueries(hit).hasNoStatements();
+    }
+
+    /**
+     * Given an empty cache
+     * When requesting a sparse fieldset of all players twice
+     * Then the first request runs a single SELECT and the second runs no SQL at all
+     */
+    @Test
+    void givenEmptyCache_whenGetAllFieldsTwice_thenOneSelectThenNone() throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(PATH)
+                .param("fields", "squadNumber,lastName,abbrPosition");
+        // When
+        MockHttpServletResponse miss = perform(request);
+        MockHttpServletResponse hit = perform(request);
+        // Then
+        then(miss.getStatus()).isEqualTo(HttpStatus.OK.value());
+        thenQueries(miss).hasSelects(1).hasNoWrites();
+        thenQueries(hit).hasNoStatements();
+    }
+
+    /**
+     * Given an empty cache
+     * When filtering players twice with the same criteria
+     * Then the first request runs two SELECTs (page and count) and the second reuses the cached count
+     */
+    @Test
+    void givenEmptyCache_whenFilterTwice_thenPageAndCountThenPageOnly() throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(PATH + "/search")
+                .param("league", "Premier League")
+                .param("sort", "lastName")
+                .param("limit", "3");
+        // When
+        MockHttpServletResponse miss = perform(request);
+        MockHttpServletResponse hit = perform(request);
+        // Then
+        then(miss.getStatus()).isEqualTo(HttpStatus.OK.value());
+        thenQueries(miss).hasSelects(2).hasNoWrites();
+        thenQueries(hit).hasSelects(1).hasNoWrites();
+    }
+
+    /**
+     * Given a squad number and an id that do not exist
+     * When requesting each of them
+     * Then neither request runs any SQL: the key filter answers both misses
+     */
+    @Test
+    void givenUnknownKeys_whenGet_thenNoStatements() throws Exception {
+        // Given
+        MockHttpServletRequestBuilder bySquadNumber = MockMvcRequestBuilders
+                .get(PATH + "/squadnumber/{squadNumber}", 999);
+        MockHttpServletRequestBuilder byId = MockMvcRequestBuilders
+                .get(PATH + "/{id}", "00000000-0000-0000-0000-000000000000");
+        // When
+        MockHttpServletResponse first = perform(bySquadNumber);
+        MockHttpServletResponse second = perform(byId);
+        // Then
+        then(first.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        thenQueries(first).hasNoStatements();
+        then(second.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        thenQueries(second).hasNoStatements();
+    }
+
+    /**
+     * Given a league with several players
+     * When searching by league
+     * Then the request runs a single SELECT, however many players match
+     */
+    @Test
+    void givenLeague_whenSearch_thenOneSelect() throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(PATH + "/search/league/{league}", "Premier");
+        // When
+        MockHttpServletResponse response = perform(request);
+        // Then
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        thenQueries(response).hasSelects(1).hasNoWrites();
+    }
+
+    /**
+     * Given a client at a known roster version
+     * When syncing the changes since that version
+     * Then the request runs three SELECTs (roster version, changed players, tombstones), however large the roster
+     */
+    @Test
+    void givenKnownVersion_whenGetSince_thenThreeSelects() throws Exception {
+        // Given
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(PATH).param("since", "1");
+        // When
+        MockHttpServletResponse response = perform(request);
+        // Then
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        thenQueries(response).hasSelects(3).hasNoWrites();
+    }
+
+    /*
+     * -------------------------------------------------------------------------
+     * HTTP POST, PUT, DELETE
+     * -------------------------------------------------------------------------
+     */
+
+    /**
+     * Given a new player
+     * When creating and then deleting it
+     * Then creating runs no SELECT (the key filter knows the squad number is free), one UPDATE (next roster version)
+     * and one INSERT, and
+     * deleting runs one SELECT, one UPDATE (next roster version), one INSERT (tombstone) and one DELETE
+     */
+    @Test
+    void givenNewPlayer_whenPostThenDelete_thenOneStatementOfEachKind() throws Exception {
+        // Given
+        PlayerDTO dto = PlayerDTOFakes.createOneValid();
+        // When
+        MockHttpServletResponse created = perform(MockMvcRequestBuilders.post(PATH)
+                .content(objectMapper.writeValueAsString(dto))
+                .contentType(MediaType.APPLICATION_JSON));
+        MockHttpServletResponse deleted = perform(MockMvcRequestBuilders
+                .delete(PATH + "/{squadNumber}", dto.getSquadNumber()));
+        // Then
+        then(created.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        thenQueries(created).hasSelects(0).hasInserts(1).hasUpdates(1).hasDeletes(0);
+        then(deleted.getStatus()).isEqualTo(HttpStatus.NO_CONTENT.value());
+        thenQueries(deleted).hasSelects(1).hasUpdates(1).hasInserts(1).hasDeletes(1);
+    }
+
+    /**
+     * Given an existing player
+     * When updating it
+     * Then the request runs one SELECT and two UPDATEs (next roster version, then the player)
+     * <p>Saving the instance mapped from the DTO is a merge, but the player found by squad number is already in the
+     * persistence context, so the merge needs no second SELECT.</p>
+     */
+    @Test
+    void givenExistingPlayer_whenPut_thenOneSelectAndTwoUpdates() throws Exception {
+        // Given
+        PlayerDTO updated = PlayerDTOFakes.createOneUpdated();
+        PlayerDTO original = PlayerDTOFakes.createOneForUpdate();
+        // When
+        MockHttpServletResponse response = perform(put(updated));
+        MockHttpServletResponse restored = perform(put(original));
+        // Then
+        then(response.getStatus()).isEqualTo(HttpStatus.NO_CONTENT.value());
+        thenQueries(response).hasSelects(1).hasUpdates(2).hasInserts(0).hasDeletes(0);
+        then(restored.getStatus()).isEqualTo(HttpStatus.NO_CONTENT.value());
+    }
+
+    /*
+     * -------------------------------------------------------------------------
+     * Async requests
+     * -------------------------------------------------------------------------
+     */
+
+    /**
+     * Given response headers are exposed, which buffers response bodies
+     * When the Arrow export is requested and its async part runs
+     * Then the streamed body reaches the client, and the statements the export ran on the async thread are
+     * recorded once the request completes
+     */
+    @Test
+    void givenExposedHeaders_whenGetExport_thenAsyncBodyStreamedAndStatementsRecorded() throws Exception {
+        // Given
+        MvcResult started = application.perform(MockMvcRequestBuilders.get(PATH + "/export")).andReturn();
+        // When
+        MockHttpServletResponse response = application
+                .perform(MockMvcRequestBuilders.asyncDispatch(started))
+                .andReturn()
+                .getResponse();
+        // Then
+        then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        then(response.getContentAsByteArray()).isNotEmpty();
+        then(response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER)).isNull();
+        then(meterRegistry.get("players.sql.statements").tag("uri", PATH + "/export").summary())
+                .satisfies(summary -> {
+                    then(summary.count()).isEqualTo(1);
+                    then(summary.totalAmount()).isPositive();
+                });
+    }
+
+    /*
+     * -------------------------------------------------------------------------
+     * Read model
+     * -------------------------------------------------------------------------
+     */
+
+    @Nested
+    @DisplayName("with the read model enabled")
+    @TestPropertySource(properties = "players.read-model.enabled=true")
+    class WithReadModel {
+
+        /**
+         * Given the read model is enabled and the cache is empty
+         * When requesting all players, one player and a starting eleven, then updating a player and reading it back
+         * Then no read runs any SQL, and the update is visible as soon as it has committed
+         */
+        @Test
+        void givenReadModel_whenReadAfterWrite_thenReadsRunNoSql() throws Exception {
+            // Given
+            PlayerDTO updated = PlayerDTOFakes.createOneUpdated();
+            PlayerDTO original = PlayerDTOFakes.createOneForUpdate();
+            // When
+            MockHttpServletResponse all = perform(MockMvcRequestBuilders.get(PATH));
+            MockHttpServletResponse one = perform(MockMvcRequestBuilders.get(PATH + "/squadnumber/{squadNumber}", 10));
+            MockHttpServletResponse eleven = perform(MockMvcRequestBuilders.get(PATH + "/squadnumbers")
+                    .param("ids", "23,26,13,19,3,11,7,24,20,10,9"));
+            perform(put(updated));
+            MockHttpServletResponse afterWrite = perform(MockMvcRequestBuilders
+                    .get(PATH + "/squadnumber/{squadNumber}", updated.getSquadNumber()));
+            perform(put(original));
+            // Then
+            then(all.getStatus()).isEqualTo(HttpStatus.OK.value());
+            thenQueries(all).hasNoStatements();
+            thenQueries(one).hasNoStatements();
+            thenQueries(eleven).hasNoStatements();
+            thenQueries(afterWrite).hasNoStatements();
+            then(afterWrite.getContentAsString()).contains(updated.getFirstName());
+        }
+    }
+
+    /*
+     * -------------------------------------------------------------------------
+     * Replication
+     * -------------------------------------------------------------------------
+     */
+
+    @Nested
+    @DisplayName("as replication writer")
+    @TestPropertySource(properties = "players.replication.role=writer")
+    class AsReplicationWriter {
+
+        /**
+         * Given this instance is the replication writer
+         * When creating and then deleting a player, and reading the log after each
+         * Then each write also runs one SELECT (its roster version) and one INSERT (the log entry), and the log returns
+         * the changes in order, or 410 Gone for an offset it no longer covers
+         */
+        @Test
+        void givenWriter_whenPostThenDelete_thenAppendsEachChangeToLog() throws Exception {
+            // Given
+            PlayerDTO dto = PlayerDTOFakes.createOneValid();
+            // When
+            MockHttpServletResponse created = perform(MockMvcRequestBuilders.post(PATH)
+                    .content(objectMapper.writeValueAsString(dto))
+                    .contentType(MediaType.APPLICATION_JSON));
+            MockHttpServletResponse afterCreate = perform(MockMvcRequestBuilders.get(PATH + "/log")
+                    .param("after", "1"));
+            MockHttpServletResponse deleted = perform(MockMvcRequestBuilders
+                    .delete(PATH + "/{squadNumber}", dto.getSquadNumber()));
+            MockHttpServletResponse afterDelete = perform(MockMvcRequestBuilders.get(PATH + "/log")
+                    .param("after", "2"));
+            MockHttpServletResponse beforeLog = perform(MockMvcRequestBuilders.get(PATH + "/log")
+                    .param("after", "0"));
+            // Then
+            then(created.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+            thenQueries(created).hasSelects(1).hasInserts(2).hasUpdates(1).hasDeletes(0);
+            then(deleted.getStatus()).isEqualTo(HttpStatus.NO_CONTENT.value());
+            thenQueries(deleted).hasSelects(2).hasUpdates(1).hasInserts(2).hasDeletes(1);
+            then(afterCreate.getStatus()).isEqualTo(HttpStatus.OK.value());
+            then(afterCreate.getContentAsString())
+                    .contains("\"sequence\":2", "\"type\":\"CREATED\"", dto.getLastName());
+            then(afterDelete.getContentAsString())
+                    .contains("\"sequence\":3", "\"type\":\"DELETED\"")
+                    .doesNotContain(dto.getLastName());
+            then(beforeLog.getStatus()).isEqualTo(HttpStatus.GONE.value());
+        }
+    }
+
+    /*
+     * -------------------------------------------------------------------------
+     * Outbox
+     * -------------------------------------------------------------------------
+     */
+
+    @Nested
+    @DisplayName("with outbox")
+    @TestPropertySource(properties = "players.outbox.enabled=true")
+    class WithOutbox {
+
+        /**
+         * Given the transactional outbox is enabled
+         * When updating an existing player
+         * Then the request only adds one SELECT (its roster version) and one INSERT (the outbox entry); publishing
+         * runs on the relay thread and adds nothing to the request
+         */
+        @Test
+        void givenOutbox_whenPut_thenAddsOneSelectAndOneInsert() throws Exception {
+            // Given
+            PlayerDTO updated = PlayerDTOFakes.createOneUpdated();
+            PlayerDTO original = PlayerDTOFakes.createOneForUpdate();
+            // When
+            MockHttpServletResponse response = perform(put(updated));
+            MockHttpServletResponse restored = perform(put(original));
+            // Then
+            then(response.getStatus()).isEqualTo(HttpStatus.NO_CONTENT.value());
+            thenQueries(response).hasSelects(2).hasUpdates(2).hasInserts(1).hasDeletes(0);
+            then(restored.getStatus()).isEqualTo(HttpStatus.NO_CONTENT.value());
+        }
+    }
+
+    private MockHttpServletRequestBuilder put(PlayerDTO dto) throws Exception {
+        return MockMvcRequestBuilders.put(PATH + "/{squadNumber}", dto.getSquadNumber())
+                .content(objectMapper.writeValueAsString(dto))
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        return application.perform(request).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,350 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.converters;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.BoolColumn;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.Field;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.IntColumn;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.Type;
+import ar.com.nanotaboada.java.samples.spring.boot.converters.ArrowStreamWriter.Utf8Column;
+
+/**
+ * Decodes the writer's output with a minimal reader of the Arrow IPC framing and of the few FlatBuffers fields it
+ * needs: message header type and body length, and the nodes and buffers of record batches. The round trip through
+ * Arrow's own Java reader checks the rest, from the schema down.
+ */
+@DisplayName("Arrow IPC Stream Writer")
+class ArrowStreamWriterTests {
+
+    private static final int HEADER_SCHEMA = 1;
+    private static final int HEADER_DICTIONARY_BATCH = 2;
+    private static final int HEADER_RECORD_BATCH = 3;
+
+    /**
+     * Given a schema, a dictionary, a batch with a null, a delta dictionary and a second batch
+     * When they are written
+     * Then each is framed as an 8-byte-aligned message with its declared body length, and ends with end-of-stream
+     */
+    @Test
+    void givenBatchesAndDictionaries_whenWritten_thenMessagesFramedAndAligned() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ArrowStreamWriter writer = new ArrowStreamWriter(out);
+        Utf8Column names = new Utf8Column();
+        IntColumn numbers = new IntColumn();
+        IntColumn teams = new IntColumn();
+        Utf8Column dictionary = new Utf8Column();
+        // When
+        writer.writeSchema(List.of(
+                Field.of("name", Type.UTF8, true),
+                Field.of("number", Type.INT32, false),
+                Field.dictionary("team", false, 0)));
+        dictionary.append("Boca Juniors");
+        dictionary.append("River Plate");
+        writer.writeDictionary(0, dictionary, false);
+        dictionary.clear();
+        names.append("Lionel");
+        names.appendNull();
+        names.append("Ángel");
+        numbers.append(10);
+        numbers.append(23);
+        numbers.append(11);
+        teams.append(1);
+        teams.append(0);
+        teams.append(1);
+        writer.writeBatch(3, List.of(names, numbers, teams));
+        List.of(names, numbers, teams).forEach(ArrowStreamWriter.Column::clear);
+        dictionary.append("Racing Club");
+        writer.writeDictionary(0, dictionary, true);
+        names.append("Julián");
+        numbers.append(9);
+        teams.append(2);
+        writer.writeBatch(1, List.of(names, numbers, teams));
+        writer.end();
+        // Then
+        List<Message> messages = Message.readAll(out.toByteArray());
+        then(messages).extracting(Message::headerType).containsExactly(
+                HEADER_SCHEMA, HEADER_DICTIONARY_BATCH, HEADER_RECORD_BATCH, HEADER_DICTIONARY_BATCH,
+                HEADER_RECORD_BATCH);
+        then(messages.get(2).length()).isEqualTo(3);
+        then(messages.get(2).nullCounts()).containsExactly(1L, 0L, 0L);
+        then(messages.get(2).strings(0)).containsExactly("Lionel", null, "Ángel");
+        then(messages.get(2).ints(3)).containsExactly(10, 23, 11);
+        then(messages.get(2).ints(5)).containsExactly(1, 0, 1);
+        then(messages.get(3).strings(0)).containsExactly("Racing Club");
+        then(messages.get(4).strings(0)).containsExactly("Julián");
+        then(messages.get(4).ints(5)).containsExactly(2);
+    }
+
+    /**
+     * Given more strings than the columns' and the metadata builder's initial buffers hold
+     * When they are written as one batch
+     * Then every value reads back in order
+     */
+    @Test
+    void givenLargeBatch_whenWritten_thenBuffersGrow() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ArrowStreamWriter writer = new ArrowStreamWriter(out);
+        List<Field> fields = new ArrayList<>();
+        List<Utf8Column> columns = new ArrayList<>();
+        String[] expected = new String[1000];
+        for (int i = 0; i < 40; i++) {
+            fields.add(Field.of("column" + i, Type.UTF8, false));
+            columns.add(new Utf8Column());
+        }
+        for (int row = 0; row < expected.length; row++) {
+            expected[row] = "player-" + row;
+            for (Utf8Column column : columns) {
+                column.append(expected[row]);
+            }
+        }
+        // When
+        writer.writeSchema(fields);
+        writer.writeBatch(expected.length, columns);
+        writer.end();
+        // Then
+        List<Message> messages = Message.readAll(out.toByteArray());
+        then(messages).hasSize(2);
+        then(messages.get(1).length()).isEqualTo(expected.length);
+        then(messages.get(1).strings(0)).containsExactly((Object[]) expected);
+        then(messages.get(1).strings(3 * 39)).containsExactly((Object[]) expected);
+    }
+
+    /**
+     * Given a schema with every supported type, a dictionary, a batch, a delta dictionary and a second batch
+     * When the stream is read back with Arrow's Java reader
+     * Then the schema, the dictionary encoding and every value decode as written, the delta included
+     */
+    @Test
+    void givenEveryType_whenReadWithArrow_thenRoundTrips() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ArrowStreamWriter writer = new ArrowStreamWriter(out);
+        Utf8Column names = new Utf8Column();
+        IntColumn numbers = new IntColumn();
+        IntColumn births = new IntColumn();
+        BoolColumn starters = new BoolColumn();
+        IntColumn teams = new IntColumn();
+        List<ArrowStreamWriter.Column> columns = List.of(names, numbers, births, starters, teams);
+        Utf8Column dictionary = new Utf8Column();
+        writer.writeSchema(List.of(
+                Field.of("name", Type.UTF8, true),
+                Field.of("number", Type.INT32, false),
+                Field.of("born", Type.DATE_DAY, false),
+                Field.of("starting", Type.BOOL, false),
+                Field.dictionary("team", false, 7)));
+        dictionary.append("Paris Saint-Germain");
+        dictionary.append("Aston Villa");
+        writer.writeDictionary(7, dictionary, false);
+        dictionary.clear();
+        names.append("Lionel");
+        names.appendNull();
+        numbers.append(10);
+        numbers.append(23);
+        births.append((int) LocalDate.of(1987, 6, 24).toEpochDay());
+        births.append((int) LocalDate.of(1992, 9, 2).toEpochDay());
+        starters.append(true);
+        starters.append(false);
+        teams.append(0);
+        teams.append(1);
+        writer.writeBatch(2, columns);
+        columns.forEach(ArrowStreamWriter.Column::clear);
+        dictionary.append("Benfica");
+        writer.writeDictionary(7, dictionary, true);
+        names.append("Enzo");
+        numbers.append(24);
+        births.append((int) LocalDate.of(2001, 1, 17).toEpochDay());
+        starters.append(true);
+        teams.append(2);
+        writer.writeBatch(1, columns);
+        writer.end();
+        // When
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()),
+                        allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            Schema schema = root.getSchema();
+            boolean first = reader.loadNextBatch();
+            int firstRows = root.getRowCount();
+            String firstName = new String(((VarCharVector) root.getVector("name")).get(0), StandardCharsets.UTF_8);
+            boolean secondNameNull = root.getVector("name").isNull(1);
+            LocalDate firstBorn = LocalDate.ofEpochDay(((DateDayVector) root.getVector("born")).get(0));
+            List<String> firstTeams = List.of(team(reader, root, 0), team(reader, root, 1));
+            boolean second = reader.loadNextBatch();
+            int secondNumber = ((IntVector) root.getVector("number")).get(0);
+            int secondStarting = ((BitVector) root.getVector("starting")).get(0);
+            String secondTeam = team(reader, root, 0);
+            boolean third = reader.loadNextBatch();
+            // Then
+            then(schema.getFields()).extracting(org.apache.arrow.vector.types.pojo.Field::getName)
+                    .containsExactly("name", "number", "born", "starting", "team");
+            then(schema.getFields()).extracting(org.apache.arrow.vector.types.pojo.Field::isNullable)
+                    .containsExactly(true, false, false, false, false);
+            then(schema.findField("name").getType()).isEqualTo(ArrowType.Utf8.INSTANCE);
+            then(schema.findField("number").getType()).isEqualTo(new ArrowType.Int(32, true));
+            then(schema.findField("born").getType()).isEqualTo(new ArrowType.Date(DateUnit.DAY));
+            then(schema.findField("starting").getType()).isEqualTo(ArrowType.Bool.INSTANCE);
+            then(schema.findField("team").getDictionary().getId()).isEqualTo(7L);
+            then(schema.findField("team").getDictionary().getIndexType()).isEqualTo(new ArrowType.Int(32, true));
+            then(reader.getDictionaryVectors().get(7L).getVector().getField().getType())
+                    .isEqualTo(ArrowType.Utf8.INSTANCE);
+            then(first).isTrue();
+            then(firstRows).isEqualTo(2);
+            then(firstName).isEqualTo("Lionel");
+            then(secondNameNull).isTrue();
+            then(firstBorn).isEqualTo(LocalDate.of(1987, 6, 24));
+            then(firstTeams).containsExactly("Paris Saint-Germain", "Aston Villa");
+            then(second).isTrue();
+            then(secondNumber).isEqualTo(24);
+            then(secondStarting).isEqualTo(1);
+            then(secondTeam).isEqualTo("Benfica");
+            then(third).isFalse();
+        }
+    }
+
+    /**
+     * Decodes a dictionary-encoded {@code team} value of the loaded batch.
+     */
+    private static String team(ArrowStreamReader reader, VectorSchemaRoot root, int row) throws IOException {
+        VarCharVector values = (VarCharVector) reader.getDictionaryVectors().get(7L).getVector();
+        return new String(values.get(((IntVector) root.getVector("team")).get(row)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * An encapsulated message and the record batch it carries, if any.
+     */
+    private record Message(int headerType, ByteBuffer metadata, int batch, ByteBuffer body) {
+
+        static List<Message> readAll(byte[] stream) {
+            ByteBuffer buffer = ByteBuffer.wrap(stream).order(ByteOrder.LITTLE_ENDIAN);
+            List<Message> messages = new ArrayList<>();
+            while (true) {
+                then(buffer.getInt()).isEqualTo(0xFFFFFFFF);
+                int metadataLength = buffer.getInt();
+                if (metadataLength == 0) {
+                    then(buffer.hasRemaining()).isFalse();
+                    return messages;
+                }
+                then(metadataLength % 8).isZero();
+                ByteBuffer metadata = slice(buffer, metadataLength);
+                int message = metadata.getInt(0);
+                int headerType = metadata.get(field(metadata, message, 1));
+                int header = reference(metadata, field(metadata, message, 2));
+                // Left out when there is no body, as it is the default
+                long bodyLength = isPresent(metadata, message, 3) ? metadata.getLong(field(metadata, message, 3)) : 0;
+                then(bodyLength % 8).isZero();
+                ByteBuffer body = slice(buffer, (int) bodyLength);
+                int batch = switch (headerType) {
+                    case HEADER_RECORD_BATCH -> header;
+                    case HEADER_DICTIONARY_BATCH -> reference(metadata, field(metadata, header, 1));
+                    default -> -1;
+                };
+                messages.add(new Message(headerType, metadata, batch, body));
+            }
+        }
+
+        long length() {
+            return metadata.getLong(field(metadata, batch, 0));
+        }
+
+        List<Long> nullCounts() {
+            int nodes = reference(metadata, field(metadata, batch, 1));
+            List<Long> nullCounts = new ArrayList<>();
+            for (int i = 0; i < metadata.getInt(nodes); i++) {
+                nullCounts.add(metadata.getLong(nodes + Integer.BYTES + 16 * i + Long.BYTES));
+            }
+            return nullCounts;
+        }
+
+        /**
+         * @param first the index of the column's validity buffer among the batch's buffers
+         */
+        List<String> strings(int first) {
+            byte[] validity = buffer(first);
+            ByteBuffer offsets = ByteBuffer.wrap(buffer(first + 1)).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] data = buffer(first + 2);
+            List<String> values = new ArrayList<>();
+            for (int row = 0; row < length(); row++) {
+                int start = offsets.getInt(row * Integer.BYTES);
+                int end = offsets.getInt((row + 1) * Integer.BYTES);
+                values.add(isValid(validity, row)
+                        ? new String(data, start, end - start, StandardCharsets.UTF_8)
+                        : null);
+            }
+            return values;
+        }
+
+        /**
+         * @param first the index of the column's validity buffer among the batch's buffers
+         */
+        List<Integer> ints(int first) {
+            ByteBuffer values = ByteBuffer.wrap(buffer(first + 1)).order(ByteOrder.LITTLE_ENDIAN);
+            return Arrays.stream(new int[(int) length()]).map(_ -> values.getInt()).boxed().toList();
+        }
+
+        private byte[] buffer(int index) {
+            int buffers = reference(metadata, field(metadata, batch, 2));
+            int entry = buffers + Integer.BYTES + 16 * index;
+            long offset = metadata.getLong(entry);
+            long length = metadata.getLong(entry + Long.BYTES);
+            then(offset % 8).isZero();
+            return Arrays.copyOfRange(body.array(), body.arrayOffset() + (int) offset,
+                    body.arrayOffset() + (int) (offset + length));
+        }
+
+        private static boolean isValid(byte[] validity, int row) {
+            return validity.length == 0 || (validity[row >> 3] & (1 << (row & 7))) != 0;
+        }
+
+        private static ByteBuffer slice(ByteBuffer buffer, int length) {
+            ByteBuffer slice = buffer.slice(buffer.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.position(buffer.position() + length);
+            return slice;
+        }
+
+        private static boolean isPresent(ByteBuffer metadata, int table, int field) {
+            int vtable = table - metadata.getInt(table);
+            return 4 + 2 * field < metadata.getShort(vtable) && metadata.getShort(vtable + 4 + 2 * field) != 0;
+        }
+
+        /**
+         * @return the position of a table's field, which must be present
+         */
+        private static int field(ByteBuffer metadata, int table, int field) {
+            then(isPresent(metadata, table, field)).isTrue();
+            int vtable = table - metadata.getInt(table);
+            return table + metadata.getShort(vtable + 4 + 2 * field);
+        }
+
+        private static int reference(ByteBuffer metadata, int position) {
+            return position + metadata.getInt(position);
+        }
+    }
+}
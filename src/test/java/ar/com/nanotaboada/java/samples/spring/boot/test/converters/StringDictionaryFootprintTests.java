@@ -0,0 +1,135 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.converters;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.cache.test.autoconfigure.AutoConfigureCache;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ar.com.nanotaboada.java.samples.spring.boot.converters.StringDictionary;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerGenerator;
+
+/**
+ * Heap footprint of the low-cardinality strings held by cached players, with and without {@link StringDictionary}.
+ *
+ * <p>Without the dictionary, the driver returns a fresh string for every cell, so each player holds its own copy of
+ * its position, team and league; that baseline is measured by reading the same names straight through JDBC. Both
+ * footprints are computed, JOL-style, from the distinct instances actually held, assuming compressed oops and
+ * Latin-1 strings: 24 bytes per {@code String} plus its {@code byte[]} (16-byte header and one byte per character,
+ * aligned to 8).</p>
+ */
+@DisplayName("Heap Footprint of Dictionary-Encoded Strings")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@AutoConfigureCache
+@Import(PlayerLookups.class)
+class StringDictionaryFootprintTests {
+
+    private static final int PLAYERS = 100_000;
+
+    private static final List<Function<PlayerDTO, String>> FIELDS = List.of(
+            PlayerDTO::getPosition, PlayerDTO::getAbbrPosition, PlayerDTO::getTeam, PlayerDTO::getLeague);
+
+    /**
+     * The names a player holds, read as the driver returns them.
+     */
+    private static final String SELECT_NAMES = """
+            SELECT positions.name AS position, abbr_positions.name AS abbrPosition, teams.name AS team,
+                   leagues.name AS league
+            FROM players
+            JOIN positions ON positions.id = players.positionId
+            JOIN abbr_positions ON abbr_positions.id = players.abbrPositionId
+            JOIN teams ON teams.id = players.teamId
+            JOIN leagues ON leagues.id = players.leagueId
+            """;
+
+    @Autowired
+    private PlayersRepository playersRepository;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Given a value seen for the first time
+     * When canonicalizing an equal but distinct copy of it
+     * Then the first instance is returned
+     */
+    @Test
+    void givenKnownValue_whenCanonicalizingCopy_thenReturnsSharedInstance() {
+        // Given
+        String first = StringDictionary.canonical(new String("Primera División".toCharArray()));
+        String copy = new String("Primera División".toCharArray());
+        // When
+        String actual = StringDictionary.canonical(copy);
+        // Then
+        then(actual).isSameAs(first);
+        then(StringDictionary.canonical(null)).isNull();
+    }
+
+    /**
+     * Given 100k players stored in the database
+     * When they are hydrated and mapped to DTOs, as the cache holds them
+     * Then their position, team and league strings collapse to one instance per distinct value
+     */
+    @Test
+    void given100kPlayers_whenHydratedAndMapped_thenSharesLowCardinalityStrings() {
+        // Given
+        new PlayerGenerator(jdbcTemplate).fill(PLAYERS);
+        // When
+        List<PlayerDTO> cached = playersRepository.findAll()
+                .stream()
+                .map(player -> modelMapper.map(player, PlayerDTO.class))
+                .toList();
+        // Then
+        long distinctValues = values(cached).distinct().count();
+        Set<String> instances = instances(values(cached));
+        Set<String> uncanonicalized = instances(jdbcTemplate.queryForList(SELECT_NAMES).stream()
+                .flatMap(row -> row.values().stream())
+                .map(String.class::cast));
+        long withDictionary = instances.stream().mapToLong(StringDictionaryFootprintTests::footprint).sum();
+        long withoutDictionary = uncanonicalized.stream().mapToLong(StringDictionaryFootprintTests::footprint).sum();
+        long savedPer100k = (withoutDictionary - withDictionary) * 100_000 / cached.size();
+        then(cached).hasSizeGreaterThanOrEqualTo(PLAYERS);
+        then((long) instances.size()).isEqualTo(distinctValues);
+        then(savedPer100k)
+                .as("%,d players: %,d bytes without dictionary, %,d with", cached.size(), withoutDictionary,
+                        withDictionary)
+                .isGreaterThan(15_000_000L);
+    }
+
+    private static Stream<String> values(List<PlayerDTO> players) {
+        return players.stream()
+                .flatMap(player -> FIELDS.stream().map(field -> field.apply(player)))
+                .filter(value -> value != null);
+    }
+
+    private static Set<String> instances(Stream<String> values) {
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        values.filter(value -> value != null).forEach(instances::add);
+        return instances;
+    }
+
+    private static long footprint(String value) {
+        return 24 + ((16 + value.length() + 7) & ~7);
+    }
+}
@@ -0,0 +1,151 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.datasources;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.LeagueShardDataSource;
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.LeagueShards;
+
+@DisplayName("League-Partitioned Storage")
+class LeagueShardsTests {
+
+    private static final int SHARDS = 3;
+
+    @TempDir
+    private Path directory;
+
+    private long seeded;
+    private List<DataSource> shards;
+    private LeagueShards leagueShards;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        seeded = new JdbcTemplate(database("reference"))
+                .queryForObject("SELECT COUNT(*) FROM players", Long.class);
+        shards = new ArrayList<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            shards.add(database("shard-" + shard));
+        }
+        leagueShards = new LeagueShards(shards, () -> null);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new LeagueShardDataSource(leagueShards));
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Given shards migrated from the same seed
+     * When the shards are opened
+     * Then every seeded player is kept exactly once, on the shard of its league
+     */
+    @Test
+    void givenSeededShards_whenOpened_thenEachPlayerIsOnItsLeagueShardOnly() {
+        // Given
+        List<String> leagues = new JdbcTemplate(shards.get(0)).queryForList("SELECT name FROM leagues", String.class);
+        // When
+        List<Long> counts = leagueShards.fanOut(shard ->
+                new JdbcTemplate(shards.get(shard)).queryForObject("SELECT COUNT(*) FROM players", Long.class));
+        List<Boolean> misplaced = leagueShards.fanOut(shard -> leagues.stream()
+                .filter(league -> leagueShards.shardOf(league) != shard)
+                .anyMatch(league -> new JdbcTemplate(shards.get(shard)).queryForObject("""
+                        SELECT COUNT(*) FROM players
+                        WHERE leagueId = (SELECT id FROM leagues WHERE name = ?)
+                        """, Long.class, league) > 0));
+        // Then
+        then(counts.stream().mapToLong(Long::longValue).sum()).isEqualTo(seeded);
+        then(misplaced).containsOnly(false);
+        then(leagueShards.rebalance()).isZero();
+    }
+
+    /**
+     * Given league names that differ only in case
+     * When their shard is computed
+     * Then it is the same one
+     */
+    @Test
+    void givenLeagueNamesInAnyCase_whenShardOf_thenSameShard() {
+        // Given
+        String league = "Premier League";
+        // When
+        int shard = leagueShards.shardOf(league);
+        // Then
+        then(leagueShards.shardOf(league.toUpperCase())).isEqualTo(shard);
+        then(shard).isBetween(0, SHARDS - 1);
+    }
+
+    /**
+     * Given the league shards
+     * When work is fanned out
+     * Then each call runs pinned to its own shard, and the caller is left unpinned
+     */
+    @Test
+    void givenLeagueShards_whenFanOut_thenEachCallIsPinnedToItsShard() {
+        // Given
+        List<Integer> expected = List.of(0, 1, 2);
+        // When
+        List<Integer> actual = leagueShards.fanOut(_ -> LeagueShards.pinned());
+        // Then
+        then(actual).isEqualTo(expected);
+        then(LeagueShards.pinned()).isNull();
+    }
+
+    /**
+     * Given a squad number worn by a seeded player
+     * When a new player of another league claims it
+     * Then the claim is refused, whichever shard the new player would go to
+     */
+    @Test
+    void givenSquadNumberOnAnyShard_whenClaim_thenRefused() {
+        // Given
+        Integer squadNumber = 10;
+        // When
+        Boolean actual = transactionTemplate.execute(_ -> leagueShards.claim(squadNumber, "Eredivisie"));
+        // Then
+        then(actual).isFalse();
+        then(leagueShards.ownerOf(squadNumber)).isNotNull();
+    }
+
+    /**
+     * Given a free squad number
+     * When it is claimed in a transaction that rolls back
+     * Then the transaction is pinned to the league's shard, and the number is free again afterwards
+     */
+    @Test
+    void givenFreeSquadNumber_whenClaimRolledBack_thenReleased() {
+        // Given
+        Integer squadNumber = 99;
+        String league = "Eredivisie";
+        // When
+        Integer pinned = transactionTemplate.execute(status -> {
+            then(leagueShards.claim(squadNumber, league)).isTrue();
+            status.setRollbackOnly();
+            return LeagueShards.pinned();
+        });
+        // Then
+        then(pinned).isEqualTo(leagueShards.shardOf(league));
+        then(LeagueShards.pinned()).isNull();
+        then(leagueShards.ownerOf(squadNumber)).isNull();
+    }
+
+    private DataSource database(String name) {
+        SQLiteDataSource database = new SQLiteDataSource();
+        database.setUrl("jdbc:sqlite:" + directory.resolve(name + ".db"));
+        Flyway.configure().dataSource(database).locations("classpath:db/migration").load().migrate();
+        return database;
+    }
+}
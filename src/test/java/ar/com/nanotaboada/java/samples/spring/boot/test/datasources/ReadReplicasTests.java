@@ -0,0 +1,113 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.datasources;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteDataSource;
+
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.ReadReplicaDataSource;
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.ReadReplicas;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+
+@DisplayName("Read/Write Routing to Read Replicas")
+class ReadReplicasTests {
+
+    @TempDir
+    private Path directory;
+
+    private SQLiteDataSource primary;
+    private SQLiteDataSource replica;
+    private ReadReplicas readReplicas;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = database("primary", 1);
+        replica = database("replica", 1);
+        readReplicas = new ReadReplicas(primary, List.of(replica), Duration.ofHours(1));
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReadReplicaDataSource(readReplicas));
+        dataSource = proxy;
+    }
+
+    /**
+     * Given a replica that holds every write so far
+     * When a write commits on the primary and reads run before and after the replica catches up
+     * Then the read goes to the primary while the replica lags, and to the replica once it has the write
+     */
+    @Test
+    void givenWriteCommitted_whenReadOnlyConnection_thenReadsFromReplicaOnlyOnceCaughtUp() throws SQLException {
+        // Given
+        String before = read(true);
+        execute(primary, "UPDATE roster_version SET version = 2 WHERE id = 1");
+        readReplicas.onPlayerChanged(PlayerChangedEvent.deleted(UUID.randomUUID(), 10, 2));
+        // When
+        String lagging = read(true);
+        execute(replica, "UPDATE roster_version SET version = 2 WHERE id = 1");
+        readReplicas.refresh();
+        String caughtUp = read(true);
+        // Then
+        then(before).isEqualTo("replica");
+        then(readReplicas.marker()).isEqualTo(2L);
+        then(lagging).isEqualTo("primary");
+        then(caughtUp).isEqualTo("replica");
+    }
+
+    /**
+     * Given a replica that holds every write so far
+     * When a connection that is not read-only is opened
+     * Then it goes to the primary
+     */
+    @Test
+    void givenCaughtUpReplica_whenReadWriteConnection_thenUsesPrimary() throws SQLException {
+        // Given
+        readReplicas.refresh();
+        // When
+        String actual = read(false);
+        // Then
+        then(actual).isEqualTo("primary");
+    }
+
+    private SQLiteDataSource database(String name, long version) throws SQLException {
+        SQLiteDataSource database = new SQLiteDataSource();
+        database.setUrl("jdbc:sqlite:" + directory.resolve(name + ".db"));
+        execute(database, "CREATE TABLE roster_version (id INTEGER PRIMARY KEY, version BIGINT NOT NULL)");
+        execute(database, "INSERT INTO roster_version (id, version) VALUES (1, " + version + ")");
+        execute(database, "CREATE TABLE origin (name TEXT NOT NULL)");
+        execute(database, "INSERT INTO origin (name) VALUES ('" + name + "')");
+        return database;
+    }
+
+    private String read(boolean readOnly) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(readOnly);
+            try (Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery("SELECT name FROM origin")) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    private static void execute(DataSource database, String sql) throws SQLException {
+        try (Connection connection = database.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.events;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangeLog;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+
+@DisplayName("Replay from the Change Log")
+class PlayerChangeLogTests {
+
+    /**
+     * Given an empty change log
+     * When changes are appended
+     * Then they get consecutive sequence numbers starting at 1
+     */
+    @Test
+    void givenEmptyLog_whenAppend_thenAssignsConsecutiveSequences() {
+        // Given
+        PlayerChangeLog log = new PlayerChangeLog(4);
+        // When
+        PlayerChange first = log.append(PlayerChangedEvent.created(PlayerDTOFakes.createOneValid(), 1));
+        PlayerChange second = log.append(PlayerChangedEvent.deleted(null, 27, 2));
+        // Then
+        then(first.sequence()).isEqualTo(1);
+        then(second.sequence()).isEqualTo(2);
+        then(log.lastSequence()).isEqualTo(2);
+    }
+
+    /**
+     * Given a log holding every change after the client's last sequence
+     * When asking for the changes since that sequence
+     * Then exactly the missed changes are returned, oldest first
+     */
+    @Test
+    void givenRetainedChanges_whenSince_thenReturnsMissedChangesInOrder() {
+        // Given
+        PlayerChangeLog log = new PlayerChangeLog(4);
+        for (int squadNumber = 1; squadNumber <= 3; squadNumber++) {
+            log.append(PlayerChangedEvent.deleted(null, squadNumber, squadNumber));
+        }
+        // When
+        List<PlayerChange> changes = log.since(1);
+        // Then
+        then(changes).extracting(PlayerChange::sequence).containsExactly(2L, 3L);
+        then(changes).extracting(PlayerChange::squadNumber).containsExactly(2, 3);
+        then(log.since(3)).isEmpty();
+    }
+
+    /**
+     * Given a full log that has overwritten its oldest changes
+     * When asking for changes since a sequence that was overwritten, or one that was never issued
+     * Then null is returned so the client starts over
+     */
+    @Test
+    void givenOverwrittenOrUnknownSequence_whenSince_thenReturnsNull() {
+        // Given
+        PlayerChangeLog log = new PlayerChangeLog(4);
+        for (int squadNumber = 1; squadNumber <= 10; squadNumber++) {
+            log.append(PlayerChangedEvent.deleted(null, squadNumber, squadNumber));
+        }
+        // When
+        List<PlayerChange> fromOldestRetained = log.since(6);
+        List<PlayerChange> fromOverwritten = log.since(5);
+        List<PlayerChange> fromFuture = log.since(11);
+        // Then
+        then(fromOldestRetained).extracting(PlayerChange::sequence).containsExactly(7L, 8L, 9L, 10L);
+        then(fromOverwritten).isNull();
+        then(fromFuture).isNull();
+    }
+
+    /**
+     * Given a non-positive capacity
+     * When creating a change log
+     * Then an IllegalArgumentException is thrown
+     */
+    @Test
+    void givenNonPositiveCapacity_whenCreated_thenThrows() {
+        thenThrownBy(() -> new PlayerChangeLog(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,122 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.indexes;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.indexes.IndexedField;
+import ar.com.nanotaboada.java.samples.spring.boot.indexes.PlayerBitmapIndex;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerFakes;
+
+@DisplayName("Compound Filters on Bitmap Index")
+@ExtendWith(MockitoExtension.class)
+class PlayerBitmapIndexTests {
+
+    @Mock
+    private PlayersRepository playersRepositoryMock;
+
+    private PlayerBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Mockito
+                .when(playersRepositoryMock.findAll())
+                .thenReturn(PlayerFakes.createAll());
+        index = new PlayerBitmapIndex(playersRepositoryMock, new ModelMapper());
+    }
+
+    /**
+     * Given the 26-player squad is indexed
+     * When filtering on two positions within one league
+     * Then only players with either position in that league are returned, by squad number
+     */
+    @Test
+    void givenIndexedSquad_whenFilterOnPositionsAndLeague_thenReturnsIntersection() {
+        // Given
+        Map<IndexedField, List<String>> criteria = Map.of(
+                IndexedField.POSITION, List.of("Centre-Back", "Left-Back"),
+                IndexedField.LEAGUE, List.of("Premier League"));
+        // When
+        List<PlayerDTO> actual = index.filter(criteria);
+        // Then
+        verify(playersRepositoryMock, times(1)).findAll();
+        then(actual).extracting(PlayerDTO::getSquadNumber).containsExactly(13, 25);
+    }
+
+    /**
+     * Given the 26-player squad is indexed
+     * When counting the starting eleven per league
+     * Then each league holds the number of its starters
+     */
+    @Test
+    void givenIndexedSquad_whenCountStartersByLeague_thenReturnsCardinalityPerLeague() {
+        // Given
+        Map<IndexedField, List<String>> criteria = Map.of(IndexedField.STARTING11, List.of("true"));
+        // When
+        Map<String, Integer> actual = index.count(IndexedField.LEAGUE, criteria);
+        // Then
+        then(actual.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(11);
+        then(actual).containsEntry("Premier League", 4).containsEntry("Ligue 1", 2);
+    }
+
+    /**
+     * Given the 26-player squad is indexed
+     * When players are updated, deleted and created
+     * Then filters reflect every change without reloading from the repository
+     */
+    @Test
+    void givenIndexedSquad_whenPlayersChange_thenIndexIsUpdatedIncrementally() {
+        // Given
+        index.filter(Map.of()); // first use loads the roster
+        PlayerDTO goalkeeper = PlayerDTOFakes.createOneUpdated();
+        goalkeeper.setTeam("Inter Milan");
+        goalkeeper.setLeague("Serie A");
+        UUID goalkeeperId = goalkeeper.getId();
+        goalkeeper.setId(null); // PUT bodies carry no id
+        PlayerDTO newcomer = PlayerDTOFakes.createOneValid();
+        newcomer.setId(UUID.randomUUID());
+        UUID romeroId = PlayerDTOFakes.createAll().stream()
+                .filter(player -> player.getSquadNumber() == 13)
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        // When
+        index.onPlayerChanged(PlayerChangedEvent.updated(goalkeeperId, goalkeeper, 2));
+        index.onPlayerChanged(PlayerChangedEvent.deleted(romeroId, 13, 3));
+        index.onPlayerChanged(PlayerChangedEvent.created(newcomer, 4));
+        // Then
+        verify(playersRepositoryMock, times(1)).findAll();
+        then(index.size()).isEqualTo(26);
+        then(index.filter(Map.of(IndexedField.LEAGUE, List.of("Serie A"))))
+                .extracting(PlayerDTO::getSquadNumber)
+                .contains(23);
+        then(index.filter(Map.of(IndexedField.TEAM, List.of("Aston Villa FC")))).isEmpty();
+        then(index.filter(Map.of(IndexedField.POSITION, List.of("Centre-Back"))))
+                .extracting(PlayerDTO::getSquadNumber)
+                .doesNotContain(13);
+        then(index.filter(Map.of(IndexedField.LEAGUE, List.of("La Liga"))))
+                .extracting(PlayerDTO::getSquadNumber)
+                .contains(27);
+        then(index.filter(Map.of(IndexedField.LEAGUE, List.of("Serie A"))))
+                .filteredOn(player -> player.getSquadNumber() == 23)
+                .extracting(PlayerDTO::getId)
+                .containsExactly(goalkeeperId);
+    }
+}
@@ -0,0 +1,109 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.indexes;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.indexes.PlayerKeyFilter;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+
+@DisplayName("Fast Negatives on Key Filter")
+@ExtendWith(MockitoExtension.class)
+class PlayerKeyFilterTests {
+
+    private static final List<String> KEY_FIELDS = List.of("id", "squadNumber");
+
+    @Mock
+    private PlayersRepository playersRepositoryMock;
+
+    /**
+     * Given the 26-player squad is loaded
+     * When asking about its keys and about keys nobody has
+     * Then no existing player is ever excluded, unknown squad numbers always are, and nearly all unknown ids are
+     */
+    @Test
+    void givenLoadedSquad_whenAskingAboutKeys_thenExcludesOnlyMissingOnes() {
+        // Given
+        List<PlayerDTO> squad = PlayerDTOFakes.createAll();
+        Mockito
+                .when(playersRepositoryMock.findAllProjected(KEY_FIELDS))
+                .thenReturn(squad.stream()
+                        .map(player -> Map.<String, Object>of("id", player.getId(),
+                                "squadNumber", player.getSquadNumber()))
+                        .toList());
+        PlayerKeyFilter filter = new PlayerKeyFilter(playersRepositoryMock, true);
+        // When
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(_ -> !filter.excludesId(UUID.randomUUID()))
+                .count();
+        // Then
+        verify(playersRepositoryMock, times(1)).findAllProjected(KEY_FIELDS);
+        for (PlayerDTO player : squad) {
+            then(filter.excludesId(player.getId())).isFalse();
+            then(filter.excludesSquadNumber(player.getSquadNumber())).isFalse();
+            then(filter.containsSquadNumber(player.getSquadNumber())).isTrue();
+        }
+        then(filter.excludesSquadNumber(99)).isTrue();
+        then(filter.containsSquadNumber(99)).isFalse();
+        then(falsePositives).isLessThan(200);
+    }
+
+    /**
+     * Given a loaded filter
+     * When a player is created and another one deleted
+     * Then the created player is no longer excluded and the deleted squad number is free again
+     */
+    @Test
+    void givenLoadedFilter_whenPlayersChange_thenKeysFollow() {
+        // Given
+        Mockito
+                .when(playersRepositoryMock.findAllProjected(KEY_FIELDS))
+                .thenReturn(List.of(Map.of("id", UUID.randomUUID(), "squadNumber", 13)));
+        PlayerKeyFilter filter = new PlayerKeyFilter(playersRepositoryMock, true);
+        PlayerDTO newcomer = PlayerDTOFakes.createOneValid();
+        newcomer.setId(UUID.randomUUID());
+        then(filter.excludesId(newcomer.getId())).isTrue();
+        // When
+        filter.onPlayerChanged(PlayerChangedEvent.created(newcomer, 2));
+        filter.onPlayerChanged(PlayerChangedEvent.deleted(UUID.randomUUID(), 13, 3));
+        // Then
+        then(filter.excludesId(newcomer.getId())).isFalse();
+        then(filter.containsSquadNumber(newcomer.getSquadNumber())).isTrue();
+        then(filter.excludesSquadNumber(13)).isTrue();
+    }
+
+    /**
+     * Given a disabled filter
+     * When asking about any key
+     * Then it never answers and never reads the roster
+     */
+    @Test
+    void givenDisabledFilter_whenAskingAboutKeys_thenCannotTell() {
+        // Given
+        PlayerKeyFilter filter = new PlayerKeyFilter(playersRepositoryMock, false);
+        // When
+        boolean excludesSquadNumber = filter.excludesSquadNumber(99);
+        boolean excludesId = filter.excludesId(UUID.randomUUID());
+        // Then
+        verify(playersRepositoryMock, never()).findAllProjected(any());
+        then(excludesSquadNumber).isFalse();
+        then(excludesId).isFalse();
+    }
+}
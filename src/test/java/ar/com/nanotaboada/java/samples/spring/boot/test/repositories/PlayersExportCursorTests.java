@@ -0,0 +1,97 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.repositories;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.LeagueShards;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersExportCursor;
+
+/**
+ * Reads the roster seeded by Flyway from a SQLite file in its default rollback-journal mode, where an open reader
+ * blocks every writer.
+ */
+@DisplayName("Keyset Cursor for Exports")
+class PlayersExportCursorTests {
+
+    private static final int PAGE_SIZE = 5;
+
+    @TempDir
+    private Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private PlayersExportCursor cursor;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource database = new SQLiteDataSource();
+        database.setUrl("jdbc:sqlite:" + directory.resolve("players.db"));
+        Flyway.configure().dataSource(database).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+        cursor = new PlayersExportCursor(jdbcTemplate,
+                new DefaultListableBeanFactory().getBeanProvider(LeagueShards.class), PAGE_SIZE);
+    }
+
+    /**
+     * Given a seeded roster several pages long
+     * When every row is read
+     * Then each player comes exactly once, in squad number order, with its date of birth as an epoch day and its
+     * lookups as stored ids
+     */
+    @Test
+    void givenRosterLongerThanPage_whenForEach_thenEveryRowOnceInOrder() {
+        // Given
+        List<Integer> expected = jdbcTemplate.queryForList("SELECT squadNumber FROM players ORDER BY squadNumber",
+                Integer.class);
+        Integer ligue1 = jdbcTemplate.queryForObject("SELECT id FROM leagues WHERE name = 'Ligue 1'", Integer.class);
+        List<PlayersExportCursor.Row> rows = new ArrayList<>();
+        // When
+        cursor.forEach(rows::add);
+        // Then
+        then(expected).hasSizeGreaterThan(2 * PAGE_SIZE);
+        then(rows).extracting(PlayersExportCursor.Row::squadNumber).containsExactlyElementsOf(expected);
+        then(rows).filteredOn(row -> row.squadNumber() == 10).singleElement().satisfies(messi -> {
+            then(messi.lastName()).isEqualTo("Messi");
+            then(messi.dateOfBirth()).isEqualTo((int) LocalDate.of(1987, 6, 24).toEpochDay());
+            then(messi.leagueId()).isEqualTo(ligue1);
+            then(messi.starting11()).isTrue();
+        });
+    }
+
+    /**
+     * Given an export that has handed over its first row
+     * When a writer updates a player further down the roster before the export goes on
+     * Then the write commits at once, and the export reads the updated row from a later page
+     */
+    @Test
+    void givenExportInProgress_whenPlayerUpdated_thenWriterNotBlocked() {
+        // Given
+        Integer last = jdbcTemplate.queryForObject("SELECT MAX(squadNumber) FROM players", Integer.class);
+        List<Integer> updated = new ArrayList<>();
+        List<PlayersExportCursor.Row> rows = new ArrayList<>();
+        // When
+        cursor.forEach(row -> {
+            if (rows.isEmpty()) {
+                updated.add(jdbcTemplate.update("UPDATE players SET firstName = 'Updated' WHERE squadNumber = ?",
+                        last));
+            }
+            rows.add(row);
+        });
+        // Then
+        then(updated).containsExactly(1);
+        then(rows.getLast().squadNumber()).isEqualTo(last);
+        then(rows.getLast().firstName()).isEqualTo("Updated");
+    }
+}
@@ -0,0 +1,279 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.repositories;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.cache.test.autoconfigure.AutoConfigureCache;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFilter;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLogRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerOutboxRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerTombstonesRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersFilterRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersProjectionRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerFakes;
+import ar.com.nanotaboada.java.samples.spring.boot.test.SqlStatementCapture;
+
+/**
+ * Query-plan regression guard for {@link PlayersRepository} (including its {@link PlayersProjectionRepository} and
+ * {@link PlayersFilterRepository} fragments), {@link PlayerTombstonesRepository}, {@link PlayerLogRepository} and
+ * {@link PlayerOutboxRepository}.
+ *
+ * <p>Each repository method is invoked against the test database while {@link SqlStatementCapture} records the SQL
+ * Hibernate generates. Every captured statement is then run through {@code EXPLAIN QUERY PLAN} on a database built
+ * from the Flyway migrations in {@code db/migration} — the production schema, not {@code ddl.sql} — and point lookups
+ * or range queries that resolve to a full table scan fail the build.</p>
+ *
+ * <p>Adding a method to a guarded repository without registering its expected access path here also fails, so new
+ * queries cannot slip past the guard.</p>
+ */
+@DisplayName("Query Plans of Repository Methods")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ar.com.nanotaboada.java.samples.spring.boot.test.SqlStatementCapture")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@AutoConfigureCache
+@Import(PlayerLookups.class)
+class PlayersRepositoryQueryPlanTests {
+
+    @TempDir
+    static Path storage;
+
+    private static final List<Class<?>> GUARDED = List.of(PlayersRepository.class, PlayersProjectionRepository.class,
+            PlayersFilterRepository.class, PlayerTombstonesRepository.class, PlayerLogRepository.class,
+            PlayerOutboxRepository.class);
+
+    private static final List<String> FIELDS = List.of("squadNumber", "lastName", "abbrPosition");
+
+    private static Connection migrated;
+
+    @Autowired
+    private PlayersRepository playersRepository;
+
+    @Autowired
+    private PlayerTombstonesRepository playerTombstonesRepository;
+
+    @Autowired
+    private PlayerLogRepository playerLogRepository;
+
+    @Autowired
+    private PlayerOutboxRepository playerOutboxRepository;
+
+    /**
+     * Access path a query is expected to take.
+     */
+    enum Access {
+        /** Equality on a unique key — must be an index SEARCH. */
+        POINT_LOOKUP(true),
+        /** Bounded range on an indexed column — must be an index SEARCH. */
+        RANGE_QUERY(true),
+        /** Reads the whole table by design (unfiltered, or a leading-wildcard LIKE no B-tree can serve). */
+        FULL_SCAN(false);
+
+        final boolean requiresIndex;
+
+        Access(boolean requiresIndex) {
+            this.requiresIndex = requiresIndex;
+        }
+    }
+
+    /**
+     * The guarded repositories, handed to each invocation.
+     */
+    record Repositories(PlayersRepository players, PlayerTombstonesRepository tombstones, PlayerLogRepository log,
+            PlayerOutboxRepository outbox) {
+    }
+
+    record Expectation(Class<?> repository, String method, Access access, Consumer<Repositories> invocation) {
+
+        @Override
+        public String toString() {
+            return repository.getSimpleName() + "." + method + " (" + access + ")";
+        }
+    }
+
+    static Stream<Expectation> expectations() {
+        return Stream.of(
+                new Expectation(PlayersRepository.class, "findBySquadNumber", Access.POINT_LOOKUP,
+                        repositories -> repositories.players().findBySquadNumber(10)),
+                new Expectation(PlayersRepository.class, "findBySquadNumberIn", Access.POINT_LOOKUP,
+                        repositories -> repositories.players().findBySquadNumberIn(List.of(10, 23, 26))),
+                new Expectation(PlayersRepository.class, "findById", Access.POINT_LOOKUP,
+                        repositories -> repositories.players().findById(UUID.randomUUID())),
+                new Expectation(PlayersRepository.class, "findAllById", Access.POINT_LOOKUP,
+                        repositories -> repositories.players().findAllById(List.of(UUID.randomUUID(), UUID.randomUUID()))),
+                new Expectation(PlayersRepository.class, "existsById", Access.POINT_LOOKUP,
+                        repositories -> repositories.players().existsById(UUID.randomUUID())),
+                new Expectation(PlayersRepository.class, "save", Access.POINT_LOOKUP,
+                        repositories -> repositories.players().saveAndFlush(PlayerFakes.createOneUpdated())),
+                new Expectation(PlayersRepository.class, "delete", Access.POINT_LOOKUP,
+                        repositories -> {
+                            repositories.players().findBySquadNumber(10).ifPresent(repositories.players()::delete);
+                            repositories.players().flush();
+                        }),
+                new Expectation(PlayersRepository.class, "findAll", Access.FULL_SCAN,
+                        repositories -> repositories.players().findAll()),
+                new Expectation(PlayersRepository.class, "findByVersionGreaterThanOrderByVersion", Access.RANGE_QUERY,
+                        repositories -> repositories.players().findByVersionGreaterThanOrderByVersion(1L)),
+                new Expectation(PlayersRepository.class, "findRosterVersion", Access.POINT_LOOKUP,
+                        repositories -> repositories.players().findRosterVersion()),
+                new Expectation(PlayersRepository.class, "nextRosterVersion", Access.POINT_LOOKUP,
+                        repositories -> repositories.players().nextRosterVersion()),
+                new Expectation(PlayersProjectionRepository.class, "findAllProjected", Access.FULL_SCAN,
+                        repositories -> repositories.players().findAllProjected(FIELDS)),
+                new Expectation(PlayersProjectionRepository.class, "findProjectedById", Access.POINT_LOOKUP,
+                        repositories -> repositories.players().findProjectedById(UUID.randomUUID(), FIELDS)),
+                new Expectation(PlayersProjectionRepository.class, "findProjectedBySquadNumber", Access.POINT_LOOKUP,
+                        repositories -> repositories.players().findProjectedBySquadNumber(10, FIELDS)),
+                new Expectation(PlayersProjectionRepository.class, "findProjectedByLeague", Access.RANGE_QUERY,
+                        repositories -> repositories.players().findProjectedByLeague("Premier", FIELDS)),
+                new Expectation(PlayersFilterRepository.class, "findMatching", Access.RANGE_QUERY,
+                        repositories -> repositories.players().findMatching(
+                                new PlayerFilter("SL Benfica", "Centre-Back", null, null, null, null, null),
+                                Sort.by("lastName"), 0, 10)),
+                new Expectation(PlayersFilterRepository.class, "findMatching", Access.RANGE_QUERY,
+                        repositories -> repositories.players().findMatching(
+                                new PlayerFilter(null, null, null, null, null,
+                                        LocalDate.of(1990, 1, 1), LocalDate.of(1995, 12, 31)),
+                                Sort.by("squadNumber"), 0, 10)),
+                new Expectation(PlayersFilterRepository.class, "countMatching", Access.RANGE_QUERY,
+                        repositories -> repositories.players().countMatching(
+                                new PlayerFilter(null, null, "CB", null, true, null, null))),
+                new Expectation(PlayersFilterRepository.class, "countMatching", Access.RANGE_QUERY,
+                        repositories -> repositories.players().countMatching(
+                                new PlayerFilter(null, "Goalkeeper", null, "Premier League", true, null, null))),
+                new Expectation(PlayersFilterRepository.class, "findByLeagueContainingIgnoreCase", Access.RANGE_QUERY,
+                        repositories -> repositories.players().findByLeagueContainingIgnoreCase("Premier")),
+                new Expectation(PlayerTombstonesRepository.class, "findByVersionGreaterThanOrderByVersion",
+                        Access.RANGE_QUERY,
+                        repositories -> repositories.tombstones().findByVersionGreaterThanOrderByVersion(1L)),
+                new Expectation(PlayerLogRepository.class, "findBySequenceGreaterThanOrderBySequence",
+                        Access.RANGE_QUERY,
+                        repositories -> repositories.log().findBySequenceGreaterThanOrderBySequence(1L,
+                                Limit.of(100))),
+                new Expectation(PlayerOutboxRepository.class, "findBySequenceGreaterThanOrderBySequence",
+                        Access.RANGE_QUERY,
+                        repositories -> repositories.outbox().findBySequenceGreaterThanOrderBySequence(1L,
+                                Limit.of(100))),
+                new Expectation(PlayerOutboxRepository.class, "deletePublishedThrough", Access.RANGE_QUERY,
+                        repositories -> repositories.outbox().deletePublishedThrough(1L)));
+    }
+
+    @BeforeAll
+    static void migrateProductionSchema() throws SQLException {
+        String url = "jdbc:sqlite:" + storage.resolve("query-plan.db");
+        Flyway.configure()
+                .dataSource(url, null, null)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        migrated = DriverManager.getConnection(url);
+    }
+
+    @AfterAll
+    static void closeProductionSchema() throws SQLException {
+        migrated.close();
+    }
+
+    /**
+     * Given the methods declared on the guarded repositories
+     * When comparing them with the registered expectations
+     * Then every method has an expected access path
+     */
+    @Test
+    void givenRepositoryMethods_whenListed_thenEveryMethodHasAnExpectation() {
+        // Given
+        List<String> declared = GUARDED.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> !method.isSynthetic() && !method.isDefault())
+                        .map(method -> repository.getSimpleName() + "." + method.getName()))
+                .toList();
+        // When
+        List<String> expected = expectations()
+                .map(expectation -> expectation.repository().getSimpleName() + "." + expectation.method())
+                .toList();
+        // Then
+        then(expected).containsAll(declared);
+    }
+
+    /**
+     * Given a repository method and its expected access path
+     * When the SQL it generates is explained on the migrated schema
+     * Then point lookups and range queries are served by an index, never by a full scan
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("expectations")
+    void givenRepositoryMethod_whenExplained_thenQueryPlanMatchesAccess(Expectation expectation)
+            throws SQLException {
+        // Given
+        SqlStatementCapture.clear();
+        expectation.invocation()
+                .accept(new Repositories(playersRepository, playerTombstonesRepository, playerLogRepository,
+                        playerOutboxRepository));
+        List<String> statements = SqlStatementCapture.drain().stream()
+                .filter(sql -> !sql.stripLeading().toLowerCase().startsWith("insert"))
+                .toList();
+        then(statements).as("SQL captured for %s", expectation.method()).isNotEmpty();
+        for (String sql : statements) {
+            // When
+            List<String> plan = explain(sql);
+            // Then
+            then(plan).as("query plan of %s", sql).isNotEmpty();
+            if (expectation.access().requiresIndex) {
+                then(plan)
+                        .as("%s must not scan the table, but the plan of [%s] was %s", expectation, sql, plan)
+                        .noneMatch(PlayersRepositoryQueryPlanTests::isFullScan)
+                        .anyMatch(detail -> detail.startsWith("SEARCH"));
+            }
+        }
+    }
+
+    private static List<String> explain(String sql) throws SQLException {
+        List<String> details = new ArrayList<>();
+        try (PreparedStatement statement = migrated.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int index = 1; index <= parameters; index++) {
+                statement.setObject(index, null);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    details.add(resultSet.getString("detail"));
+                }
+            }
+        }
+        return details;
+    }
+
+    private static boolean isFullScan(String detail) {
+        return detail.startsWith("SCAN") && !detail.startsWith("SCAN CONSTANT ROW");
+    }
+}
@@ -2,7 +2,9 @@ package ar.com.nanotaboada.java.samples.spring.boot.test.repositories;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,20 +15,43 @@ import org.springframework.boot.cache.test.autoconfigure.AutoConfigureCache;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
 import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFilter;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLogApplier;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
 import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
 import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerFakes;
+import ar.com.nanotaboada.java.samples.spring.boot.test.SqlStatementCapture;
 
 @DisplayName("Derived Query Methods on Repository")
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ar.com.nanotaboada.java.samples.spring.boot.test.SqlStatementCapture")
 @AutoConfigureTestDatabase(replace = Replace.NONE)
 @AutoConfigureCache
+@Import({ PlayerLookups.class, PlayerLogApplier.class })
 class PlayersRepositoryTests {
 
     @Autowired
     private PlayersRepository repository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerLogApplier playerLogApplier;
+
     /**
      * Given a player is saved to the database
      * When findById() is called with the player's UUID surrogate key
@@ -123,6 +148,142 @@ class PlayersRepositoryTests {
         then(actual).isEmpty();
     }
 
+    /**
+     * Given the database contains players for some of the requested squad numbers
+     * When querying by all of them at once
+     * Then only the existing players are returned
+     */
+    @Test
+    void givenSomePlayersExist_whenFindBySquadNumberIn_thenReturnsThosePlayers() {
+        // Given
+        List<Integer> squadNumbers = List.of(10, 23, 99); // 10 and 23 pre-seeded from dml.sql
+        // When
+        List<Player> actual = repository.findBySquadNumberIn(squadNumbers);
+        // Then
+        then(actual).extracting(Player::getSquadNumber).containsExactlyInAnyOrder(10, 23);
+    }
+
+    /**
+     * Given a sparse fieldset of three properties
+     * When findAllProjected() is called with it
+     * Then every row holds exactly those properties, and the query selects no other column
+     */
+    @Test
+    void givenFields_whenFindAllProjected_thenSelectsOnlyThoseColumns() {
+        // Given
+        List<String> fields = List.of("lastName", "squadNumber", "abbrPosition");
+        SqlStatementCapture.clear();
+        // When
+        List<Map<String, Object>> actual = repository.findAllProjected(fields);
+        // Then
+        then(actual).hasSize(26).allSatisfy(row -> then(row.keySet()).containsExactlyElementsOf(fields));
+        then(SqlStatementCapture.drain()).singleElement()
+                .satisfies(sql -> then(sql.substring(0, sql.indexOf(" from ")))
+                        .containsIgnoringCase("lastName")
+                        .doesNotContainIgnoringCase("firstName")
+                        .doesNotContainIgnoringCase("dateOfBirth"));
+    }
+
+    /**
+     * Given the database contains a player with a specific squad number
+     * When findProjectedBySquadNumber() is called with a sparse fieldset
+     * Then the requested properties of that player are returned
+     */
+    @Test
+    void givenPlayerExists_whenFindProjectedBySquadNumber_thenReturnsRequestedFields() {
+        // Given
+        Integer messiSquadNumber = 10; // Pre-seeded from dml.sql
+        // When
+        Optional<Map<String, Object>> actual = repository.findProjectedBySquadNumber(messiSquadNumber,
+                List.of("lastName", "dateOfBirth"));
+        // Then
+        then(actual).hasValueSatisfying(row -> {
+            then(row).containsEntry("lastName", "Messi");
+            then(row).containsEntry("dateOfBirth", LocalDate.of(1987, 6, 24));
+        });
+    }
+
+    /**
+     * Given the pre-seeded squad
+     * When filtering by league and starting eleven, youngest first, one page at a time
+     * Then each page holds the next matching players and the count covers every page
+     */
+    @Test
+    void givenSeededSquad_whenFindMatchingByLeagueAndStarting11_thenPagesInSortOrder() {
+        // Given
+        PlayerFilter filter = new PlayerFilter(null, null, null, "Premier League", true, null, null);
+        Sort sort = PlayerFilter.parseSort(List.of("-dateOfBirth")).orElseThrow();
+        // When
+        List<Player> first = repository.findMatching(filter, sort, 0, 2);
+        List<Player> second = repository.findMatching(filter, sort, 2, 2);
+        long count = repository.countMatching(filter);
+        // Then
+        then(count).isEqualTo(4L);
+        then(first).extracting(Player::getSquadNumber).containsExactly(9, 20); // Álvarez (2000), Mac Allister (1998-12)
+        then(second).extracting(Player::getSquadNumber).containsExactly(13, 23); // Romero (1998-04), Martínez (1992)
+    }
+
+    /**
+     * Given the pre-seeded squad
+     * When filtering by an inclusive birth-date range whose bounds are players' birthdays
+     * Then players born on either bound are included
+     */
+    @Test
+    void givenDateRange_whenFindMatching_thenBoundsAreInclusive() {
+        // Given
+        PlayerFilter filter = new PlayerFilter(null, null, null, null, null,
+                LocalDate.of(1987, 6, 24), LocalDate.of(1988, 2, 14)); // Messi ... Di María
+        // When
+        List<Player> actual = repository.findMatching(filter, Sort.by("dateOfBirth"), 0, 10);
+        // Then
+        then(actual).extracting(Player::getSquadNumber).containsExactly(10, 19, 11); // Messi, Otamendi, Di María
+    }
+
+    /**
+     * Given Lo Celso moves to a team that is not in the teams lookup table yet
+     * When the player is saved and read back
+     * Then the team is added to the lookup table, and the player stores its id but reads its name
+     */
+    @Test
+    void givenPlayerInNewTeam_whenSaved_thenAddsTeamToLookupTable() {
+        // Given
+        Player player = PlayerFakes.createOneValid(); // Lo Celso (squad 27)
+        player.setTeam("Villarreal CF");
+        // When
+        Player saved = repository.saveAndFlush(player);
+        entityManager.clear();
+        Optional<Player> actual = repository.findById(saved.getId());
+        // Then
+        Integer teamId = jdbcTemplate.queryForObject("SELECT id FROM teams WHERE name = ?", Integer.class,
+                "Villarreal CF");
+        then(jdbcTemplate.queryForObject("SELECT teamId FROM players WHERE squadNumber = 27", Integer.class))
+                .isEqualTo(teamId);
+        then(actual).isPresent();
+        then(actual.get().getTeam()).isEqualTo("Villarreal CF");
+    }
+
+    /**
+     * Given the Premier League players and one more in a team added after the seed (so its id comes last)
+     * When filtering by league, sorted by team
+     * Then players are in team name order, not in lookup id order
+     */
+    @Test
+    void givenLeague_whenFindMatchingSortedByTeam_thenOrdersByTeamName() {
+        // Given
+        Player player = PlayerFakes.createOneValid(); // Lo Celso (squad 27)
+        player.setTeam("Arsenal FC");
+        player.setLeague("Premier League");
+        repository.saveAndFlush(player);
+        PlayerFilter filter = new PlayerFilter(null, null, null, "Premier League", null, null, null);
+        Sort sort = PlayerFilter.parseSort(List.of("team")).orElseThrow();
+        // When
+        List<Player> actual = repository.findMatching(filter, sort, 0, 10);
+        // Then
+        then(actual).extracting(Player::getTeam).containsExactly("Arsenal FC", "Aston Villa FC",
+                "Brighton & Hove Albion", "Manchester City", "Manchester United", "Nottingham Forest",
+                "Tottenham Hotspur");
+    }
+
     /**
      * Given Lo Celso is saved to the database (not pre-seeded)
      * When deleting that player by their UUID
@@ -139,4 +300,70 @@ class PlayersRepositoryTests {
         // Then
         then(repository.findById(savedId)).isEmpty();
     }
+
+    /**
+     * Given a player saved at a roster version above the seeded players' version 1
+     * When querying players changed after version 1
+     * Then only that player is returned
+     */
+    @Test
+    void givenPlayerSavedAtNewVersion_whenFindByVersionGreaterThan_thenReturnsOnlyThatPlayer() {
+        // Given
+        Player player = PlayerFakes.createOneValid(); // Lo Celso (squad 27)
+        player.setVersion(repository.nextRosterVersion());
+        repository.save(player);
+        // When
+        List<Player> actual = repository.findByVersionGreaterThanOrderByVersion(1L);
+        // Then
+        then(actual).extracting(Player::getSquadNumber).containsExactly(27);
+    }
+
+    /**
+     * Given the seeded roster at version 1
+     * When taking the next roster version twice
+     * Then the versions increase by one each time and the current version reflects the last one
+     */
+    @Test
+    void givenSeededRoster_whenNextRosterVersion_thenIncrementsByOne() {
+        // Given
+        long initial = repository.findRosterVersion();
+        // When
+        long first = repository.nextRosterVersion();
+        long second = repository.nextRosterVersion();
+        // Then
+        then(first).isEqualTo(initial + 1);
+        then(second).isEqualTo(initial + 2);
+        then(repository.findRosterVersion()).isEqualTo(second);
+    }
+
+    /**
+     * Given changes from a writer's log: a player created under the writer's id, then updated, then deleted
+     * When each change is applied in order
+     * Then the player keeps the writer's id, the row and tombstone carry each change's sequence as their version, and
+     * the roster version follows the last change applied
+     */
+    @Test
+    void givenChangesFromWriterLog_whenApplied_thenMirrorsWriterRowsAndVersions() {
+        // Given
+        UUID id = UUID.randomUUID();
+        PlayerDTO player = PlayerDTOFakes.createOneValid(); // Lo Celso (squad 27)
+        player.setId(id);
+        PlayerDTO transferred = PlayerDTOFakes.createOneValid();
+        transferred.setId(id);
+        transferred.setTeam("Villarreal CF");
+        // When
+        playerLogApplier.apply(new PlayerChange(2, PlayerChangedEvent.Type.CREATED, id, 27, player));
+        playerLogApplier.apply(new PlayerChange(3, PlayerChangedEvent.Type.UPDATED, id, 27, transferred));
+        Optional<Player> updated = repository.findById(id);
+        entityManager.clear();
+        playerLogApplier.apply(new PlayerChange(4, PlayerChangedEvent.Type.DELETED, id, 27, null));
+        // Then
+        then(updated).isPresent();
+        then(updated.get().getTeam()).isEqualTo("Villarreal CF");
+        then(updated.get().getVersion()).isEqualTo(3L);
+        then(repository.findById(id)).isEmpty();
+        then(jdbcTemplate.queryForObject("SELECT version FROM player_tombstones WHERE id = ?", Long.class,
+                id.toString())).isEqualTo(4L);
+        then(repository.findRosterVersion()).isEqualTo(4L);
+    }
 }
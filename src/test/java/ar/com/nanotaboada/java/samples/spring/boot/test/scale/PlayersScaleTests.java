@@ -0,0 +1,218 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.scale;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.cache.test.autoconfigure.AutoConfigureCache;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.LeagueShardConfiguration;
+import ar.com.nanotaboada.java.samples.spring.boot.indexes.PlayerKeyFilter;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLogApplier;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersReadModel;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersService;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersSnapshotFile;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scale suite: grows a synthetic roster from 10³ to 10⁷ rows and checks that every repository and service query keeps
+ * to its expected complexity class.
+ *
+ * <p>Excluded from the default build; run it with {@code ./mvnw test -Pscale}. The following system properties tune
+ * a run:</p>
+ * <ul>
+ *   <li>{@code scale.exponents} — comma-separated powers of ten to measure at (default {@code 3,4,5,6,7})</li>
+ *   <li>{@code scale.materialize.max} — largest roster at which queries returning a share of the whole table are
+ *       measured (default 10⁶; hydrating 10⁷ entities needs a heap far larger than the default)</li>
+ *   <li>{@code scale.tolerance} — slack multiplier over the expected growth before a query is flagged
+ *       (default 4)</li>
+ * </ul>
+ *
+ * <p>The check compares the median cost per call at the largest and smallest measured sizes: a point lookup that
+ * degraded to a full scan grows by orders of magnitude more than {@code log n}, and a linear query that went
+ * quadratic grows far more than {@code n}, so both fail loudly while ordinary timing noise does not.</p>
+ */
+@Slf4j
+@Tag("scale")
+@DisplayName("Query Complexity at Scale")
+@DataJpaTest(properties = "players.key-filter.enabled=false") // rows are generated around the service
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@AutoConfigureCache
+@Import({ PlayersService.class, PlayersReadModel.class, PlayersSnapshotFile.class, PlayerKeyFilter.class,
+        PlayerLookups.class, PlayerLogApplier.class, LeagueShardConfiguration.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(Lifecycle.PER_CLASS)
+class PlayersScaleTests {
+
+    private static final long MIN_SAMPLE_NANOS = 200_000_000L;
+    private static final int MIN_SAMPLES = 3;
+    private static final int MAX_SAMPLES = 50;
+
+    private final int[] exponents = Arrays.stream(System.getProperty("scale.exponents", "3,4,5,6,7").split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .sorted()
+            .toArray();
+    private final long materializeMax = Long.getLong("scale.materialize.max", 1_000_000L);
+    private final double tolerance = Double.parseDouble(System.getProperty("scale.tolerance", "4"));
+
+    private final Map<Query, List<Measurement>> measurements = new EnumMap<>(Query.class);
+
+    @Autowired
+    private PlayersRepository playersRepository;
+
+    @Autowired
+    private PlayersService playersService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Complexity classes and the growth each one allows between two roster sizes.
+     */
+    enum Complexity {
+        LOGARITHMIC {
+            @Override
+            double growth(long from, long to) {
+                return Math.log(to) / Math.log(from);
+            }
+        },
+        LINEAR {
+            @Override
+            double growth(long from, long to) {
+                return (double) to / from;
+            }
+        };
+
+        abstract double growth(long from, long to);
+    }
+
+    /**
+     * Every query exercised by the suite, with its expected complexity and whether it hydrates a share of the table.
+     */
+    enum Query {
+        REPOSITORY_FIND_BY_SQUAD_NUMBER(Complexity.LOGARITHMIC, false),
+        REPOSITORY_FIND_BY_ID(Complexity.LOGARITHMIC, false),
+        REPOSITORY_FIND_BY_LEAGUE(Complexity.LINEAR, true),
+        REPOSITORY_FIND_ALL(Complexity.LINEAR, true),
+        SERVICE_RETRIEVE_BY_SQUAD_NUMBER(Complexity.LOGARITHMIC, false),
+        SERVICE_RETRIEVE_BY_ID(Complexity.LOGARITHMIC, false),
+        SERVICE_SEARCH_BY_LEAGUE(Complexity.LINEAR, true),
+        SERVICE_RETRIEVE_ALL(Complexity.LINEAR, true);
+
+        final Complexity complexity;
+        final boolean materializes;
+
+        Query(Complexity complexity, boolean materializes) {
+            this.complexity = complexity;
+            this.materializes = materializes;
+        }
+    }
+
+    record Measurement(long size, double nanosPerCall) {
+    }
+
+    @BeforeAll
+    void measureAtEverySize() {
+        PlayerGenerator generator = new PlayerGenerator(jdbcTemplate);
+        for (int exponent : exponents) {
+            int size = (int) Math.pow(10, exponent);
+            generator.fill(size);
+            for (Query query : Query.values()) {
+                if (query.materializes && size > materializeMax) {
+                    continue;
+                }
+                double nanos = medianNanosPerCall(invoker(query), size);
+                measurements.computeIfAbsent(query, _ -> new ArrayList<>()).add(new Measurement(size, nanos));
+                log.info("{} at n={}: {} ns/call", query, size, Math.round(nanos));
+            }
+        }
+    }
+
+    /**
+     * Given a synthetic roster grown from the smallest to the largest configured size
+     * When the query is timed at each size
+     * Then its cost grows no faster than its complexity class allows
+     */
+    @ParameterizedTest
+    @EnumSource(Query.class)
+    void givenGrowingRoster_whenQueried_thenCostStaysWithinComplexity(Query query) {
+        // Given
+        List<Measurement> series = measurements.getOrDefault(query, List.of());
+        then(series).as("%s needs at least two roster sizes", query).hasSizeGreaterThanOrEqualTo(2);
+        Measurement smallest = series.get(0);
+        Measurement largest = series.get(series.size() - 1);
+        // When
+        double observed = largest.nanosPerCall() / smallest.nanosPerCall();
+        double allowed = query.complexity.growth(smallest.size(), largest.size()) * tolerance;
+        // Then
+        then(observed)
+                .as("%s grew %.1fx from n=%d to n=%d (%s allows %.1fx)",
+                        query, observed, smallest.size(), largest.size(), query.complexity, allowed)
+                .isLessThanOrEqualTo(allowed);
+    }
+
+    private IntConsumer invoker(Query query) {
+        return switch (query) {
+            case REPOSITORY_FIND_BY_SQUAD_NUMBER -> ordinal ->
+                    playersRepository.findBySquadNumber(PlayerGenerator.squadNumberOf(ordinal));
+            case REPOSITORY_FIND_BY_ID -> ordinal ->
+                    playersRepository.findById(PlayerGenerator.idOf(PlayerGenerator.DEFAULT_SEED, ordinal));
+            case REPOSITORY_FIND_BY_LEAGUE -> ordinal -> playersRepository.findByLeagueContainingIgnoreCase("Serie");
+            case REPOSITORY_FIND_ALL -> ordinal -> playersRepository.findAll();
+            case SERVICE_RETRIEVE_BY_SQUAD_NUMBER -> ordinal ->
+                    playersService.retrieveBySquadNumber(PlayerGenerator.squadNumberOf(ordinal));
+            case SERVICE_RETRIEVE_BY_ID -> ordinal ->
+                    playersService.retrieveById(PlayerGenerator.idOf(PlayerGenerator.DEFAULT_SEED, ordinal));
+            case SERVICE_SEARCH_BY_LEAGUE -> ordinal -> playersService.searchByLeague("Serie");
+            case SERVICE_RETRIEVE_ALL -> ordinal -> playersService.retrieveAll();
+        };
+    }
+
+    /**
+     * Calls the query with random existing ordinals until enough time has passed to get a stable median. Each call
+     * runs in its own persistence context, so nothing hydrated by one call is reused by the next.
+     */
+    private double medianNanosPerCall(IntConsumer call, int size) {
+        SplittableRandom random = new SplittableRandom(PlayerGenerator.DEFAULT_SEED);
+        call.accept(0); // warm-up
+        List<Long> samples = new ArrayList<>();
+        long elapsed = 0;
+        while (samples.size() < MAX_SAMPLES && (samples.size() < MIN_SAMPLES || elapsed < MIN_SAMPLE_NANOS)) {
+            int ordinal = random.nextInt(size);
+            long start = System.nanoTime();
+            call.accept(ordinal);
+            long duration = System.nanoTime() - start;
+            samples.add(duration);
+            elapsed += duration;
+        }
+        samples.sort(null);
+        return samples.get(samples.size() / 2);
+    }
+}
@@ -0,0 +1,74 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.services;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerImportDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerImportDTO.Status;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayerImports;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersService;
+
+/**
+ * Imports against the full application stack with the transactional outbox enabled, where every player created in
+ * a batch adds its own outbox row to the batch's transaction.
+ */
+@DisplayName("Bulk Player Imports with Outbox")
+@SpringBootTest(properties = "players.outbox.enabled=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class PlayerImportsOutboxTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String CSV_HEADER = "squadNumber,firstName,middleName,lastName,dateOfBirth,position,"
+            + "abbrPosition,team,league,starting11\n";
+
+    @Autowired
+    private PlayerImports playerImports;
+
+    @Autowired
+    private PlayersRepository playersRepository;
+
+    @MockitoSpyBean
+    private PlayersService playersServiceSpy;
+
+    /**
+     * Given the transactional outbox is enabled
+     * When a CSV upload with three new players is imported
+     * Then all three are imported by a single batch transaction, with no row-by-row retry, and the roster version
+     * advances once per player
+     */
+    @Test
+    void givenOutbox_whenImportBatch_thenEveryRowCommittedInOneTransaction() throws Exception {
+        // Given
+        String csv = CSV_HEADER
+                + "91,Juan,,Pérez,2001-02-03,Centre-Forward,CF,River Plate,,false\n"
+                + "92,Luis,,López,2001-02-03,Goalkeeper,GK,River Plate,,false\n"
+                + "93,Ana,,Gómez,2002-03-04,Left Winger,LW,Boca Juniors,,true\n";
+        long before = playersRepository.findRosterVersion();
+        // When
+        PlayerImportDTO queued = playerImports.submit(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), PlayerImports.Format.CSV);
+        // Then
+        await().atMost(TIMEOUT).untilAsserted(() -> then(playerImports.progress(queued.getId()).getStatus())
+                .isEqualTo(Status.COMPLETED));
+        PlayerImportDTO finished = playerImports.progress(queued.getId());
+        then(finished.getImported()).isEqualTo(3);
+        then(finished.getRejected()).isZero();
+        verify(playersServiceSpy, times(3)).create(any());
+        then(playersRepository.findRosterVersion()).isEqualTo(before + 3);
+    }
+}
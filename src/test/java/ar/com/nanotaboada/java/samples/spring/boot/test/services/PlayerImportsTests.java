@@ -0,0 +1,191 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.services;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.LeagueShards;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerImportDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerImportDTO.Rejection;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerImportDTO.Status;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayerImports;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersService;
+import jakarta.validation.Validation;
+
+@DisplayName("Bulk Player Imports")
+@ExtendWith(MockitoExtension.class)
+class PlayerImportsTests {
+
+    private static final String CSV_HEADER = "squadNumber,firstName,middleName,lastName,dateOfBirth,position,"
+            + "abbrPosition,team,league,starting11\n";
+
+    @Mock
+    private PlayersService playersServiceMock;
+
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    @TempDir
+    private Path directory;
+
+    private PlayerImports playerImports;
+
+    @BeforeEach
+    void setUp() {
+        playerImports = new PlayerImports(playersServiceMock,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionManagerMock,
+                LeagueShards.single(), _ -> true, Runnable::run, 2, directory, 10);
+    }
+
+    /**
+     * Given a CSV upload with three valid rows, one of them quoted, and a row missing its last name
+     * When it is imported with a batch size of two
+     * Then the valid rows are created in two transactions, the invalid row is rejected with its line, and the upload
+     * is deleted
+     */
+    @Test
+    void givenCsvWithInvalidRow_whenSubmit_thenValidRowsImportedInBatches() throws Exception {
+        // Given
+        Mockito
+                .when(playersServiceMock.create(any(PlayerDTO.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        String csv = CSV_HEADER
+                + "91,Juan,,Pérez,2001-02-03,Centre-Forward,CF,\"Club Atlético River Plate, Buenos Aires\",,false\n"
+                + "92,Luis,,,2001-02-03,Centre-Forward,CF,River Plate,,false\n"
+                + "\n"
+                + "93,\"Ana \"\"La Pulga\"\"\",,Gómez,2002-03-04,Left Winger,LW,Boca Juniors,,true\r\n"
+                + "94,Pedro,,Ruiz,2003-04-05,Goalkeeper,GK,Racing Club,,false";
+        // When
+        PlayerImportDTO actual = playerImports.submit(upload(csv), PlayerImports.Format.CSV);
+        // Then
+        then(actual.getStatus()).isEqualTo(Status.COMPLETED);
+        then(actual.getRowsRead()).isEqualTo(4);
+        then(actual.getImported()).isEqualTo(3);
+        then(actual.getRejections()).containsExactly(new Rejection(3, "lastName must not be blank"));
+        verify(playersServiceMock).create(argThat(player -> player.getTeam().equals(
+                "Club Atlético River Plate, Buenos Aires") && player.getMiddleName() == null));
+        verify(playersServiceMock).create(argThat(player -> player.getFirstName().equals("Ana \"La Pulga\"")));
+        verify(transactionManagerMock, times(2)).commit(any());
+        then(directory).isEmptyDirectory();
+    }
+
+    /**
+     * Given an NDJSON upload with a malformed line and a squad number that already exists
+     * When it is imported
+     * Then both rows are rejected and the rest are imported
+     */
+    @Test
+    void givenNdjsonWithMalformedAndDuplicateRows_whenSubmit_thenBothRejected() throws Exception {
+        // Given
+        Mockito
+                .when(playersServiceMock.create(any(PlayerDTO.class)))
+                .thenAnswer(invocation -> ((PlayerDTO) invocation.getArgument(0)).getSquadNumber() == 10
+                        ? null
+                        : invocation.getArgument(0));
+        String ndjson = """
+                {"squadNumber":95,"firstName":"Juan","lastName":"Pérez","dateOfBirth":"2001-02-03","position":"Goalkeeper","team":"River Plate"}
+                {"squadNumber":96,"firstName":
+                {"squadNumber":10,"firstName":"Lionel","lastName":"Messi","dateOfBirth":"1987-06-24","position":"Right Winger","team":"Inter Miami"}
+                """;
+        // When
+        PlayerImportDTO actual = playerImports.submit(upload(ndjson), PlayerImports.Format.NDJSON);
+        // Then
+        then(actual.getStatus()).isEqualTo(Status.COMPLETED);
+        then(actual.getImported()).isEqualTo(1);
+        then(actual.getRejected()).isEqualTo(2);
+        then(actual.getRejections()).extracting(Rejection::line).containsExactly(2L, 3L);
+        then(actual.getRejections().getLast().reason()).isEqualTo("Squad number 10 already exists");
+    }
+
+    /**
+     * Given a batch whose transaction fails because of one of its rows
+     * When it is imported
+     * Then the batch is retried one row at a time, and only the failing row is rejected
+     */
+    @Test
+    void givenBatchThatFails_whenSubmit_thenRetriedRowByRow() throws Exception {
+        // Given
+        Mockito
+                .when(playersServiceMock.create(any(PlayerDTO.class)))
+                .thenAnswer(invocation -> {
+                    PlayerDTO playerDTO = invocation.getArgument(0);
+                    if (playerDTO.getSquadNumber() == 98) {
+                        throw new IllegalStateException("disk I/O error");
+                    }
+                    return playerDTO;
+                });
+        String csv = CSV_HEADER
+                + "97,Juan,,Pérez,2001-02-03,Goalkeeper,GK,River Plate,,false\n"
+                + "98,Luis,,López,2001-02-03,Goalkeeper,GK,River Plate,,false\n";
+        // When
+        PlayerImportDTO actual = playerImports.submit(upload(csv), PlayerImports.Format.CSV);
+        // Then
+        then(actual.getImported()).isEqualTo(1);
+        then(actual.getRejections()).containsExactly(new Rejection(3, "Could not be stored: disk I/O error"));
+        verify(transactionManagerMock, times(2)).rollback(any());
+    }
+
+    /**
+     * Given a CSV upload whose header names an unknown column
+     * When it is imported
+     * Then the job fails without creating anyone, and its progress can still be read
+     */
+    @Test
+    void givenCsvWithUnknownColumn_whenSubmit_thenFailed() throws Exception {
+        // Given
+        String csv = "squadNumber,nickname\n99,Pipa\n";
+        // When
+        PlayerImportDTO actual = playerImports.submit(upload(csv), PlayerImports.Format.CSV);
+        // Then
+        then(actual.getStatus()).isEqualTo(Status.FAILED);
+        then(actual.getFailure()).contains("nickname");
+        then(playerImports.progress(actual.getId())).isEqualTo(actual);
+        then(playerImports.progress(UUID.randomUUID())).isNull();
+        verify(playersServiceMock, never()).create(any(PlayerDTO.class));
+    }
+
+    /**
+     * Given content types with parameters, and one that is neither CSV nor NDJSON
+     * When their format is looked up
+     * Then the first two match and the last does not
+     */
+    @Test
+    void givenContentTypes_whenFormatOf_thenMatchedIgnoringParameters() {
+        // Given
+        String csv = "text/csv; charset=UTF-8";
+        String ndjson = "application/x-ndjson";
+        String json = "application/json";
+        // When
+        Optional<PlayerImports.Format> fromCsv = PlayerImports.Format.of(csv);
+        Optional<PlayerImports.Format> fromNdjson = PlayerImports.Format.of(ndjson);
+        Optional<PlayerImports.Format> fromJson = PlayerImports.Format.of(json);
+        // Then
+        then(fromCsv).hasValue(PlayerImports.Format.CSV);
+        then(fromNdjson).hasValue(PlayerImports.Format.NDJSON);
+        then(fromJson).isEmpty();
+    }
+
+    private static ByteArrayInputStream upload(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
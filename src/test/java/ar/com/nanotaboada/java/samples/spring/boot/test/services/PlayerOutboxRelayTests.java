@@ -0,0 +1,116 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.services;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayerOutbox;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayerOutboxRelay;
+
+@DisplayName("Transactional Outbox Relay")
+@ExtendWith(MockitoExtension.class)
+class PlayerOutboxRelayTests {
+
+    private static final String WEBHOOK = "http://localhost:9999/hooks/players";
+
+    @Mock
+    private PlayerOutbox playerOutboxMock;
+
+    private final List<List<PlayerChange>> received = new ArrayList<>();
+    private MockRestServiceServer webhook;
+    private PlayerOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        webhook = MockRestServiceServer.bindTo(builder).build();
+        relay = new PlayerOutboxRelay(playerOutboxMock, List.of(received::add), builder, WEBHOOK,
+                Duration.ofSeconds(1), 2);
+    }
+
+    /**
+     * Given three unpublished changes and a batch size of two
+     * When the relay drains the outbox
+     * Then the consumer and the webhook receive two batches in order, and each is deleted once both took it
+     */
+    @Test
+    void givenUnpublishedChanges_whenDrain_thenDeliversBatchesInOrderAndDeletesThem() {
+        // Given
+        Mockito
+                .when(playerOutboxMock.next(0, 2))
+                .thenReturn(List.of(deleted(1), deleted(2)));
+        Mockito
+                .when(playerOutboxMock.next(2, 2))
+                .thenReturn(List.of(deleted(3)));
+        webhook.expect(requestTo(WEBHOOK))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("[{\"sequence\":1},{\"sequence\":2}]"))
+                .andRespond(withSuccess());
+        webhook.expect(requestTo(WEBHOOK))
+                .andExpect(content().json("[{\"sequence\":3,\"type\":\"DELETED\"}]"))
+                .andRespond(withSuccess());
+        // When
+        int actual = relay.drain();
+        // Then
+        webhook.verify();
+        then(received).extracting(List::size).containsExactly(2, 1);
+        verify(playerOutboxMock).published(2);
+        verify(playerOutboxMock).published(3);
+        then(actual).isEqualTo(3);
+    }
+
+    /**
+     * Given an unpublished change and a webhook that fails
+     * When the relay drains the outbox, and drains again once the webhook recovers
+     * Then nothing is deleted after the failure, and the same change is delivered again on the next drain
+     */
+    @Test
+    void givenFailingWebhook_whenDrain_thenKeepsBatchForRetry() {
+        // Given
+        Mockito
+                .when(playerOutboxMock.next(0, 2))
+                .thenReturn(List.of(deleted(1)));
+        webhook.expect(requestTo(WEBHOOK)).andRespond(withServerError());
+        webhook.expect(requestTo(WEBHOOK)).andRespond(withSuccess());
+        // When
+        thenThrownBy(relay::drain).isInstanceOf(RestClientException.class);
+        verify(playerOutboxMock, never()).published(anyLong());
+        int actual = relay.drain();
+        // Then
+        webhook.verify();
+        then(received).hasSize(2).allSatisfy(batch -> then(batch).extracting(PlayerChange::sequence)
+                .containsExactly(1L));
+        verify(playerOutboxMock).published(1);
+        then(actual).isEqualTo(1);
+    }
+
+    private static PlayerChange deleted(long sequence) {
+        return new PlayerChange(sequence, PlayerChangedEvent.Type.DELETED, UUID.randomUUID(), (int) sequence, null);
+    }
+}
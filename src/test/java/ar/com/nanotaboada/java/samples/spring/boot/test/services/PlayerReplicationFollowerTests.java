@@ -0,0 +1,109 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.services;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayerReplicationFollower;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersService;
+
+@DisplayName("Log Shipping to Follower Instances")
+@ExtendWith(MockitoExtension.class)
+class PlayerReplicationFollowerTests {
+
+    private static final String WRITER = "http://localhost:9000";
+
+    @Mock
+    private PlayersService playersServiceMock;
+
+    private MockRestServiceServer writer;
+    private PlayerReplicationFollower follower;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder().baseUrl(WRITER);
+        writer = MockRestServiceServer.bindTo(builder).build();
+        follower = new PlayerReplicationFollower(playersServiceMock, builder, Duration.ofSeconds(1), 2);
+    }
+
+    /**
+     * Given a follower at roster version 5 and three newer changes in the writer's log
+     * When the follower polls with a batch size of two
+     * Then it keeps fetching from its applied offset until a batch is not full, and applies every change in order
+     */
+    @Test
+    void givenChangesInWriterLog_whenPoll_thenAppliesThemInOrder() {
+        // Given
+        Mockito
+                .when(playersServiceMock.retrieveRosterVersion())
+                .thenReturn(5L, 7L, 8L);
+        Mockito
+                .when(playersServiceMock.replicate(any(PlayerChange.class)))
+                .thenReturn(true);
+        writer.expect(requestTo(WRITER + "/players/log?after=5&limit=2"))
+                .andRespond(withSuccess("""
+                        [{"sequence":6,"type":"DELETED","id":"acc433bf-d505-51fe-831e-45eb44c4d43c","squadNumber":10},
+                         {"sequence":7,"type":"DELETED","id":"01772c59-43f0-5d85-b913-c78e4e281452","squadNumber":23}]
+                        """, MediaType.APPLICATION_JSON));
+        writer.expect(requestTo(WRITER + "/players/log?after=7&limit=2"))
+                .andRespond(withSuccess("""
+                        [{"sequence":8,"type":"DELETED","id":"da31293b-4c7e-5e0f-a168-469ee29ecbc4","squadNumber":26}]
+                        """, MediaType.APPLICATION_JSON));
+        // When
+        int actual = follower.poll();
+        // Then
+        writer.verify();
+        InOrder order = inOrder(playersServiceMock);
+        for (long sequence = 6; sequence <= 8; sequence++) {
+            long expected = sequence;
+            order.verify(playersServiceMock).replicate(Mockito.argThat(change -> change.sequence() == expected
+                    && change.type() == PlayerChangedEvent.Type.DELETED));
+        }
+        then(actual).isEqualTo(3);
+        then(follower.isStopped()).isFalse();
+    }
+
+    /**
+     * Given a follower whose applied offset is older than the writer's log
+     * When the follower polls and the writer answers 410 Gone
+     * Then nothing is applied and replication stops
+     */
+    @Test
+    void givenOffsetOlderThanWriterLog_whenPoll_thenStops() {
+        // Given
+        Mockito
+                .when(playersServiceMock.retrieveRosterVersion())
+                .thenReturn(1L);
+        writer.expect(requestTo(WRITER + "/players/log?after=1&limit=2"))
+                .andRespond(withStatus(HttpStatus.GONE));
+        // When
+        int actual = follower.poll();
+        // Then
+        writer.verify();
+        verify(playersServiceMock, never()).replicate(any(PlayerChange.class));
+        then(actual).isZero();
+        then(follower.isStopped()).isTrue();
+    }
+}
@@ -0,0 +1,124 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.services;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerLogEntry;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLogRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayerReplicationLog;
+
+@DisplayName("Replication Log Retention")
+@ExtendWith(MockitoExtension.class)
+class PlayerReplicationLogTests {
+
+    @Mock
+    private PlayerLogRepository playerLogRepositoryMock;
+
+    @Mock
+    private PlayersRepository playersRepositoryMock;
+
+    /**
+     * Given a retention of 3 changes and a write that took roster version 5
+     * When its change is appended
+     * Then it is saved under sequence 5 and the entries through sequence 2 are deleted
+     */
+    @Test
+    void givenLogLongerThanRetention_whenAppend_thenDeletesEntriesOutsideWindow() {
+        // Given
+        PlayerReplicationLog log = new PlayerReplicationLog(playerLogRepositoryMock, playersRepositoryMock, 3);
+        // When
+        log.append(PlayerChangedEvent.deleted(UUID.randomUUID(), 27, 5));
+        // Then
+        ArgumentCaptor<PlayerLogEntry> saved = ArgumentCaptor.forClass(PlayerLogEntry.class);
+        verify(playerLogRepositoryMock).save(saved.capture());
+        then(saved.getValue().getSequence()).isEqualTo(5L);
+        verify(playerLogRepositoryMock).deleteThrough(2L);
+    }
+
+    /**
+     * Given a retention of 3 changes and a write that took roster version 3
+     * When the change is appended
+     * Then nothing is deleted
+     */
+    @Test
+    void givenLogWithinRetention_whenAppend_thenDeletesNothing() {
+        // Given
+        PlayerReplicationLog log = new PlayerReplicationLog(playerLogRepositoryMock, playersRepositoryMock, 3);
+        // When
+        log.append(PlayerChangedEvent.deleted(UUID.randomUUID(), 27, 3));
+        // Then
+        verify(playerLogRepositoryMock).save(any(PlayerLogEntry.class));
+        verify(playerLogRepositoryMock, never()).deleteThrough(anyLong());
+    }
+
+    /**
+     * Given two writes in one transaction, which took roster versions 6 and 7
+     * When both changes are appended before it commits
+     * Then each is saved under the version it took, not the transaction's final one
+     */
+    @Test
+    void givenTwoWritesInOneTransaction_whenAppend_thenEachKeyedByItsVersion() {
+        // Given
+        PlayerReplicationLog log = new PlayerReplicationLog(playerLogRepositoryMock, playersRepositoryMock, 10);
+        // When
+        log.append(PlayerChangedEvent.deleted(UUID.randomUUID(), 26, 6));
+        log.append(PlayerChangedEvent.deleted(UUID.randomUUID(), 27, 7));
+        // Then
+        ArgumentCaptor<PlayerLogEntry> saved = ArgumentCaptor.forClass(PlayerLogEntry.class);
+        verify(playerLogRepositoryMock, times(2)).save(saved.capture());
+        then(saved.getAllValues()).extracting(PlayerLogEntry::getSequence).containsExactly(6L, 7L);
+        verify(playersRepositoryMock, never()).findRosterVersion();
+    }
+
+    /**
+     * Given a log whose oldest retained entry is sequence 3, at roster version 5
+     * When a follower at sequence 1 asks for the changes after it
+     * Then null is returned, as the pruned change 2 cannot be replayed
+     */
+    @Test
+    void givenPrunedChanges_whenSince_thenReturnsNull() {
+        // Given
+        PlayerReplicationLog log = new PlayerReplicationLog(playerLogRepositoryMock, playersRepositoryMock, 3);
+        Mockito
+                .when(playersRepositoryMock.findRosterVersion())
+                .thenReturn(5L);
+        Mockito
+                .when(playerLogRepositoryMock.findBySequenceGreaterThanOrderBySequence(1L, Limit.of(10)))
+                .thenReturn(List.of(PlayerLogEntry.of(3, PlayerChangedEvent.deleted(UUID.randomUUID(), 3, 3))));
+        // When
+        List<PlayerChange> actual = log.since(1, 10);
+        // Then
+        then(actual).isNull();
+    }
+
+    /**
+     * Given a non-positive retention
+     * When the log is created
+     * Then an IllegalArgumentException is thrown
+     */
+    @Test
+    void givenNonPositiveRetention_whenCreated_thenThrows() {
+        thenThrownBy(() -> new PlayerReplicationLog(playerLogRepositoryMock, playersRepositoryMock, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,166 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.services;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.LookupTable;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLookups;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersExportCursor;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersArrowExport;
+
+@DisplayName("Arrow Export of the Roster")
+@ExtendWith(MockitoExtension.class)
+class PlayersArrowExportTests {
+
+    /** Dictionary ids, in schema order (see PlayersArrowExport). */
+    private static final long LEAGUES = 3;
+
+    @Mock
+    private PlayersExportCursor playersExportCursorMock;
+
+    @Mock
+    private PlayerLookups playerLookupsMock;
+
+    /**
+     * Given lookups with two leagues, and three rows of which the last plays in a league registered after the export
+     * started
+     * When the roster is exported in batches of two rows
+     * Then the dictionaries hold every lookup name before the first batch, the new league arrives as a delta before
+     * the second batch, and every row decodes to its names and date of birth
+     */
+    @Test
+    void givenLeagueRegisteredDuringExport_whenWritten_thenSeededDictionaryAndDelta() throws Exception {
+        // Given
+        lookups(LookupTable.POSITIONS, "Goalkeeper");
+        lookups(LookupTable.ABBR_POSITIONS, "GK");
+        lookups(LookupTable.TEAMS, "Aston Villa");
+        lookups(LookupTable.LEAGUES, "Premier League", "Ligue 1");
+        Mockito
+                .when(playerLookupsMock.nameOf(LookupTable.LEAGUES, 9))
+                .thenReturn("Eredivisie");
+        rows(
+                row(1, LocalDate.of(1992, 9, 2), 2),
+                row(12, LocalDate.of(1992, 5, 20), 1),
+                row(23, LocalDate.of(1992, 9, 2), 9));
+        PlayersArrowExport export = new PlayersArrowExport(playersExportCursorMock, playerLookupsMock, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // When
+        long written = export.write(out);
+        // Then
+        then(written).isEqualTo(3);
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()),
+                        allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            then(reader.loadNextBatch()).isTrue();
+            then(dictionary(reader, LEAGUES)).containsExactly("Premier League", "Ligue 1");
+            then(root.getRowCount()).isEqualTo(2);
+            then(decoded(reader, root, "league", LEAGUES)).containsExactly("Ligue 1", "Premier League");
+            then(((DateDayVector) root.getVector("dateOfBirth")).get(1))
+                    .isEqualTo((int) LocalDate.of(1992, 5, 20).toEpochDay());
+            then(reader.loadNextBatch()).isTrue();
+            then(dictionary(reader, LEAGUES)).containsExactly("Premier League", "Ligue 1", "Eredivisie");
+            then(root.getRowCount()).isEqualTo(1);
+            then(((IntVector) root.getVector("squadNumber")).get(0)).isEqualTo(23);
+            then(decoded(reader, root, "league", LEAGUES)).containsExactly("Eredivisie");
+            then(decoded(reader, root, "team", 2)).containsExactly("Aston Villa");
+            then(reader.loadNextBatch()).isFalse();
+        }
+    }
+
+    /**
+     * Given an empty roster
+     * When it is exported
+     * Then the stream holds the schema and the seeded dictionaries, and no record batch
+     */
+    @Test
+    void givenEmptyRoster_whenWritten_thenSchemaWithoutBatches() throws Exception {
+        // Given
+        lookups(LookupTable.POSITIONS, "Goalkeeper");
+        lookups(LookupTable.ABBR_POSITIONS, "GK");
+        lookups(LookupTable.TEAMS, "Aston Villa");
+        lookups(LookupTable.LEAGUES, "Premier League");
+        rows();
+        PlayersArrowExport export = new PlayersArrowExport(playersExportCursorMock, playerLookupsMock, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // When
+        long written = export.write(out);
+        // Then
+        then(written).isZero();
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()),
+                        allocator)) {
+            then(reader.getVectorSchemaRoot().getSchema().getFields()).hasSize(11);
+            then(reader.loadNextBatch()).isFalse();
+        }
+    }
+
+    private void lookups(LookupTable table, String... names) {
+        Mockito
+                .when(playerLookupsMock.names(table))
+                .thenReturn(List.of(names));
+        for (int id = 0; id < names.length; id++) {
+            Mockito
+                    .when(playerLookupsMock.idOf(table, names[id]))
+                    .thenReturn(id + 1);
+        }
+    }
+
+    private void rows(PlayersExportCursor.Row... rows) {
+        Mockito
+                .doAnswer(invocation -> {
+                    Consumer<PlayersExportCursor.Row> consumer = invocation.getArgument(0);
+                    List.of(rows).forEach(consumer);
+                    return null;
+                })
+                .when(playersExportCursorMock).forEach(any());
+    }
+
+    private static PlayersExportCursor.Row row(int squadNumber, LocalDate dateOfBirth, int leagueId) {
+        return new PlayersExportCursor.Row("id-" + squadNumber, squadNumber, "First", null, "Last",
+                (int) dateOfBirth.toEpochDay(), 1, 1, 1, leagueId, false);
+    }
+
+    private static List<String> dictionary(ArrowStreamReader reader, long id) throws IOException {
+        VarCharVector values = (VarCharVector) reader.getDictionaryVectors().get(id).getVector();
+        List<String> names = new ArrayList<>();
+        for (int index = 0; index < values.getValueCount(); index++) {
+            names.add(new String(values.get(index), StandardCharsets.UTF_8));
+        }
+        return names;
+    }
+
+    private static List<String> decoded(ArrowStreamReader reader, VectorSchemaRoot root, String column, long id)
+            throws IOException {
+        List<String> names = dictionary(reader, id);
+        IntVector indices = (IntVector) root.getVector(column);
+        List<String> values = new ArrayList<>();
+        for (int row = 0; row < root.getRowCount(); row++) {
+            values.add(names.get(indices.get(row)));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,121 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.services;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersReadModel;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersSnapshot;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersSnapshotFile;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerFakes;
+
+@DisplayName("Snapshots of Read Model")
+@ExtendWith(MockitoExtension.class)
+class PlayersReadModelTests {
+
+    @Mock
+    private PlayersRepository playersRepositoryMock;
+
+    @Mock
+    private PlayersSnapshotFile playersSnapshotFileMock;
+
+    /**
+     * Given the 26-player squad
+     * When a snapshot is built from it
+     * Then every player is found by squad number and by UUID, in roster order, and unknown keys are not
+     */
+    @Test
+    void givenSquad_whenSnapshot_thenLooksUpEveryPlayer() {
+        // Given
+        List<PlayerDTO> squad = PlayerDTOFakes.createAll();
+        // When
+        PlayersSnapshot actual = PlayersSnapshot.of(squad);
+        // Then
+        then(actual.all()).containsExactlyElementsOf(squad);
+        for (PlayerDTO player : squad) {
+            then(actual.bySquadNumber(player.getSquadNumber())).isSameAs(player);
+            then(actual.byId(player.getId())).isSameAs(player);
+        }
+        then(actual.bySquadNumber(99)).isNull();
+        then(actual.byId(UUID.randomUUID())).isNull();
+    }
+
+    /**
+     * Given the read model is enabled and loaded
+     * When players are updated, deleted and created
+     * Then each change publishes a new snapshot and the ones already handed out stay as they were
+     */
+    @Test
+    void givenLoadedReadModel_whenPlayersChange_thenPublishesNewSnapshots() {
+        // Given
+        Mockito
+                .when(playersRepositoryMock.findAll())
+                .thenReturn(PlayerFakes.createAll());
+        PlayersReadModel readModel = new PlayersReadModel(playersRepositoryMock, new ModelMapper(),
+                playersSnapshotFileMock, true);
+        PlayersSnapshot before = readModel.snapshot();
+        PlayerDTO goalkeeper = PlayerDTOFakes.createOneUpdated();
+        UUID goalkeeperId = goalkeeper.getId();
+        goalkeeper.setId(null); // PUT bodies carry no id
+        UUID romeroId = before.bySquadNumber(13).getId();
+        PlayerDTO newcomer = PlayerDTOFakes.createOneValid();
+        newcomer.setId(UUID.randomUUID());
+        // When
+        readModel.onPlayerChanged(PlayerChangedEvent.updated(goalkeeperId, goalkeeper, 2));
+        readModel.onPlayerChanged(PlayerChangedEvent.deleted(romeroId, 13, 3));
+        readModel.onPlayerChanged(PlayerChangedEvent.created(newcomer, 4));
+        PlayersSnapshot after = readModel.snapshot();
+        // Then
+        verify(playersRepositoryMock, times(1)).findAll();
+        verify(playersSnapshotFileMock, times(1)).scheduleWrite();
+        then(before.size()).isEqualTo(26);
+        then(before.bySquadNumber(13)).isNotNull();
+        then(after.size()).isEqualTo(26);
+        then(after.bySquadNumber(13)).isNull();
+        then(after.byId(romeroId)).isNull();
+        then(after.bySquadNumber(23).getId()).isEqualTo(goalkeeperId);
+        then(after.bySquadNumber(23).getFirstName()).isEqualTo(goalkeeper.getFirstName());
+        then(after.all().indexOf(after.bySquadNumber(23))).isEqualTo(before.all().indexOf(before.bySquadNumber(23)));
+        then(after.byId(newcomer.getId())).isSameAs(newcomer);
+        then(after.all().get(after.size() - 1)).isSameAs(newcomer);
+    }
+
+    /**
+     * Given a snapshot file written at the database's current roster version
+     * When the read model loads
+     * Then the roster comes from the file and the database is not read
+     */
+    @Test
+    void givenMatchingSnapshotFile_whenLoaded_thenSkipsDatabase() {
+        // Given
+        List<PlayerDTO> squad = PlayerDTOFakes.createAll();
+        Mockito
+                .when(playersSnapshotFileMock.read())
+                .thenReturn(Optional.of(squad));
+        PlayersReadModel readModel = new PlayersReadModel(playersRepositoryMock, new ModelMapper(),
+                playersSnapshotFileMock, true);
+        // When
+        PlayersSnapshot actual = readModel.snapshot();
+        // Then
+        verify(playersRepositoryMock, never()).findAll();
+        verify(playersSnapshotFileMock, never()).scheduleWrite();
+        then(actual.all()).containsExactlyElementsOf(squad);
+    }
+}
@@ -1,13 +1,16 @@
 package ar.com.nanotaboada.java.samples.spring.boot.test.services;
 
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.jupiter.api.DisplayName;
@@ -16,14 +19,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 
+import ar.com.nanotaboada.java.samples.spring.boot.datasources.LeagueShards;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChange;
+import ar.com.nanotaboada.java.samples.spring.boot.events.PlayerChangedEvent;
+import ar.com.nanotaboada.java.samples.spring.boot.indexes.PlayerKeyFilter;
 import ar.com.nanotaboada.java.samples.spring.boot.models.Player;
 import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerFilter;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerTombstone;
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayersSyncDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerLogApplier;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayerTombstonesRepository;
 import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersReadModel;
 import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersService;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersSnapshot;
 import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
 import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerFakes;
 
@@ -34,9 +54,30 @@ class PlayersServiceTests {
     @Mock
     private PlayersRepository playersRepositoryMock;
 
+    @Mock
+    private PlayerTombstonesRepository playerTombstonesRepositoryMock;
+
     @Mock
     private ModelMapper modelMapperMock;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    @Mock
+    private CacheManager cacheManagerMock;
+
+    @Mock
+    private PlayersReadModel playersReadModelMock;
+
+    @Mock
+    private PlayerKeyFilter playerKeyFilterMock;
+
+    @Mock
+    private PlayerLogApplier playerLogApplierMock;
+
+    @Spy
+    private LeagueShards leagueShardsSpy = LeagueShards.single();
+
     @InjectMocks
     private PlayersService playersService;
 
@@ -62,6 +103,9 @@ class PlayersServiceTests {
         Mockito
                 .when(modelMapperMock.map(expected, Player.class))
                 .thenReturn(entity);
+        Mockito
+                .when(playersRepositoryMock.nextRosterVersion())
+                .thenReturn(7L);
         Mockito
                 .when(playersRepositoryMock.save(any(Player.class)))
                 .thenReturn(entity);
@@ -75,6 +119,7 @@ class PlayersServiceTests {
         verify(playersRepositoryMock, times(1)).save(any(Player.class));
         verify(modelMapperMock, times(1)).map(expected, Player.class);
         verify(modelMapperMock, times(1)).map(entity, PlayerDTO.class);
+        verify(eventPublisherMock, times(1)).publishEvent(PlayerChangedEvent.created(expected, 7));
         then(actual).isEqualTo(expected);
     }
 
@@ -100,6 +145,27 @@ class PlayersServiceTests {
         // Then
         verify(playersRepositoryMock, times(1)).findBySquadNumber(dto.getSquadNumber());
         verify(playersRepositoryMock, never()).save(any(Player.class));
+        verify(eventPublisherMock, never()).publishEvent(any(Object.class));
+        then(actual).isNull();
+    }
+
+    /**
+     * Given the key filter knows the squad number is taken
+     * When create() is called
+     * Then null is returned without querying the repository
+     */
+    @Test
+    void givenSquadNumberInKeyFilter_whenCreate_thenReturnsNullWithoutQuery() {
+        // Given
+        PlayerDTO dto = PlayerDTOFakes.createOneValid();
+        Mockito
+                .when(playerKeyFilterMock.containsSquadNumber(dto.getSquadNumber()))
+                .thenReturn(true);
+        // When
+        PlayerDTO actual = playersService.create(dto);
+        // Then
+        verify(playersRepositoryMock, never()).findBySquadNumber(any());
+        verify(playersRepositoryMock, never()).save(any(Player.class));
         then(actual).isNull();
     }
 
@@ -127,6 +193,7 @@ class PlayersServiceTests {
         // Then
         verify(playersRepositoryMock, times(1)).findBySquadNumber(dto.getSquadNumber());
         verify(playersRepositoryMock, times(1)).save(any(Player.class));
+        verify(eventPublisherMock, never()).publishEvent(any(Object.class));
         then(actual).isNull();
     }
 
@@ -161,6 +228,81 @@ class PlayersServiceTests {
         then(actual).usingRecursiveComparison().isEqualTo(dtos);
     }
 
+    /**
+     * Given one player updated and one player deleted after the client's version
+     * When retrieveChangedSince() is called with that version
+     * Then both changes are returned with the current roster version
+     */
+    @Test
+    void givenChangesAfterVersion_whenRetrieveChangedSince_thenReturnsChangesAndCurrentVersion() {
+        // Given
+        Player updated = PlayerFakes.createOneUpdated();
+        PlayerDTO updatedDTO = PlayerDTOFakes.createOneUpdated();
+        PlayerTombstone tombstone = new PlayerTombstone(UUID.randomUUID(), 27, 3L);
+        Mockito
+                .when(playersRepositoryMock.findRosterVersion())
+                .thenReturn(3L);
+        Mockito
+                .when(playersRepositoryMock.findByVersionGreaterThanOrderByVersion(1L))
+                .thenReturn(List.of(updated));
+        Mockito
+                .when(playerTombstonesRepositoryMock.findByVersionGreaterThanOrderByVersion(1L))
+                .thenReturn(List.of(tombstone));
+        Mockito
+                .when(modelMapperMock.map(updated, PlayerDTO.class))
+                .thenReturn(updatedDTO);
+        // When
+        PlayersSyncDTO actual = playersService.retrieveChangedSince(1L);
+        // Then
+        then(actual.getVersion()).isEqualTo(3L);
+        then(actual.isReset()).isFalse();
+        then(actual.getPlayers()).containsExactly(updatedDTO);
+        then(actual.getDeleted()).containsExactly(new PlayersSyncDTO.Deleted(tombstone.getId(), 27));
+    }
+
+    /**
+     * Given a client version newer than the current roster version (e.g. kept across a database reset)
+     * When retrieveChangedSince() is called with it
+     * Then the whole roster is returned, without deletions and flagged as a reset
+     */
+    @Test
+    void givenVersionAheadOfRoster_whenRetrieveChangedSince_thenReturnsFullRoster() {
+        // Given
+        Mockito
+                .when(playersRepositoryMock.findRosterVersion())
+                .thenReturn(1L);
+        Mockito
+                .when(playersRepositoryMock.findByVersionGreaterThanOrderByVersion(0L))
+                .thenReturn(List.of());
+        // When
+        PlayersSyncDTO actual = playersService.retrieveChangedSince(42L);
+        // Then
+        verify(playersRepositoryMock, times(1)).findByVersionGreaterThanOrderByVersion(0L);
+        verify(playerTombstonesRepositoryMock, never()).findByVersionGreaterThanOrderByVersion(any());
+        then(actual.getVersion()).isEqualTo(1L);
+        then(actual.isReset()).isTrue();
+        then(actual.getDeleted()).isEmpty();
+    }
+
+    /**
+     * Given the roster spread over league shards, each with its own roster version
+     * When retrieveChangedSince() is called
+     * Then null is returned without reading any version
+     */
+    @Test
+    void givenLeagueShards_whenRetrieveChangedSince_thenReturnsNull() {
+        // Given
+        Mockito
+                .doReturn(true)
+                .when(leagueShardsSpy).isPartitioned();
+        // When
+        PlayersSyncDTO actual = playersService.retrieveChangedSince(1L);
+        // Then
+        verify(playersRepositoryMock, never()).findRosterVersion();
+        verify(playersRepositoryMock, never()).findByVersionGreaterThanOrderByVersion(any());
+        then(actual).isNull();
+    }
+
     /**
      * Given a player exists with a specific UUID
      * When retrieving that player by UUID
@@ -238,6 +380,33 @@ class PlayersServiceTests {
         then(actual.getSquadNumber()).isEqualTo(squadNumber);
     }
 
+    /**
+     * Given the key filter knows no player has a squad number
+     * When retrieving by that squad number, alone and in a batch with a cached player
+     * Then null is returned for it without querying the repository
+     */
+    @Test
+    void givenSquadNumberExcludedByKeyFilter_whenRetrieve_thenReturnsNullWithoutQuery() {
+        // Given
+        Cache cache = new ConcurrentMapCache("players");
+        PlayerDTO cached = findDTO(10);
+        cache.put("squad-10", cached);
+        Mockito
+                .when(cacheManagerMock.getCache("players"))
+                .thenReturn(cache);
+        Mockito
+                .when(playerKeyFilterMock.excludesSquadNumber(99))
+                .thenReturn(true);
+        // When
+        PlayerDTO single = playersService.retrieveBySquadNumber(99);
+        List<PlayerDTO> batch = playersService.retrieveBySquadNumbers(List.of(99, 10));
+        // Then
+        verify(playersRepositoryMock, never()).findBySquadNumber(any());
+        verify(playersRepositoryMock, never()).findBySquadNumberIn(any());
+        then(single).isNull();
+        then(batch).containsExactly(cached);
+    }
+
     /**
      * Given no player exists with a specific squad number
      * When retrieving by that squad number
@@ -258,6 +427,131 @@ class PlayersServiceTests {
         then(actual).isNull();
     }
 
+    /**
+     * Given a sparse fieldset
+     * When retrieving all players with it
+     * Then the projection query is used and no entity is mapped
+     */
+    @Test
+    void givenFields_whenRetrieveAll_thenReturnsProjectedRows() {
+        // Given
+        List<String> fields = List.of("squadNumber", "lastName");
+        List<Map<String, Object>> expected = List.of(Map.of("squadNumber", 10, "lastName", "Messi"));
+        Mockito
+                .when(playersRepositoryMock.findAllProjected(fields))
+                .thenReturn(expected);
+        // When
+        List<Map<String, Object>> actual = playersService.retrieveAll(fields);
+        // Then
+        verify(playersRepositoryMock, times(1)).findAllProjected(fields);
+        verify(playersRepositoryMock, never()).findAll();
+        verify(modelMapperMock, never()).map(any(), any());
+        then(actual).isEqualTo(expected);
+    }
+
+    /**
+     * Given no player has a specific squad number
+     * When retrieving a sparse fieldset of that player
+     * Then null is returned
+     */
+    @Test
+    void givenUnknownPlayer_whenRetrieveBySquadNumberWithFields_thenReturnsNull() {
+        // Given
+        List<String> fields = List.of("lastName");
+        Mockito
+                .when(playersRepositoryMock.findProjectedBySquadNumber(999, fields))
+                .thenReturn(Optional.empty());
+        // When
+        Map<String, Object> actual = playersService.retrieveBySquadNumber(999, fields);
+        // Then
+        verify(playersRepositoryMock, times(1)).findProjectedBySquadNumber(999, fields);
+        then(actual).isNull();
+    }
+
+    /**
+     * Given one requested squad number is cached and two are not
+     * When retrieving them in one call
+     * Then only the misses are loaded, in a single query, and the result follows request order
+     */
+    @Test
+    void givenSomeSquadNumbersCached_whenRetrieveBySquadNumbers_thenLoadsOnlyMissesInRequestOrder() {
+        // Given
+        Cache cache = new ConcurrentMapCache("players");
+        PlayerDTO cached = findDTO(10);
+        cache.put("squad-10", cached);
+        Player entity23 = findEntity(23);
+        Player entity1 = findEntity(1);
+        PlayerDTO dto23 = findDTO(23);
+        PlayerDTO dto1 = findDTO(1);
+        Mockito
+                .when(cacheManagerMock.getCache("players"))
+                .thenReturn(cache);
+        Mockito
+                .when(playersRepositoryMock.findBySquadNumberIn(Set.of(23, 99, 1)))
+                .thenReturn(List.of(entity1, entity23));
+        Mockito
+                .when(modelMapperMock.map(entity23, PlayerDTO.class))
+                .thenReturn(dto23);
+        Mockito
+                .when(modelMapperMock.map(entity1, PlayerDTO.class))
+                .thenReturn(dto1);
+        // When
+        List<PlayerDTO> actual = playersService.retrieveBySquadNumbers(List.of(23, 10, 99, 1, 10));
+        // Then
+        verify(playersRepositoryMock, times(1)).findBySquadNumberIn(Set.of(23, 99, 1));
+        then(actual).containsExactly(dto23, cached, dto1);
+        then(cache.get("squad-23", PlayerDTO.class)).isEqualTo(dto23);
+        then(cache.get(dto1.getId(), PlayerDTO.class)).isEqualTo(dto1);
+    }
+
+    /**
+     * Given every requested UUID is cached
+     * When retrieving them in one call
+     * Then the repository is not queried
+     */
+    @Test
+    void givenAllIdsCached_whenRetrieveByIds_thenDoesNotQueryRepository() {
+        // Given
+        Cache cache = new ConcurrentMapCache("players");
+        PlayerDTO first = findDTO(10);
+        PlayerDTO second = findDTO(23);
+        cache.put(first.getId(), first);
+        cache.put(second.getId(), second);
+        Mockito
+                .when(cacheManagerMock.getCache("players"))
+                .thenReturn(cache);
+        // When
+        List<PlayerDTO> actual = playersService.retrieveByIds(List.of(second.getId(), first.getId()));
+        // Then
+        verify(playersRepositoryMock, never()).findAllById(any());
+        then(actual).containsExactly(second, first);
+    }
+
+    /**
+     * Given the read model is enabled
+     * When retrieving players by squad number, one by one and in one call
+     * Then every answer comes from the snapshot, without touching the cache or the repository
+     */
+    @Test
+    void givenReadModelEnabled_whenRetrieveBySquadNumbers_thenAnswersFromSnapshot() {
+        // Given
+        Mockito
+                .when(playersReadModelMock.isEnabled())
+                .thenReturn(true);
+        Mockito
+                .when(playersReadModelMock.snapshot())
+                .thenReturn(PlayersSnapshot.of(PlayerDTOFakes.createAll()));
+        // When
+        PlayerDTO single = playersService.retrieveBySquadNumber(10);
+        List<PlayerDTO> actual = playersService.retrieveBySquadNumbers(List.of(23, 99, 10, 23));
+        // Then
+        verify(cacheManagerMock, never()).getCache(any());
+        verify(playersRepositoryMock, never()).findBySquadNumber(any());
+        verify(playersRepositoryMock, never()).findBySquadNumberIn(any());
+        then(single.getSquadNumber()).isEqualTo(10);
+        then(actual).extracting(PlayerDTO::getSquadNumber).containsExactly(23, 10);
+    }
+
     /*
      * -----------------------------------------------------------------------------------------------------------------------
      * Search
@@ -317,6 +611,37 @@ class PlayersServiceTests {
         then(actual).isEmpty();
     }
 
+    /**
+     * Given players match a filter
+     * When filtering and counting with it
+     * Then the page comes from the filter query and the total from the count query
+     */
+    @Test
+    void givenMatchingPlayers_whenFilterAndCount_thenReturnsPageAndTotal() {
+        // Given
+        PlayerFilter filter = new PlayerFilter("SL Benfica", null, null, null, null, null, null);
+        Sort sort = Sort.by("squadNumber");
+        Player entity = findEntity(24);
+        PlayerDTO expected = findDTO(24);
+        Mockito
+                .when(playersRepositoryMock.findMatching(filter, sort, 0, 1))
+                .thenReturn(List.of(entity));
+        Mockito
+                .when(playersRepositoryMock.countMatching(filter))
+                .thenReturn(3L);
+        Mockito
+                .when(modelMapperMock.map(entity, PlayerDTO.class))
+                .thenReturn(expected);
+        // When
+        List<PlayerDTO> actual = playersService.filter(filter, sort, 0, 1);
+        long total = playersService.count(filter);
+        // Then
+        verify(playersRepositoryMock, times(1)).findMatching(filter, sort, 0, 1);
+        verify(playersRepositoryMock, times(1)).countMatching(filter);
+        then(actual).containsExactly(expected);
+        then(total).isEqualTo(3L);
+    }
+
     /*
      * -----------------------------------------------------------------------------------------------------------------------
      * Update
@@ -340,12 +665,16 @@ class PlayersServiceTests {
         Mockito
                 .when(modelMapperMock.map(dto, Player.class))
                 .thenReturn(entity);
+        Mockito
+                .when(playersRepositoryMock.nextRosterVersion())
+                .thenReturn(7L);
         // When
         boolean actual = playersService.update(squadNumber, dto);
         // Then
         verify(playersRepositoryMock, times(1)).findBySquadNumber(squadNumber);
         verify(playersRepositoryMock, times(1)).save(any(Player.class));
         verify(modelMapperMock, times(1)).map(dto, Player.class);
+        verify(eventPublisherMock, times(1)).publishEvent(PlayerChangedEvent.updated(entity.getId(), dto, 7));
         then(actual).isTrue();
     }
 
@@ -368,6 +697,7 @@ class PlayersServiceTests {
         verify(playersRepositoryMock, times(1)).findBySquadNumber(squadNumber);
         verify(playersRepositoryMock, never()).save(any(Player.class));
         verify(modelMapperMock, never()).map(dto, Player.class);
+        verify(eventPublisherMock, never()).publishEvent(any(Object.class));
         then(actual).isFalse();
     }
 
@@ -408,11 +738,17 @@ class PlayersServiceTests {
         Mockito
                 .when(playersRepositoryMock.findBySquadNumber(squadNumber))
                 .thenReturn(Optional.of(entity));
+        Mockito
+                .when(playersRepositoryMock.nextRosterVersion())
+                .thenReturn(7L);
         // When
         boolean actual = playersService.deleteBySquadNumber(squadNumber);
         // Then
         verify(playersRepositoryMock, times(1)).findBySquadNumber(squadNumber);
         verify(playersRepositoryMock, times(1)).delete(entity);
+        verify(playerTombstonesRepositoryMock, times(1)).save(any(PlayerTombstone.class));
+        verify(eventPublisherMock, times(1))
+                .publishEvent(PlayerChangedEvent.deleted(entity.getId(), squadNumber, 7));
         then(actual).isTrue();
     }
 
@@ -450,4 +786,68 @@ class PlayersServiceTests {
         verify(playersRepositoryMock, never()).deleteById(any());
         then(actual).isFalse();
     }
+
+    /*
+     * -----------------------------------------------------------------------------------------------------------------------
+     * Replicate
+     * -----------------------------------------------------------------------------------------------------------------------
+     */
+
+    /**
+     * Given a follower at roster version 5
+     * When the writer's change 6 is replicated
+     * Then it is applied and published, and true is returned
+     */
+    @Test
+    void givenNextChange_whenReplicate_thenAppliesAndPublishes() {
+        // Given
+        PlayerDTO player = findDTO(10);
+        PlayerChange change = new PlayerChange(6, PlayerChangedEvent.Type.UPDATED, player.getId(), 10, player);
+        Mockito
+                .when(playersRepositoryMock.findRosterVersion())
+                .thenReturn(5L);
+        // When
+        boolean actual = playersService.replicate(change);
+        // Then
+        verify(playerLogApplierMock, times(1)).apply(change);
+        verify(eventPublisherMock, times(1)).publishEvent(PlayerChangedEvent.updated(player.getId(), player, 6));
+        then(actual).isTrue();
+    }
+
+    /**
+     * Given a follower at roster version 6
+     * When change 6 is replicated again, and then change 8
+     * Then the first is skipped without writing and the second, which leaves a gap, is rejected
+     */
+    @Test
+    void givenAppliedOrMissingChanges_whenReplicate_thenSkipsOrRejects() {
+        // Given
+        UUID id = UUID.randomUUID();
+        PlayerChange applied = new PlayerChange(6, PlayerChangedEvent.Type.DELETED, id, 27, null);
+        PlayerChange ahead = new PlayerChange(8, PlayerChangedEvent.Type.DELETED, id, 27, null);
+        Mockito
+                .when(playersRepositoryMock.findRosterVersion())
+                .thenReturn(6L);
+        // When
+        boolean actual = playersService.replicate(applied);
+        // Then
+        then(actual).isFalse();
+        thenThrownBy(() -> playersService.replicate(ahead)).isInstanceOf(IllegalStateException.class);
+        verify(playerLogApplierMock, never()).apply(any());
+        verify(eventPublisherMock, never()).publishEvent(any(Object.class));
+    }
+
+    private static Player findEntity(Integer squadNumber) {
+        return PlayerFakes.createAll().stream()
+                .filter(player -> squadNumber.equals(player.getSquadNumber()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static PlayerDTO findDTO(Integer squadNumber) {
+        return PlayerDTOFakes.createAll().stream()
+                .filter(player -> squadNumber.equals(player.getSquadNumber()))
+                .findFirst()
+                .orElseThrow();
+    }
 }
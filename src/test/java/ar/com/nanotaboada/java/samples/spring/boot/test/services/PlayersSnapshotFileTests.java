@@ -0,0 +1,114 @@
+package ar.com.nanotaboada.java.samples.spring.boot.test.services;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ar.com.nanotaboada.java.samples.spring.boot.models.PlayerDTO;
+import ar.com.nanotaboada.java.samples.spring.boot.repositories.PlayersRepository;
+import ar.com.nanotaboada.java.samples.spring.boot.services.PlayersSnapshotFile;
+import ar.com.nanotaboada.java.samples.spring.boot.test.PlayerDTOFakes;
+
+@DisplayName("Memory-Mapped Roster Snapshot File")
+@ExtendWith(MockitoExtension.class)
+class PlayersSnapshotFileTests {
+
+    @Mock
+    private PlayersRepository playersRepositoryMock;
+
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    @TempDir
+    private Path storage;
+
+    /**
+     * Given the squad written to the snapshot file at roster version 7
+     * When the file is read while the database is still at version 7
+     * Then the mapped file decodes to the same players, in the same order
+     */
+    @Test
+    void givenFileAtCurrentVersion_whenRead_thenDecodesRoster() throws IOException {
+        // Given
+        List<PlayerDTO> squad = PlayerDTOFakes.createAll();
+        PlayersSnapshotFile snapshotFile = snapshotFile(storage.resolve("roster.snapshot"));
+        snapshotFile.write(7, squad);
+        Mockito
+                .when(playersRepositoryMock.findRosterVersion())
+                .thenReturn(7L);
+        // When
+        Optional<List<PlayerDTO>> actual = snapshotFile.read();
+        // Then
+        then(actual).isPresent();
+        then(actual.get()).containsExactlyElementsOf(squad);
+        then(storage.resolve("roster.snapshot.tmp")).doesNotExist();
+    }
+
+    /**
+     * Given a snapshot file written at roster version 7
+     * When the database has moved on to version 8, or the file is truncated
+     * Then the file is not used
+     */
+    @Test
+    void givenStaleOrTruncatedFile_whenRead_thenEmpty() throws IOException {
+        // Given
+        Path path = storage.resolve("roster.snapshot");
+        PlayersSnapshotFile snapshotFile = snapshotFile(path);
+        snapshotFile.write(7, PlayerDTOFakes.createAll());
+        Mockito
+                .when(playersRepositoryMock.findRosterVersion())
+                .thenReturn(8L, 7L);
+        // When
+        Optional<List<PlayerDTO>> stale = snapshotFile.read();
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 10));
+        Optional<List<PlayerDTO>> truncated = snapshotFile.read();
+        // Then
+        then(stale).isEmpty();
+        then(truncated).isEmpty();
+    }
+
+    /**
+     * Given a roster read from the snapshot file
+     * When the file is rewritten with another roster and then deleted
+     * Then the players already read are unchanged, since they were decoded before the file was unmapped
+     */
+    @Test
+    void givenRosterRead_whenFileReplacedAndDeleted_thenPlayersUnchanged() throws IOException {
+        // Given
+        List<PlayerDTO> squad = PlayerDTOFakes.createAll();
+        Path path = storage.resolve("roster.snapshot");
+        PlayersSnapshotFile snapshotFile = snapshotFile(path);
+        snapshotFile.write(7, squad);
+        Mockito
+                .when(playersRepositoryMock.findRosterVersion())
+                .thenReturn(7L);
+        List<PlayerDTO> read = snapshotFile.read().orElseThrow();
+        // When
+        snapshotFile.write(8, squad.subList(0, 1));
+        Files.delete(path);
+        // Then
+        then(read).containsExactlyElementsOf(squad);
+    }
+
+    private PlayersSnapshotFile snapshotFile(Path path) {
+        return new PlayersSnapshotFile(playersRepositoryMock, new ModelMapper(), transactionManagerMock, true,
+                path.toString(), Duration.ofSeconds(2));
+    }
+}
@@ -3,6 +3,34 @@
 -- Matches production schema exactly (compatibility guaranteed)
 
 DROP TABLE IF EXISTS players;
+DROP TABLE IF EXISTS player_tombstones;
+DROP TABLE IF EXISTS roster_version;
+DROP TABLE IF EXISTS player_log;
+DROP TABLE IF EXISTS player_outbox;
+DROP TABLE IF EXISTS positions;
+DROP TABLE IF EXISTS abbr_positions;
+DROP TABLE IF EXISTS teams;
+DROP TABLE IF EXISTS leagues;
+
+CREATE TABLE positions (
+    id          INTEGER      NOT NULL PRIMARY KEY,
+    name        TEXT         NOT NULL UNIQUE
+);
+
+CREATE TABLE abbr_positions (
+    id          INTEGER      NOT NULL PRIMARY KEY,
+    name        TEXT         NOT NULL UNIQUE
+);
+
+CREATE TABLE teams (
+    id          INTEGER      NOT NULL PRIMARY KEY,
+    name        TEXT         NOT NULL UNIQUE
+);
+
+CREATE TABLE leagues (
+    id          INTEGER      NOT NULL PRIMARY KEY,
+    name        TEXT         NOT NULL UNIQUE
+);
 
 CREATE TABLE players (
     id          VARCHAR(36)  NOT NULL PRIMARY KEY,
@@ -11,9 +39,62 @@ CREATE TABLE players (
     middleName  TEXT,
     lastName    TEXT         NOT NULL,
     dateOfBirth TEXT         NOT NULL,
-    position    TEXT         NOT NULL,
-    abbrPosition TEXT        NOT NULL,
-    team        TEXT         NOT NULL,
-    league      TEXT         NOT NULL,
-    starting11  BOOLEAN      NOT NULL
+    positionId  INTEGER      NOT NULL REFERENCES positions (id),
+    abbrPositionId INTEGER   NOT NULL REFERENCES abbr_positions (id),
+    teamId      INTEGER      NOT NULL REFERENCES teams (id),
+    leagueId    INTEGER      NOT NULL REFERENCES leagues (id),
+    starting11  BOOLEAN      NOT NULL,
+    version     BIGINT       NOT NULL DEFAULT 1
+);
+
+CREATE INDEX idx_players_version ON players (version);
+CREATE INDEX idx_players_team_position ON players (teamId, positionId);
+CREATE INDEX idx_players_position ON players (positionId);
+CREATE INDEX idx_players_abbrposition_starting11 ON players (abbrPositionId, starting11);
+CREATE INDEX idx_players_league_starting11 ON players (leagueId, starting11);
+CREATE INDEX idx_players_dateofbirth ON players (dateOfBirth);
+
+CREATE TABLE player_tombstones (
+    id          VARCHAR(36)  NOT NULL PRIMARY KEY,
+    squadNumber INTEGER      NOT NULL,
+    version     BIGINT       NOT NULL
+);
+
+CREATE INDEX idx_player_tombstones_version ON player_tombstones (version);
+
+CREATE TABLE roster_version (
+    id          INTEGER      NOT NULL PRIMARY KEY,
+    version     BIGINT       NOT NULL
+);
+
+CREATE TABLE player_log (
+    sequence     BIGINT       NOT NULL PRIMARY KEY,
+    type         TEXT         NOT NULL,
+    playerId     VARCHAR(36)  NOT NULL,
+    squadNumber  INTEGER      NOT NULL,
+    firstName    TEXT,
+    middleName   TEXT,
+    lastName     TEXT,
+    dateOfBirth  TEXT,
+    position     TEXT,
+    abbrPosition TEXT,
+    team         TEXT,
+    league       TEXT,
+    starting11   BOOLEAN
+);
+
+CREATE TABLE player_outbox (
+    sequence     BIGINT       NOT NULL PRIMARY KEY,
+    type         TEXT         NOT NULL,
+    playerId     VARCHAR(36)  NOT NULL,
+    squadNumber  INTEGER      NOT NULL,
+    firstName    TEXT,
+    middleName   TEXT,
+    lastName     TEXT,
+    dateOfBirth  TEXT,
+    position     TEXT,
+    abbrPosition TEXT,
+    team         TEXT,
+    league       TEXT,
+    starting11   BOOLEAN
 );
@@ -2,9 +2,24 @@
 -- Contains all 26 players from the 2022 FIFA World Cup Argentina squad
 -- Giovani Lo Celso (squadNumber 27) will be created and deleted during tests
 -- Damián Emiliano Martínez (squadNumber 23) will be updated during tests
+-- Rows are written by name into a temporary table, then moved into players with lookup ids (as in V7)
+
+CREATE TEMPORARY TABLE players_seed (
+    id          VARCHAR(36)  NOT NULL PRIMARY KEY,
+    squadNumber INTEGER      NOT NULL UNIQUE,
+    firstName   TEXT         NOT NULL,
+    middleName  TEXT,
+    lastName    TEXT         NOT NULL,
+    dateOfBirth TEXT         NOT NULL,
+    position    TEXT         NOT NULL,
+    abbrPosition TEXT        NOT NULL,
+    team        TEXT         NOT NULL,
+    league      TEXT         NOT NULL,
+    starting11  BOOLEAN      NOT NULL
+);
 
 -- Starting 11 (id is PRIMARY KEY, squadNumber is UNIQUE)
-INSERT INTO players (id, squadNumber, firstName, middleName, lastName, dateOfBirth, position, abbrPosition, team, league, starting11) VALUES
+INSERT INTO players_seed (id, squadNumber, firstName, middleName, lastName, dateOfBirth, position, abbrPosition, team, league, starting11) VALUES
 ('01772c59-43f0-5d85-b913-c78e4e281452', 23, 'Damián', 'Emiliano', 'Martínez', '1992-09-02T00:00:00.000Z', 'Goalkeeper', 'GK', 'Aston Villa FC', 'Premier League', 1),
 ('da31293b-4c7e-5e0f-a168-469ee29ecbc4', 26, 'Nahuel', NULL, 'Molina', '1998-04-06T00:00:00.000Z', 'Right-Back', 'RB', 'Atlético Madrid', 'La Liga', 1),
 ('c096c69e-762b-5281-9290-bb9c167a24a0', 13, 'Cristian', 'Gabriel', 'Romero', '1998-04-27T00:00:00.000Z', 'Centre-Back', 'CB', 'Tottenham Hotspur', 'Premier League', 1),
@@ -18,7 +33,7 @@ INSERT INTO players (id, squadNumber, firstName, middleName, lastName, dateOfBir
 ('38bae91d-8519-55a2-b30a-b9fe38849bfb',  9, 'Julián', NULL, 'Álvarez', '2000-01-31T00:00:00.000Z', 'Centre-Forward', 'CF', 'Manchester City', 'Premier League', 1);
 
 -- Substitutes
-INSERT INTO players (id, squadNumber, firstName, middleName, lastName, dateOfBirth, position, abbrPosition, team, league, starting11) VALUES
+INSERT INTO players_seed (id, squadNumber, firstName, middleName, lastName, dateOfBirth, position, abbrPosition, team, league, starting11) VALUES
 ('5a9cd988-95e6-54c1-bc34-9aa08acca8d0',  1, 'Franco', 'Daniel', 'Armani', '1986-10-16T00:00:00.000Z', 'Goalkeeper', 'GK', 'River Plate', 'Copa de la Liga', 0),
 ('5fdb10e8-38c0-5084-9a3f-b369a960b9c2',  2, 'Juan', 'Marcos', 'Foyth', '1998-01-12T00:00:00.000Z', 'Right-Back', 'RB', 'Villarreal', 'La Liga', 0),
 ('bbd441f7-fcfb-5834-8468-2a9004b64c8c',  4, 'Gonzalo', 'Ariel', 'Montiel', '1997-01-01T00:00:00.000Z', 'Right-Back', 'RB', 'Nottingham Forest', 'Premier League', 0),
@@ -34,3 +49,27 @@ INSERT INTO players (id, squadNumber, firstName, middleName, lastName, dateOfBir
 ('7941cd7c-4df1-5952-97e8-1e7f5d08e8aa', 21, 'Paulo', 'Exequiel', 'Dybala', '1993-11-15T00:00:00.000Z', 'Second Striker', 'SS', 'AS Roma', 'Serie A', 0),
 ('79c96f29-c59f-5f98-96b8-3a5946246624', 22, 'Lautaro', 'Javier', 'Martínez', '1997-08-22T00:00:00.000Z', 'Centre-Forward', 'CF', 'Inter Milan', 'Serie A', 0),
 ('98306555-a466-5d18-804e-dc82175e697b', 25, 'Lisandro', NULL, 'Martínez', '1998-01-18T00:00:00.000Z', 'Centre-Back', 'CB', 'Manchester United', 'Premier League', 0);
+
+-- Lookup tables, ids in name order
+INSERT INTO positions (id, name)
+SELECT ROW_NUMBER() OVER (ORDER BY position), position FROM (SELECT DISTINCT position FROM players_seed);
+INSERT INTO abbr_positions (id, name)
+SELECT ROW_NUMBER() OVER (ORDER BY abbrPosition), abbrPosition FROM (SELECT DISTINCT abbrPosition FROM players_seed);
+INSERT INTO teams (id, name)
+SELECT ROW_NUMBER() OVER (ORDER BY team), team FROM (SELECT DISTINCT team FROM players_seed);
+INSERT INTO leagues (id, name)
+SELECT ROW_NUMBER() OVER (ORDER BY league), league FROM (SELECT DISTINCT league FROM players_seed);
+
+INSERT INTO players (id, squadNumber, firstName, middleName, lastName, dateOfBirth, positionId, abbrPositionId, teamId, leagueId, starting11)
+SELECT s.id, s.squadNumber, s.firstName, s.middleName, s.lastName, s.dateOfBirth, pos.id, abbr.id, t.id, l.id, s.starting11
+FROM players_seed s
+JOIN positions pos ON pos.name = s.position
+JOIN abbr_positions abbr ON abbr.name = s.abbrPosition
+JOIN teams t ON t.name = s.team
+JOIN leagues l ON l.name = s.league
+ORDER BY s.rowid;
+
+DROP TABLE players_seed;
+
+-- Roster version (every seeded player is at version 1)
+INSERT INTO roster_version (id, version) VALUES (1, 1);